@@ -0,0 +1,109 @@
+package com.nautilux.benchmarks;
+
+import com.nautilux.alerting.AlertRules;
+import com.nautilux.alerting.SensorRuleEngine;
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.model.CoralReef;
+import com.nautilux.service.SensorAggregate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * In-memory halves of the metrics and alerting paths: merging rollup rows the way
+ * getMetrics does over a 30 day (720 hourly rows) or one year range, severity of
+ * every reef as the alert index computes it, and the streaming sensor rule engine
+ * with the default thresholds from application.yml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AggregationBenchmark {
+
+    private static final AlertRules DEFAULT_RULES = new AlertRules(31.0, 18.0, 30.0, 1.0, 28.5, 4.0,
+        30.0, 40.0, 7.8, 8.5, 4.0, 10.0);
+
+    @State(Scope.Benchmark)
+    public static class Rollups {
+        @Param({"720", "8760"})
+        int rows;
+
+        List<Object[]> data;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            data = Datasets.aggregateRows(rows, Datasets.DEFAULT_SEED);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reefs {
+        @Param({"SMALL", "MEDIUM", "LARGE"})
+        Datasets.Scale scale;
+
+        List<CoralReef> reefs;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            reefs = Datasets.reefs(scale, Datasets.DEFAULT_SEED);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Readings {
+        @Param({"SMALL"})
+        Datasets.Scale scale;
+
+        Datasets.SensorSeries series;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            series = Datasets.sensorSeries(scale, Datasets.DEFAULT_SEED);
+        }
+    }
+
+    @Benchmark
+    public double mergeRollups(Rollups rollups) {
+        SensorAggregate total = new SensorAggregate();
+        for (Object[] row : rollups.data) {
+            total.merge(SensorAggregate.fromRow(row));
+        }
+        return total.temperature.average() + total.salinity.average();
+    }
+
+    @Benchmark
+    public void healthAlerts(Reefs reefs, Blackhole blackhole) {
+        for (CoralReef reef : reefs.reefs) {
+            blackhole.consume(new HealthAlert(reef.id, reef.name, reef.healthStatus, reef.bleachingRiskLevel,
+                reef.updatedAt));
+        }
+    }
+
+    // A fresh engine per invocation, so window state does not carry over between iterations
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void evaluateRules(Readings readings, Blackhole blackhole) {
+        SensorRuleEngine engine = new SensorRuleEngine(reefId -> DEFAULT_RULES, TimeUnit.HOURS.toMicros(1),
+            TimeUnit.MINUTES.toMicros(15), 128);
+        Datasets.SensorSeries series = readings.series;
+        for (int i = 0; i < series.size(); i++) {
+            engine.evaluate(series.reefId[i], series.timeMicros[i], series.temperature[i], series.salinity[i],
+                series.ph[i], series.dissolvedOxygen[i], series.turbidity[i], blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.nautilux.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark and parameter
+ * set, and exits with status 1 when any score regressed by more than the threshold
+ * percentage and by more than the two runs' combined error. Throughput modes regress
+ * downwards, time modes upwards. Allocation per operation (-prof gc) is compared the
+ * same way when both runs have it.
+ *
+ *   java -cp benchmarks.jar com.nautilux.benchmarks.CompareResults base.json candidate.json [threshold%]
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> candidate = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14.3f %9s%n", entry.getKey(), "-", after.value(), "new");
+                continue;
+            }
+            double change = before.value() == 0.0 ? 0.0 : (after.value() - before.value()) / before.value() * 100.0;
+            double worse = before.higherIsBetter() ? -change : change;
+            boolean significant = Math.abs(after.value() - before.value()) > finite(before.error()) + finite(after.error());
+            boolean regressed = worse > threshold && significant;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.value(),
+                after.value(), change, after.unit(), regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!candidate.containsKey(missing)) {
+                System.out.printf(Locale.ROOT, "%-90s %14s%n", missing, "removed");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d regression(s) above %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf(Locale.ROOT, "No regressions above %.1f%%%n", threshold);
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode result : JsonMapper.builder().build().readTree(file.toFile())) {
+            String key = result.path("benchmark").asText() + params(result.path("params"));
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+            scores.put(key, score(result.path("primaryMetric"), higherIsBetter));
+            JsonNode allocation = findSecondary(result.path("secondaryMetrics"));
+            if (allocation != null) {
+                scores.put(key + " alloc", score(allocation, false));
+            }
+        }
+        return scores;
+    }
+
+    private static Score score(JsonNode metric, boolean higherIsBetter) {
+        return new Score(metric.path("score").asDouble(), metric.path("scoreError").asDouble(Double.NaN),
+            metric.path("scoreUnit").asText(), higherIsBetter);
+    }
+
+    // JMH prefixes profiler metrics with a middle dot; match on the suffix
+    private static JsonNode findSecondary(JsonNode metrics) {
+        for (Iterator<Map.Entry<String, JsonNode>> fields = metrics.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().endsWith(ALLOCATION)) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) {
+            return "";
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        params.fieldNames().forEachRemaining(name -> sorted.put(name, params.path(name).asText()));
+        return " " + sorted;
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0.0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.nautilux.benchmarks;
+
+import com.nautilux.ingest.CsvRecord;
+import com.nautilux.ingest.MappedCsvReader;
+import com.nautilux.ingest.SensorBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Sensor CSV parsing into SensorBatch: the mapped, byte-level reader behind the
+ * sensor-csv-stream route against the List<String> rows the sensor-csv-rows route
+ * feeds to addCsvRow (split here with String.split rather than Camel's CSV format).
+ * Scores are per file; divide the scale's sensorRows by the score for rows per ms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvIngestBenchmark {
+
+    private static final int BATCH_ROWS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"SMALL", "MEDIUM"})
+        Datasets.Scale scale;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Datasets.sensorCsv(scale, Datasets.DEFAULT_SEED);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Workers {
+        @Param({"1", "4"})
+        int parallelism;
+
+        ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = Executors.newFixedThreadPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public long mappedReader(Input input, Workers workers) throws IOException {
+        LongAdder rows = new LongAdder();
+        new MappedCsvReader(workers.executor, workers.parallelism).read(input.file, () -> new MappedCsvReader.RecordHandler() {
+            final SensorBatch batch = new SensorBatch(BATCH_ROWS);
+
+            @Override
+            public void onRecord(CsvRecord record) {
+                if (batch.isFull()) {
+                    rows.add(batch.size());
+                    batch.clear();
+                }
+                batch.addCsvRecord(record);
+            }
+
+            @Override
+            public void onSegmentEnd() {
+                rows.add(batch.size());
+                batch.clear();
+            }
+        });
+        return rows.sum();
+    }
+
+    @Benchmark
+    public long splitLines(Input input) throws IOException {
+        SensorBatch batch = new SensorBatch(BATCH_ROWS);
+        long rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input.file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (batch.isFull()) {
+                    rows += batch.size();
+                    batch.clear();
+                }
+                batch.addCsvRow(Arrays.asList(line.split(",", -1)));
+            }
+        }
+        return rows + batch.size();
+    }
+}
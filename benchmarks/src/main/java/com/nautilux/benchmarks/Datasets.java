@@ -0,0 +1,452 @@
+package com.nautilux.benchmarks;
+
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.dto.ImageAnalysis;
+import com.nautilux.dto.ReefHealth;
+import com.nautilux.dto.ReefSummary;
+import com.nautilux.dto.SensorReading;
+import com.nautilux.ingest.SensorBatch;
+import com.nautilux.ingest.SonarBinaryDecoder;
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ImageAnnotation;
+import com.nautilux.model.ImageData;
+import com.nautilux.model.SensorData;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/*
+ * Seeded synthetic reef, sensor and sonar data. The same scale and seed always produce
+ * the same values, so results from different commits measure the same work. Reefs are
+ * clustered around real reef regions the way production data is, which matters for the
+ * spatial index. Files are generated once per scale and seed under nautilux.benchmarks.data
+ * (default target/datasets) and reused by later forks and runs.
+ */
+public final class Datasets {
+
+    public static final long DEFAULT_SEED = 20240601L;
+
+    public enum Scale {
+        SMALL(1_000, 100_000, 200),
+        MEDIUM(10_000, 1_000_000, 1_000),
+        LARGE(50_000, 4_000_000, 4_000);
+
+        public final int reefs;
+        public final int sensorRows;
+        public final int sonarPings;
+
+        Scale(int reefs, int sensorRows, int sonarPings) {
+            this.reefs = reefs;
+            this.sensorRows = sensorRows;
+            this.sonarPings = sonarPings;
+        }
+    }
+
+    // Latitude, longitude and spread in degrees of the regions reefs are placed around
+    private static final double[][] REGIONS = {
+        {-18.3, 147.7, 4.0},    // Great Barrier Reef
+        {-8.5, 119.5, 3.0},     // Coral Triangle
+        {17.3, -87.5, 1.5},     // Mesoamerican Reef
+        {21.3, -157.8, 1.0},    // Hawaii
+        {24.6, -81.5, 0.8},     // Florida Keys
+        {20.0, 38.5, 3.0},      // Red Sea
+        {-17.6, -149.4, 2.0},   // French Polynesia
+        {4.2, 73.4, 1.5}        // Maldives
+    };
+
+    private static final CoralReef.HealthStatus[] STATUSES = CoralReef.HealthStatus.values();
+    private static final CoralReef.ReefType[] REEF_TYPES = CoralReef.ReefType.values();
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static final int SONAR_BEAMS = 128;
+    public static final int SONAR_SAMPLES_PER_BEAM = 512;
+
+    private Datasets() {
+    }
+
+    public record ReefPosition(long id, double latitude, double longitude) {
+    }
+
+    public static List<ReefPosition> reefPositions(Scale scale, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ReefPosition> reefs = new ArrayList<>(scale.reefs);
+        for (int i = 0; i < scale.reefs; i++) {
+            double[] region = REGIONS[random.nextInt(REGIONS.length)];
+            double latitude = clamp(region[0] + random.nextGaussian() * region[2], -89.9, 89.9);
+            double longitude = wrap(region[1] + random.nextGaussian() * region[2]);
+            reefs.add(new ReefPosition(i + 1, latitude, longitude));
+        }
+        return reefs;
+    }
+
+    // A query point near a random region centre, as a map view would send
+    public static double[] queryPoint(SplittableRandom random) {
+        double[] region = REGIONS[random.nextInt(REGIONS.length)];
+        return new double[] {region[0] + random.nextGaussian() * region[2] * 0.5, wrap(region[1] + random.nextGaussian() * region[2] * 0.5)};
+    }
+
+    public static List<CoralReef> reefs(Scale scale, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5EEDL);
+        List<CoralReef> reefs = new ArrayList<>(scale.reefs);
+        for (ReefPosition position : reefPositions(scale, seed)) {
+            CoralReef reef = new CoralReef();
+            reef.id = position.id();
+            reef.name = "Reef " + position.id();
+            reef.description = "Synthetic reef " + position.id();
+            reef.latitude = position.latitude();
+            reef.longitude = position.longitude();
+            reef.depthMeters = 2.0 + random.nextDouble() * 38.0;
+            reef.reefType = REEF_TYPES[random.nextInt(REEF_TYPES.length)];
+            reef.healthStatus = STATUSES[random.nextInt(STATUSES.length)];
+            reef.healthScore = round(random.nextDouble() * 100.0);
+            reef.bleachingRiskLevel = random.nextInt(10) == 0 ? null : random.nextInt(6);
+            reef.biodiversityIndex = round(random.nextDouble() * 5.0);
+            reef.waterTemperatureCelsius = round(24.0 + random.nextDouble() * 8.0);
+            reef.salinityPpt = round(33.0 + random.nextDouble() * 4.0);
+            reef.phLevel = round(7.8 + random.nextDouble() * 0.5);
+            reef.turbidityNtu = round(random.nextDouble() * 5.0);
+            reef.createdAt = EPOCH.minusDays(random.nextInt(3650));
+            reef.updatedAt = EPOCH.plusMinutes(random.nextInt(525_600));
+            reefs.add(reef);
+        }
+        return reefs;
+    }
+
+    // Rows in the shape of the ReefSummary.SELECT constructor expression
+    public static List<Object[]> reefSummaryRows(List<CoralReef> reefs) {
+        List<Object[]> rows = new ArrayList<>(reefs.size());
+        for (CoralReef reef : reefs) {
+            rows.add(new Object[] {reef.id, reef.name, reef.latitude, reef.longitude, reef.depthMeters,
+                reef.reefType, reef.healthStatus, reef.healthScore, reef.bleachingRiskLevel, reef.updatedAt});
+        }
+        return rows;
+    }
+
+    public static List<ReefSummary> reefSummaries(List<CoralReef> reefs) {
+        List<ReefSummary> summaries = new ArrayList<>(reefs.size());
+        for (CoralReef reef : reefs) {
+            summaries.add(new ReefSummary(reef.id, reef.name, reef.latitude, reef.longitude, reef.depthMeters,
+                reef.reefType, reef.healthStatus, reef.healthScore, reef.bleachingRiskLevel, reef.updatedAt));
+        }
+        return summaries;
+    }
+
+    public static List<HealthAlert> healthAlerts(List<CoralReef> reefs) {
+        List<HealthAlert> alerts = new ArrayList<>();
+        for (CoralReef reef : reefs) {
+            if (reef.healthStatus == CoralReef.HealthStatus.POOR || reef.healthStatus == CoralReef.HealthStatus.CRITICAL
+                    || (reef.bleachingRiskLevel != null && reef.bleachingRiskLevel >= 3)) {
+                alerts.add(new HealthAlert(reef.id, reef.name, reef.healthStatus, reef.bleachingRiskLevel, reef.updatedAt));
+            }
+        }
+        return alerts;
+    }
+
+    // Dashboard payload of /reefs/{id}/health with its 5 latest readings and 3 latest analyses
+    public static ReefHealth reefHealth(CoralReef reef, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ reef.id);
+        List<SensorReading> readings = new ArrayList<>(5);
+        for (int i = 0; i < 5; i++) {
+            readings.add(new SensorReading((long) i + 1, reef.updatedAt.minusMinutes(i * 15L),
+                SensorData.SensorType.MULTI_PARAMETER, "SN-" + reef.id, round(26.0 + random.nextDouble() * 4.0),
+                round(34.0 + random.nextDouble() * 2.0), round(8.0 + random.nextDouble() * 0.2),
+                round(5.0 + random.nextDouble() * 2.0), round(random.nextDouble() * 3.0), round(random.nextDouble())));
+        }
+        List<ImageAnalysis> analyses = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            analyses.add(new ImageAnalysis((long) i + 1, reef.updatedAt.minusHours(i * 6L), "reef_" + reef.id + "_" + i + ".jpg",
+                ImageData.AnalysisStatus.COMPLETED, round(random.nextDouble() * 100.0), random.nextBoolean(),
+                random.nextInt(5), round(random.nextDouble() * 100.0), round(random.nextDouble())));
+        }
+        return new ReefHealth(reef.id, reef.name, reef.healthStatus, reef.healthScore, reef.bleachingRiskLevel,
+            reef.biodiversityIndex, reef.updatedAt, readings, analyses);
+    }
+
+    // Analysed images of one reef with a handful of annotations each, as findImages loads them
+    public static List<ImageData> images(CoralReef reef, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ reef.id ^ 0x1A6EL);
+        ImageAnnotation.AnnotationType[] types = ImageAnnotation.AnnotationType.values();
+        List<ImageData> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ImageData image = new ImageData();
+            image.id = reef.id * 1_000 + i;
+            image.timestamp = reef.updatedAt.minusHours(i);
+            image.fileName = "reef_" + reef.id + "_" + i + ".jpg";
+            image.aiAnalysisStatus = ImageData.AnalysisStatus.COMPLETED;
+            image.coralCoveragePercentage = round(random.nextDouble() * 100.0);
+            image.bleachingDetected = random.nextInt(4) == 0;
+            image.bleachingSeverity = image.bleachingDetected ? 1 + random.nextInt(4) : 0;
+            image.healthScore = round(random.nextDouble() * 100.0);
+            image.confidenceScore = round(0.5 + random.nextDouble() * 0.5);
+            image.coralReef = reef;
+            image.annotations = new ArrayList<>();
+            for (int a = random.nextInt(8); a > 0; a--) {
+                ImageAnnotation annotation = new ImageAnnotation();
+                annotation.id = image.id * 10 + a;
+                annotation.annotationType = types[random.nextInt(types.length)];
+                annotation.speciesName = "Acropora sp. " + random.nextInt(40);
+                annotation.commonName = "Staghorn coral";
+                annotation.confidenceScore = round(random.nextDouble());
+                annotation.healthStatus = STATUSES[random.nextInt(STATUSES.length)];
+                annotation.bleachingSeverity = random.nextInt(5);
+                double x = random.nextDouble() * 3000.0;
+                double y = random.nextDouble() * 2000.0;
+                annotation.boundingBoxX1 = round(x);
+                annotation.boundingBoxY1 = round(y);
+                annotation.boundingBoxX2 = round(x + 50.0 + random.nextDouble() * 400.0);
+                annotation.boundingBoxY2 = round(y + 50.0 + random.nextDouble() * 400.0);
+                annotation.imageData = image;
+                image.annotations.add(annotation);
+            }
+            images.add(image);
+        }
+        return images;
+    }
+
+    // Rows in the shape of SensorAggregate.selectList(), one per reef and hour bucket
+    public static List<Object[]> aggregateRows(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0xA66L);
+        List<Object[]> rows = new ArrayList<>(count);
+        double[][] ranges = {{24.0, 32.0}, {33.0, 37.0}, {7.8, 8.3}, {4.0, 8.0}, {0.0, 5.0}};
+        for (int i = 0; i < count; i++) {
+            long samples = 60 + random.nextInt(60);
+            Object[] row = new Object[21];
+            row[0] = samples;
+            for (int metric = 0; metric < ranges.length; metric++) {
+                int offset = 1 + metric * 4;
+                long present = random.nextInt(8) == 0 ? 0L : samples;
+                double low = ranges[metric][0];
+                double span = ranges[metric][1] - low;
+                double min = low + random.nextDouble() * span * 0.5;
+                double max = min + random.nextDouble() * span * 0.5;
+                row[offset] = present;
+                row[offset + 1] = present == 0 ? null : (min + max) / 2.0 * present;
+                row[offset + 2] = present == 0 ? null : min;
+                row[offset + 3] = present == 0 ? null : max;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static final class SensorSeries {
+        public final long[] reefId;
+        public final long[] timeMicros;
+        public final double[] temperature;
+        public final double[] salinity;
+        public final double[] ph;
+        public final double[] dissolvedOxygen;
+        public final double[] turbidity;
+
+        SensorSeries(int size) {
+            reefId = new long[size];
+            timeMicros = new long[size];
+            temperature = new double[size];
+            salinity = new double[size];
+            ph = new double[size];
+            dissolvedOxygen = new double[size];
+            turbidity = new double[size];
+        }
+
+        public int size() {
+            return reefId.length;
+        }
+    }
+
+    // Readings every minute per sensor, interleaved across reefs as they arrive from the field
+    public static SensorSeries sensorSeries(Scale scale, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5E75L);
+        int reefs = Math.min(scale.reefs, 500);
+        double[] baseline = new double[reefs];
+        for (int r = 0; r < reefs; r++) {
+            baseline[r] = 26.0 + random.nextDouble() * 3.0;
+        }
+        SensorSeries series = new SensorSeries(scale.sensorRows);
+        long start = EPOCH.toEpochSecond(ZoneOffset.UTC) * 1_000_000L;
+        for (int i = 0; i < scale.sensorRows; i++) {
+            int reef = i % reefs;
+            long minute = i / reefs;
+            series.reefId[i] = reef + 1;
+            series.timeMicros[i] = start + minute * 60_000_000L;
+            // Slow warming trend plus noise, so window and heat-stress rules fire now and then
+            series.temperature[i] = baseline[reef] + minute * 0.0005 + random.nextGaussian() * 0.3;
+            series.salinity[i] = 35.0 + random.nextGaussian() * 0.8;
+            series.ph[i] = 8.1 + random.nextGaussian() * 0.08;
+            series.dissolvedOxygen[i] = random.nextInt(50) == 0 ? Double.NaN : 6.0 + random.nextGaussian() * 0.7;
+            series.turbidity[i] = Math.abs(random.nextGaussian()) * 2.0;
+        }
+        return series;
+    }
+
+    public static Path sensorCsv(Scale scale, long seed) throws IOException {
+        return cached("sensors-" + scale.name().toLowerCase(Locale.ROOT) + "-" + seed + ".csv",
+            target -> writeSensorCsv(target, scale, seed));
+    }
+
+    public static List<String> sensorCsvLines(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> lines = new ArrayList<>(count);
+        StringBuilder line = new StringBuilder(160);
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            appendSensorLine(line, random, i);
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static void writeSensorCsv(Path target, Scale scale, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.US_ASCII)) {
+            writer.write(String.join(",", SensorBatch.CSV_COLUMNS));
+            writer.write('\n');
+            StringBuilder line = new StringBuilder(160);
+            for (int i = 0; i < scale.sensorRows; i++) {
+                line.setLength(0);
+                appendSensorLine(line, random, i);
+                writer.append(line).append('\n');
+            }
+        }
+    }
+
+    private static void appendSensorLine(StringBuilder line, SplittableRandom random, int row) {
+        long reef = 1 + random.nextInt(500);
+        LocalDateTime timestamp = EPOCH.plusSeconds(row * 6L);
+        line.append(timestamp).append(',')
+            .append(reef).append(',')
+            .append(reef * 10 + random.nextInt(4)).append(',')
+            .append(random.nextInt(4) == 0 ? "TEMPERATURE" : "MULTI_PARAMETER").append(',')
+            .append("SN-").append(reef).append('-').append(random.nextInt(8)).append(',');
+        appendDecimal(line, 24.0 + random.nextDouble() * 8.0).append(',');
+        appendDecimal(line, 33.0 + random.nextDouble() * 4.0).append(',');
+        appendDecimal(line, 7.8 + random.nextDouble() * 0.5).append(',');
+        // Missing dissolved oxygen exercises the empty-field path
+        if (random.nextInt(20) != 0) {
+            appendDecimal(line, 4.0 + random.nextDouble() * 4.0);
+        }
+        line.append(',');
+        appendDecimal(line, random.nextDouble() * 5.0).append(',');
+        appendDecimal(line, 50.0 + random.nextDouble() * 5.0).append(',');
+        appendDecimal(line, 1.0 + random.nextDouble() * 3.0).append(',');
+        appendDecimal(line, -18.3 + random.nextDouble()).append(',');
+        appendDecimal(line, 147.7 + random.nextDouble());
+    }
+
+    public static Path sonarFile(Scale scale, long seed) throws IOException {
+        return cached("sonar-" + scale.name().toLowerCase(Locale.ROOT) + "-" + seed + ".nxs",
+            target -> writeSonar(target, scale, seed));
+    }
+
+    private static void writeSonar(Path target, Scale scale, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int sampleBytes = SONAR_BEAMS * SONAR_SAMPLES_PER_BEAM * 2;
+        ByteBuffer buffer = ByteBuffer.allocate(SonarBinaryDecoder.PING_HEADER_BYTES + sampleBytes)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        long start = EPOCH.toEpochSecond(ZoneOffset.UTC) * 1_000_000L;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            buffer.putInt(SonarBinaryDecoder.FILE_MAGIC).putShort((short) 1).putShort((short) 0).putLong(0L);
+            out.write(buffer.array(), 0, SonarBinaryDecoder.FILE_HEADER_BYTES);
+            for (int ping = 0; ping < scale.sonarPings; ping++) {
+                buffer.clear();
+                buffer.putInt(SonarBinaryDecoder.PING_MAGIC)
+                    .putInt(buffer.capacity())
+                    .putInt(ping)
+                    .putShort((short) SONAR_BEAMS)
+                    .putShort((short) SonarBinaryDecoder.FORMAT_INT16_CENTI_DB)
+                    .putLong(start + ping * 100_000L)
+                    .putDouble(-18.3 + ping * 1e-6)
+                    .putDouble(147.7 + ping * 1e-6)
+                    .putFloat(200_000f)
+                    .putFloat(20_000f)
+                    .putFloat(1_530f)
+                    .putFloat(0.1f)
+                    .putFloat(1.0f)
+                    .putInt(SONAR_SAMPLES_PER_BEAM);
+                // Decaying backscatter with a bottom return whose range drifts between pings
+                int bottom = SONAR_SAMPLES_PER_BEAM / 2 + (int) (Math.sin(ping / 50.0) * SONAR_SAMPLES_PER_BEAM / 8);
+                for (int beam = 0; beam < SONAR_BEAMS; beam++) {
+                    for (int i = 0; i < SONAR_SAMPLES_PER_BEAM; i++) {
+                        double db = -20.0 - i * 0.05 + random.nextDouble() * 6.0;
+                        if (Math.abs(i - bottom - Math.abs(beam - SONAR_BEAMS / 2) / 8) < 3) {
+                            db += 30.0;
+                        }
+                        buffer.putShort((short) Math.round(db * 100.0));
+                    }
+                }
+                out.write(buffer.array(), 0, buffer.position());
+            }
+        }
+    }
+
+    public static Path scratchDirectory() throws IOException {
+        return Files.createDirectories(dataDirectory().resolve("scratch"));
+    }
+
+    private interface Generator {
+        void write(Path target) throws IOException;
+    }
+
+    private static Path cached(String name, Generator generator) throws IOException {
+        Path directory = Files.createDirectories(dataDirectory());
+        Path target = directory.resolve(name);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        Path temp = Files.createTempFile(directory, name, ".tmp");
+        try {
+            generator.write(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    private static Path dataDirectory() {
+        return Paths.get(System.getProperty("nautilux.benchmarks.data", "target/datasets")).toAbsolutePath();
+    }
+
+    private static StringBuilder appendDecimal(StringBuilder line, double value) {
+        long scaled = Math.round(value * 1000.0);
+        if (scaled < 0) {
+            line.append('-');
+            scaled = -scaled;
+        }
+        line.append(scaled / 1000).append('.');
+        long fraction = scaled % 1000;
+        if (fraction < 100) line.append('0');
+        if (fraction < 10) line.append('0');
+        return line.append(fraction);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double wrap(double longitude) {
+        return ((longitude + 540.0) % 360.0) - 180.0;
+    }
+}
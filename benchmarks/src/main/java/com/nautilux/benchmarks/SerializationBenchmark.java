@@ -0,0 +1,148 @@
+package com.nautilux.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.dto.ImageDetail;
+import com.nautilux.dto.ReefHealth;
+import com.nautilux.dto.ReefSummary;
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ImageData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Entity-to-DTO mapping and JSON writing of the CoralReefResource payloads: a reef
+ * page at the default (20) and maximum (500) size, the health dashboard, the alert
+ * list of a SMALL dataset and a 50 image page with annotations. The mapper is configured the way
+ * quarkus-jackson configures the one RESTEasy Reactive writes responses with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SerializationBenchmark {
+
+    private static final int IMAGE_PAGE_SIZE = 50;
+
+    @State(Scope.Thread)
+    public static class Json {
+        ObjectWriter writer;
+        ByteArrayOutputStream out;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            writer = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build()
+                .writer();
+            out = new ByteArrayOutputStream(1 << 20);
+        }
+
+        int write(Object value) throws IOException {
+            out.reset();
+            writer.writeValue(out, value);
+            return out.size();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"20", "500"})
+        int pageSize;
+
+        List<Object[]> rows;
+        List<ReefSummary> summaries;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<CoralReef> reefs = Datasets.reefs(Datasets.Scale.SMALL, Datasets.DEFAULT_SEED).subList(0, pageSize);
+            rows = Datasets.reefSummaryRows(reefs);
+            summaries = Datasets.reefSummaries(reefs);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Dashboard {
+        ReefHealth health;
+        List<HealthAlert> alerts;
+        List<ImageData> images;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<CoralReef> reefs = Datasets.reefs(Datasets.Scale.SMALL, Datasets.DEFAULT_SEED);
+            health = Datasets.reefHealth(reefs.get(0), Datasets.DEFAULT_SEED);
+            alerts = Datasets.healthAlerts(reefs);
+            images = Datasets.images(reefs.get(0), IMAGE_PAGE_SIZE, Datasets.DEFAULT_SEED);
+        }
+    }
+
+    // What Hibernate does per row for the ReefSummary.SELECT constructor expression
+    @Benchmark
+    public List<ReefSummary> mapRows(Page page) {
+        List<ReefSummary> mapped = new ArrayList<>(page.rows.size());
+        for (Object[] row : page.rows) {
+            mapped.add(new ReefSummary((Long) row[0], (String) row[1], (Double) row[2], (Double) row[3],
+                (Double) row[4], (CoralReef.ReefType) row[5], (CoralReef.HealthStatus) row[6], (Double) row[7],
+                (Integer) row[8], (LocalDateTime) row[9]));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<ImageDetail> mapImages(Dashboard dashboard) {
+        return dashboard.images.stream().map(ImageDetail::of).toList();
+    }
+
+    @Benchmark
+    public int writeReefPage(Page page, Json json) throws IOException {
+        return json.write(page.summaries);
+    }
+
+    @Benchmark
+    public int writeNearbyPage(Page page, Json json) throws IOException {
+        List<ReefSummary> nearby = new ArrayList<>(page.summaries.size());
+        for (int i = 0; i < page.summaries.size(); i++) {
+            nearby.add(page.summaries.get(i).withDistanceKm(i * 0.37));
+        }
+        return json.write(nearby);
+    }
+
+    @Benchmark
+    public int writeReefHealth(Dashboard dashboard, Json json) throws IOException {
+        return json.write(dashboard.health);
+    }
+
+    @Benchmark
+    public int writeHealthAlerts(Dashboard dashboard, Json json) throws IOException {
+        return json.write(dashboard.alerts);
+    }
+
+    @Benchmark
+    public int writeImagePage(Dashboard dashboard, Json json) throws IOException {
+        return json.write(dashboard.images.stream().map(ImageDetail::of).toList());
+    }
+}
@@ -0,0 +1,63 @@
+package com.nautilux.benchmarks;
+
+import com.nautilux.ingest.SonarBinaryDecoder;
+import com.nautilux.ingest.SonarColumnWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Binary sonar decoding with bottom picks, alone and while writing the columnar copy
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SonarDecodeBenchmark {
+
+    @Param({"SMALL", "MEDIUM"})
+    Datasets.Scale scale;
+
+    Path file;
+    Path columns;
+    SonarBinaryDecoder decoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Datasets.sonarFile(scale, Datasets.DEFAULT_SEED);
+        columns = Datasets.scratchDirectory().resolve("sonar-" + ProcessHandle.current().pid() + ".nxc");
+        decoder = new SonarBinaryDecoder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(columns);
+    }
+
+    @Benchmark
+    public SonarBinaryDecoder.Result decode() throws IOException {
+        return decoder.decode(file);
+    }
+
+    @Benchmark
+    public SonarBinaryDecoder.Result decodeToColumns() throws IOException {
+        try (SonarColumnWriter writer = new SonarColumnWriter(columns)) {
+            return decoder.decode(file, writer);
+        }
+    }
+}
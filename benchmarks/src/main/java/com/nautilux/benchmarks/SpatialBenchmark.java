@@ -0,0 +1,96 @@
+package com.nautilux.benchmarks;
+
+import com.nautilux.spatial.GeoGridIndex;
+import com.nautilux.spatial.GeoMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Distance filtering behind findNearby: the grid index at the default 0.5 degree cells
+ * against the haversine scan over every reef it replaced. Each invocation answers the
+ * next of a fixed ring of query points near reef regions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SpatialBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    Datasets.Scale scale;
+
+    @Param({"10", "100"})
+    double radiusKm;
+
+    List<Datasets.ReefPosition> reefs;
+    GeoGridIndex index;
+    double[][] queries;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reefs = Datasets.reefPositions(scale, Datasets.DEFAULT_SEED);
+        index = new GeoGridIndex(0.5);
+        for (Datasets.ReefPosition reef : reefs) {
+            index.put(reef.id(), reef.latitude(), reef.longitude());
+        }
+        SplittableRandom random = new SplittableRandom(Datasets.DEFAULT_SEED ^ 0x9E0L);
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = Datasets.queryPoint(random);
+        }
+    }
+
+    private double[] nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return queries[next];
+    }
+
+    @Benchmark
+    public List<GeoGridIndex.Hit> gridWithinRadius() {
+        double[] query = nextQuery();
+        List<GeoGridIndex.Hit> hits = index.withinRadius(query[0], query[1], radiusKm);
+        hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+        return hits;
+    }
+
+    @Benchmark
+    public List<GeoGridIndex.Hit> gridNearest() {
+        double[] query = nextQuery();
+        return index.nearest(query[0], query[1], 10, radiusKm);
+    }
+
+    @Benchmark
+    public List<GeoGridIndex.Hit> linearScan() {
+        double[] query = nextQuery();
+        List<GeoGridIndex.Hit> hits = new ArrayList<>();
+        for (Datasets.ReefPosition reef : reefs) {
+            double distance = GeoMath.haversineKm(query[0], query[1], reef.latitude(), reef.longitude());
+            if (distance <= radiusKm) {
+                hits.add(new GeoGridIndex.Hit(reef.id(), reef.latitude(), reef.longitude(), distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+        return hits;
+    }
+}
@@ -0,0 +1,57 @@
+package com.nautilux.benchmarks.load;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * GC and allocation figures for one phase, read from the application's flight
+ * recording. Allocation is the summed weight of jdk.ObjectAllocationSample events,
+ * which JFR scales so the total approximates all bytes allocated in the window.
+ */
+public record JfrProfile(long collections, double pauseMillis, double maxPauseMillis, double allocatedMegabytes,
+                         double averageCpuPercent) {
+
+    public static JfrProfile read(Path recording, Instant from, Instant to) throws IOException {
+        long collections = 0;
+        Duration pauses = Duration.ZERO;
+        Duration longest = Duration.ZERO;
+        long allocated = 0;
+        double cpu = 0.0;
+        int cpuSamples = 0;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                Instant start = event.getStartTime();
+                if (start.isBefore(from) || start.isAfter(to)) {
+                    continue;
+                }
+                switch (event.getEventType().getName()) {
+                    case "jdk.GarbageCollection" -> {
+                        collections++;
+                        Duration pause = event.getDuration("sumOfPauses");
+                        pauses = pauses.plus(pause);
+                        Duration max = event.getDuration("longestPause");
+                        if (max.compareTo(longest) > 0) {
+                            longest = max;
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> allocated += event.getLong("weight");
+                    case "jdk.CPULoad" -> {
+                        cpu += event.getFloat("jvmUser") + event.getFloat("jvmSystem");
+                        cpuSamples++;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new JfrProfile(collections, pauses.toNanos() / 1e6, longest.toNanos() / 1e6,
+            allocated / (1024.0 * 1024.0), cpuSamples > 0 ? cpu / cpuSamples * 100.0 : 0.0);
+    }
+}
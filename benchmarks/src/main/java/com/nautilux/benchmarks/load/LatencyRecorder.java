@@ -0,0 +1,67 @@
+package com.nautilux.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Latencies per operation for one phase. Every sample is kept (a minute at a few
+ * thousand requests per second is a few MB), so percentiles are exact. Latency is
+ * measured from the request's scheduled start, not from when a connection freed up,
+ * so a stalled server shows up in the tail instead of lowering the request rate.
+ */
+public class LatencyRecorder {
+
+    public record Summary(long count, long errors, double throughput, double p50Millis, double p95Millis,
+                          double p99Millis, double maxMillis) {
+    }
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long errors;
+
+        synchronized void add(long latencyNanos, boolean error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarise(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new Summary(size, errors, size / seconds, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), size > 0 ? sorted[size - 1] / 1e6 : 0.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private final Map<String, Samples> operations = new ConcurrentHashMap<>();
+
+    // Recorded under the operation and under its scenario, the part before the first dot
+    public void record(String operation, long latencyNanos, boolean error) {
+        operations.computeIfAbsent(operation, name -> new Samples()).add(latencyNanos, error);
+        int dot = operation.indexOf('.');
+        if (dot > 0) {
+            operations.computeIfAbsent(operation.substring(0, dot), name -> new Samples()).add(latencyNanos, error);
+        }
+    }
+
+    public Map<String, Summary> summarise(double seconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        operations.forEach((name, samples) -> summaries.put(name, samples.summarise(seconds)));
+        return summaries;
+    }
+}
@@ -0,0 +1,94 @@
+package com.nautilux.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Command line options of LoadTest, given as --name=value. Each --phase is
+ * name:scenario=weight[,scenario=weight...] and phases run in order against the
+ * same application instance.
+ */
+public record LoadOptions(Path application, String database, String databaseUser, String databasePassword,
+                          List<String> jvmArgs, int reefs, int images, long seed, double rate, int maxInFlight,
+                          Duration warmup, Duration duration, Duration rayLatency, List<Phase> phases,
+                          Path output, Path baseline, double threshold) {
+
+    public static final String TESTCONTAINERS = "testcontainers";
+
+    public record Phase(String name, Map<Scenario, Integer> weights) {
+
+        static Phase parse(String spec) {
+            int colon = spec.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Phase must be name:scenario=weight,...: " + spec);
+            }
+            Map<Scenario, Integer> weights = new LinkedHashMap<>();
+            for (String entry : spec.substring(colon + 1).split(",")) {
+                String[] pair = entry.split("=", 2);
+                int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight in phase " + spec);
+                }
+                weights.merge(Scenario.parse(pair[0]), weight, Integer::sum);
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+                throw new IllegalArgumentException("Phase has no weight: " + spec);
+            }
+            return new Phase(spec.substring(0, colon), weights);
+        }
+    }
+
+    static final List<String> DEFAULT_PHASES = List.of(
+        "sensor:sensor=1",
+        "image:image=1",
+        "dashboard:dashboard=1",
+        "blocking:blocking=1",
+        "reactive:reactive=1",
+        "mixed:sensor=3,image=1,dashboard=6");
+
+    public static LoadOptions parse(String[] args) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals > 0 ? arg.substring(2, equals) : arg.substring(2);
+            String value = equals > 0 ? arg.substring(equals + 1) : "true";
+            values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+
+        List<Phase> phases = new ArrayList<>();
+        for (String spec : values.getOrDefault("phase", DEFAULT_PHASES)) {
+            phases.add(Phase.parse(spec));
+        }
+        String baseline = last(values, "baseline", null);
+        return new LoadOptions(
+            Path.of(last(values, "app", "target/quarkus-app/quarkus-run.jar")),
+            last(values, "db", TESTCONTAINERS),
+            last(values, "db-user", "nautilux"),
+            last(values, "db-password", "nautilux"),
+            values.getOrDefault("jvm-arg", List.of()),
+            Integer.parseInt(last(values, "reefs", "500")),
+            Integer.parseInt(last(values, "images", "64")),
+            Long.parseLong(last(values, "seed", "20240601")),
+            Double.parseDouble(last(values, "rate", "200")),
+            Integer.parseInt(last(values, "max-in-flight", "256")),
+            Duration.parse(last(values, "warmup", "PT15S")),
+            Duration.parse(last(values, "duration", "PT60S")),
+            Duration.parse(last(values, "ray-latency", "PT0.05S")),
+            phases,
+            Path.of(last(values, "out", "target/loadtest/results.json")),
+            baseline != null ? Path.of(baseline) : null,
+            Double.parseDouble(last(values, "threshold", "10")));
+    }
+
+    private static String last(Map<String, List<String>> values, String name, String fallback) {
+        List<String> given = values.get(name);
+        return given != null ? given.get(given.size() - 1) : fallback;
+    }
+}
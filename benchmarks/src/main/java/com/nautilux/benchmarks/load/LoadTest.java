@@ -0,0 +1,369 @@
+package com.nautilux.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * End-to-end load test: starts the packaged application (target/quarkus-app) against
+ * PostgreSQL and a StubRayService, seeds reefs through the API, then runs each phase's
+ * request mix at a fixed arrival rate, warm-up first. Reports throughput and latency
+ * percentiles per operation and GC, allocation and CPU per phase from a flight
+ * recording of the application, as JSON. Operations of the blocking and reactive
+ * scenarios are also compared side by side, after checking that both answer the same
+ * requests with the same JSON. With --baseline the run fails when a phase
+ * regressed by more than --threshold percent.
+ *
+ * PostgreSQL comes from Testcontainers by default; --db=<jdbc url> uses an existing
+ * server (e.g. the docker-compose one) instead, which needs no Docker.
+ */
+public final class LoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMinutes(1);
+    private static final int PARITY_REEF_SAMPLES = 10;
+
+    public record PhaseResult(String name, Map<Scenario, Integer> weights, double seconds,
+                              Map<String, LatencyRecorder.Summary> operations, JfrProfile profile,
+                              double allocatedKilobytesPerRequest) {
+    }
+
+    public record Comparison(String operation, LatencyRecorder.Summary blocking, LatencyRecorder.Summary reactive) {
+    }
+
+    public record Report(Instant startedAt, LoadOptions options, int reefs, long rayCalls, List<PhaseResult> phases,
+                         List<Comparison> comparison) {
+    }
+
+    private record Window(LoadOptions.Phase phase, Instant from, Instant to, double seconds, LatencyRecorder recorder) {
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        LoadOptions options = LoadOptions.parse(args);
+        if (!Files.isRegularFile(options.application())) {
+            throw new IllegalArgumentException(options.application() + " not found; run mvn package first");
+        }
+        Instant startedAt = Instant.now();
+        Path workDirectory = Files.createDirectories(options.output().toAbsolutePath().getParent()
+            .resolve("run-" + startedAt.toEpochMilli()));
+
+        PostgreSQLContainer<?> container = null;
+        String jdbcUrl = options.database();
+        if (LoadOptions.TESTCONTAINERS.equals(options.database())) {
+            container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+                .withDatabaseName("nautilux")
+                .withUsername(options.databaseUser())
+                .withPassword(options.databasePassword());
+            container.start();
+            jdbcUrl = container.getJdbcUrl();
+        }
+
+        Process application = null;
+        List<Window> windows = new ArrayList<>();
+        Workload workload;
+        long rayCalls;
+        try (StubRayService ray = new StubRayService(options.rayLatency(), options.seed())) {
+            int port = freePort();
+            URI base = URI.create("http://127.0.0.1:" + port);
+            application = start(options, workDirectory, port, jdbcUrl, ray.url());
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+            awaitReady(client, base, application);
+
+            workload = new Workload(base);
+            workload.seed(client, options.reefs(), options.images(), options.seed());
+            log("Seeded %d reefs", workload.reefCount());
+            if (options.phases().stream().anyMatch(phase -> phase.weights().containsKey(Scenario.BLOCKING)
+                    || phase.weights().containsKey(Scenario.REACTIVE))) {
+                log("Blocking and reactive reads agree on %d requests",
+                    workload.verifyReadParity(client, PARITY_REEF_SAMPLES));
+            }
+
+            for (LoadOptions.Phase phase : options.phases()) {
+                log("Phase %s: warm-up %s", phase.name(), options.warmup());
+                run(client, workload, options, phase, options.warmup(), new LatencyRecorder());
+                log("Phase %s: measuring %s at %.0f req/s", phase.name(), options.duration(), options.rate());
+                windows.add(run(client, workload, options, phase, options.duration(), new LatencyRecorder()));
+            }
+            rayCalls = ray.calls();
+        } finally {
+            if (application != null) {
+                stop(application);
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+
+        Path recording = workDirectory.resolve("app.jfr");
+        List<PhaseResult> results = new ArrayList<>();
+        for (Window window : windows) {
+            JfrProfile profile = Files.isRegularFile(recording)
+                ? JfrProfile.read(recording, window.from(), window.to())
+                : new JfrProfile(0, 0, 0, 0, 0);
+            Map<String, LatencyRecorder.Summary> operations = window.recorder().summarise(window.seconds());
+            long requests = window.phase().weights().keySet().stream()
+                .mapToLong(scenario -> operations.containsKey(scenario.label()) ? operations.get(scenario.label()).count() : 0)
+                .sum();
+            results.add(new PhaseResult(window.phase().name(), window.phase().weights(), window.seconds(), operations,
+                profile, requests > 0 ? profile.allocatedMegabytes() * 1024.0 / requests : 0.0));
+        }
+
+        List<Comparison> comparison = compareStacks(results);
+        Report report = new Report(startedAt, options, workload.reefCount(), rayCalls, results, comparison);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(options.output().toFile(), report);
+        print(results);
+        print(comparison);
+        log("Results written to %s (application log and recording in %s)", options.output(), workDirectory);
+
+        if (options.baseline() != null) {
+            int regressions = compare(objectMapper.readTree(options.baseline().toFile()), results, options.threshold());
+            if (regressions > 0) {
+                log("%d regression(s) above %.1f%% against %s", regressions, options.threshold(), options.baseline());
+                System.exit(1);
+            }
+            log("No regressions above %.1f%% against %s", options.threshold(), options.baseline());
+        }
+    }
+
+    private static Process start(LoadOptions options, Path workDirectory, int port, String jdbcUrl,
+                                 String rayUrl) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options.jvmArgs());
+        command.add("-XX:StartFlightRecording=settings=profile,filename=" + workDirectory.resolve("app.jfr"));
+        command.add("-Dquarkus.http.port=" + port);
+        command.add("-Dquarkus.datasource.jdbc.url=" + jdbcUrl);
+        command.add("-Dquarkus.datasource.reactive.url=" + jdbcUrl.replaceFirst("^jdbc:", ""));
+        command.add("-Dquarkus.datasource.username=" + options.databaseUser());
+        command.add("-Dquarkus.datasource.password=" + options.databasePassword());
+        command.add("-Dray.service.url=" + rayUrl);
+        command.add("-Dstorage.local.base-path=" + workDirectory.resolve("storage"));
+        command.add("-Dcamel.file.watch-directory=" + workDirectory.resolve("incoming"));
+        command.add("-jar");
+        command.add(options.application().toAbsolutePath().toString());
+        log("Starting %s", options.application());
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(workDirectory.resolve("app.log").toFile())
+            .start();
+    }
+
+    private static void awaitReady(HttpClient client, URI base, Process application) throws Exception {
+        HttpRequest ready = HttpRequest.newBuilder(base.resolve("/q/health/ready")).timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + application.exitValue()
+                    + " during startup; see app.log");
+            }
+            try {
+                if (client.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application not ready after " + STARTUP_TIMEOUT);
+    }
+
+    // SIGTERM lets Quarkus shut down cleanly and the JVM dump the flight recording
+    private static void stop(Process application) throws InterruptedException {
+        application.destroy();
+        if (!application.waitFor(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            application.destroyForcibly().waitFor();
+        }
+    }
+
+    // Open model: requests start on schedule whether or not earlier ones have finished
+    private static Window run(HttpClient client, Workload workload, LoadOptions options, LoadOptions.Phase phase,
+                              Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        Scenario[] scenarios = phase.weights().keySet().toArray(Scenario[]::new);
+        int[] cumulative = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += phase.weights().get(scenarios[i]);
+            cumulative[i] = total;
+        }
+
+        SplittableRandom random = new SplittableRandom(options.seed() ^ phase.name().hashCode());
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long interval = (long) (1e9 / options.rate());
+        Instant from = Instant.now();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i * interval < duration.toNanos(); i++) {
+                long scheduled = start + i * interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int pick = random.nextInt(total);
+                int index = 0;
+                while (cumulative[index] <= pick) {
+                    index++;
+                }
+                Workload.Call call = workload.next(scenarios[index], random);
+                inFlight.acquire();
+                executor.execute(() -> {
+                    boolean error = true;
+                    try {
+                        HttpResponse<Void> response = client.send(call.request(), HttpResponse.BodyHandlers.discarding());
+                        error = response.statusCode() >= 400;
+                    } catch (IOException e) {
+                        // counted as an error
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        recorder.record(call.operation(), System.nanoTime() - scheduled, error);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Window(phase, from, Instant.now(), seconds, recorder);
+    }
+
+    private static int compare(JsonNode baseline, List<PhaseResult> results, double threshold) {
+        Map<String, JsonNode> phases = new LinkedHashMap<>();
+        for (JsonNode phase : baseline.path("phases")) {
+            phases.put(phase.path("name").asText(), phase);
+        }
+        int regressions = 0;
+        for (PhaseResult result : results) {
+            JsonNode before = phases.get(result.name());
+            if (before == null) {
+                continue;
+            }
+            for (Map.Entry<String, LatencyRecorder.Summary> operation : result.operations().entrySet()) {
+                JsonNode previous = before.path("operations").path(operation.getKey());
+                if (previous.isMissingNode()) {
+                    continue;
+                }
+                String name = result.name() + "/" + operation.getKey();
+                regressions += check(name + " throughput", previous.path("throughput").asDouble(),
+                    operation.getValue().throughput(), false, threshold);
+                regressions += check(name + " p99", previous.path("p99Millis").asDouble(),
+                    operation.getValue().p99Millis(), true, threshold);
+            }
+            regressions += check(result.name() + " allocation/request",
+                before.path("allocatedKilobytesPerRequest").asDouble(), result.allocatedKilobytesPerRequest(),
+                true, threshold);
+            regressions += check(result.name() + " GC pause", before.path("profile").path("pauseMillis").asDouble(),
+                result.profile().pauseMillis(), true, threshold);
+        }
+        return regressions;
+    }
+
+    private static int check(String name, double before, double after, boolean lowerIsBetter, double threshold) {
+        if (before <= 0.0) {
+            return 0;
+        }
+        double change = (after - before) / before * 100.0;
+        if ((lowerIsBetter ? change : -change) > threshold) {
+            log("REGRESSION %s: %.2f -> %.2f (%+.1f%%)", name, before, after, change);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static void print(List<PhaseResult> results) {
+        for (PhaseResult result : results) {
+            JfrProfile profile = result.profile();
+            System.out.printf(Locale.ROOT, "%n%s (%.1f s)  GC: %d collections, %.1f ms paused (max %.1f ms)  "
+                    + "allocated: %.0f MB, %.1f KB/request  CPU: %.0f%%%n", result.name(), result.seconds(),
+                profile.collections(), profile.pauseMillis(), profile.maxPauseMillis(), profile.allocatedMegabytes(),
+                result.allocatedKilobytesPerRequest(), profile.averageCpuPercent());
+            System.out.printf(Locale.ROOT, "  %-20s %9s %7s %10s %9s %9s %9s %9s%n", "operation", "count", "errors",
+                "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            result.operations().forEach((name, summary) -> System.out.printf(Locale.ROOT,
+                "  %-20s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, summary.count(), summary.errors(),
+                summary.throughput(), summary.p50Millis(), summary.p95Millis(), summary.p99Millis(),
+                summary.maxMillis()));
+        }
+    }
+
+    // Pairs blocking.x with reactive.x (and the two roll-ups) from the first phase that ran each
+    private static List<Comparison> compareStacks(List<PhaseResult> results) {
+        String blocking = Scenario.BLOCKING.label();
+        String reactive = Scenario.REACTIVE.label();
+        Map<String, LatencyRecorder.Summary> operations = new LinkedHashMap<>();
+        for (PhaseResult result : results) {
+            result.operations().forEach(operations::putIfAbsent);
+        }
+        List<Comparison> comparison = new ArrayList<>();
+        for (Map.Entry<String, LatencyRecorder.Summary> operation : operations.entrySet()) {
+            String name = operation.getKey();
+            if (name.equals(blocking) || name.startsWith(blocking + ".")) {
+                String suffix = name.substring(blocking.length());
+                LatencyRecorder.Summary other = operations.get(reactive + suffix);
+                if (other != null) {
+                    comparison.add(new Comparison(suffix.isEmpty() ? "all" : suffix.substring(1),
+                        operation.getValue(), other));
+                }
+            }
+        }
+        return comparison;
+    }
+
+    private static void print(List<Comparison> comparison) {
+        if (comparison.isEmpty()) {
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%nblocking vs reactive%n");
+        System.out.printf(Locale.ROOT, "  %-20s %10s %10s %9s %9s %9s %9s%n", "operation", "req/s", "req/s",
+            "p50 ms", "p50 ms", "p99 ms", "p99 ms");
+        for (Comparison row : comparison) {
+            System.out.printf(Locale.ROOT, "  %-20s %10.1f %10.1f %9.2f %9.2f %9.2f %9.2f%n", row.operation(),
+                row.blocking().throughput(), row.reactive().throughput(), row.blocking().p50Millis(),
+                row.reactive().p50Millis(), row.blocking().p99Millis(), row.reactive().p99Millis());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf(Locale.ROOT, "[loadtest] " + format + "%n", args);
+    }
+}
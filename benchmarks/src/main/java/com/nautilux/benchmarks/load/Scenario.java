@@ -0,0 +1,24 @@
+package com.nautilux.benchmarks.load;
+
+import java.util.Locale;
+
+public enum Scenario {
+    // JSON readings posted to the http-sensor-ingestion route
+    SENSOR,
+    // Raw PNG bodies streamed to ImageIngestResource
+    IMAGE,
+    // Reef list, detail, health, metrics, nearby and alert reads
+    DASHBOARD,
+    // Reef list, health, zone and alert reads on the blocking /api/v1/reefs endpoints
+    BLOCKING,
+    // The same reads in the same mix on the reactive /api/v1/reactive/reefs endpoints
+    REACTIVE;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Scenario parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
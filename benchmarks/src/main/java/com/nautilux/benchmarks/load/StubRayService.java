@@ -0,0 +1,126 @@
+package com.nautilux.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Stand-in for the Ray analysis service speaking the protocol documented on RayService.
+ * Every call sleeps for the configured latency and answers with plausible, seeded
+ * scores, so AnalysisScheduler and the health sweep run their full paths.
+ */
+public class StubRayService implements AutoCloseable {
+
+    private static final String[] HEALTH_STATUSES = {"EXCELLENT", "GOOD", "FAIR", "POOR", "CRITICAL"};
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration latency;
+    private final SplittableRandom seed;
+    private final LongAdder calls = new LongAdder();
+
+    public StubRayService(Duration latency, long seed) throws IOException {
+        this.latency = latency;
+        this.seed = new SplittableRandom(seed);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/health", exchange -> respond(exchange, Map.of("status", "ok")));
+        server.createContext("/assess/reef-health/batch", this::assessBatch);
+        server.createContext("/analyze/", this::analyze);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assessBatch(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = read(exchange);
+        SplittableRandom random = random();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Object id : (List<Object>) request.getOrDefault("reefIds", List.of())) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("reefId", id);
+            result.put("healthScore", Math.round(random.nextDouble() * 1000.0) / 10.0);
+            result.put("healthStatus", HEALTH_STATUSES[random.nextInt(HEALTH_STATUSES.length)]);
+            result.put("bleachingRiskLevel", random.nextInt(6));
+            result.put("biodiversityIndex", Math.round(random.nextDouble() * 500.0) / 100.0);
+            results.add(result);
+        }
+        respond(exchange, Map.of("results", results, "errors", List.of()));
+    }
+
+    private void analyze(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = read(exchange);
+        SplittableRandom random = random();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", request.get("id"));
+        result.put("healthScore", Math.round(random.nextDouble() * 1000.0) / 10.0);
+        result.put("confidenceScore", Math.round((0.5 + random.nextDouble() * 0.5) * 100.0) / 100.0);
+        if (exchange.getRequestURI().getPath().endsWith("/sonar")) {
+            result.put("reefStructureDetected", random.nextBoolean());
+            result.put("structureHeightMeters", Math.round(random.nextDouble() * 80.0) / 10.0);
+            result.put("structureComplexityScore", Math.round(random.nextDouble() * 100.0) / 100.0);
+            result.put("fishDensityEstimate", Math.round(random.nextDouble() * 5000.0) / 10.0);
+        } else {
+            boolean bleaching = random.nextInt(4) == 0;
+            result.put("coralCoveragePercentage", Math.round(random.nextDouble() * 1000.0) / 10.0);
+            result.put("bleachingDetected", bleaching);
+            result.put("bleachingSeverity", bleaching ? 1 + random.nextInt(4) : 0);
+            result.put("biodiversityScore", Math.round(random.nextDouble() * 100.0) / 100.0);
+        }
+        respond(exchange, result);
+    }
+
+    private synchronized SplittableRandom random() {
+        return seed.split();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> read(HttpExchange exchange) throws IOException {
+        calls.increment();
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            return bytes.length == 0 ? Map.of() : objectMapper.readValue(bytes, Map.class);
+        }
+    }
+
+    private void respond(HttpExchange exchange, Object body) throws IOException {
+        try {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
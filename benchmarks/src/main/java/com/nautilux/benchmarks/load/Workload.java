@@ -0,0 +1,255 @@
+package com.nautilux.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.benchmarks.Datasets;
+import com.nautilux.model.CoralReef;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Requests of each scenario against a seeded set of reefs. Reefs are created through
+ * the REST API before the first phase so every read hits real rows, and uploads cycle
+ * through a fixed set of generated PNGs spread over all reefs, so most are new content.
+ */
+public class Workload {
+
+    public record Call(String operation, HttpRequest request) {
+    }
+
+    private record Reef(long id, double latitude, double longitude) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SENSOR_TYPES = {"TEMPERATURE", "MULTI_PARAMETER"};
+
+    private final URI base;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Reef> reefs = new ArrayList<>();
+    private final List<byte[]> images = new ArrayList<>();
+
+    public Workload(URI base) {
+        this.base = base;
+    }
+
+    public int reefCount() {
+        return reefs.size();
+    }
+
+    public void seed(HttpClient client, int reefCount, int imageCount, long seed) throws Exception {
+        List<CoralReef> generated = Datasets.reefs(scaleFor(reefCount), seed).subList(0, reefCount);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Reef>> created = new ArrayList<>();
+            for (CoralReef reef : generated) {
+                created.add(executor.submit(() -> create(client, reef)));
+            }
+            for (Future<Reef> reef : created) {
+                reefs.add(reef.get());
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < imageCount; i++) {
+            images.add(png(random));
+        }
+    }
+
+    public Call next(Scenario scenario, SplittableRandom random) {
+        Reef reef = reefs.get(random.nextInt(reefs.size()));
+        return switch (scenario) {
+            case SENSOR -> new Call("sensor.ingest", post("/api/v1/ingest/sensor", "application/json",
+                sensorReading(reef, random)));
+            case IMAGE -> new Call("image.upload", post("/api/v1/ingest/image?reefId=" + reef.id()
+                + "&fileName=reef_" + reef.id() + "_" + random.nextInt(1_000_000) + ".png", "image/png",
+                images.get(random.nextInt(images.size()))));
+            case DASHBOARD -> dashboard(reef, random);
+            case BLOCKING -> reads("blocking", "/api/v1/reefs", reef, random);
+            case REACTIVE -> reads("reactive", "/api/v1/reactive/reefs", reef, random);
+        };
+    }
+
+    // The reads both stacks serve, so blocking and reactive phases measure identical work
+    private Call reads(String label, String root, Reef reef, SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 35) {
+            return new Call(label + ".list", get(root + "?size=20"));
+        } else if (pick < 65) {
+            return new Call(label + ".health", get(root + "/" + reef.id() + "/health"));
+        } else if (pick < 80) {
+            return new Call(label + ".zones", get(root + "/" + reef.id() + "/zones"));
+        }
+        return new Call(label + ".alerts", get(root + "/alerts?limit=20"));
+    }
+
+    // Blocking and reactive reads must answer the same request with the same JSON and cursor,
+    // or their latencies are not comparable. Checks list pages (offset and keyset, following the
+    // cursor), alerts, and health and zones of up to reefSamples reefs; returns the requests compared.
+    public int verifyReadParity(HttpClient client, int reefSamples) throws IOException, InterruptedException {
+        List<String> paths = new ArrayList<>(List.of("?size=20", "?size=7&page=1", "?healthStatus=POOR&size=10",
+            "/alerts?limit=20", "/alerts?severity=critical&limit=5"));
+        int samples = Math.min(reefSamples, reefs.size());
+        for (int i = 0; i < samples; i++) {
+            long id = reefs.get(i * reefs.size() / samples).id();
+            paths.add("/" + id + "/health");
+            paths.add("/" + id + "/zones");
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (String path : paths) {
+            compareReads(client, path, mismatches);
+        }
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null && pages < 3) {
+            cursor = compareReads(client, "?size=5" + (cursor.isEmpty() ? "" : "&cursor=" + cursor), mismatches);
+            pages++;
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Blocking and reactive reads differ:\n  " + String.join("\n  ", mismatches));
+        }
+        return paths.size() + pages;
+    }
+
+    // Returns the blocking response's next cursor, if any
+    private String compareReads(HttpClient client, String path, List<String> mismatches)
+            throws IOException, InterruptedException {
+        HttpResponse<byte[]> blocking = client.send(get("/api/v1/reefs" + path), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> reactive = client.send(get("/api/v1/reactive/reefs" + path),
+            HttpResponse.BodyHandlers.ofByteArray());
+        String cursor = blocking.headers().firstValue("X-Next-Cursor").orElse(null);
+        if (blocking.statusCode() != reactive.statusCode()) {
+            mismatches.add(path + ": HTTP " + blocking.statusCode() + " vs " + reactive.statusCode());
+        } else if (blocking.statusCode() == 200
+                && !objectMapper.readTree(blocking.body()).equals(objectMapper.readTree(reactive.body()))) {
+            mismatches.add(path + ": " + new String(blocking.body()) + " vs " + new String(reactive.body()));
+        } else if (!Objects.equals(cursor, reactive.headers().firstValue("X-Next-Cursor").orElse(null))) {
+            mismatches.add(path + ": X-Next-Cursor " + cursor + " vs "
+                + reactive.headers().firstValue("X-Next-Cursor").orElse(null));
+        }
+        return cursor;
+    }
+
+    // Weighted like the dashboard's landing view: list and map reads dominate
+    private Call dashboard(Reef reef, SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 25) {
+            return new Call("dashboard.list", get("/api/v1/reefs?size=20"));
+        } else if (pick < 40) {
+            return new Call("dashboard.reef", get("/api/v1/reefs/" + reef.id()));
+        } else if (pick < 60) {
+            return new Call("dashboard.health", get("/api/v1/reefs/" + reef.id() + "/health"));
+        } else if (pick < 70) {
+            return new Call("dashboard.metrics", get("/api/v1/reefs/" + reef.id() + "/metrics"));
+        } else if (pick < 90) {
+            return new Call("dashboard.nearby", get(String.format(Locale.ROOT,
+                "/api/v1/reefs/nearby?lat=%.4f&lon=%.4f&radiusKm=50", reef.latitude(), reef.longitude())));
+        }
+        return new Call("dashboard.alerts", get("/api/v1/reefs/alerts?limit=20"));
+    }
+
+    private Reef create(HttpClient client, CoralReef reef) throws IOException, InterruptedException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", reef.name);
+        body.put("description", reef.description);
+        body.put("latitude", reef.latitude);
+        body.put("longitude", reef.longitude);
+        body.put("depthMeters", reef.depthMeters);
+        body.put("reefType", reef.reefType);
+        body.put("healthStatus", reef.healthStatus);
+        body.put("healthScore", reef.healthScore);
+        body.put("bleachingRiskLevel", reef.bleachingRiskLevel);
+        body.put("biodiversityIndex", reef.biodiversityIndex);
+        HttpResponse<byte[]> response = client.send(post("/api/v1/reefs", "application/json",
+            objectMapper.writeValueAsBytes(body)), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Creating " + reef.name + " failed: HTTP " + response.statusCode()
+                + " " + new String(response.body()));
+        }
+        JsonNode created = objectMapper.readTree(response.body());
+        return new Reef(created.path("id").asLong(), reef.latitude, reef.longitude);
+    }
+
+    private byte[] sensorReading(Reef reef, SplittableRandom random) {
+        Map<String, Object> reading = new LinkedHashMap<>();
+        reading.put("timestamp", LocalDateTime.now().toString());
+        reading.put("reefId", reef.id());
+        reading.put("sensorType", SENSOR_TYPES[random.nextInt(SENSOR_TYPES.length)]);
+        reading.put("sensorId", "SN-" + reef.id());
+        reading.put("temperatureCelsius", 24.0 + random.nextDouble() * 8.0);
+        reading.put("salinityPpt", 33.0 + random.nextDouble() * 4.0);
+        reading.put("phLevel", 7.8 + random.nextDouble() * 0.5);
+        reading.put("dissolvedOxygenMgL", 4.0 + random.nextDouble() * 4.0);
+        reading.put("turbidityNtu", random.nextDouble() * 5.0);
+        reading.put("latitude", reef.latitude());
+        reading.put("longitude", reef.longitude());
+        try {
+            return objectMapper.writeValueAsBytes(reading);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Smooth gradients with a few shapes, roughly the size of a camera preview once compressed
+    private static byte[] png(SplittableRandom random) throws IOException {
+        BufferedImage image = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0x1000000)),
+                1024, 768, new Color(random.nextInt(0x1000000))));
+            graphics.fillRect(0, 0, 1024, 768);
+            for (int i = 0; i < 40; i++) {
+                graphics.setColor(new Color(random.nextInt(0x1000000)));
+                graphics.fillOval(random.nextInt(1024), random.nextInt(768), 10 + random.nextInt(120),
+                    10 + random.nextInt(120));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+            .timeout(TIMEOUT)
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    }
+
+    private static Datasets.Scale scaleFor(int reefCount) {
+        for (Datasets.Scale scale : Datasets.Scale.values()) {
+            if (scale.reefs >= reefCount) {
+                return scale;
+            }
+        }
+        throw new IllegalArgumentException("At most " + Datasets.Scale.LARGE.reefs + " reefs can be seeded");
+    }
+}
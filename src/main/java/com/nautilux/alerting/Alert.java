@@ -0,0 +1,18 @@
+package com.nautilux.alerting;
+
+import java.time.LocalDateTime;
+
+// Unit of alert delivery; source is the sensor rule or HEALTH_ASSESSMENT
+public record Alert(Long reefId, String source, String severity, String message, LocalDateTime raisedAt) {
+
+    public static final String HEALTH_ASSESSMENT = "HEALTH_ASSESSMENT";
+
+    public static Alert of(SensorAlert alert) {
+        return new Alert(alert.reefId(), alert.rule().name(), alert.severity(), alert.message(), alert.observedAt());
+    }
+
+    // Escalations carry a different severity and are not suppressed by the lower one
+    public String dedupKey() {
+        return reefId + "|" + source + "|" + severity;
+    }
+}
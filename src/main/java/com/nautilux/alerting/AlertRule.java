@@ -0,0 +1,16 @@
+package com.nautilux.alerting;
+
+public enum AlertRule {
+    TEMPERATURE_HIGH,
+    TEMPERATURE_LOW,
+    TEMPERATURE_WINDOW_HIGH,
+    TEMPERATURE_RATE,
+    DEGREE_HEATING_WEEKS,
+    DEGREE_HEATING_WEEKS_SEVERE,
+    SALINITY_LOW,
+    SALINITY_HIGH,
+    PH_LOW,
+    PH_HIGH,
+    DISSOLVED_OXYGEN_LOW,
+    TURBIDITY_HIGH
+}
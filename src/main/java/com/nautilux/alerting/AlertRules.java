@@ -0,0 +1,12 @@
+package com.nautilux.alerting;
+
+/*
+ * Resolved rule set for one reef. NaN disables a rule. Temperatures are in C,
+ * the rate in C per hour and degree heating weeks in C-weeks above the reef's
+ * maximum monthly mean (NOAA Coral Reef Watch definition).
+ */
+public record AlertRules(double temperatureMax, double temperatureMin, double windowTemperatureMax,
+                         double temperatureRateMax, double maximumMonthlyMean, double degreeHeatingWeeksMax,
+                         double salinityMin, double salinityMax, double phMin, double phMax,
+                         double dissolvedOxygenMin, double turbidityMax) {
+}
@@ -0,0 +1,13 @@
+package com.nautilux.alerting;
+
+import java.util.List;
+
+// Delivery target for alert batches; a thrown exception makes the pipeline retry the batch on this sink
+public interface AlertSink {
+
+    String name();
+
+    boolean enabled();
+
+    void deliver(List<Alert> alerts) throws Exception;
+}
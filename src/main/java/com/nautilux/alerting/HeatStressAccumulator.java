@@ -0,0 +1,54 @@
+package com.nautilux.alerting;
+
+import java.util.Arrays;
+
+/*
+ * Degree heating weeks over a rolling 12-week window: daily mean temperatures
+ * are kept in an 84-slot ring indexed by epoch day, and every day at least 1 C
+ * above the maximum monthly mean contributes its HotSpot (mean - MMM) / 7.
+ * Not thread-safe.
+ */
+public final class HeatStressAccumulator {
+
+    public static final int WINDOW_DAYS = 84;
+
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    private final long[] days = new long[WINDOW_DAYS];
+    private final double[] sums = new double[WINDOW_DAYS];
+    private final int[] counts = new int[WINDOW_DAYS];
+
+    public HeatStressAccumulator() {
+        Arrays.fill(days, Long.MIN_VALUE);
+    }
+
+    public void add(long timeMicros, double temperature) {
+        long day = Math.floorDiv(timeMicros, MICROS_PER_DAY);
+        int slot = (int) Math.floorMod(day, (long) WINDOW_DAYS);
+        if (days[slot] != day) {
+            if (days[slot] > day) {
+                return;   // older than the window
+            }
+            days[slot] = day;
+            sums[slot] = 0.0;
+            counts[slot] = 0;
+        }
+        sums[slot] += temperature;
+        counts[slot]++;
+    }
+
+    public double degreeHeatingWeeks(long nowMicros, double maximumMonthlyMean) {
+        long today = Math.floorDiv(nowMicros, MICROS_PER_DAY);
+        double total = 0.0;
+        for (int slot = 0; slot < WINDOW_DAYS; slot++) {
+            if (counts[slot] == 0 || days[slot] <= today - WINDOW_DAYS || days[slot] > today) {
+                continue;
+            }
+            double hotSpot = sums[slot] / counts[slot] - maximumMonthlyMean;
+            if (hotSpot >= 1.0) {
+                total += hotSpot;
+            }
+        }
+        return total / 7.0;
+    }
+}
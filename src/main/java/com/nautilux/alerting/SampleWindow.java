@@ -0,0 +1,83 @@
+package com.nautilux.alerting;
+
+/*
+ * Time-bounded ring buffer of samples with a running sum; samples must arrive in
+ * time order. Only evictBefore drops samples: a full buffer doubles instead, so
+ * the average always covers the whole window however fast a sensor reports.
+ * Not thread-safe.
+ */
+public final class SampleWindow {
+
+    private long[] times;
+    private double[] values;
+    private int head;
+    private int size;
+    private double sum;
+
+    public SampleWindow(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive: " + initialCapacity);
+        }
+        this.times = new long[initialCapacity];
+        this.values = new double[initialCapacity];
+    }
+
+    public void add(long timeMicros, double value) {
+        if (size == times.length) {
+            grow();
+        }
+        int tail = (head + size) % times.length;
+        times[tail] = timeMicros;
+        values[tail] = value;
+        sum += value;
+        size++;
+    }
+
+    private void grow() {
+        long[] grownTimes = new long[times.length * 2];
+        double[] grownValues = new double[values.length * 2];
+        int first = times.length - head;
+        System.arraycopy(times, head, grownTimes, 0, first);
+        System.arraycopy(times, 0, grownTimes, first, head);
+        System.arraycopy(values, head, grownValues, 0, first);
+        System.arraycopy(values, 0, grownValues, first, head);
+        times = grownTimes;
+        values = grownValues;
+        head = 0;
+    }
+
+    public void evictBefore(long timeMicros) {
+        while (size > 0 && times[head] < timeMicros) {
+            sum -= values[head];
+            head = (head + 1) % times.length;
+            size--;
+        }
+        if (size == 0) {
+            sum = 0.0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return times.length;
+    }
+
+    public double average() {
+        return size > 0 ? sum / size : Double.NaN;
+    }
+
+    public long oldestTime() {
+        return times[head];
+    }
+
+    public double oldestValue() {
+        return values[head];
+    }
+
+    public long newestTime() {
+        return times[(head + size - 1) % times.length];
+    }
+}
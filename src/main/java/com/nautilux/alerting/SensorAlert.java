@@ -0,0 +1,8 @@
+package com.nautilux.alerting;
+
+import java.time.LocalDateTime;
+
+// One rule crossing for one sensor of a reef; value and threshold are in the rule's unit
+public record SensorAlert(Long reefId, String sensorId, AlertRule rule, String severity, double value, double threshold,
+                          LocalDateTime observedAt, String message) {
+}
@@ -0,0 +1,178 @@
+package com.nautilux.alerting;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/*
+ * Evaluates readings against per-reef rules as they arrive. Window state lives in
+ * primitive ring buffers per sensor, so the readings of several sensors on one
+ * reef never mix into one mean or rate; rules are edge-triggered, so an alert
+ * fires when a rule starts to be breached and re-arms once the reading is back
+ * within bounds. Readings for different sensors are evaluated concurrently,
+ * readings for one sensor are serialized on its state.
+ */
+public class SensorRuleEngine {
+
+    private static final double MICROS_PER_HOUR = 3_600_000_000.0;
+
+    private final LongFunction<AlertRules> rules;
+    private final long windowMicros;
+    private final long minRateSpanMicros;
+    private final int windowSamples;
+    private final Map<SensorKey, SensorState> states = new ConcurrentHashMap<>();
+
+    // windowSamples is the initial window capacity per sensor; windows grow to hold the whole window
+    public SensorRuleEngine(LongFunction<AlertRules> rules, long windowMicros, long minRateSpanMicros,
+                            int windowSamples) {
+        if (windowMicros <= 0 || minRateSpanMicros < 0 || windowSamples < 1) {
+            throw new IllegalArgumentException("window and window samples must be positive, min rate span not negative");
+        }
+        this.rules = rules;
+        this.windowMicros = windowMicros;
+        this.minRateSpanMicros = minRateSpanMicros;
+        this.windowSamples = windowSamples;
+    }
+
+    // A missing sensor id is one sensor per reef, as in the uq_sensor_data_reading key
+    private record SensorKey(long reefId, String sensorId) {
+    }
+
+    private final class SensorState {
+        final AlertRules rules;
+        final SampleWindow temperatures = new SampleWindow(windowSamples);
+        final HeatStressAccumulator heatStress = new HeatStressAccumulator();
+        long active;   // bit per AlertRule ordinal
+
+        SensorState(AlertRules rules) {
+            this.rules = rules;
+        }
+    }
+
+    // NaN marks a missing value
+    public void evaluate(long reefId, String sensorId, long timeMicros, double temperature, double salinity,
+                         double ph, double dissolvedOxygen, double turbidity, Consumer<SensorAlert> sink) {
+        if (reefId <= 0) {
+            return;
+        }
+        SensorState state = states.computeIfAbsent(new SensorKey(reefId, sensorId),
+            key -> new SensorState(rules.apply(key.reefId())));
+        AlertRules r = state.rules;
+        synchronized (state) {
+            Emitter emit = new Emitter(state, reefId, sensorId, timeMicros, sink);
+            if (!Double.isNaN(temperature)) {
+                emit.above(AlertRule.TEMPERATURE_HIGH, "HIGH", temperature, r.temperatureMax(), "Water temperature");
+                emit.below(AlertRule.TEMPERATURE_LOW, "HIGH", temperature, r.temperatureMin(), "Water temperature");
+                evaluateTemperatureWindow(state, emit, timeMicros, temperature);
+            }
+            if (!Double.isNaN(salinity)) {
+                emit.below(AlertRule.SALINITY_LOW, "MEDIUM", salinity, r.salinityMin(), "Salinity");
+                emit.above(AlertRule.SALINITY_HIGH, "MEDIUM", salinity, r.salinityMax(), "Salinity");
+            }
+            if (!Double.isNaN(ph)) {
+                emit.below(AlertRule.PH_LOW, "HIGH", ph, r.phMin(), "pH");
+                emit.above(AlertRule.PH_HIGH, "MEDIUM", ph, r.phMax(), "pH");
+            }
+            if (!Double.isNaN(dissolvedOxygen)) {
+                emit.below(AlertRule.DISSOLVED_OXYGEN_LOW, "CRITICAL", dissolvedOxygen, r.dissolvedOxygenMin(),
+                    "Dissolved oxygen");
+            }
+            if (!Double.isNaN(turbidity)) {
+                emit.above(AlertRule.TURBIDITY_HIGH, "MEDIUM", turbidity, r.turbidityMax(), "Turbidity");
+            }
+        }
+    }
+
+    private void evaluateTemperatureWindow(SensorState state, Emitter emit, long timeMicros, double temperature) {
+        AlertRules r = state.rules;
+        SampleWindow window = state.temperatures;
+        state.heatStress.add(timeMicros, temperature);
+
+        // Late readings still count towards thresholds and heat stress but not the time-ordered window
+        if (window.size() == 0 || timeMicros >= window.newestTime()) {
+            window.add(timeMicros, temperature);
+            window.evictBefore(timeMicros - windowMicros);
+            emit.above(AlertRule.TEMPERATURE_WINDOW_HIGH, "HIGH", window.average(), r.windowTemperatureMax(),
+                "Rolling mean water temperature");
+
+            long span = timeMicros - window.oldestTime();
+            if (span >= minRateSpanMicros) {
+                double rate = Math.abs(temperature - window.oldestValue()) / (span / MICROS_PER_HOUR);
+                emit.above(AlertRule.TEMPERATURE_RATE, "HIGH", rate, r.temperatureRateMax(),
+                    "Water temperature change per hour");
+            }
+        }
+
+        if (!Double.isNaN(r.degreeHeatingWeeksMax()) && !Double.isNaN(r.maximumMonthlyMean())) {
+            double dhw = state.heatStress.degreeHeatingWeeks(timeMicros, r.maximumMonthlyMean());
+            emit.above(AlertRule.DEGREE_HEATING_WEEKS, "HIGH", dhw, r.degreeHeatingWeeksMax(),
+                "Degree heating weeks");
+            // NOAA alert level 2 (severe bleaching likely) starts at twice the level 1 threshold
+            emit.above(AlertRule.DEGREE_HEATING_WEEKS_SEVERE, "CRITICAL", dhw, 2 * r.degreeHeatingWeeksMax(),
+                "Degree heating weeks");
+        }
+    }
+
+    // Drops every sensor of the reef
+    public void forget(long reefId) {
+        states.keySet().removeIf(key -> key.reefId() == reefId);
+    }
+
+    public void clear() {
+        states.clear();
+    }
+
+    public int trackedSensors() {
+        return states.size();
+    }
+
+    private static final class Emitter {
+        final SensorState state;
+        final long reefId;
+        final String sensorId;
+        final long timeMicros;
+        final Consumer<SensorAlert> sink;
+
+        Emitter(SensorState state, long reefId, String sensorId, long timeMicros, Consumer<SensorAlert> sink) {
+            this.state = state;
+            this.reefId = reefId;
+            this.sensorId = sensorId;
+            this.timeMicros = timeMicros;
+            this.sink = sink;
+        }
+
+        void above(AlertRule rule, String severity, double value, double threshold, String what) {
+            if (!Double.isNaN(threshold)) {
+                transition(rule, severity, value, threshold, value > threshold, what + " above ");
+            }
+        }
+
+        void below(AlertRule rule, String severity, double value, double threshold, String what) {
+            if (!Double.isNaN(threshold)) {
+                transition(rule, severity, value, threshold, value < threshold, what + " below ");
+            }
+        }
+
+        private void transition(AlertRule rule, String severity, double value, double threshold,
+                                boolean breached, String message) {
+            long bit = 1L << rule.ordinal();
+            if (!breached) {
+                state.active &= ~bit;
+                return;
+            }
+            if ((state.active & bit) != 0) {
+                return;
+            }
+            state.active |= bit;
+            LocalDateTime observedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(timeMicros, 1_000_000L),
+                (int) Math.floorMod(timeMicros, 1_000_000L) * 1000, ZoneOffset.UTC);
+            sink.accept(new SensorAlert(reefId, sensorId, rule, severity, value, threshold, observedAt,
+                sensorId != null
+                    ? String.format("%s%.2f (%.2f) on reef %d, sensor %s", message, threshold, value, reefId, sensorId)
+                    : String.format("%s%.2f (%.2f) on reef %d", message, threshold, value, reefId)));
+        }
+    }
+}
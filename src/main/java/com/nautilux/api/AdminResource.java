@@ -0,0 +1,95 @@
+package com.nautilux.api;
+
+import com.nautilux.service.AlertService;
+import com.nautilux.service.AnalysisScheduler;
+import com.nautilux.service.ReefCache;
+import com.nautilux.tracing.Trace;
+import com.nautilux.tracing.TraceRecorder;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Duration;
+
+@Path("/api/v1/admin")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Administration", description = "Operational endpoints")
+public class AdminResource {
+
+    @Inject
+    ReefCache reefCache;
+
+    @Inject
+    AlertService alertService;
+
+    @Inject
+    AnalysisScheduler analysisScheduler;
+
+    @Inject
+    TraceRecorder traceRecorder;
+
+    @GET
+    @Path("/cache")
+    @Operation(summary = "Get cache statistics", description = "Size, hit, miss, eviction and expiration counts per cache")
+    @APIResponse(responseCode = "200", description = "Cache statistics retrieved")
+    public Response getCacheStats() {
+        return Response.ok(reefCache.stats()).build();
+    }
+
+    @DELETE
+    @Path("/cache")
+    @Operation(summary = "Clear caches", description = "Invalidate every cached reef, zone list and health snapshot")
+    @APIResponse(responseCode = "204", description = "Caches cleared")
+    public Response clearCaches() {
+        reefCache.invalidateAll();
+        return Response.noContent().build();
+    }
+
+    @GET
+    @Path("/alerts")
+    @Operation(summary = "Get alert pipeline statistics", description = "Queue depth and accepted, suppressed, dropped, delivered and dead-lettered alert counts")
+    @APIResponse(responseCode = "200", description = "Alert pipeline statistics retrieved")
+    public Response getAlertStats() {
+        return Response.ok(alertService.stats()).build();
+    }
+
+    @GET
+    @Path("/analysis")
+    @Operation(summary = "Get analysis scheduler statistics", description = "Running workers, claimed, recovered, completed and failed analyses, and the PENDING/PROCESSING backlog")
+    @APIResponse(responseCode = "200", description = "Analysis scheduler statistics retrieved")
+    public Response getAnalysisStats() {
+        return Response.ok(analysisScheduler.stats()).build();
+    }
+
+    @GET
+    @Path("/traces")
+    @Operation(summary = "Get the slowest recent traces", description = "Sampled requests and Camel exchanges, slowest first, with their spans and self time per span kind")
+    @APIResponse(responseCode = "200", description = "Traces retrieved")
+    @APIResponse(responseCode = "400", description = "Invalid parameters")
+    public Response getSlowestTraces(
+            @QueryParam("limit") @DefaultValue("20") int limit,
+            @QueryParam("minMillis") @DefaultValue("0") long minMillis) {
+        if (limit < 1 || limit > 500 || minMillis < 0) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("limit must be between 1 and 500 and minMillis must not be negative").build();
+        }
+        return Response.ok(traceRecorder.slowest(limit, Duration.ofMillis(minMillis))).build();
+    }
+
+    @GET
+    @Path("/traces/{id}")
+    @Operation(summary = "Get a trace", description = "A retained trace by the id returned in the X-Trace-Id response header")
+    @APIResponse(responseCode = "200", description = "Trace retrieved")
+    @APIResponse(responseCode = "404", description = "Trace not retained")
+    public Response getTrace(@PathParam("id") String id) {
+        Trace.View trace = traceRecorder.find(id);
+        if (trace == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(trace).build();
+    }
+}
@@ -1,8 +1,14 @@
 package com.nautilux.api;
 
+import com.nautilux.dto.ReefSummary;
 import com.nautilux.model.CoralReef;
 import com.nautilux.service.CoralReefService;
+import com.nautilux.service.ExportService;
+import com.nautilux.service.ReefAlertIndex;
+import com.nautilux.spatial.GeoMath;
+import com.nautilux.tracing.Traced;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -15,39 +21,86 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Path("/api/v1/reefs")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Coral Reefs", description = "Coral reef management and monitoring")
+@Traced
 public class CoralReefResource {
 
+    private static final int MAX_NEAREST = 1000;
+    static final int MAX_PAGE_SIZE = 500;
+
     @Inject
     CoralReefService coralReefService;
 
+    @Inject
+    ExportService exportService;
+
     @GET
-    @Operation(summary = "Get all coral reefs", description = "Retrieve a list of all coral reefs with optional filtering")
-    @APIResponse(responseCode = "200", description = "List of coral reefs", 
-                content = @Content(schema = @Schema(implementation = CoralReef.class)))
+    @RunOnVirtualThread
+    @Operation(summary = "Get all coral reefs", description = "Retrieve a list of all coral reefs with optional filtering. " +
+               "Pages are keyset-paginated by name: pass the X-Next-Cursor header of a response as cursor to fetch the next page. " +
+               "The page parameter selects legacy offset paging.")
+    @APIResponse(responseCode = "200", description = "List of coral reef summaries", 
+                content = @Content(schema = @Schema(implementation = ReefSummary.class)))
+    @APIResponse(responseCode = "400", description = "Invalid cursor or page size")
     public Response getAllReefs(
             @QueryParam("healthStatus") CoralReef.HealthStatus healthStatus,
             @QueryParam("reefType") CoralReef.ReefType reefType,
-            @QueryParam("page") @DefaultValue("0") int page,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("page") Integer page,
             @QueryParam("size") @DefaultValue("20") int size) {
         
-        List<CoralReef> reefs = coralReefService.findReefs(healthStatus, reefType, page, size);
-        return Response.ok(reefs).build();
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("size must be between 1 and " + MAX_PAGE_SIZE).build();
+        }
+        if (page != null) {
+            List<ReefSummary> reefs = coralReefService.findReefs(healthStatus, reefType, page, size);
+            return Response.ok(reefs).build();
+        }
+        
+        CoralReefService.ReefPage reefPage;
+        try {
+            reefPage = coralReefService.findReefsAfter(healthStatus, reefType, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        Response.ResponseBuilder response = Response.ok(reefPage.reefs());
+        if (reefPage.nextCursor() != null) {
+            response.header("X-Next-Cursor", reefPage.nextCursor());
+        }
+        return response.build();
     }
 
     @GET
+    @RunOnVirtualThread
     @Path("/{id}")
-    @Operation(summary = "Get coral reef by ID", description = "Retrieve a specific coral reef by its ID")
+    @Operation(summary = "Get coral reef by ID", description = "Retrieve a specific coral reef by its ID; include=zones adds its zones")
     @APIResponse(responseCode = "200", description = "Coral reef found", 
                 content = @Content(schema = @Schema(implementation = CoralReef.class)))
+    @APIResponse(responseCode = "400", description = "Unsupported include")
     @APIResponse(responseCode = "404", description = "Coral reef not found")
-    public Response getReefById(@PathParam("id") Long id) {
-        CoralReef reef = coralReefService.findById(id);
+    public Response getReefById(@PathParam("id") Long id, @QueryParam("include") String include) {
+        if (include != null) {
+            if (!"zones".equalsIgnoreCase(include)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Unsupported include: " + include).build();
+            }
+            var detail = coralReefService.findDetailWithZones(id);
+            if (detail == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return Response.ok(detail).build();
+        }
+        
+        CoralReef reef = coralReefService.findCachedById(id);
         if (reef == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
@@ -55,6 +108,7 @@ public class CoralReefResource {
     }
 
     @POST
+    @RunOnVirtualThread
     @Transactional
     @Operation(summary = "Create new coral reef", description = "Create a new coral reef entry")
     @APIResponse(responseCode = "201", description = "Coral reef created", 
@@ -66,6 +120,7 @@ public class CoralReefResource {
     }
 
     @PUT
+    @RunOnVirtualThread
     @Path("/{id}")
     @Transactional
     @Operation(summary = "Update coral reef", description = "Update an existing coral reef")
@@ -83,6 +138,7 @@ public class CoralReefResource {
     }
 
     @DELETE
+    @RunOnVirtualThread
     @Path("/{id}")
     @Transactional
     @Operation(summary = "Delete coral reef", description = "Delete a coral reef and all associated data")
@@ -97,6 +153,7 @@ public class CoralReefResource {
     }
 
     @GET
+    @RunOnVirtualThread
     @Path("/{id}/health")
     @Operation(summary = "Get reef health status", description = "Get current health status and metrics for a coral reef")
     @APIResponse(responseCode = "200", description = "Health status retrieved")
@@ -110,6 +167,7 @@ public class CoralReefResource {
     }
 
     @GET
+    @RunOnVirtualThread
     @Path("/{id}/metrics")
     @Operation(summary = "Get reef metrics", description = "Get detailed metrics and analytics for a coral reef")
     @APIResponse(responseCode = "200", description = "Metrics retrieved")
@@ -127,6 +185,25 @@ public class CoralReefResource {
     }
 
     @GET
+    @RunOnVirtualThread
+    @Path("/{id}/metrics/timeseries")
+    @Operation(summary = "Get reef metric time series", description = "Get bucketed sensor averages, using the coarsest rollup resolution that fits the range")
+    @APIResponse(responseCode = "200", description = "Time series retrieved")
+    @APIResponse(responseCode = "404", description = "Coral reef not found")
+    public Response getReefMetricsTimeSeries(
+            @PathParam("id") Long id,
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate) {
+        
+        var series = coralReefService.getMetricsTimeSeries(id, startDate, endDate);
+        if (series == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(series).build();
+    }
+
+    @GET
+    @RunOnVirtualThread
     @Path("/{id}/zones")
     @Operation(summary = "Get reef zones", description = "Get all zones within a coral reef")
     @APIResponse(responseCode = "200", description = "Reef zones retrieved")
@@ -140,45 +217,205 @@ public class CoralReefResource {
     }
 
     @GET
+    @RunOnVirtualThread
+    @Path("/{id}/images")
+    @Operation(summary = "Get reef images", description = "Get the newest image analyses of a reef in a time range, with their annotations")
+    @APIResponse(responseCode = "200", description = "Images retrieved")
+    @APIResponse(responseCode = "400", description = "Invalid time range or limit")
+    @APIResponse(responseCode = "404", description = "Coral reef not found")
+    public Response getReefImages(
+            @PathParam("id") Long id,
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate,
+            @QueryParam("limit") @DefaultValue("50") int limit) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("limit must be between 1 and " + MAX_PAGE_SIZE).build();
+        }
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = startDate != null ? LocalDateTime.parse(startDate) : LocalDateTime.now().minusDays(30);
+            end = endDate != null ? LocalDateTime.parse(endDate) : LocalDateTime.now();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Dates must be ISO-8601 local date-times").build();
+        }
+        if (coralReefService.findCachedById(id) == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(coralReefService.findImages(id, start, end, limit)).build();
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/export/{dataset}")
+    @Produces({"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Export reef data", description = "Stream sensor readings, images or sonar surveys of a reef in a time range as NDJSON or CSV, ordered by time")
+    @APIResponse(responseCode = "200", description = "Export streamed")
+    @APIResponse(responseCode = "400", description = "Invalid dataset, format or time range")
+    @APIResponse(responseCode = "404", description = "Coral reef not found")
+    public Response exportReefData(
+            @PathParam("id") Long id,
+            @PathParam("dataset") String dataset,
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate,
+            @QueryParam("format") @DefaultValue("ndjson") String format) {
+        
+        ExportService.Dataset exportDataset;
+        ExportService.Format exportFormat;
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            exportDataset = ExportService.Dataset.valueOf(dataset.toUpperCase());
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase());
+            start = startDate != null ? LocalDateTime.parse(startDate) : LocalDateTime.now().minusDays(30);
+            end = endDate != null ? LocalDateTime.parse(endDate) : LocalDateTime.now();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("dataset must be sensors, images or sonar, format ndjson or csv, dates ISO-8601").build();
+        }
+        if (!start.isBefore(end)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("startDate must be before endDate").build();
+        }
+        if (coralReefService.findCachedById(id) == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        
+        String fileName = "reef-" + id + "-" + exportDataset.name().toLowerCase() + "."
+                + (exportFormat == ExportService.Format.CSV ? "csv" : "ndjson");
+        return Response.ok(exportService.export(exportDataset, id, start, end, exportFormat), exportFormat.mediaType)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .build();
+    }
+
+    @GET
+    @RunOnVirtualThread
     @Path("/nearby")
-    @Operation(summary = "Find nearby reefs", description = "Find coral reefs within a specified radius")
+    @Operation(summary = "Find nearby reefs", description = "Find coral reefs within a great-circle radius, or the k nearest reefs")
     @APIResponse(responseCode = "200", description = "Nearby reefs found")
+    @APIResponse(responseCode = "400", description = "Invalid coordinates or parameters")
     public Response getNearbyReefs(
             @QueryParam("lat") Double latitude,
             @QueryParam("lon") Double longitude,
-            @QueryParam("radiusKm") @DefaultValue("10.0") Double radiusKm) {
+            @QueryParam("radiusKm") Double radiusKm,
+            @QueryParam("k") Integer k,
+            @QueryParam("sort") String sort) {
         
         if (latitude == null || longitude == null) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Latitude and longitude are required").build();
         }
+        if (!GeoMath.isValidLatitude(latitude) || !GeoMath.isValidLongitude(longitude)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Latitude must be within [-90, 90] and longitude within [-180, 180]").build();
+        }
+        if (radiusKm != null && !(radiusKm > 0)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("radiusKm must be positive").build();
+        }
+        if (k != null && (k < 1 || k > MAX_NEAREST)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("k must be between 1 and " + MAX_NEAREST).build();
+        }
+        if (sort != null && !"distance".equalsIgnoreCase(sort)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Unsupported sort: " + sort).build();
+        }
         
-        var nearbyReefs = coralReefService.findNearby(latitude, longitude, radiusKm);
+        var nearbyReefs = coralReefService.findNearby(latitude, longitude, radiusKm, k, sort != null);
         return Response.ok(nearbyReefs).build();
     }
 
     @GET
+    @RunOnVirtualThread
+    @Path("/within")
+    @Operation(summary = "Find reefs in a bounding box", description = "Find coral reefs inside a lat/lon box; minLon greater than maxLon crosses the antimeridian")
+    @APIResponse(responseCode = "200", description = "Reefs found")
+    @APIResponse(responseCode = "400", description = "Invalid bounding box")
+    public Response getReefsWithin(
+            @QueryParam("minLat") Double minLatitude,
+            @QueryParam("minLon") Double minLongitude,
+            @QueryParam("maxLat") Double maxLatitude,
+            @QueryParam("maxLon") Double maxLongitude) {
+        
+        if (minLatitude == null || minLongitude == null || maxLatitude == null || maxLongitude == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("minLat, minLon, maxLat and maxLon are required").build();
+        }
+        if (!GeoMath.isValidLatitude(minLatitude) || !GeoMath.isValidLatitude(maxLatitude)
+                || minLatitude > maxLatitude
+                || !GeoMath.isValidLongitude(minLongitude) || !GeoMath.isValidLongitude(maxLongitude)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid bounding box").build();
+        }
+        
+        var reefs = coralReefService.findWithin(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        return Response.ok(reefs).build();
+    }
+
+    @GET
+    @RunOnVirtualThread
     @Path("/alerts")
-    @Operation(summary = "Get health alerts", description = "Get reefs with health alerts or critical conditions")
+    @Operation(summary = "Get health alerts", description = "Get reefs with health alerts or critical conditions, most severe and most recently updated first")
     @APIResponse(responseCode = "200", description = "Alerts retrieved")
+    @APIResponse(responseCode = "400", description = "Invalid severity or limit")
     public Response getHealthAlerts(
             @QueryParam("severity") String severity,
             @QueryParam("limit") @DefaultValue("10") int limit) {
         
-        var alerts = coralReefService.getHealthAlerts(severity, limit);
+        ReefAlertIndex.Severity alertSeverity = null;
+        if (severity != null) {
+            try {
+                alertSeverity = ReefAlertIndex.Severity.valueOf(severity.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("severity must be one of CRITICAL, HIGH, MEDIUM, LOW").build();
+            }
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("limit must be between 1 and " + MAX_PAGE_SIZE).build();
+        }
+        
+        var alerts = coralReefService.getHealthAlerts(alertSeverity, limit);
         return Response.ok(alerts).build();
     }
 
     @POST
+    @RunOnVirtualThread
     @Path("/{id}/refresh-health")
-    @Operation(summary = "Refresh health assessment", description = "Trigger a fresh health assessment for a coral reef")
-    @APIResponse(responseCode = "202", description = "Health assessment initiated")
+    @Operation(summary = "Refresh health assessment", description = "Queue a fresh health assessment for a coral reef; poll the returned job for its outcome")
+    @APIResponse(responseCode = "202", description = "Health assessment queued")
     @APIResponse(responseCode = "404", description = "Coral reef not found")
+    @APIResponse(responseCode = "503", description = "Assessment queue is full")
     public Response refreshHealthAssessment(@PathParam("id") Long id) {
-        boolean initiated = coralReefService.refreshHealthAssessment(id);
-        if (!initiated) {
+        if (coralReefService.findCachedById(id) == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        var job = coralReefService.refreshHealthAssessment(id);
+        if (job == null) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("Health assessment queue is full").build();
+        }
+        return Response.accepted(job.describe())
+                .location(URI.create("/api/v1/reefs/health-jobs/" + job.id()))
+                .build();
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/health-jobs/{jobId}")
+    @Operation(summary = "Get health assessment job", description = "Poll the status and result of a queued health assessment")
+    @APIResponse(responseCode = "200", description = "Job found")
+    @APIResponse(responseCode = "404", description = "Job not found or expired")
+    public Response getHealthAssessmentJob(@PathParam("jobId") String jobId) {
+        var job = coralReefService.findHealthAssessmentJob(jobId);
+        if (job == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.accepted().build();
+        return Response.ok(job.describe()).build();
     }
-} 
\ No newline at end of file
+}
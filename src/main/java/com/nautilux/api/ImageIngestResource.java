@@ -0,0 +1,85 @@
+package com.nautilux.api;
+
+import com.nautilux.dto.ImageUpload;
+import com.nautilux.service.StorageService;
+import com.nautilux.storage.ObjectTooLargeException;
+import com.nautilux.tracing.Traced;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
+
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+// Streaming replacement for the http-image-ingestion route, which buffered whole request bodies
+@Path("/api/v1/ingest/image")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Images", description = "Reef image ingestion")
+@Traced
+public class ImageIngestResource {
+
+    @Inject
+    StorageService storageService;
+
+    @POST
+    @RunOnVirtualThread
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Operation(summary = "Upload image (multipart)", description = "Store the 'file' part; identical content is stored once")
+    @APIResponse(responseCode = "201", description = "Image stored")
+    @APIResponse(responseCode = "200", description = "Same content already stored for this reef")
+    @APIResponse(responseCode = "400", description = "Missing file, unknown reef or unsupported format")
+    @APIResponse(responseCode = "413", description = "Image exceeds processing.image.max-size")
+    public Response uploadMultipart(@RestForm("file") FileUpload file, @RestForm("reefId") Long reefId) {
+        if (file == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Missing file part").build();
+        }
+        return store(() -> storageService.storeUpload(file.uploadedFile(), file.fileName(), reefId));
+    }
+
+    @POST
+    @RunOnVirtualThread
+    @Consumes({"image/jpeg", "image/png", "image/tiff", MediaType.APPLICATION_OCTET_STREAM})
+    @Operation(summary = "Upload image", description = "Store a raw image body, hashed while it streams to disk")
+    @APIResponse(responseCode = "201", description = "Image stored")
+    @APIResponse(responseCode = "200", description = "Same content already stored for this reef")
+    @APIResponse(responseCode = "400", description = "Unknown reef or unsupported format")
+    @APIResponse(responseCode = "413", description = "Image exceeds processing.image.max-size")
+    public Response upload(
+            InputStream body,
+            @QueryParam("fileName") String fileName,
+            @QueryParam("reefId") Long reefId,
+            @HeaderParam("Content-Length") Long contentLength) {
+
+        if (contentLength != null && contentLength > storageService.maxImageBytes()) {
+            return tooLarge(storageService.maxImageBytes());
+        }
+        return store(() -> storageService.storeUpload(body, fileName, reefId));
+    }
+
+    private Response store(Supplier<ImageUpload> upload) {
+        try {
+            ImageUpload stored = upload.get();
+            // New images stay PENDING until AnalysisScheduler claims them
+            return Response.status(stored.duplicate() ? Response.Status.OK : Response.Status.CREATED)
+                .entity(stored)
+                .build();
+        } catch (ObjectTooLargeException e) {
+            return tooLarge(e.limitBytes());
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+    }
+
+    private static Response tooLarge(long limitBytes) {
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+            .entity("Image exceeds the " + limitBytes + " byte limit")
+            .build();
+    }
+}
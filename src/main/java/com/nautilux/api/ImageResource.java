@@ -0,0 +1,163 @@
+package com.nautilux.api;
+
+import com.nautilux.model.ImageData;
+import com.nautilux.service.ImageDerivativeService;
+import com.nautilux.storage.ImagePyramid;
+import com.nautilux.storage.UndecodableImageException;
+import com.nautilux.tracing.Traced;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * Thumbnails and tiles derived from stored images. Derivatives are keyed by content
+ * hash and rendition settings and never change, so ETags come from those alone and
+ * revalidation is answered with 304 before the derivative cache is touched.
+ */
+@Path("/api/v1/images")
+@Tag(name = "Images", description = "Reef image previews and tiles")
+@Traced
+public class ImageResource {
+
+    private static final int RETRY_AFTER_SECONDS = 2;
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
+    @Inject
+    ImageDerivativeService imageDerivativeService;
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/thumbnail")
+    @Produces(ImagePyramid.MEDIA_TYPE)
+    @Operation(summary = "Get thumbnail", description = "JPEG preview of the image; supports If-None-Match")
+    @APIResponse(responseCode = "200", description = "Thumbnail")
+    @APIResponse(responseCode = "304", description = "Thumbnail not modified")
+    @APIResponse(responseCode = "404", description = "Image not found or not content-addressed")
+    @APIResponse(responseCode = "422", description = "Image cannot be decoded")
+    @APIResponse(responseCode = "503", description = "Thumbnail is still being rendered")
+    public Response getThumbnail(@PathParam("id") Long id, @Context Request request) {
+        return serve(id, "thumbnail", request, directory -> directory.resolve(ImagePyramid.THUMBNAIL));
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/tiles")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Get tile pyramid", description = "Dimensions, tile size and level count of the image's tile pyramid")
+    @APIResponse(responseCode = "200", description = "Tile pyramid descriptor")
+    @APIResponse(responseCode = "404", description = "Image not found or not content-addressed")
+    @APIResponse(responseCode = "422", description = "Image cannot be decoded")
+    @APIResponse(responseCode = "503", description = "Tiles are still being rendered")
+    public Response getPyramid(@PathParam("id") Long id) {
+        ImageData image = imageDerivativeService.findImage(id);
+        if (image == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        java.nio.file.Path directory;
+        try {
+            directory = imageDerivativeService.derivatives(image);
+        } catch (UndecodableImageException e) {
+            return undecodable(e);
+        }
+        if (directory == null) {
+            return notReady();
+        }
+        ImagePyramid.Pyramid pyramid = imageDerivativeService.pyramid(directory);
+        return Response.ok(Map.of(
+                "imageId", id,
+                "width", pyramid.width(),
+                "height", pyramid.height(),
+                "tileSize", pyramid.tileSize(),
+                "levels", pyramid.levels(),
+                "format", "jpg"))
+            .tag(etag(image, "pyramid"))
+            .build();
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/tiles/{level}/{x}/{y}")
+    @Produces(ImagePyramid.MEDIA_TYPE)
+    @Operation(summary = "Get tile", description = "JPEG tile at a pyramid level (0 is the smallest); supports If-None-Match")
+    @APIResponse(responseCode = "200", description = "Tile")
+    @APIResponse(responseCode = "304", description = "Tile not modified")
+    @APIResponse(responseCode = "404", description = "Image or tile not found")
+    @APIResponse(responseCode = "422", description = "Image cannot be decoded")
+    @APIResponse(responseCode = "503", description = "Tiles are still being rendered")
+    public Response getTile(
+            @PathParam("id") Long id,
+            @PathParam("level") int level,
+            @PathParam("x") int x,
+            @PathParam("y") int y,
+            @Context Request request) {
+
+        return serve(id, level + "-" + x + "-" + y, request, directory -> ImagePyramid.tile(directory, level, x, y));
+    }
+
+    private Response serve(Long id, String variant, Request request,
+                           Function<java.nio.file.Path, java.nio.file.Path> file) {
+        ImageData image = imageDerivativeService.findImage(id);
+        if (image == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        EntityTag etag = etag(image, variant);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl()).build();
+        }
+
+        java.nio.file.Path directory;
+        try {
+            directory = imageDerivativeService.derivatives(image);
+        } catch (UndecodableImageException e) {
+            return undecodable(e);
+        }
+        if (directory == null) {
+            return notReady();
+        }
+        java.nio.file.Path derivative = file.apply(directory);
+        if (!Files.isRegularFile(derivative)) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(derivative.toFile(), ImagePyramid.MEDIA_TYPE)
+            .tag(etag)
+            .cacheControl(cacheControl())
+            .build();
+    }
+
+    private EntityTag etag(ImageData image, String variant) {
+        return new EntityTag(image.contentHash + "-" + imageDerivativeService.rendition() + "-" + variant);
+    }
+
+    private static CacheControl cacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(86400);
+        return cacheControl;
+    }
+
+    private static Response notReady() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", RETRY_AFTER_SECONDS)
+            .build();
+    }
+
+    private static Response undecodable(UndecodableImageException e) {
+        return Response.status(UNPROCESSABLE_ENTITY)
+            .type(MediaType.TEXT_PLAIN)
+            .entity(e.getMessage())
+            .build();
+    }
+}
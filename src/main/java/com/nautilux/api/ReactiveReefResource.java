@@ -0,0 +1,108 @@
+package com.nautilux.api;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.service.CoralReefService;
+import com.nautilux.service.ReactiveReefRepository;
+import com.nautilux.service.ReefAlertIndex;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+// Event-loop variants of the read-mostly reef endpoints; same responses as /api/v1/reefs
+@Path("/api/v1/reactive/reefs")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Coral Reefs (reactive)", description = "Non-blocking read endpoints backed by the reactive Postgres client")
+public class ReactiveReefResource {
+
+    @Inject
+    ReactiveReefRepository reactiveReefRepository;
+
+    @GET
+    @Operation(summary = "Get all coral reefs", description = "Non-blocking variant of GET /api/v1/reefs; " +
+               "keyset-paginated by name through the X-Next-Cursor header, page selects legacy offset paging")
+    @APIResponse(responseCode = "200", description = "List of coral reef summaries")
+    @APIResponse(responseCode = "400", description = "Invalid cursor or page size")
+    public Uni<Response> getAllReefs(
+            @QueryParam("healthStatus") CoralReef.HealthStatus healthStatus,
+            @QueryParam("reefType") CoralReef.ReefType reefType,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("page") Integer page,
+            @QueryParam("size") @DefaultValue("20") int size) {
+        
+        if (size < 1 || size > CoralReefResource.MAX_PAGE_SIZE) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("size must be between 1 and " + CoralReefResource.MAX_PAGE_SIZE).build());
+        }
+        if (page != null) {
+            return reactiveReefRepository.findReefs(healthStatus, reefType, page, size)
+                .map(reefs -> Response.ok(reefs).build());
+        }
+        
+        Uni<CoralReefService.ReefPage> reefPage;
+        try {
+            reefPage = reactiveReefRepository.findReefsAfter(healthStatus, reefType, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+        }
+        return reefPage.map(found -> {
+            Response.ResponseBuilder response = Response.ok(found.reefs());
+            if (found.nextCursor() != null) {
+                response.header("X-Next-Cursor", found.nextCursor());
+            }
+            return response.build();
+        });
+    }
+
+    @GET
+    @Path("/{id}/health")
+    @Operation(summary = "Get reef health status", description = "Non-blocking variant of GET /api/v1/reefs/{id}/health")
+    @APIResponse(responseCode = "200", description = "Health status retrieved")
+    @APIResponse(responseCode = "404", description = "Coral reef not found")
+    public Uni<Response> getReefHealth(@PathParam("id") Long id) {
+        return reactiveReefRepository.getHealthStatus(id)
+            .map(healthData -> healthData == null
+                ? Response.status(Response.Status.NOT_FOUND).build()
+                : Response.ok(healthData).build());
+    }
+
+    @GET
+    @Path("/{id}/zones")
+    @Operation(summary = "Get reef zones", description = "Non-blocking variant of GET /api/v1/reefs/{id}/zones")
+    @APIResponse(responseCode = "200", description = "Reef zones retrieved")
+    public Uni<Response> getReefZones(@PathParam("id") Long id) {
+        return reactiveReefRepository.findZones(id)
+            .map(zones -> Response.ok(zones).build());
+    }
+
+    @GET
+    @Path("/alerts")
+    @Operation(summary = "Get health alerts", description = "Non-blocking variant of GET /api/v1/reefs/alerts")
+    @APIResponse(responseCode = "200", description = "Alerts retrieved")
+    @APIResponse(responseCode = "400", description = "Invalid severity or limit")
+    public Uni<Response> getHealthAlerts(
+            @QueryParam("severity") String severity,
+            @QueryParam("limit") @DefaultValue("10") int limit) {
+        
+        ReefAlertIndex.Severity alertSeverity = null;
+        if (severity != null) {
+            try {
+                alertSeverity = ReefAlertIndex.Severity.valueOf(severity.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                        .entity("severity must be one of CRITICAL, HIGH, MEDIUM, LOW").build());
+            }
+        }
+        if (limit < 1 || limit > CoralReefResource.MAX_PAGE_SIZE) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("limit must be between 1 and " + CoralReefResource.MAX_PAGE_SIZE).build());
+        }
+        
+        return reactiveReefRepository.findHealthAlerts(alertSeverity, limit)
+            .map(alerts -> Response.ok(alerts).build());
+    }
+}
@@ -0,0 +1,77 @@
+package com.nautilux.api;
+
+import com.nautilux.service.SonarStoreService;
+import com.nautilux.tracing.Traced;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.Map;
+
+@Path("/api/v1/sonar")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Sonar", description = "Raw sonar returns from the column store")
+@Traced
+public class SonarResource {
+
+    @Inject
+    SonarStoreService sonarStoreService;
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/pings")
+    @Operation(summary = "Get raw pings", description = "Read full-resolution ping returns for a ping index range [from, to), " +
+               "all beams or a single beam. Pages end early at the configured ping and sample limits; continue from the returned to.")
+    @APIResponse(responseCode = "200", description = "Pings retrieved")
+    @APIResponse(responseCode = "400", description = "Beam outside the ping, or a single ping above the sample limit")
+    @APIResponse(responseCode = "404", description = "Sonar data or raw store not found")
+    public Response getPings(
+            @PathParam("id") Long id,
+            @QueryParam("from") @DefaultValue("0") int from,
+            @QueryParam("to") @DefaultValue("100") int to,
+            @QueryParam("beam") Integer beam) {
+        
+        Map<String, Object> pings;
+        try {
+            pings = sonarStoreService.getPings(id, from, to, beam);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        if (pings == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(pings).build();
+    }
+
+    @GET
+    @RunOnVirtualThread
+    @Path("/{id}/echogram")
+    @Operation(summary = "Get echogram", description = "Read a downsampled echogram for a ping index range, for visualisation")
+    @APIResponse(responseCode = "200", description = "Echogram retrieved")
+    @APIResponse(responseCode = "400", description = "Beam outside the pings")
+    @APIResponse(responseCode = "404", description = "Sonar data or raw store not found")
+    public Response getEchogram(
+            @PathParam("id") Long id,
+            @QueryParam("from") @DefaultValue("0") int from,
+            @QueryParam("to") @DefaultValue("2147483647") int to,
+            @QueryParam("beam") @DefaultValue("-1") int beam,
+            @QueryParam("maxPings") @DefaultValue("1000") int maxPings,
+            @QueryParam("maxSamples") @DefaultValue("512") int maxSamples) {
+        
+        Map<String, Object> echogram;
+        try {
+            echogram = sonarStoreService.getEchogram(id, from, to, beam, maxPings, maxSamples);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        if (echogram == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(echogram).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.nautilux.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Bounded read-through cache with expire-after-write TTL and LRU eviction.
+ *
+ * Loads run outside the lock. A miss leaves a loading marker with a fresh stamp
+ * under its key, and the loaded value replaces it only if the same marker is still
+ * there. Invalidating the key (or everything) removes the marker, so a slow load can
+ * never resurrect data that was invalidated under it, while loads of other keys
+ * are unaffected. Null results are returned but not cached.
+ */
+public class TtlCache<K, V> {
+
+    public record Stats(String name, int size, int maxSize, long ttlMillis, long hits, long misses,
+                        long evictions, long expirations, long invalidations) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    // value is null while the entry only marks a load in flight
+    private record Entry<V>(V value, long expiresAtNanos, Object stamp) {
+
+        boolean loading() {
+            return value == null;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TtlCache(String name, int maxSize, Duration ttl) {
+        if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache " + name + " needs a positive size and TTL");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxSize) {
+                    if (!eldest.getValue().loading()) {
+                        evictions.increment();
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<? extends V> loader) {
+        long now = System.nanoTime();
+        Entry<V> marker;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.loading()) {
+                if (entry.expiresAtNanos() - now > 0) {
+                    hits.increment();
+                    return entry.value();
+                }
+                expirations.increment();
+                entry = null;
+            }
+            // Concurrent misses of one key share its marker, so either load may store
+            marker = entry != null ? entry : new Entry<>(null, 0L, new Object());
+            entries.put(key, marker);
+        }
+        misses.increment();
+
+        V value = null;
+        try {
+            value = loader.get();
+        } finally {
+            synchronized (entries) {
+                Entry<V> current = entries.get(key);
+                if (current != null && current.stamp() == marker.stamp()) {
+                    if (value != null) {
+                        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos, marker.stamp()));
+                    } else if (current.loading()) {
+                        entries.remove(key);
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null && !removed.loading()) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.add(entries.values().stream().filter(entry -> !entry.loading()).count());
+            entries.clear();
+        }
+    }
+
+    // Drops expired entries; lookups expire lazily, this keeps idle keys from holding memory
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Iterator<Entry<V>> values = entries.values().iterator();
+            while (values.hasNext()) {
+                Entry<V> entry = values.next();
+                if (!entry.loading() && entry.expiresAtNanos() - now <= 0) {
+                    values.remove();
+                    expirations.increment();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(name, size(), maxSize, ttlNanos / 1_000_000, hits.sum(), misses.sum(),
+            evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+}
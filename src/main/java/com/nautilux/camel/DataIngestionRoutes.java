@@ -4,15 +4,22 @@ import com.nautilux.model.SensorData;
 import com.nautilux.model.ImageData;
 import com.nautilux.model.SonarData;
 import com.nautilux.service.DataProcessingService;
+import com.nautilux.service.ExecutorProvider;
+import com.nautilux.service.FileIngestionService;
+import com.nautilux.service.SensorBatchWriter;
+import com.nautilux.service.SensorRollupService;
 import com.nautilux.service.StorageService;
+import com.nautilux.tracing.CamelTracing;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.model.dataformat.JsonLibrary;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
 
 @ApplicationScoped
 public class DataIngestionRoutes extends RouteBuilder {
@@ -25,9 +32,39 @@ public class DataIngestionRoutes extends RouteBuilder {
     @Inject
     StorageService storageService;
     
+    @Inject
+    SensorRollupService sensorRollupService;
+    
+    @Inject
+    SensorBatchWriter sensorBatchWriter;
+    
+    @Inject
+    FileIngestionService fileIngestionService;
+    
+    @Inject
+    ExecutorProvider executorProvider;
+    
+    @Inject
+    CamelTracing camelTracing;
+    
     @ConfigProperty(name = "camel.file.watch-directory", defaultValue = "./data/incoming")
     String watchDirectory;
     
+    @ConfigProperty(name = "processing.ingest.streaming", defaultValue = "true")
+    boolean streamingIngestionEnabled;
+    
+    @ConfigProperty(name = "processing.ingest.max-concurrent-files", defaultValue = "4")
+    int maxConcurrentFiles;
+    
+    @ConfigProperty(name = "processing.sensor.bulk-load.enabled", defaultValue = "true")
+    boolean sensorBulkLoadEnabled;
+    
+    @ConfigProperty(name = "processing.sensor.bulk-load.batch-size", defaultValue = "5000")
+    int sensorBulkLoadBatchSize;
+        
+    @ConfigProperty(name = "processing.rollup.backfill-on-start", defaultValue = "false")
+    boolean rollupBackfillOnStart;
+    
     @ConfigProperty(name = "camel.ftp.host", defaultValue = "localhost")
     String ftpHost;
     
@@ -43,6 +80,17 @@ public class DataIngestionRoutes extends RouteBuilder {
     @Override
     public void configure() throws Exception {
         
+        // Blocking bean work is handed off the consumer threads onto virtual threads
+        // (or the platform fallback pool)
+        ExecutorService blocking = executorProvider.blockingExecutor();
+        // File and FTP consumers share a bounded hand-off: with every slot taken the
+        // pollers wait, and files stay in the directory until there is room for them
+        ExecutorService files = executorProvider.boundedExecutor(maxConcurrentFiles);
+        
+        // Request tracing: route spans, and trace context carried on the exchange across threads() hand-offs
+        getContext().addRoutePolicyFactory(camelTracing);
+        getContext().getCamelContextExtension().addInterceptStrategy(camelTracing);
+        
         // Error handling
         errorHandler(deadLetterChannel("direct:error-handler")
             .maximumRedeliveries(3)
@@ -64,84 +112,125 @@ public class DataIngestionRoutes extends RouteBuilder {
         // Health assessment trigger
         from("direct:trigger-health-assessment")
             .routeId("health-assessment-trigger")
+            .threads().executorService(blocking)
             .log("Triggering health assessment for all reefs")
             .bean(dataProcessingService, "triggerHealthAssessment");
         
+        // One-off rollup backfill for sensor history
+        from("timer:sensor-rollup-backfill?repeatCount=1&delay=60000")
+            .routeId("sensor-rollup-backfill")
+            .autoStartup(rollupBackfillOnStart)
+            .to("direct:sensor-rollup-backfill");
+        
+        from("direct:sensor-rollup-backfill")
+            .routeId("sensor-rollup-rebuild")
+            .log("Backfilling sensor rollups")
+            .bean(sensorRollupService, "backfillRecent");
+        
+        // Daily sweep of stored image content that no image row references any more
+        from("timer:image-content-sweep?delay=3600000&period=86400000")
+            .routeId("image-content-sweep")
+            .threads().executorService(blocking)
+            .bean(storageService, "sweepUnreferencedImages");
+        
+        // Sensor CSV files: streamed from a mapped file, or unmarshalled and then
+        // either bulk loaded in batches or written one row per transaction
+        String sensorCsvEndpoint = streamingIngestionEnabled ? "direct:sensor-csv-stream"
+                                 : sensorBulkLoadEnabled ? "direct:sensor-csv-bulk-load" : "direct:sensor-csv-rows";
+        
+        from("direct:sensor-csv-stream")
+            .routeId("sensor-csv-stream")
+            .bean(fileIngestionService, "ingestSensorCsv")
+            .log("Streamed ${body} sensor readings from ${header.CamelFileName}");
+        
+        from("direct:sensor-csv-rows")
+            .routeId("sensor-csv-rows")
+            .unmarshal().csv()
+            .split(body()).stopOnException()
+                .bean(sensorBatchWriter, "writeRow")
+            .end()
+            .log("Loaded sensor readings row by row from ${header.CamelFileName}");
+        
+        // Batches are split off the file in line groups and written as part of the file
+        // exchange, so a failed batch fails the file (moveFailed) instead of being lost
+        // in a separate aggregated exchange
+        from("direct:sensor-csv-bulk-load")
+            .routeId("sensor-csv-bulk-load")
+            .split().tokenize("\n", sensorBulkLoadBatchSize).streaming().stopOnException()
+                .unmarshal().csv()
+                .bean(sensorBatchWriter, "writeRows")
+                .log("Bulk loaded ${body} sensor readings from ${header.CamelFileName}")
+            .end();
+        
         // File-based sensor data ingestion
         from("file:" + watchDirectory + "/sensors?include=.*\\.(csv|json)&move=processed&moveFailed=failed")
             .routeId("sensor-data-ingestion")
+            .threads().executorService(files)
             .log("Processing sensor data file: ${header.CamelFileName}")
             .choice()
                 .when(header("CamelFileName").endsWith(".csv"))
-                    .unmarshal().csv()
-                    .split(body())
-                    .bean(dataProcessingService, "processSensorDataCsv")
+                    .to(sensorCsvEndpoint)
                 .when(header("CamelFileName").endsWith(".json"))
-                    .unmarshal().json(JsonLibrary.Jackson)
-                    .bean(dataProcessingService, "processSensorDataJson")
+                    .bean(fileIngestionService, "ingestSensorJson")
             .end()
             .log("Sensor data processing completed");
         
         // FTP sensor data ingestion
-        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/sensors?password=" + ftpPassword + "&include=.*\\.(csv|json)&move=processed&moveFailed=failed&delay=60000")
+        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/sensors?password=" + ftpPassword + "&localWorkDirectory=" + watchDirectory + "/.ftp-work&include=.*\\.(csv|json)&move=processed&moveFailed=failed&delay=60000")
             .routeId("ftp-sensor-ingestion")
+            .threads().executorService(files)
             .log("Processing FTP sensor data: ${header.CamelFileName}")
             .choice()
                 .when(header("CamelFileName").endsWith(".csv"))
-                    .unmarshal().csv()
-                    .split(body())
-                    .bean(dataProcessingService, "processSensorDataCsv")
+                    .to(sensorCsvEndpoint)
                 .when(header("CamelFileName").endsWith(".json"))
-                    .unmarshal().json(JsonLibrary.Jackson)
-                    .bean(dataProcessingService, "processSensorDataJson")
+                    .bean(fileIngestionService, "ingestSensorJson")
             .end()
             .log("FTP sensor data processing completed");
         
         // Image data ingestion
         from("file:" + watchDirectory + "/images?include=.*\\.(jpg|jpeg|png|tiff|tif)&move=processed&moveFailed=failed")
             .routeId("image-ingestion")
+            .threads().executorService(files)
             .log("Processing image file: ${header.CamelFileName}")
             .bean(storageService, "storeImage")
-            .bean(dataProcessingService, "processImageData")
-            .log("Image processing completed");
+            .log("Image stored, queued for analysis");
         
         // FTP image ingestion
-        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/images?password=" + ftpPassword + "&include=.*\\.(jpg|jpeg|png|tiff|tif)&move=processed&moveFailed=failed&delay=60000")
+        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/images?password=" + ftpPassword + "&localWorkDirectory=" + watchDirectory + "/.ftp-work&include=.*\\.(jpg|jpeg|png|tiff|tif)&move=processed&moveFailed=failed&delay=60000")
             .routeId("ftp-image-ingestion")
+            .threads().executorService(files)
             .log("Processing FTP image: ${header.CamelFileName}")
             .bean(storageService, "storeImage")
-            .bean(dataProcessingService, "processImageData")
-            .log("FTP image processing completed");
+            .log("FTP image stored, queued for analysis");
         
         // Sonar data ingestion
         from("file:" + watchDirectory + "/sonar?include=.*\\.(csv|json|bin)&move=processed&moveFailed=failed")
             .routeId("sonar-ingestion")
+            .threads().executorService(files)
             .log("Processing sonar data file: ${header.CamelFileName}")
             .choice()
                 .when(header("CamelFileName").endsWith(".csv"))
-                    .unmarshal().csv()
-                    .bean(dataProcessingService, "processSonarDataCsv")
+                    .bean(fileIngestionService, "ingestSonarCsv")
                 .when(header("CamelFileName").endsWith(".json"))
-                    .unmarshal().json(JsonLibrary.Jackson)
-                    .bean(dataProcessingService, "processSonarDataJson")
+                    .bean(fileIngestionService, "ingestSonarJson")
                 .when(header("CamelFileName").endsWith(".bin"))
-                    .bean(dataProcessingService, "processSonarDataBinary")
+                    .bean(fileIngestionService, "ingestSonarBinary")
             .end()
             .log("Sonar data processing completed");
         
         // FTP sonar ingestion
-        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/sonar?password=" + ftpPassword + "&include=.*\\.(csv|json|bin)&move=processed&moveFailed=failed&delay=60000")
+        from("ftp://" + ftpUsername + "@" + ftpHost + ":" + ftpPort + "/sonar?password=" + ftpPassword + "&localWorkDirectory=" + watchDirectory + "/.ftp-work&include=.*\\.(csv|json|bin)&move=processed&moveFailed=failed&delay=60000")
             .routeId("ftp-sonar-ingestion")
+            .threads().executorService(files)
             .log("Processing FTP sonar data: ${header.CamelFileName}")
             .choice()
                 .when(header("CamelFileName").endsWith(".csv"))
-                    .unmarshal().csv()
-                    .bean(dataProcessingService, "processSonarDataCsv")
+                    .bean(fileIngestionService, "ingestSonarCsv")
                 .when(header("CamelFileName").endsWith(".json"))
-                    .unmarshal().json(JsonLibrary.Jackson)
-                    .bean(dataProcessingService, "processSonarDataJson")
+                    .bean(fileIngestionService, "ingestSonarJson")
                 .when(header("CamelFileName").endsWith(".bin"))
-                    .bean(dataProcessingService, "processSonarDataBinary")
+                    .bean(fileIngestionService, "ingestSonarBinary")
             .end()
             .log("FTP sonar data processing completed");
         
@@ -149,18 +238,18 @@ public class DataIngestionRoutes extends RouteBuilder {
         from("platform-http:/api/v1/ingest/sensor?httpMethodRestrict=POST")
             .routeId("http-sensor-ingestion")
             .log("Processing HTTP sensor data")
-            .unmarshal().json(JsonLibrary.Jackson)
-            .bean(dataProcessingService, "processSensorDataJson")
-            .setBody(simple("{\"status\": \"success\", \"message\": \"Sensor data processed successfully\"}"))
+            .convertBodyTo(byte[].class)
+            .bean(fileIngestionService, "ingestSensorReadings")
+            .choice()
+                .when(simple("${body} > 0"))
+                    .setBody(simple("{\"status\": \"success\", \"message\": \"Stored ${body} sensor readings\"}"))
+                .otherwise()
+                    .setHeader(Exchange.HTTP_RESPONSE_CODE, constant(400))
+                    .setBody(constant("{\"status\": \"error\", \"message\": \"No valid sensor readings in request\"}"))
+            .end()
             .setHeader("Content-Type", constant("application/json"));
         
-        from("platform-http:/api/v1/ingest/image?httpMethodRestrict=POST")
-            .routeId("http-image-ingestion")
-            .log("Processing HTTP image data")
-            .bean(storageService, "storeImageFromHttp")
-            .bean(dataProcessingService, "processImageData")
-            .setBody(simple("{\"status\": \"success\", \"message\": \"Image processed successfully\"}"))
-            .setHeader("Content-Type", constant("application/json"));
+        // Image uploads stream to disk through ImageIngestResource rather than a buffered platform-http body
         
         from("platform-http:/api/v1/ingest/sonar?httpMethodRestrict=POST")
             .routeId("http-sonar-ingestion")
@@ -179,16 +268,19 @@ public class DataIngestionRoutes extends RouteBuilder {
         
         from("direct:noaa-data-poll")
             .routeId("noaa-data-poll")
+            .threads().executorService(blocking)
             .log("Polling NOAA Coral Reef Watch data")
             .bean(dataProcessingService, "fetchNoaaData");
         
         from("direct:coralnet-data-poll")
             .routeId("coralnet-data-poll")
+            .threads().executorService(blocking)
             .log("Polling CoralNet data")
             .bean(dataProcessingService, "fetchCoralNetData");
         
         from("direct:mbari-data-poll")
             .routeId("mbari-data-poll")
+            .threads().executorService(blocking)
             .log("Polling MBARI sonar data")
             .bean(dataProcessingService, "fetchMbariData");
         
@@ -215,23 +307,5 @@ public class DataIngestionRoutes extends RouteBuilder {
             .routeId("sensor-data-storage")
             .log("Storing sensor data")
             .bean(dataProcessingService, "storeSensorData");
-        
-        // Alert triggering based on data thresholds
-        from("direct:check-alerts")
-            .routeId("alert-check")
-            .log("Checking for alert conditions")
-            .bean(dataProcessingService, "checkAlertConditions")
-            .choice()
-                .when(header("alertRequired").isEqualTo(true))
-                    .log("Alert condition detected: ${body}")
-                    .to("direct:trigger-alert")
-                .otherwise()
-                    .log("No alert conditions detected")
-            .end();
-        
-        from("direct:trigger-alert")
-            .routeId("alert-trigger")
-            .log("Triggering alert: ${body}")
-            .bean(dataProcessingService, "sendAlert");
     }
 } 
\ No newline at end of file
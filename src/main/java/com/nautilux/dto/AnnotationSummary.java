@@ -0,0 +1,17 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ImageAnnotation;
+
+public record AnnotationSummary(Long id, ImageAnnotation.AnnotationType annotationType, String speciesName,
+                                String commonName, Double confidenceScore, CoralReef.HealthStatus healthStatus,
+                                Integer bleachingSeverity, Double boundingBoxX1, Double boundingBoxY1,
+                                Double boundingBoxX2, Double boundingBoxY2) {
+
+    public static AnnotationSummary of(ImageAnnotation annotation) {
+        return new AnnotationSummary(annotation.id, annotation.annotationType, annotation.speciesName,
+            annotation.commonName, annotation.confidenceScore, annotation.healthStatus,
+            annotation.bleachingSeverity, annotation.boundingBoxX1, annotation.boundingBoxY1,
+            annotation.boundingBoxX2, annotation.boundingBoxY2);
+    }
+}
@@ -0,0 +1,30 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.CoralReef;
+
+import java.time.LocalDateTime;
+
+public record HealthAlert(Long reefId, String reefName, CoralReef.HealthStatus healthStatus,
+                          Integer bleachingRiskLevel, LocalDateTime lastUpdated, String severity) {
+
+    public static final String SELECT = "SELECT new com.nautilux.dto.HealthAlert(r.id, r.name, r.healthStatus, " +
+        "r.bleachingRiskLevel, r.updatedAt) FROM CoralReef r";
+
+    public HealthAlert(Long reefId, String reefName, CoralReef.HealthStatus healthStatus,
+                       Integer bleachingRiskLevel, LocalDateTime lastUpdated) {
+        this(reefId, reefName, healthStatus, bleachingRiskLevel, lastUpdated,
+            severityOf(healthStatus, bleachingRiskLevel));
+    }
+
+    public static String severityOf(CoralReef.HealthStatus healthStatus, Integer bleachingRiskLevel) {
+        int risk = bleachingRiskLevel != null ? bleachingRiskLevel : 0;
+        if (healthStatus == CoralReef.HealthStatus.CRITICAL || risk >= 4) {
+            return "CRITICAL";
+        } else if (healthStatus == CoralReef.HealthStatus.POOR || risk >= 3) {
+            return "HIGH";
+        } else if (healthStatus == CoralReef.HealthStatus.FAIR || risk >= 2) {
+            return "MEDIUM";
+        }
+        return "LOW";
+    }
+}
@@ -0,0 +1,15 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.ImageData;
+
+import java.time.LocalDateTime;
+
+public record ImageAnalysis(Long id, LocalDateTime timestamp, String fileName,
+                            ImageData.AnalysisStatus aiAnalysisStatus, Double coralCoveragePercentage,
+                            Boolean bleachingDetected, Integer bleachingSeverity,
+                            Double healthScore, Double confidenceScore) {
+
+    public static final String SELECT = "SELECT new com.nautilux.dto.ImageAnalysis(i.id, i.timestamp, " +
+        "i.fileName, i.aiAnalysisStatus, i.coralCoveragePercentage, i.bleachingDetected, " +
+        "i.bleachingSeverity, i.healthScore, i.confidenceScore) FROM ImageData i";
+}
@@ -0,0 +1,20 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.ImageData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Image analysis with its annotations; built from ImageData loaded with ImageData.WITH_ANNOTATIONS
+public record ImageDetail(Long id, LocalDateTime timestamp, String fileName,
+                          ImageData.AnalysisStatus aiAnalysisStatus, Double coralCoveragePercentage,
+                          Boolean bleachingDetected, Integer bleachingSeverity, Double healthScore,
+                          Double confidenceScore, List<AnnotationSummary> annotations) {
+
+    public static ImageDetail of(ImageData image) {
+        return new ImageDetail(image.id, image.timestamp, image.fileName, image.aiAnalysisStatus,
+            image.coralCoveragePercentage, image.bleachingDetected, image.bleachingSeverity,
+            image.healthScore, image.confidenceScore,
+            image.annotations.stream().map(AnnotationSummary::of).toList());
+    }
+}
@@ -0,0 +1,13 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.ImageData;
+
+// Result of storing an image; duplicate means an existing row with the same content was returned
+public record ImageUpload(Long imageId, Long reefId, String fileName, String contentHash,
+                          String imageFormat, Long fileSizeBytes, boolean duplicate) {
+
+    public static ImageUpload of(ImageData image, boolean duplicate) {
+        return new ImageUpload(image.id, image.coralReef != null ? image.coralReef.id : null, image.fileName,
+            image.contentHash, image.imageFormat, image.fileSizeBytes, duplicate);
+    }
+}
@@ -0,0 +1,10 @@
+package com.nautilux.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.nautilux.model.CoralReef;
+
+import java.util.List;
+
+// Reef with its zones; built from a CoralReef loaded with CoralReef.WITH_ZONES
+public record ReefDetail(@JsonUnwrapped CoralReef reef, List<ZoneSummary> zones) {
+}
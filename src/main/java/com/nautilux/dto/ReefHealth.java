@@ -0,0 +1,12 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.CoralReef;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReefHealth(Long reefId, String reefName, CoralReef.HealthStatus healthStatus,
+                         Double healthScore, Integer bleachingRiskLevel, Double biodiversityIndex,
+                         LocalDateTime lastUpdated, List<SensorReading> latestSensorData,
+                         List<ImageAnalysis> latestImageAnalysis) {
+}
@@ -0,0 +1,29 @@
+package com.nautilux.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nautilux.model.CoralReef;
+
+import java.time.LocalDateTime;
+
+// List view of a reef; distanceKm is only set by nearby searches
+public record ReefSummary(Long id, String name, Double latitude, Double longitude, Double depthMeters,
+                          CoralReef.ReefType reefType, CoralReef.HealthStatus healthStatus,
+                          Double healthScore, Integer bleachingRiskLevel, LocalDateTime updatedAt,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) Double distanceKm) {
+
+    public static final String SELECT = "SELECT new com.nautilux.dto.ReefSummary(r.id, r.name, r.latitude, " +
+        "r.longitude, r.depthMeters, r.reefType, r.healthStatus, r.healthScore, r.bleachingRiskLevel, " +
+        "r.updatedAt) FROM CoralReef r";
+
+    public ReefSummary(Long id, String name, Double latitude, Double longitude, Double depthMeters,
+                       CoralReef.ReefType reefType, CoralReef.HealthStatus healthStatus,
+                       Double healthScore, Integer bleachingRiskLevel, LocalDateTime updatedAt) {
+        this(id, name, latitude, longitude, depthMeters, reefType, healthStatus,
+            healthScore, bleachingRiskLevel, updatedAt, null);
+    }
+
+    public ReefSummary withDistanceKm(Double distanceKm) {
+        return new ReefSummary(id, name, latitude, longitude, depthMeters, reefType, healthStatus,
+            healthScore, bleachingRiskLevel, updatedAt, distanceKm);
+    }
+}
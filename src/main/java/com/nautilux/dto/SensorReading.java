@@ -0,0 +1,14 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.SensorData;
+
+import java.time.LocalDateTime;
+
+public record SensorReading(Long id, LocalDateTime timestamp, SensorData.SensorType sensorType, String sensorId,
+                            Double temperatureCelsius, Double salinityPpt, Double phLevel,
+                            Double dissolvedOxygenMgL, Double turbidityNtu, Double qualityScore) {
+
+    public static final String SELECT = "SELECT new com.nautilux.dto.SensorReading(s.id, s.timestamp, " +
+        "s.sensorType, s.sensorId, s.temperatureCelsius, s.salinityPpt, s.phLevel, s.dissolvedOxygenMgL, " +
+        "s.turbidityNtu, s.qualityScore) FROM SensorData s";
+}
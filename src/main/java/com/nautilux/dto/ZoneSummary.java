@@ -0,0 +1,20 @@
+package com.nautilux.dto;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ReefZone;
+
+public record ZoneSummary(Long id, String name, ReefZone.ZoneType zoneType,
+                          Double depthRangeStart, Double depthRangeEnd, Double areaSquareMeters,
+                          Double coralCoveragePercentage, CoralReef.HealthStatus healthStatus,
+                          Double healthScore, Integer bleachingRiskLevel) {
+
+    public static final String SELECT = "SELECT new com.nautilux.dto.ZoneSummary(z.id, z.name, z.zoneType, " +
+        "z.depthRangeStart, z.depthRangeEnd, z.areaSquareMeters, z.coralCoveragePercentage, " +
+        "z.healthStatus, z.healthScore, z.bleachingRiskLevel) FROM ReefZone z";
+
+    public static ZoneSummary of(ReefZone zone) {
+        return new ZoneSummary(zone.id, zone.name, zone.zoneType, zone.depthRangeStart, zone.depthRangeEnd,
+            zone.areaSquareMeters, zone.coralCoveragePercentage, zone.healthStatus, zone.healthScore,
+            zone.bleachingRiskLevel);
+    }
+}
@@ -0,0 +1,211 @@
+package com.nautilux.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Parses ASCII numbers and timestamps straight out of a buffer without building Strings
+public final class ByteParsers {
+
+    public static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteParsers() {
+    }
+
+    public static double parseDouble(ByteBuffer buffer, int start, int end) {
+        if (start >= end) {
+            return Double.NaN;
+        }
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        for (; i < end && isDigit(buffer.get(i)); i++) {
+            seenDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+            }
+        }
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end && isDigit(buffer.get(i)); i++) {
+                seenDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buffer.get(i) - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+            }
+        }
+        if (seenDigit && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < end && (buffer.get(j) == '-' || buffer.get(j) == '+')) {
+                negativeExponent = buffer.get(j) == '-';
+                j++;
+            }
+            int explicit = 0;
+            int exponentStart = j;
+            for (; j < end && isDigit(buffer.get(j)) && explicit < 10_000; j++) {
+                explicit = explicit * 10 + (buffer.get(j) - '0');
+            }
+            if (j > exponentStart) {
+                exponent += negativeExponent ? -explicit : explicit;
+                i = j;
+            }
+        }
+
+        // Exact fast path: the mantissa fits in 53 bits and the scale is an exact double
+        if (seenDigit && i == end && digits <= 15 && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent]
+                                         : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(ascii(buffer, start, end));
+    }
+
+    public static long parseLong(ByteBuffer buffer, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty number");
+        }
+        int i = start;
+        boolean negative = buffer.get(i) == '-';
+        if (negative || buffer.get(i) == '+') {
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException(ascii(buffer, start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                throw new NumberFormatException(ascii(buffer, start, end));
+            }
+            value = Math.multiplyExact(value, 10) + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    // ISO local date-time (yyyy-MM-dd'T'HH:mm[:ss[.fraction]], 'T' or space), as epoch micros in UTC
+    public static long parseTimestampMicros(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (length >= 16 && buffer.get(start + 4) == '-' && buffer.get(start + 7) == '-'
+                && (buffer.get(start + 10) == 'T' || buffer.get(start + 10) == ' ')
+                && buffer.get(start + 13) == ':') {
+            int year = digits(buffer, start, 4);
+            int month = digits(buffer, start + 5, 2);
+            int day = digits(buffer, start + 8, 2);
+            int hour = digits(buffer, start + 11, 2);
+            int minute = digits(buffer, start + 14, 2);
+            int second = 0;
+            long micros = 0;
+            int i = start + 16;
+            boolean valid = year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31
+                && hour >= 0 && hour < 24 && minute >= 0 && minute < 60;
+            if (valid && i < end) {
+                valid = buffer.get(i) == ':' && i + 3 <= end;
+                if (valid) {
+                    second = digits(buffer, i + 1, 2);
+                    valid = second >= 0 && second < 60;
+                    i += 3;
+                }
+                if (valid && i < end) {
+                    valid = buffer.get(i) == '.';
+                    long scale = 100_000;
+                    for (i++; valid && i < end; i++) {
+                        byte b = buffer.get(i);
+                        if (!isDigit(b)) {
+                            valid = false;
+                        } else if (scale > 0) {
+                            micros += (b - '0') * scale;
+                            scale /= 10;
+                        }
+                    }
+                }
+            }
+            if (valid && day <= lengthOfMonth(year, month)) {
+                long seconds = daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+                return seconds * 1_000_000L + micros;
+            }
+        }
+
+        try {
+            return SensorBatch.toMicros(LocalDateTime.parse(ascii(buffer, start, end)));
+        } catch (DateTimeParseException e) {
+            return INVALID_TIMESTAMP;
+        }
+    }
+
+    public static boolean equalsIgnoreCase(ByteBuffer buffer, int start, int end, byte[] upperAscii) {
+        if (end - start != upperAscii.length) {
+            return false;
+        }
+        for (int i = 0; i < upperAscii.length; i++) {
+            byte b = buffer.get(start + i);
+            if (b >= 'a' && b <= 'z') {
+                b -= 32;
+            }
+            if (b != upperAscii[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String ascii(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int digits(ByteBuffer buffer, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
@@ -0,0 +1,90 @@
+package com.nautilux.ingest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Reusable view of one CSV line inside a mapped buffer; fields are byte ranges, not Strings
+public final class CsvRecord {
+
+    private ByteBuffer buffer;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int fieldCount;
+    private long lineNumber;
+
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.fieldCount = 0;
+    }
+
+    void clear() {
+        fieldCount = 0;
+    }
+
+    void lineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    // Trims surrounding blanks and one pair of quotes; quoted separators are not supported
+    void addField(int start, int end) {
+        while (start < end && isBlank(buffer.get(start))) start++;
+        while (end > start && isBlank(buffer.get(end - 1))) end--;
+        if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+            start++;
+            end--;
+        }
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    boolean isBlankLine() {
+        return fieldCount == 0 || (fieldCount == 1 && starts[0] == ends[0]);
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // Line number within the segment being parsed, starting at 1
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    public boolean isEmpty(int field) {
+        return field >= fieldCount || starts[field] == ends[field];
+    }
+
+    public byte firstByte(int field) {
+        return isEmpty(field) ? 0 : buffer.get(starts[field]);
+    }
+
+    public double getDouble(int field) {
+        return isEmpty(field) ? Double.NaN : ByteParsers.parseDouble(buffer, starts[field], ends[field]);
+    }
+
+    public long getLong(int field, long fallback) {
+        return isEmpty(field) ? fallback : ByteParsers.parseLong(buffer, starts[field], ends[field]);
+    }
+
+    public long getTimestampMicros(int field) {
+        return isEmpty(field) ? ByteParsers.INVALID_TIMESTAMP
+                              : ByteParsers.parseTimestampMicros(buffer, starts[field], ends[field]);
+    }
+
+    public boolean matches(int field, byte[] upperAscii) {
+        return !isEmpty(field) && ByteParsers.equalsIgnoreCase(buffer, starts[field], ends[field], upperAscii);
+    }
+
+    public String getString(int field) {
+        return isEmpty(field) ? null : ByteParsers.ascii(buffer, starts[field], ends[field]);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,178 @@
+package com.nautilux.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/*
+ * Splits a CSV file into line-aligned segments and parses each segment from a
+ * memory-mapped window on its own worker. Only the current window is touched,
+ * so heap use depends on the number of workers, not on the file size.
+ */
+public class MappedCsvReader {
+
+    public interface RecordHandler {
+        void onRecord(CsvRecord record);
+
+        default void onSegmentEnd() {
+        }
+    }
+
+    private static final long MIN_SEGMENT_BYTES = 1L << 20;
+    private static final long MAX_SEGMENT_BYTES = 256L << 20;
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    public MappedCsvReader(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    // Handlers are created per segment and never shared between threads. When a segment
+    // fails, the others stop at their next line without a final flush, and the failure is
+    // only rethrown once none of them is still running, so the caller never sees success
+    // for a partly written file or keeps handlers busy after it has given up on it.
+    public long read(Path file, Supplier<? extends RecordHandler> handlers) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            AtomicBoolean aborted = new AtomicBoolean();
+            List<long[]> segments = segments(channel);
+            if (segments.size() == 1) {
+                long[] segment = segments.get(0);
+                return parseSegment(channel, segment[0], segment[1], handlers.get(), aborted);
+            }
+
+            List<Future<Long>> results = new ArrayList<>(segments.size());
+            for (long[] segment : segments) {
+                results.add(executor.submit(() -> parseSegment(channel, segment[0], segment[1], handlers.get(), aborted)));
+            }
+            long records = 0;
+            try {
+                for (Future<Long> result : results) {
+                    records += result.get();
+                }
+            } catch (InterruptedException e) {
+                aborted.set(true);
+                results.forEach(result -> result.cancel(false));
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing " + file, e);
+            } catch (ExecutionException e) {
+                aborted.set(true);
+                awaitAll(results);
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException unchecked) throw unchecked.getCause();
+                if (cause instanceof RuntimeException runtime) throw runtime;
+                throw new IOException("Failed to parse " + file, cause);
+            }
+            return records;
+        }
+    }
+
+    // Interrupting a worker would close the shared channel, so stopped segments are waited for
+    private static void awaitAll(List<Future<Long>> results) throws IOException {
+        for (Future<Long> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException ignored) {
+                // the first failure is the one reported
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while stopping segment parsers", e);
+            }
+        }
+    }
+
+    List<long[]> segments(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = Math.min(MAX_SEGMENT_BYTES, Math.max(MIN_SEGMENT_BYTES, size / parallelism + 1));
+        List<long[]> segments = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocateDirect(SCAN_BYTES);
+        long start = 0;
+        while (start < size) {
+            long end = start + target >= size ? size : nextLineStart(channel, start + target, size, scan);
+            segments.add(new long[] {start, end});
+            start = end;
+        }
+        return segments;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer scan) throws IOException {
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static long parseSegment(FileChannel channel, long offset, long end, RecordHandler handler,
+                                     AtomicBoolean aborted) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset);
+            CsvRecord record = new CsvRecord();
+            record.reset(buffer);
+
+            long records = 0;
+            long line = 1;
+            int limit = buffer.limit();
+            int fieldStart = 0;
+            for (int pos = 0; pos < limit; pos++) {
+                byte b = buffer.get(pos);
+                if (b == ',') {
+                    record.addField(fieldStart, pos);
+                    fieldStart = pos + 1;
+                } else if (b == '\n') {
+                    if (aborted.get()) {
+                        return records;
+                    }
+                    record.addField(fieldStart, pos);
+                    records += emit(record, line++, handler);
+                    fieldStart = pos + 1;
+                }
+            }
+            if (fieldStart < limit) {
+                record.addField(fieldStart, limit);
+                records += emit(record, line, handler);
+            }
+            handler.onSegmentEnd();
+            return records;
+        } catch (IOException e) {
+            aborted.set(true);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            aborted.set(true);
+            throw e;
+        }
+    }
+
+    private static int emit(CsvRecord record, long line, RecordHandler handler) {
+        int emitted = 0;
+        if (!record.isBlankLine()) {
+            record.lineNumber(line);
+            handler.onRecord(record);
+            emitted = 1;
+        }
+        record.clear();
+        return emitted;
+    }
+}
@@ -0,0 +1,223 @@
+package com.nautilux.ingest;
+
+import com.nautilux.model.SensorData;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+// Column-oriented buffer of sensor readings; NaN and 0 ids stand for NULL
+public class SensorBatch {
+
+    // Column order for CSV input when bulk loading
+    public static final String[] CSV_COLUMNS = {
+        "timestamp", "reef_id", "zone_id", "sensor_type", "sensor_id",
+        "temperature_celsius", "salinity_ppt", "ph_level", "dissolved_oxygen_mg_l", "turbidity_ntu",
+        "conductivity_ms_cm", "pressure_bar", "latitude", "longitude"
+    };
+
+    private static final SensorData.SensorType[] SENSOR_TYPES = SensorData.SensorType.values();
+
+    private static final byte[][] SENSOR_TYPE_NAMES = new byte[SENSOR_TYPES.length][];
+
+    static {
+        for (SensorData.SensorType type : SENSOR_TYPES) {
+            SENSOR_TYPE_NAMES[type.ordinal()] = type.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int capacity;
+    private int size;
+
+    public final long[] timestampMicros;
+    public final long[] reefId;
+    public final long[] zoneId;
+    public final byte[] sensorType;
+    public final String[] sensorId;
+    public final double[] temperature;
+    public final double[] salinity;
+    public final double[] ph;
+    public final double[] dissolvedOxygen;
+    public final double[] turbidity;
+    public final double[] conductivity;
+    public final double[] pressure;
+    public final double[] latitude;
+    public final double[] longitude;
+
+    public SensorBatch(int capacity) {
+        this.capacity = capacity;
+        this.timestampMicros = new long[capacity];
+        this.reefId = new long[capacity];
+        this.zoneId = new long[capacity];
+        this.sensorType = new byte[capacity];
+        this.sensorId = new String[capacity];
+        this.temperature = new double[capacity];
+        this.salinity = new double[capacity];
+        this.ph = new double[capacity];
+        this.dissolvedOxygen = new double[capacity];
+        this.turbidity = new double[capacity];
+        this.conductivity = new double[capacity];
+        this.pressure = new double[capacity];
+        this.latitude = new double[capacity];
+        this.longitude = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(sensorId, 0, size, null);
+        size = 0;
+    }
+
+    // Claims the next row with every value unset; callers fill the columns they have
+    public int nextRow() {
+        int row = size++;
+        timestampMicros[row] = 0L;
+        reefId[row] = 0L;
+        zoneId[row] = 0L;
+        sensorType[row] = (byte) SensorData.SensorType.MULTI_PARAMETER.ordinal();
+        sensorId[row] = null;
+        temperature[row] = Double.NaN;
+        salinity[row] = Double.NaN;
+        ph[row] = Double.NaN;
+        dissolvedOxygen[row] = Double.NaN;
+        turbidity[row] = Double.NaN;
+        conductivity[row] = Double.NaN;
+        pressure[row] = Double.NaN;
+        latitude[row] = Double.NaN;
+        longitude[row] = Double.NaN;
+        return row;
+    }
+
+    public void discardLastRow() {
+        if (size > 0) {
+            sensorId[--size] = null;
+        }
+    }
+
+    // Returns false for header or malformed rows, which are skipped
+    public boolean addCsvRow(List<String> columns) {
+        if (columns == null || columns.size() < 4 || isFull()) {
+            return false;
+        }
+        String timestamp = columns.get(0).trim();
+        if (timestamp.isEmpty() || !Character.isDigit(timestamp.charAt(0))) {
+            return false;
+        }
+        int row = -1;
+        try {
+            long micros = toMicros(LocalDateTime.parse(timestamp));
+            SensorData.SensorType type = SensorData.SensorType.valueOf(columns.get(3).trim().toUpperCase());
+
+            row = nextRow();
+            timestampMicros[row] = micros;
+            reefId[row] = parseId(columns, 1);
+            zoneId[row] = parseId(columns, 2);
+            sensorType[row] = (byte) type.ordinal();
+            sensorId[row] = columns.size() > 4 && !columns.get(4).isBlank() ? columns.get(4).trim() : null;
+            temperature[row] = parseValue(columns, 5);
+            salinity[row] = parseValue(columns, 6);
+            ph[row] = parseValue(columns, 7);
+            dissolvedOxygen[row] = parseValue(columns, 8);
+            turbidity[row] = parseValue(columns, 9);
+            conductivity[row] = parseValue(columns, 10);
+            pressure[row] = parseValue(columns, 11);
+            latitude[row] = parseValue(columns, 12);
+            longitude[row] = parseValue(columns, 13);
+            return true;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            if (row >= 0) {
+                size = row;
+            }
+            return false;
+        }
+    }
+
+    // Same layout as addCsvRow, parsed straight from the mapped bytes
+    public boolean addCsvRecord(CsvRecord record) {
+        if (record.fieldCount() < 4 || isFull() || !ByteParsers.isDigit(record.firstByte(0))) {
+            return false;
+        }
+        long micros = record.getTimestampMicros(0);
+        int type = sensorTypeOrdinal(record, 3);
+        if (micros == ByteParsers.INVALID_TIMESTAMP || type < 0) {
+            return false;
+        }
+
+        int row = nextRow();
+        try {
+            timestampMicros[row] = micros;
+            reefId[row] = record.getLong(1, 0L);
+            zoneId[row] = record.getLong(2, 0L);
+            sensorType[row] = (byte) type;
+            sensorId[row] = record.getString(4);
+            temperature[row] = record.getDouble(5);
+            salinity[row] = record.getDouble(6);
+            ph[row] = record.getDouble(7);
+            dissolvedOxygen[row] = record.getDouble(8);
+            turbidity[row] = record.getDouble(9);
+            conductivity[row] = record.getDouble(10);
+            pressure[row] = record.getDouble(11);
+            latitude[row] = record.getDouble(12);
+            longitude[row] = record.getDouble(13);
+            return true;
+        } catch (NumberFormatException | ArithmeticException e) {
+            size = row;
+            return false;
+        }
+    }
+
+    public static int sensorTypeOrdinal(CsvRecord record, int field) {
+        for (int i = 0; i < SENSOR_TYPE_NAMES.length; i++) {
+            if (record.matches(field, SENSOR_TYPE_NAMES[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public SensorData.SensorType sensorTypeAt(int row) {
+        return SENSOR_TYPES[sensorType[row]];
+    }
+
+    public LocalDateTime timestampAt(int row) {
+        long micros = timestampMicros[row];
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    public static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1000;
+    }
+
+    private static long parseId(List<String> columns, int index) {
+        if (columns.size() <= index || columns.get(index).isBlank()) {
+            return 0L;
+        }
+        return Long.parseLong(columns.get(index).trim());
+    }
+
+    private static double parseValue(List<String> columns, int index) {
+        if (columns.size() <= index || columns.get(index).isBlank()) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(columns.get(index).trim());
+    }
+}
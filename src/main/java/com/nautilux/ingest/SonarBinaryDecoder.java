@@ -0,0 +1,218 @@
+package com.nautilux.ingest;
+
+import com.nautilux.model.SonarData;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Decodes Nautilux binary sonar files (little-endian):
+ *
+ *   file header (16 bytes): "NXSN", version u16, flags u16, 8 reserved bytes
+ *   ping record, repeated:
+ *     0  magic u32 "PING"          4  record length u32 (header + samples)
+ *     8  ping number u32           12 beam count u16 (1 = single-beam)
+ *     14 sample format u16         16 timestamp i64 (epoch micros, UTC)
+ *     24 latitude f64              32 longitude f64
+ *     40 frequency Hz f32          44 sample rate Hz f32
+ *     48 sound speed m/s f32       52 pulse length ms f32
+ *     56 beam width degrees f32    60 samples per beam u32
+ *     64 samples, beam-major: int16 in 0.01 dB (format 0) or float32 dB (format 1)
+ *
+ * The file is walked in place through read-only mapped windows; samples are
+ * read with absolute gets and never copied onto the heap.
+ */
+public class SonarBinaryDecoder {
+
+    public static final int FILE_MAGIC = 0x4E53584E;   // "NXSN"
+    public static final int PING_MAGIC = 0x474E4950;   // "PING"
+    public static final int FILE_HEADER_BYTES = 16;
+    public static final int PING_HEADER_BYTES = 64;
+    public static final int FORMAT_INT16_CENTI_DB = 0;
+    public static final int FORMAT_FLOAT32_DB = 1;
+
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    public interface PingListener {
+        void onPing(Ping ping);
+    }
+
+    // View of the current ping; only valid inside PingListener.onPing
+    public static final class Ping {
+        MappedByteBuffer buffer;
+        int offset;
+        public int pingNumber;
+        public int beamCount;
+        public int sampleFormat;
+        public long timestampMicros;
+        public double latitude;
+        public double longitude;
+        public float frequencyHz;
+        public float sampleRateHz;
+        public float soundSpeed;
+        public float pulseLengthMs;
+        public float beamWidthDegrees;
+        public int samplesPerBeam;
+
+        public double sample(int beam, int index) {
+            int position = offset + PING_HEADER_BYTES;
+            long sampleIndex = (long) beam * samplesPerBeam + index;
+            return sampleFormat == FORMAT_FLOAT32_DB
+                ? buffer.getFloat(position + (int) (sampleIndex * 4))
+                : buffer.getShort(position + (int) (sampleIndex * 2)) / 100.0;
+        }
+
+        public double rangeOfSample(int index) {
+            return index / (double) sampleRateHz * soundSpeed / 2.0;
+        }
+    }
+
+    public record Result(SonarSummary summary, long pings, long samples, long bytes, long nanos,
+                         Ping firstPing) {
+
+        public double megabytesPerSecond() {
+            return nanos > 0 ? bytes / 1_048_576.0 / (nanos / 1e9) : 0.0;
+        }
+
+        public void applyTo(SonarData sonar) {
+            summary.applyTo(sonar);
+            if (firstPing != null) {
+                sonar.sonarFrequencyHz = (double) firstPing.frequencyHz;
+                sonar.samplingRateHz = (double) firstPing.sampleRateHz;
+                sonar.pulseLengthMs = (double) firstPing.pulseLengthMs;
+                sonar.beamWidthDegrees = (double) firstPing.beamWidthDegrees;
+            }
+        }
+    }
+
+    public Result decode(Path file) throws IOException {
+        return decode(file, null);
+    }
+
+    public Result decode(Path file, PingListener listener) throws IOException {
+        long started = System.nanoTime();
+        SonarSummary summary = new SonarSummary();
+        Ping ping = new Ping();
+        Ping firstPing = null;
+        long pings = 0;
+        long samples = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer window = map(channel, 0, Math.min(size, WINDOW_BYTES));
+            if (size < FILE_HEADER_BYTES || window.getInt(0) != FILE_MAGIC) {
+                throw new IOException("Not a Nautilux sonar file: " + file.getFileName());
+            }
+
+            long windowStart = 0;
+            long position = FILE_HEADER_BYTES;
+            while (position + PING_HEADER_BYTES <= size) {
+                if (position + PING_HEADER_BYTES > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = map(channel, windowStart, Math.min(size - windowStart, WINDOW_BYTES));
+                }
+                int offset = (int) (position - windowStart);
+                if (window.getInt(offset) != PING_MAGIC) {
+                    throw new IOException("Corrupt ping header at byte " + position + " of " + file.getFileName());
+                }
+                long recordLength = Integer.toUnsignedLong(window.getInt(offset + 4));
+                if (recordLength < PING_HEADER_BYTES || recordLength > WINDOW_BYTES || position + recordLength > size) {
+                    throw new IOException("Invalid ping length " + recordLength + " at byte " + position);
+                }
+                if (position + recordLength > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = map(channel, windowStart, Math.min(size - windowStart, WINDOW_BYTES));
+                    offset = 0;
+                }
+
+                readHeader(window, offset, ping);
+                long expected = PING_HEADER_BYTES + (long) ping.beamCount * ping.samplesPerBeam
+                    * (ping.sampleFormat == FORMAT_FLOAT32_DB ? 4 : 2);
+                if (expected > recordLength || ping.sampleRateHz <= 0 || ping.soundSpeed <= 0) {
+                    throw new IOException("Inconsistent ping " + ping.pingNumber + " at byte " + position);
+                }
+
+                samples += summarise(ping, summary);
+                if (firstPing == null) {
+                    firstPing = copyHeader(ping);
+                }
+                if (listener != null) {
+                    listener.onPing(ping);
+                }
+                pings++;
+                position += recordLength;
+            }
+            return new Result(summary, pings, samples, size, System.nanoTime() - started, firstPing);
+        }
+    }
+
+    // Bottom pick per beam from the strongest return past the transmit ring-down
+    private static long summarise(Ping ping, SonarSummary summary) {
+        int blanking = Math.max(1, ping.samplesPerBeam / 50);
+        double halfSwath = (ping.beamCount - 1) / 2.0;
+        for (int beam = 0; beam < ping.beamCount; beam++) {
+            double peak = Double.NEGATIVE_INFINITY;
+            int peakIndex = -1;
+            for (int i = 0; i < ping.samplesPerBeam; i++) {
+                double amplitude = ping.sample(beam, i);
+                summary.acceptSample(amplitude);
+                if (i >= blanking && amplitude > peak) {
+                    peak = amplitude;
+                    peakIndex = i;
+                }
+            }
+            double depth = Double.NaN;
+            if (peakIndex >= 0) {
+                double angle = Math.toRadians((beam - halfSwath) * ping.beamWidthDegrees);
+                depth = ping.rangeOfSample(peakIndex) * Math.cos(angle);
+            }
+            summary.acceptSounding(ping.timestampMicros, ping.latitude, ping.longitude, depth);
+        }
+        summary.acceptRange(ping.rangeOfSample(ping.samplesPerBeam));
+        return (long) ping.beamCount * ping.samplesPerBeam;
+    }
+
+    private static void readHeader(MappedByteBuffer buffer, int offset, Ping ping) {
+        ping.buffer = buffer;
+        ping.offset = offset;
+        ping.pingNumber = buffer.getInt(offset + 8);
+        ping.beamCount = Short.toUnsignedInt(buffer.getShort(offset + 12));
+        ping.sampleFormat = Short.toUnsignedInt(buffer.getShort(offset + 14));
+        ping.timestampMicros = buffer.getLong(offset + 16);
+        ping.latitude = buffer.getDouble(offset + 24);
+        ping.longitude = buffer.getDouble(offset + 32);
+        ping.frequencyHz = buffer.getFloat(offset + 40);
+        ping.sampleRateHz = buffer.getFloat(offset + 44);
+        ping.soundSpeed = buffer.getFloat(offset + 48);
+        ping.pulseLengthMs = buffer.getFloat(offset + 52);
+        ping.beamWidthDegrees = buffer.getFloat(offset + 56);
+        ping.samplesPerBeam = buffer.getInt(offset + 60);
+    }
+
+    private static Ping copyHeader(Ping ping) {
+        Ping copy = new Ping();
+        copy.pingNumber = ping.pingNumber;
+        copy.beamCount = ping.beamCount;
+        copy.sampleFormat = ping.sampleFormat;
+        copy.timestampMicros = ping.timestampMicros;
+        copy.latitude = ping.latitude;
+        copy.longitude = ping.longitude;
+        copy.frequencyHz = ping.frequencyHz;
+        copy.sampleRateHz = ping.sampleRateHz;
+        copy.soundSpeed = ping.soundSpeed;
+        copy.pulseLengthMs = ping.pulseLengthMs;
+        copy.beamWidthDegrees = ping.beamWidthDegrees;
+        copy.samplesPerBeam = ping.samplesPerBeam;
+        return copy;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
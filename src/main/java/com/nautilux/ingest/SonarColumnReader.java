@@ -0,0 +1,205 @@
+package com.nautilux.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Random access over a .nxc column store; only requested ping blocks are inflated. Not thread-safe.
+public class SonarColumnReader implements Closeable {
+
+    public record PingInfo(int pingNumber, int beamCount, int samplesPerBeam, long timestampMicros,
+                           double latitude, double longitude, float sampleRateHz, float soundSpeed) {
+
+        public double rangeOfSample(double index) {
+            return index / sampleRateHz * soundSpeed / 2.0;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final int pingCount;
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer compressed = direct(1 << 16);
+    private ByteBuffer samples = direct(1 << 20);
+
+    public SonarColumnReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < SonarColumnWriter.HEADER_BYTES + SonarColumnWriter.FOOTER_BYTES) {
+                throw new IOException("Truncated sonar column store " + path);
+            }
+            ByteBuffer footer = direct(SonarColumnWriter.FOOTER_BYTES);
+            readFully(footer, size - SonarColumnWriter.FOOTER_BYTES);
+            long indexOffset = footer.getLong(0);
+            this.pingCount = footer.getInt(8);
+            if (footer.getInt(12) != SonarColumnWriter.MAGIC
+                    || indexOffset + (long) pingCount * SonarColumnWriter.INDEX_ENTRY_BYTES
+                        != size - SonarColumnWriter.FOOTER_BYTES) {
+                throw new IOException("Corrupt sonar column store " + path);
+            }
+            this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+                (long) pingCount * SonarColumnWriter.INDEX_ENTRY_BYTES);
+            this.index.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int pingCount() {
+        return pingCount;
+    }
+
+    public PingInfo ping(int ping) {
+        int entry = entryOffset(ping);
+        return new PingInfo(
+            index.getInt(entry + 52),
+            Short.toUnsignedInt(index.getShort(entry + 12)),
+            index.getInt(entry + 16),
+            index.getLong(entry + 20),
+            index.getDouble(entry + 28),
+            index.getDouble(entry + 36),
+            index.getFloat(entry + 44),
+            index.getFloat(entry + 48));
+    }
+
+    // Full-resolution amplitudes in dB, [beam][sample]
+    public float[][] read(int ping) throws IOException {
+        PingInfo info = ping(ping);
+        ByteBuffer deltas = inflate(ping, info);
+        float[][] beams = new float[info.beamCount()][info.samplesPerBeam()];
+        for (int beam = 0; beam < info.beamCount(); beam++) {
+            short value = 0;
+            for (int i = 0; i < info.samplesPerBeam(); i++) {
+                value += deltas.getShort();
+                beams[beam][i] = value / 100.0f;
+            }
+        }
+        return beams;
+    }
+
+    // Full-resolution amplitudes in dB of one beam
+    public float[] readBeam(int ping, int beam) throws IOException {
+        PingInfo info = ping(ping);
+        checkBeam(ping, info, beam);
+        ByteBuffer deltas = inflate(ping, info);
+        deltas.position(beam * info.samplesPerBeam() * 2);
+        float[] amplitudes = new float[info.samplesPerBeam()];
+        short value = 0;
+        for (int i = 0; i < amplitudes.length; i++) {
+            value += deltas.getShort();
+            amplitudes[i] = value / 100.0f;
+        }
+        return amplitudes;
+    }
+
+    // Max-pooled amplitudes for one beam (or all beams when beam < 0) in at most `bins` range bins
+    public float[] downsample(int ping, int beam, int bins) throws IOException {
+        PingInfo info = ping(ping);
+        if (beam >= 0) {
+            checkBeam(ping, info, beam);
+        }
+        int binCount = Math.max(1, Math.min(bins, info.samplesPerBeam()));
+        float[] pooled = new float[binCount];
+        Arrays.fill(pooled, Float.NEGATIVE_INFINITY);
+        ByteBuffer deltas = inflate(ping, info);
+        for (int b = 0; b < info.beamCount(); b++) {
+            boolean selected = beam < 0 || beam == b;
+            short value = 0;
+            for (int i = 0; i < info.samplesPerBeam(); i++) {
+                value += deltas.getShort();
+                if (selected) {
+                    int bin = (int) ((long) i * binCount / info.samplesPerBeam());
+                    float amplitude = value / 100.0f;
+                    if (amplitude > pooled[bin]) {
+                        pooled[bin] = amplitude;
+                    }
+                }
+            }
+            if (beam == b) {
+                break;
+            }
+        }
+        return pooled;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private ByteBuffer inflate(int ping, PingInfo info) throws IOException {
+        int entry = entryOffset(ping);
+        long blockOffset = index.getLong(entry);
+        int blockLength = index.getInt(entry + 8);
+        int rawLength = info.beamCount() * info.samplesPerBeam() * 2;
+
+        if (compressed.capacity() < blockLength) {
+            compressed = direct(blockLength);
+        }
+        if (samples.capacity() < rawLength) {
+            samples = direct(rawLength);
+        }
+        compressed.clear().limit(blockLength);
+        readFully(compressed, blockOffset);
+
+        samples.clear().limit(rawLength);
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            while (samples.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(samples) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt ping block " + ping + " in " + path, e);
+        }
+        if (samples.hasRemaining()) {
+            throw new IOException("Short ping block " + ping + " in " + path);
+        }
+        samples.flip();
+        return samples;
+    }
+
+    private static void checkBeam(int ping, PingInfo info, int beam) {
+        if (beam < 0 || beam >= info.beamCount()) {
+            throw new IllegalArgumentException("Beam " + beam + " outside 0.." + (info.beamCount() - 1)
+                + " of ping " + ping);
+        }
+    }
+
+    private int entryOffset(int ping) {
+        if (ping < 0 || ping >= pingCount) {
+            throw new IndexOutOfBoundsException("Ping " + ping + " outside 0.." + (pingCount - 1));
+        }
+        return ping * SonarColumnWriter.INDEX_ENTRY_BYTES;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static ByteBuffer direct(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
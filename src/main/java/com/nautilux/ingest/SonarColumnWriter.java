@@ -0,0 +1,159 @@
+package com.nautilux.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+/*
+ * Writes raw ping returns into the Nautilux sonar column store (.nxc, little-endian):
+ *
+ *   header (16 bytes): "NXSC", version u16, flags u16, 8 reserved bytes
+ *   one deflated block per ping: int16 centi-dB samples, beam-major, delta-encoded per beam
+ *   index: one INDEX_ENTRY_BYTES entry per ping (see SonarColumnReader.PingInfo)
+ *   footer (16 bytes): index offset i64, ping count u32, "NXSC"
+ *
+ * Sample, block and index buffers are direct, so nothing proportional to the
+ * survey size is kept on the heap.
+ */
+public class SonarColumnWriter implements SonarBinaryDecoder.PingListener, Closeable {
+
+    public static final int MAGIC = 0x4353584E;   // "NXSC"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int INDEX_ENTRY_BYTES = 56;
+    public static final int FOOTER_BYTES = 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private ByteBuffer samples = direct(1 << 20);
+    private final ByteBuffer block = direct(1 << 16);
+    private ByteBuffer index = direct(INDEX_ENTRY_BYTES * 1024);
+    private long position;
+    private int pings;
+    private boolean closed;
+
+    public SonarColumnWriter(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = direct(HEADER_BYTES);
+        header.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putLong(0L).flip();
+        write(header);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public void onPing(SonarBinaryDecoder.Ping ping) {
+        try {
+            append(ping);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write sonar column store " + path, e);
+        }
+    }
+
+    private void append(SonarBinaryDecoder.Ping ping) throws IOException {
+        int count = ping.beamCount * ping.samplesPerBeam;
+        if (samples.capacity() < count * 2) {
+            samples = direct(Math.max(count * 2, samples.capacity() * 2));
+        }
+        samples.clear();
+        for (int beam = 0; beam < ping.beamCount; beam++) {
+            short previous = 0;
+            for (int i = 0; i < ping.samplesPerBeam; i++) {
+                short value = quantize(ping.sample(beam, i));
+                samples.putShort((short) (value - previous));
+                previous = value;
+            }
+        }
+        samples.flip();
+
+        long blockOffset = position;
+        deflater.reset();
+        deflater.setInput(samples);
+        deflater.finish();
+        while (!deflater.finished()) {
+            block.clear();
+            deflater.deflate(block);
+            block.flip();
+            write(block);
+        }
+
+        if (index.remaining() < INDEX_ENTRY_BYTES) {
+            ByteBuffer grown = direct(index.capacity() * 2);
+            index.flip();
+            grown.put(index);
+            index = grown;
+        }
+        index.putLong(blockOffset)
+             .putInt((int) (position - blockOffset))
+             .putShort((short) ping.beamCount)
+             .putShort((short) 0)
+             .putInt(ping.samplesPerBeam)
+             .putLong(ping.timestampMicros)
+             .putDouble(ping.latitude)
+             .putDouble(ping.longitude)
+             .putFloat(ping.sampleRateHz)
+             .putFloat(ping.soundSpeed)
+             .putInt(ping.pingNumber);
+        pings++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long indexOffset = position;
+            index.flip();
+            write(index);
+            ByteBuffer footer = direct(FOOTER_BYTES);
+            footer.putLong(indexOffset).putInt(pings).putInt(MAGIC).flip();
+            write(footer);
+            channel.force(false);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    // Discards a partially written store, e.g. when decoding the source fails
+    public void abort() {
+        closed = true;
+        deflater.end();
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+
+    static short quantize(double amplitudeDb) {
+        long centi = Math.round(amplitudeDb * 100.0);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, centi));
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer direct(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,159 @@
+package com.nautilux.ingest;
+
+import com.nautilux.model.SonarData;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Mergeable primitive accumulator for the summary fields stored on SonarData
+public class SonarSummary {
+
+    // Column order for sonar CSV soundings
+    public static final String[] CSV_COLUMNS = {
+        "timestamp", "latitude", "longitude", "depth_meters", "amplitude_db", "range_meters"
+    };
+
+    private static final double HISTOGRAM_MIN_DB = -200.0;
+    private static final double HISTOGRAM_BIN_DB = 0.5;
+    private static final int HISTOGRAM_BINS = 1000;
+
+    long soundings;
+    long firstMicros = Long.MAX_VALUE;
+    long positions;
+    double latitudeSum;
+    double longitudeSum;
+    long depths;
+    double depthSum;
+    double depthSumSquares;
+    double depthMin = Double.POSITIVE_INFINITY;
+    double depthMax = Double.NEGATIVE_INFINITY;
+    double rangeMax = Double.NaN;
+    long samples;
+    double amplitudeMax = Double.NEGATIVE_INFINITY;
+    final long[] amplitudeHistogram = new long[HISTOGRAM_BINS];
+
+    public boolean addCsvRecord(CsvRecord record) {
+        if (record.fieldCount() < 4 || !ByteParsers.isDigit(record.firstByte(0))) {
+            return false;
+        }
+        long micros = record.getTimestampMicros(0);
+        if (micros == ByteParsers.INVALID_TIMESTAMP) {
+            return false;
+        }
+        try {
+            acceptSounding(micros, record.getDouble(1), record.getDouble(2), record.getDouble(3));
+            double amplitude = record.getDouble(4);
+            if (!Double.isNaN(amplitude)) {
+                acceptSample(amplitude);
+            }
+            acceptRange(record.getDouble(5));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public void acceptSounding(long micros, double latitude, double longitude, double depth) {
+        soundings++;
+        if (micros < firstMicros) {
+            firstMicros = micros;
+        }
+        if (!Double.isNaN(latitude) && !Double.isNaN(longitude)) {
+            positions++;
+            latitudeSum += latitude;
+            longitudeSum += longitude;
+        }
+        if (!Double.isNaN(depth)) {
+            depths++;
+            depthSum += depth;
+            depthSumSquares += depth * depth;
+            if (depth < depthMin) depthMin = depth;
+            if (depth > depthMax) depthMax = depth;
+        }
+    }
+
+    public void acceptSample(double amplitudeDb) {
+        samples++;
+        if (amplitudeDb > amplitudeMax) {
+            amplitudeMax = amplitudeDb;
+        }
+        int bin = (int) ((amplitudeDb - HISTOGRAM_MIN_DB) / HISTOGRAM_BIN_DB);
+        amplitudeHistogram[Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+    }
+
+    public void acceptRange(double range) {
+        if (!Double.isNaN(range) && (Double.isNaN(rangeMax) || range > rangeMax)) {
+            rangeMax = range;
+        }
+    }
+
+    public synchronized void merge(SonarSummary other) {
+        soundings += other.soundings;
+        firstMicros = Math.min(firstMicros, other.firstMicros);
+        positions += other.positions;
+        latitudeSum += other.latitudeSum;
+        longitudeSum += other.longitudeSum;
+        depths += other.depths;
+        depthSum += other.depthSum;
+        depthSumSquares += other.depthSumSquares;
+        depthMin = Math.min(depthMin, other.depthMin);
+        depthMax = Math.max(depthMax, other.depthMax);
+        acceptRange(other.rangeMax);
+        samples += other.samples;
+        amplitudeMax = Math.max(amplitudeMax, other.amplitudeMax);
+        for (int i = 0; i < HISTOGRAM_BINS; i++) {
+            amplitudeHistogram[i] += other.amplitudeHistogram[i];
+        }
+    }
+
+    public long soundings() {
+        return soundings;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double amplitudePercentile(double percentile) {
+        if (samples == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * samples);
+        long seen = 0;
+        for (int i = 0; i < HISTOGRAM_BINS; i++) {
+            seen += amplitudeHistogram[i];
+            if (seen >= rank) {
+                return HISTOGRAM_MIN_DB + (i + 0.5) * HISTOGRAM_BIN_DB;
+            }
+        }
+        return amplitudeMax;
+    }
+
+    public void applyTo(SonarData sonar) {
+        if (firstMicros != Long.MAX_VALUE && sonar.timestamp == null) {
+            sonar.timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(firstMicros, 1_000_000L),
+                (int) Math.floorMod(firstMicros, 1_000_000L) * 1000, ZoneOffset.UTC);
+        }
+        sonar.dataPoints = (int) Math.min(Integer.MAX_VALUE, Math.max(soundings, samples));
+        if (positions > 0) {
+            sonar.latitude = latitudeSum / positions;
+            sonar.longitude = longitudeSum / positions;
+        }
+        if (depths > 0) {
+            double mean = depthSum / depths;
+            double variance = Math.max(0.0, depthSumSquares / depths - mean * mean);
+            sonar.depthMeters = mean;
+            sonar.structureHeightMeters = depthMax - depthMin;
+            sonar.structureComplexityScore = mean > 0 ? Math.sqrt(variance) / mean : 0.0;
+        }
+        if (!Double.isNaN(rangeMax)) {
+            sonar.rangeMeters = rangeMax;
+        }
+        if (samples > 0) {
+            double noise = amplitudePercentile(10);
+            sonar.noiseLevelDb = noise;
+            sonar.targetStrengthDb = amplitudeMax;
+            sonar.signalQualityScore = Math.max(0.0, Math.min(1.0, (amplitudeMax - noise) / 60.0));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.nautilux.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Times every business method of the annotated bean (or the annotated method) as
+ * nautilux.service.calls, tagged with class, method and outcome, and records it
+ * as a service span when the calling thread is tracing. Timers are created on the
+ * first call of each method and reused, so an untraced call records two nanoTime
+ * readings and does not allocate.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Instrumented {
+}
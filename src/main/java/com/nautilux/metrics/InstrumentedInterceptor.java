@@ -0,0 +1,63 @@
+package com.nautilux.metrics;
+
+import com.nautilux.tracing.Tracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Outside @Transactional (PLATFORM_BEFORE + 200), so commit time and commit failures count toward the call
+@Instrumented
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class InstrumentedInterceptor {
+
+    public static final String SERVICE_CALLS = "nautilux.service.calls";
+
+    private record Timers(String name, Timer success, Timer error) {
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    @AroundInvoke
+    Object time(InvocationContext context) throws Exception {
+        Timers timers = timersFor(context.getMethod());
+        long started = System.nanoTime();
+        try (Tracing.Scope span = Tracing.span("service", timers.name(), null)) {
+            Object result = context.proceed();
+            timers.success().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Exception | Error e) {
+            timers.error().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timers timersFor(Method method) {
+        Timers existing = timers.get(method);
+        if (existing != null) {
+            return existing;
+        }
+        return timers.computeIfAbsent(method, key -> new Timers(
+            key.getDeclaringClass().getSimpleName() + "." + key.getName(), timer(key, "success"), timer(key, "error")));
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(SERVICE_CALLS)
+            .description("Service method calls")
+            .tag("class", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.nautilux.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+@Singleton
+public class MetricsConfiguration {
+
+    @ConfigProperty(name = "monitoring.metrics.histograms", defaultValue = "true")
+    boolean histograms;
+
+    @ConfigProperty(name = "monitoring.metrics.histogram-min", defaultValue = "PT0.001S")
+    Duration histogramMin;
+
+    @ConfigProperty(name = "monitoring.metrics.histogram-max", defaultValue = "PT60S")
+    Duration histogramMax;
+
+    /*
+     * Bucketed histograms for application and Camel route timers, so latency
+     * percentiles can be aggregated across instances in Prometheus. Buckets are
+     * fixed when the timer is created; recording only increments one of them.
+     */
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!histograms || id.getType() != Meter.Type.TIMER || !histogrammed(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .minimumExpectedValue((double) histogramMin.toNanos())
+                    .maximumExpectedValue((double) histogramMax.toNanos())
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+
+    // Camel's route policy timers are named camel.route.policy or CamelRoutePolicy depending on naming strategy
+    private static boolean histogrammed(String name) {
+        return name.startsWith("nautilux.") || name.regionMatches(true, 0, "camel", 0, 5);
+    }
+}
@@ -0,0 +1,63 @@
+package com.nautilux.metrics;
+
+import com.nautilux.cache.TtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/*
+ * Publishes a TtlCache under Micrometer's standard cache.* meters (size, gets by
+ * result, evictions, puts) plus expirations and invalidations. Every miss that
+ * loads a value is a put, so puts are reported as misses. Values are read from
+ * the cache's own counters at scrape time; lookups are not touched.
+ */
+public class TtlCacheMetrics extends CacheMeterBinder<TtlCache<?, ?>> {
+
+    public TtlCacheMetrics(TtlCache<?, ?> cache, String cacheName) {
+        super(cache, cacheName, Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        TtlCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        TtlCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TtlCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TtlCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().evictions();
+    }
+
+    @Override
+    protected long putCount() {
+        TtlCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().misses();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.expirations", getCache(), cache -> cache == null ? 0 : cache.stats().expirations())
+            .tags(getTagsWithCacheName())
+            .description("Entries dropped after their TTL elapsed")
+            .register(registry);
+        FunctionCounter.builder("cache.invalidations", getCache(),
+                cache -> cache == null ? 0 : cache.stats().invalidations())
+            .tags(getTagsWithCacheName())
+            .description("Entries removed by invalidation")
+            .register(registry);
+    }
+}
@@ -1,6 +1,7 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,7 +10,15 @@ import java.util.List;
 
 @Entity
 @Table(name = "coral_reefs")
-public class CoralReef extends PanacheEntity {
+@NamedEntityGraph(name = CoralReef.WITH_ZONES, attributeNodes = @NamedAttributeNode("reefZones"))
+public class CoralReef extends PanacheEntityBase {
+    
+    // Fetch plans, see FetchPlans
+    public static final String WITH_ZONES = "CoralReef.withZones";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotBlank
     @Column(name = "name", nullable = false)
@@ -64,15 +73,19 @@ public class CoralReef extends PanacheEntity {
     @Column(name = "updated_at")
     public LocalDateTime updatedAt = LocalDateTime.now();
     
+    @JsonIgnore
     @OneToMany(mappedBy = "coralReef", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<ReefZone> reefZones;
     
+    @JsonIgnore
     @OneToMany(mappedBy = "coralReef", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<SensorData> sensorData;
     
+    @JsonIgnore
     @OneToMany(mappedBy = "coralReef", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<ImageData> imageData;
     
+    @JsonIgnore
     @OneToMany(mappedBy = "coralReef", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<SonarData> sonarData;
     
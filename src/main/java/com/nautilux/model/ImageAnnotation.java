@@ -1,13 +1,17 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "image_annotations")
-public class ImageAnnotation extends PanacheEntity {
+public class ImageAnnotation extends PanacheEntityBase {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotNull
     @Column(name = "annotation_type", nullable = false)
@@ -59,7 +63,7 @@ public class ImageAnnotation extends PanacheEntity {
     @Column(name = "area_pixels")
     public Double areaPixels;
     
-    @Column(name = "health_status")
+    @Column(name = "health_indicator")
     @Enumerated(EnumType.STRING)
     public CoralReef.HealthStatus healthStatus;
     
@@ -82,7 +86,7 @@ public class ImageAnnotation extends PanacheEntity {
     public LocalDateTime createdAt = LocalDateTime.now();
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "image_data_id", nullable = false)
+    @JoinColumn(name = "image_id", nullable = false)
     public ImageData imageData;
     
     public enum AnnotationType {
@@ -1,6 +1,6 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -8,10 +8,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "image_data")
-public class ImageData extends PanacheEntity {
+@NamedEntityGraph(name = ImageData.WITH_ANNOTATIONS, attributeNodes = @NamedAttributeNode("annotations"))
+public class ImageData extends PanacheEntityBase {
+    
+    // Fetch plans, see FetchPlans
+    public static final String WITH_ANNOTATIONS = "ImageData.withAnnotations";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotNull
-    @Column(name = "timestamp", nullable = false)
+    @Column(name = "capture_timestamp", nullable = false)
     public LocalDateTime timestamp;
     
     @Column(name = "image_url")
@@ -29,10 +37,14 @@ public class ImageData extends PanacheEntity {
     @Column(name = "image_format")
     public String imageFormat;
     
-    @Column(name = "width_pixels")
+    // SHA-256 of the stored object, see ContentStore
+    @Column(name = "content_hash", length = 64)
+    public String contentHash;
+    
+    @Column(name = "image_width")
     public Integer widthPixels;
     
-    @Column(name = "height_pixels")
+    @Column(name = "image_height")
     public Integer heightPixels;
     
     @Column(name = "latitude")
@@ -44,7 +56,7 @@ public class ImageData extends PanacheEntity {
     @Column(name = "depth_meters")
     public Double depthMeters;
     
-    @Column(name = "camera_model")
+    @Column(name = "camera_type")
     public String cameraModel;
     
     @Column(name = "exposure_settings")
@@ -56,7 +68,7 @@ public class ImageData extends PanacheEntity {
     @Column(name = "visibility_meters")
     public Double visibilityMeters;
     
-    @Column(name = "ai_analysis_status")
+    @Column(name = "analysis_status")
     @Enumerated(EnumType.STRING)
     public AnalysisStatus aiAnalysisStatus = AnalysisStatus.PENDING;
     
@@ -94,11 +106,11 @@ public class ImageData extends PanacheEntity {
     public LocalDateTime updatedAt = LocalDateTime.now();
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "coral_reef_id")
+    @JoinColumn(name = "reef_id")
     public CoralReef coralReef;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "reef_zone_id")
+    @JoinColumn(name = "zone_id")
     public ReefZone reefZone;
     
     @OneToMany(mappedBy = "imageData", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
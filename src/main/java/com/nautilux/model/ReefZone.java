@@ -1,6 +1,7 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,7 +9,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reef_zones")
-public class ReefZone extends PanacheEntity {
+public class ReefZone extends PanacheEntityBase {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotBlank
     @Column(name = "name", nullable = false)
@@ -22,10 +27,10 @@ public class ReefZone extends PanacheEntity {
     @Enumerated(EnumType.STRING)
     public ZoneType zoneType;
     
-    @Column(name = "depth_range_start")
+    @Column(name = "depth_range_min")
     public Double depthRangeStart;
     
-    @Column(name = "depth_range_end")
+    @Column(name = "depth_range_max")
     public Double depthRangeEnd;
     
     @Column(name = "area_square_meters")
@@ -59,8 +64,9 @@ public class ReefZone extends PanacheEntity {
     @Column(name = "updated_at")
     public LocalDateTime updatedAt = LocalDateTime.now();
     
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "coral_reef_id", nullable = false)
+    @JoinColumn(name = "reef_id", nullable = false)
     public CoralReef coralReef;
     
     @PreUpdate
@@ -1,13 +1,18 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "sensor_data")
-public class SensorData extends PanacheEntity {
+public class SensorData extends PanacheEntityBase {
+    
+    // BIGSERIAL key, shared with SensorBatchWriter, which inserts without Hibernate
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotNull
     @Column(name = "timestamp", nullable = false)
@@ -21,10 +26,10 @@ public class SensorData extends PanacheEntity {
     @Column(name = "sensor_id")
     public String sensorId;
     
-    @Column(name = "latitude")
+    @Column(name = "location_latitude")
     public Double latitude;
     
-    @Column(name = "longitude")
+    @Column(name = "location_longitude")
     public Double longitude;
     
     @Column(name = "depth_meters")
@@ -72,18 +77,18 @@ public class SensorData extends PanacheEntity {
     @Column(name = "unit")
     public String unit;
     
-    @Column(name = "quality_score")
+    @Column(name = "data_quality_score")
     public Double qualityScore;
     
     @Column(name = "created_at", nullable = false)
     public LocalDateTime createdAt = LocalDateTime.now();
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "coral_reef_id")
+    @JoinColumn(name = "reef_id")
     public CoralReef coralReef;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "reef_zone_id")
+    @JoinColumn(name = "zone_id")
     public ReefZone reefZone;
     
     public enum SensorType {
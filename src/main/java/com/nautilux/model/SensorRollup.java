@@ -0,0 +1,118 @@
+package com.nautilux.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Entity
+@Table(name = "sensor_rollups")
+public class SensorRollup extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "reef_id", nullable = false)
+    public Long reefId;
+
+    // 0 when the readings were not attributed to a zone
+    @Column(name = "zone_id", nullable = false)
+    public Long zoneId;
+
+    @Column(name = "sensor_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    public SensorData.SensorType sensorType;
+
+    @Column(name = "resolution", nullable = false)
+    @Enumerated(EnumType.STRING)
+    public Resolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    public LocalDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    public Long sampleCount;
+
+    @Column(name = "temperature_count", nullable = false)
+    public Long temperatureCount;
+
+    @Column(name = "temperature_sum", nullable = false)
+    public Double temperatureSum;
+
+    @Column(name = "temperature_min")
+    public Double temperatureMin;
+
+    @Column(name = "temperature_max")
+    public Double temperatureMax;
+
+    @Column(name = "salinity_count", nullable = false)
+    public Long salinityCount;
+
+    @Column(name = "salinity_sum", nullable = false)
+    public Double salinitySum;
+
+    @Column(name = "salinity_min")
+    public Double salinityMin;
+
+    @Column(name = "salinity_max")
+    public Double salinityMax;
+
+    @Column(name = "ph_count", nullable = false)
+    public Long phCount;
+
+    @Column(name = "ph_sum", nullable = false)
+    public Double phSum;
+
+    @Column(name = "ph_min")
+    public Double phMin;
+
+    @Column(name = "ph_max")
+    public Double phMax;
+
+    @Column(name = "dissolved_oxygen_count", nullable = false)
+    public Long dissolvedOxygenCount;
+
+    @Column(name = "dissolved_oxygen_sum", nullable = false)
+    public Double dissolvedOxygenSum;
+
+    @Column(name = "dissolved_oxygen_min")
+    public Double dissolvedOxygenMin;
+
+    @Column(name = "dissolved_oxygen_max")
+    public Double dissolvedOxygenMax;
+
+    @Column(name = "turbidity_count", nullable = false)
+    public Long turbidityCount;
+
+    @Column(name = "turbidity_sum", nullable = false)
+    public Double turbiditySum;
+
+    @Column(name = "turbidity_min")
+    public Double turbidityMin;
+
+    @Column(name = "turbidity_max")
+    public Double turbidityMax;
+
+    @Column(name = "updated_at")
+    public LocalDateTime updatedAt;
+
+    public enum Resolution {
+        MINUTE(ChronoUnit.MINUTES), HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        public final ChronoUnit unit;
+
+        Resolution(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        public LocalDateTime ceil(LocalDateTime time) {
+            LocalDateTime floor = floor(time);
+            return floor.equals(time) ? floor : floor.plus(1, unit);
+        }
+    }
+}
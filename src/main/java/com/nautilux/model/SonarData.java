@@ -1,16 +1,20 @@
 package com.nautilux.model;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "sonar_data")
-public class SonarData extends PanacheEntity {
+public class SonarData extends PanacheEntityBase {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
     
     @NotNull
-    @Column(name = "timestamp", nullable = false)
+    @Column(name = "capture_timestamp", nullable = false)
     public LocalDateTime timestamp;
     
     @Column(name = "file_path")
@@ -34,7 +38,7 @@ public class SonarData extends PanacheEntity {
     @Column(name = "depth_meters")
     public Double depthMeters;
     
-    @Column(name = "sonar_frequency_hz")
+    @Column(name = "frequency_hz")
     public Double sonarFrequencyHz;
     
     @Column(name = "pulse_length_ms")
@@ -55,7 +59,11 @@ public class SonarData extends PanacheEntity {
     @Column(name = "data_points")
     public Integer dataPoints;
     
-    @Column(name = "ai_analysis_status")
+    // Column store (.nxc) holding the raw ping returns, see SonarColumnWriter
+    @Column(name = "raw_store_path")
+    public String rawStorePath;
+    
+    @Column(name = "analysis_status")
     @Enumerated(EnumType.STRING)
     public ImageData.AnalysisStatus aiAnalysisStatus = ImageData.AnalysisStatus.PENDING;
     
@@ -105,11 +113,11 @@ public class SonarData extends PanacheEntity {
     public LocalDateTime updatedAt = LocalDateTime.now();
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "coral_reef_id")
+    @JoinColumn(name = "reef_id")
     public CoralReef coralReef;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "reef_zone_id")
+    @JoinColumn(name = "zone_id")
     public ReefZone reefZone;
     
     @PreUpdate
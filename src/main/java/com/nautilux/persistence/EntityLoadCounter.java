@@ -0,0 +1,21 @@
+package com.nautilux.persistence;
+
+import com.nautilux.tracing.Tracing;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/*
+ * Counts the entities Hibernate builds from a result set towards the statement
+ * that returned them, as the row count of its sql span. Constructor projections
+ * and scalar queries build no entities and report zero rows.
+ */
+@PersistenceUnitExtension
+public class EntityLoadCounter implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Tracing.rowLoaded();
+        return false;
+    }
+}
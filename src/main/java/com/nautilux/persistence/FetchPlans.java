@@ -0,0 +1,36 @@
+package com.nautilux.persistence;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Map;
+
+/*
+ * Opt-in loading of the named entity graphs declared on the model classes.
+ * Graphs are applied as fetch graphs: attributes in the graph are fetched in the
+ * same statement, everything else stays lazy regardless of the mapping.
+ */
+public final class FetchPlans {
+
+    public static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    private FetchPlans() {
+    }
+
+    public static <T> T find(EntityManager entityManager, Class<T> type, Object id, String graph) {
+        return entityManager.find(type, id, Map.of(FETCH_GRAPH, entityGraph(entityManager, graph)));
+    }
+
+    public static <T> TypedQuery<T> apply(EntityManager entityManager, TypedQuery<T> query, String graph) {
+        return query.setHint(FETCH_GRAPH, entityGraph(entityManager, graph));
+    }
+
+    private static EntityGraph<?> entityGraph(EntityManager entityManager, String graph) {
+        EntityGraph<?> entityGraph = entityManager.getEntityGraph(graph);
+        if (entityGraph == null) {
+            throw new IllegalArgumentException("Unknown entity graph " + graph);
+        }
+        return entityGraph;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nautilux.persistence;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Upper bound on the Hibernate statements one call of the annotated method may
+ * issue. Exceeding it is logged, or fails the call when
+ * monitoring.query-budget.mode is fail (the dev and test profiles), so an
+ * accidental N+1 shows up as soon as the path is exercised.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    @Nonbinding
+    int value();
+}
@@ -0,0 +1,8 @@
+package com.nautilux.persistence;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.nautilux.persistence;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.Method;
+
+@QueryBudget(0)
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class QueryBudgetInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(QueryBudgetInterceptor.class);
+
+    public enum Mode { OFF, LOG, FAIL }
+
+    @ConfigProperty(name = "monitoring.query-budget.mode", defaultValue = "log")
+    Mode mode;
+
+    @AroundInvoke
+    Object enforce(InvocationContext context) throws Exception {
+        if (mode == Mode.OFF) {
+            return context.proceed();
+        }
+        int budget = budget(context.getMethod());
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            Object result = context.proceed();
+            int count = scope.count();
+            if (count > budget) {
+                String method = context.getMethod().getDeclaringClass().getSimpleName() + "."
+                    + context.getMethod().getName();
+                String message = String.format("%s issued %d SQL statements, budget is %d: %s",
+                    method, count, budget, scope.statements());
+                if (mode == Mode.FAIL) {
+                    throw new QueryBudgetExceededException(message);
+                }
+                LOG.warn(message);
+            }
+            return result;
+        }
+    }
+
+    private static int budget(Method method) {
+        QueryBudget budget = method.getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = method.getDeclaringClass().getAnnotation(QueryBudget.class);
+        }
+        return budget != null ? budget.value() : Integer.MAX_VALUE;
+    }
+}
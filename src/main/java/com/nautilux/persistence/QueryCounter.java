@@ -0,0 +1,77 @@
+package com.nautilux.persistence;
+
+import com.nautilux.tracing.Tracing;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * scope is open. Scopes nest: a statement counts towards every enclosing scope.
+ * Native JDBC (exports, bulk loads) and the reactive client bypass Hibernate
+ * and are not counted. The statement is also handed to the current trace, which
+ * times it once TracingSessionListener sees it execute.
+ */
+@PersistenceUnitExtension
+public class QueryCounter implements StatementInspector {
+
+    private static final int MAX_RECORDED_STATEMENTS = 20;
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // The first statements of the scope, for diagnostics
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+            if (scope.statements.size() < MAX_RECORDED_STATEMENTS) {
+                scope.statements.add(sql);
+            }
+        }
+        Tracing.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nautilux.persistence;
+
+import com.nautilux.tracing.Tracing;
+import org.hibernate.SessionEventListener;
+
+/*
+ * Records each JDBC execution of a Hibernate session as an sql span of the current
+ * trace. Registered through hibernate.session.events.auto, so Hibernate creates one
+ * per session; sessions are single-threaded, so the open span needs no guarding.
+ */
+public class TracingSessionListener implements SessionEventListener {
+
+    private Tracing.Scope statement;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statement = Tracing.statementStarted("statement");
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        end();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statement = Tracing.statementStarted("batch");
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        end();
+    }
+
+    private void end() {
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+}
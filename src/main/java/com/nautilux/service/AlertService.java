@@ -1,10 +1,284 @@
 package com.nautilux.service;
 
-import jakarta.enterprise.context.ApplicationScoped;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.alerting.Alert;
+import com.nautilux.alerting.AlertSink;
+import com.nautilux.alerting.SensorAlert;
+import com.nautilux.dto.HealthAlert;
 import com.nautilux.model.CoralReef;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Asynchronous alert delivery. Raising an alert fires a CDI event observed
+ * AFTER_SUCCESS, so alerts raised inside a transaction are queued only once it
+ * commits (and dropped if it rolls back) and never hold it open. Queued alerts
+ * pass a per reef/source/severity suppression window, then a single dispatcher
+ * delivers them in batches to every enabled AlertSink, retrying with backoff and
+ * writing batches that still fail to the dead-letter file.
+ */
 @ApplicationScoped
 public class AlertService {
-    // Minimal stub for compilation
-    public void sendHealthAlert(CoralReef reef) {}
-} 
\ No newline at end of file
+
+    private static final Logger LOG = Logger.getLogger(AlertService.class);
+
+    @Inject
+    AlertingConfig config;
+
+    @Inject
+    @Any
+    Instance<AlertSink> sinkBeans;
+
+    @Inject
+    ExecutorProvider executorProvider;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Event<Alert> alertRaised;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Long> lastAcceptedNanos = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    BlockingQueue<Alert> queue;
+    List<AlertSink> sinks;
+    Thread dispatcher;
+    private volatile boolean running;
+    private long lastPruneNanos = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(config.pipeline().queueCapacity());
+        sinks = sinkBeans.stream().filter(AlertSink::enabled).toList();
+        running = true;
+        dispatcher = executorProvider.threadFactory("alert-dispatcher").newThread(this::dispatch);
+        dispatcher.start();
+        registerMetrics();
+        LOG.infof("Alert sinks: %s", sinks.stream().map(AlertSink::name).toList());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void sendHealthAlert(CoralReef reef) {
+        raise(new Alert(reef.id, Alert.HEALTH_ASSESSMENT,
+            HealthAlert.severityOf(reef.healthStatus, reef.bleachingRiskLevel),
+            String.format("Reef %s health %s, bleaching risk level %s", reef.name, reef.healthStatus,
+                reef.bleachingRiskLevel),
+            LocalDateTime.now()));
+    }
+
+    public void sendSensorAlert(SensorAlert alert) {
+        raise(Alert.of(alert));
+    }
+
+    // Never blocks the caller; inside a transaction the alert waits for the commit
+    public void raise(Alert alert) {
+        alertRaised.fire(alert);
+    }
+
+    void onAlertRaised(@Observes(during = TransactionPhase.AFTER_SUCCESS) Alert alert) {
+        long now = System.nanoTime();
+        long window = config.pipeline().suppressionWindow().toNanos();
+        boolean[] fresh = new boolean[1];
+        lastAcceptedNanos.compute(alert.dedupKey(), (key, last) -> {
+            if (last == null || now - last >= window) {
+                fresh[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (!fresh[0]) {
+            suppressed.increment();
+            return;
+        }
+        if (!queue.offer(alert)) {
+            // Let the next occurrence through rather than suppressing an alert nobody saw
+            lastAcceptedNanos.remove(alert.dedupKey(), now);
+            dropped.increment();
+            LOG.debugf("Alert queue full, dropped %s", alert.dedupKey());
+            return;
+        }
+        accepted.increment();
+    }
+
+    private void dispatch() {
+        int batchSize = config.pipeline().batchSize();
+        long lingerNanos = config.pipeline().batchLinger().toNanos();
+        List<Alert> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                Alert first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + lingerNanos;
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        Alert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    deliver(List.copyOf(batch), config.pipeline().maxAttempts());
+                    batch.clear();
+                }
+                pruneSuppression();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Shutting down: one attempt for whatever is still queued
+        batch.clear();
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            deliver(List.copyOf(batch), 1);
+        }
+    }
+
+    private void deliver(List<Alert> batch, int maxAttempts) {
+        for (AlertSink sink : sinks) {
+            Exception failure = null;
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    sink.deliver(batch);
+                    failure = null;
+                    break;
+                } catch (Exception e) {
+                    failure = e;
+                    if (attempt == maxAttempts
+                            || !sleep(config.pipeline().retryBackoff().toMillis() << (attempt - 1))) {
+                        break;
+                    }
+                    retries.increment();
+                }
+            }
+            if (failure == null) {
+                delivered.add(batch.size());
+            } else {
+                deadLetter(sink, batch, failure);
+            }
+        }
+    }
+
+    private void deadLetter(AlertSink sink, List<Alert> batch, Exception failure) {
+        LOG.errorf(failure, "Delivering %d alerts to %s failed, writing them to the dead-letter file",
+            batch.size(), sink.name());
+        List<Map<String, Object>> entries = new ArrayList<>(batch.size());
+        for (Alert alert : batch) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sink", sink.name());
+            entry.put("error", String.valueOf(failure.getMessage()));
+            entry.put("failedAt", LocalDateTime.now());
+            entry.put("alert", alert);
+            entries.add(entry);
+        }
+        try {
+            synchronized (this) {
+                FileAlertSink.appendNdjson(objectMapper, Path.of(config.pipeline().deadLetterPath()), entries);
+            }
+            deadLettered.add(batch.size());
+        } catch (IOException e) {
+            LOG.errorf(e, "Could not write %d alerts to the dead-letter file", batch.size());
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void pruneSuppression() {
+        long now = System.nanoTime();
+        long window = config.pipeline().suppressionWindow().toNanos();
+        if (now - lastPruneNanos < Math.min(window, TimeUnit.MINUTES.toNanos(1))) {
+            return;
+        }
+        lastPruneNanos = now;
+        lastAcceptedNanos.values().removeIf(last -> now - last >= window);
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("nautilux.alerts.queued", queue, BlockingQueue::size)
+            .description("Alerts waiting for the dispatcher")
+            .register(registry);
+        Gauge.builder("nautilux.alerts.queue.capacity", queue, q -> q.size() + q.remainingCapacity())
+            .register(registry);
+        counter("accepted", accepted);
+        counter("suppressed", suppressed);
+        counter("dropped", dropped);
+        counter("delivered", delivered);
+        counter("dead-lettered", deadLettered);
+        FunctionCounter.builder("nautilux.alerts.retries", retries, LongAdder::sum)
+            .description("Sink delivery retries")
+            .register(registry);
+    }
+
+    private void counter(String outcome, LongAdder adder) {
+        FunctionCounter.builder("nautilux.alerts", adder, LongAdder::sum)
+            .description("Alerts by pipeline outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sinks", sinks.stream().map(AlertSink::name).toList());
+        stats.put("queued", queue.size());
+        stats.put("queueCapacity", config.pipeline().queueCapacity());
+        stats.put("accepted", accepted.sum());
+        stats.put("suppressed", suppressed.sum());
+        stats.put("dropped", dropped.sum());
+        // Per sink: a batch delivered to two sinks counts twice
+        stats.put("delivered", delivered.sum());
+        stats.put("retries", retries.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,120 @@
+package com.nautilux.service;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+// Sensor alert rules (fleet-wide defaults, overridden per reef under alerting.reefs."<reef id>") and alert delivery
+@ConfigMapping(prefix = "alerting")
+public interface AlertingConfig {
+
+    // Sensor rule evaluation; delivery of other alerts is unaffected
+    @WithDefault("true")
+    boolean enabled();
+
+    // Rolling mean and rate-of-change window per sensor, and its initial capacity in samples (it grows as needed)
+    @WithDefault("PT1H")
+    Duration window();
+
+    @WithDefault("128")
+    int windowSamples();
+
+    // Shortest span a rate of change is computed over, so two close readings don't read as a spike
+    @WithDefault("PT15M")
+    Duration minRateSpan();
+
+    Thresholds defaults();
+
+    Map<String, Thresholds> reefs();
+
+    Pipeline pipeline();
+
+    Sinks sinks();
+
+    // Unset values fall back to the defaults; unset defaults disable the rule
+    interface Thresholds {
+        Optional<Double> temperatureMax();
+
+        Optional<Double> temperatureMin();
+
+        Optional<Double> windowTemperatureMax();
+
+        Optional<Double> temperatureRateMax();
+
+        Optional<Double> maximumMonthlyMean();
+
+        Optional<Double> degreeHeatingWeeksMax();
+
+        Optional<Double> salinityMin();
+
+        Optional<Double> salinityMax();
+
+        Optional<Double> phMin();
+
+        Optional<Double> phMax();
+
+        Optional<Double> dissolvedOxygenMin();
+
+        Optional<Double> turbidityMax();
+    }
+
+    interface Pipeline {
+        @WithDefault("10000")
+        int queueCapacity();
+
+        @WithDefault("500")
+        int batchSize();
+
+        // How long the dispatcher waits for a batch to fill once the first alert arrives
+        @WithDefault("PT1S")
+        Duration batchLinger();
+
+        // Repeats of the same reef, source and severity within the window are dropped
+        @WithDefault("PT15M")
+        Duration suppressionWindow();
+
+        @WithDefault("3")
+        int maxAttempts();
+
+        @WithDefault("PT0.5S")
+        Duration retryBackoff();
+
+        @WithDefault("./data/storage/alerts/dead-letter.ndjson")
+        String deadLetterPath();
+    }
+
+    interface Sinks {
+        Log log();
+
+        File file();
+
+        Webhook webhook();
+
+        interface Log {
+            @WithDefault("true")
+            boolean enabled();
+        }
+
+        interface File {
+            @WithDefault("false")
+            boolean enabled();
+
+            @WithDefault("./data/storage/alerts/alerts.ndjson")
+            String path();
+        }
+
+        interface Webhook {
+            @WithDefault("false")
+            boolean enabled();
+
+            @WithDefault("http://localhost:8089/alerts")
+            String url();
+
+            @WithDefault("PT5S")
+            Duration timeout();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.nautilux.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Durable work scheduler for image and sonar analysis, driven by analysis_status.
+ *
+ * A single loop claims up to as many rows as there are free worker slots: one
+ * UPDATE ... FROM (SELECT ... FOR UPDATE SKIP LOCKED) marks them PROCESSING
+ * under this instance's owner id and a lease, so concurrent instances never claim
+ * the same row and never wait on each other's locks. Rows of critical reefs come
+ * first, then reefs in alert, then the most recent uploads.
+ *
+ * Rows whose lease expired (a crashed or stalled worker) are claimed again until
+ * max-attempts is reached, then marked FAILED. Results are written only while the
+ * owner and attempt still match, so a worker that lost its lease cannot overwrite
+ * the retry. New images wake the loop immediately; otherwise it polls.
+ */
+@ApplicationScoped
+public class AnalysisScheduler {
+
+    private static final Logger LOG = Logger.getLogger(AnalysisScheduler.class);
+
+    public record Task(Target target, long id, Long reefId, String filePath, int attempt, boolean recovered) {
+    }
+
+    // Result fields from Ray mapped onto the analysis columns of each table
+    public enum Target {
+        IMAGE("image", "image_data", Map.of(
+            "coralCoveragePercentage", "coral_coverage_percentage",
+            "bleachingDetected", "bleaching_detected",
+            "bleachingSeverity", "bleaching_severity",
+            "healthScore", "health_score",
+            "biodiversityScore", "biodiversity_score",
+            "confidenceScore", "confidence_score")),
+        SONAR("sonar", "sonar_data", Map.of(
+            "reefStructureDetected", "reef_structure_detected",
+            "structureHeightMeters", "structure_height_meters",
+            "structureComplexityScore", "structure_complexity_score",
+            "fishDensityEstimate", "fish_density_estimate",
+            "healthScore", "health_score",
+            "confidenceScore", "confidence_score"));
+
+        final String kind;
+        final List<String> resultFields;
+        final String claimSql;
+        final String expireSql;
+        final String completeSql;
+        final String failSql;
+        final String backlogSql;
+
+        Target(String kind, String table, Map<String, String> results) {
+            this.kind = kind;
+            this.resultFields = List.copyOf(results.keySet());
+            this.claimSql =
+                "UPDATE " + table + " t SET analysis_status = 'PROCESSING', analysis_owner = ?, " +
+                "analysis_attempts = t.analysis_attempts + 1, " +
+                "analysis_lease_until = now() + ? * INTERVAL '1 millisecond', updated_at = now() " +
+                "FROM (SELECT c.id, c.analysis_status AS previous_status FROM " + table + " c " +
+                "      LEFT JOIN coral_reefs r ON r.id = c.reef_id " +
+                "      WHERE c.analysis_attempts < ? AND c.analysis_status IN ('PENDING', 'PROCESSING') " +
+                "        AND (c.analysis_lease_until IS NULL OR c.analysis_lease_until < now()) " +
+                "      ORDER BY CASE WHEN r.health_status = 'CRITICAL' THEN 0 " +
+                "                    WHEN r.health_status = 'POOR' OR r.bleaching_risk_level >= 3 THEN 1 " +
+                "                    ELSE 2 END, c.created_at DESC, c.id " +
+                "      LIMIT ? FOR UPDATE OF c SKIP LOCKED) next " +
+                "WHERE t.id = next.id " +
+                "RETURNING t.id, t.reef_id, t.file_path, t.analysis_attempts, next.previous_status";
+            this.expireSql =
+                "UPDATE " + table + " SET analysis_status = 'FAILED', analysis_owner = NULL, " +
+                "analysis_lease_until = NULL, analysis_error = 'Lease expired after final attempt', updated_at = now() " +
+                "WHERE analysis_status = 'PROCESSING' AND analysis_lease_until < now() AND analysis_attempts >= ?";
+            StringBuilder assignments = new StringBuilder();
+            for (String field : resultFields) {
+                assignments.append(results.get(field)).append(" = ?, ");
+            }
+            this.completeSql =
+                "UPDATE " + table + " SET " + assignments + "analysis_status = 'COMPLETED', analysis_owner = NULL, " +
+                "analysis_lease_until = NULL, analysis_error = NULL, processing_time_ms = ?, " +
+                "analysis_timestamp = now(), updated_at = now() " +
+                "WHERE id = ? AND analysis_owner = ? AND analysis_attempts = ?";
+            this.failSql =
+                "UPDATE " + table + " SET " +
+                "analysis_status = CASE WHEN analysis_attempts >= ? THEN 'FAILED' ELSE 'PENDING' END, " +
+                "analysis_owner = NULL, analysis_lease_until = now() + ? * INTERVAL '1 millisecond', " +
+                "analysis_error = ?, processing_time_ms = ?, updated_at = now() " +
+                "WHERE id = ? AND analysis_owner = ? AND analysis_attempts = ?";
+            this.backlogSql =
+                "SELECT analysis_status, count(*) FROM " + table +
+                " WHERE analysis_status IN ('PENDING', 'PROCESSING') GROUP BY analysis_status";
+        }
+    }
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    RayService rayService;
+
+    @Inject
+    ExecutorProvider executorProvider;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "processing.analysis.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "processing.analysis.concurrency", defaultValue = "4")
+    int concurrency;
+
+    @ConfigProperty(name = "processing.analysis.batch-size", defaultValue = "16")
+    int batchSize;
+
+    @ConfigProperty(name = "processing.analysis.poll-interval", defaultValue = "PT2S")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "processing.analysis.lease", defaultValue = "PT5M")
+    Duration lease;
+
+    @ConfigProperty(name = "processing.analysis.max-attempts", defaultValue = "3")
+    int maxAttempts;
+
+    @ConfigProperty(name = "processing.analysis.retry-backoff", defaultValue = "PT30S")
+    Duration retryBackoff;
+
+    @ConfigProperty(name = "processing.analysis.backlog-metrics-interval", defaultValue = "PT15S")
+    Duration backlogMetricsInterval;
+
+    private final String owner = ownerId();
+    private final Semaphore wakeups = new Semaphore(0);
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder fenced = new LongAdder();
+
+    Semaphore slots;
+    Thread loop;
+    private volatile boolean running;
+    private Map<String, Map<String, Long>> backlogSnapshot;
+    private long backlogReadNanos;
+
+    void onStart(@Observes StartupEvent event) {
+        registerMetrics();
+        if (!enabled) {
+            LOG.info("Analysis scheduler disabled");
+            return;
+        }
+        slots = new Semaphore(concurrency);
+        running = true;
+        loop = executorProvider.threadFactory("analysis-scheduler").newThread(this::run);
+        loop.start();
+        LOG.infof("Analysis scheduler %s running %d workers", owner, concurrency);
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        if (loop != null) {
+            running = false;
+            loop.interrupt();
+            loop.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    void onImageStored(@Observes(during = TransactionPhase.AFTER_SUCCESS) ImageStoredEvent event) {
+        wakeups.release();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("owner", owner);
+        stats.put("running", enabled ? concurrency - slots.availablePermits() : 0);
+        stats.put("concurrency", concurrency);
+        stats.put("claimed", claimed.sum());
+        stats.put("recovered", recovered.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        // Results dropped because the lease had already been recovered by another worker
+        stats.put("fenced", fenced.sum());
+        stats.put("backlog", backlog());
+        return stats;
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("nautilux.analysis.running", this, scheduler -> scheduler.slots == null ? 0 :
+                scheduler.concurrency - scheduler.slots.availablePermits())
+            .description("Analysis tasks being worked on by this instance")
+            .register(registry);
+        counter("claimed", claimed);
+        counter("recovered", recovered);
+        counter("completed", completed);
+        counter("failed", failed);
+        counter("fenced", fenced);
+        for (Target target : Target.values()) {
+            for (String status : List.of("PENDING", "PROCESSING")) {
+                Gauge.builder("nautilux.analysis.backlog", this, scheduler -> scheduler.backlogCount(target, status))
+                    .description("Rows waiting for or under analysis, across all instances")
+                    .tag("target", target.kind)
+                    .tag("status", status)
+                    .register(registry);
+            }
+        }
+    }
+
+    private void counter(String outcome, LongAdder adder) {
+        FunctionCounter.builder("nautilux.analysis.tasks", adder, LongAdder::sum)
+            .description("Analysis tasks by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    // Scrapes reuse one backlog read per interval instead of querying both tables for every gauge
+    private synchronized double backlogCount(Target target, String status) {
+        long now = System.nanoTime();
+        if (backlogSnapshot == null || now - backlogReadNanos >= backlogMetricsInterval.toNanos()) {
+            try {
+                backlogSnapshot = backlog();
+                backlogReadNanos = now;
+            } catch (IllegalStateException e) {
+                return Double.NaN;
+            }
+        }
+        return backlogSnapshot.getOrDefault(target.kind, Map.of()).getOrDefault(status, 0L);
+    }
+
+    private Map<String, Map<String, Long>> backlog() {
+        Map<String, Map<String, Long>> backlog = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Target target : Target.values()) {
+                Map<String, Long> counts = new LinkedHashMap<>();
+                try (PreparedStatement statement = connection.prepareStatement(target.backlogSql);
+                     ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        counts.put(rows.getString(1), rows.getLong(2));
+                    }
+                }
+                backlog.put(target.kind, counts);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read analysis backlog", e);
+        }
+        return backlog;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                slots.acquire();
+                int free = 1 + slots.drainPermits();
+                List<Task> tasks = List.of();
+                try {
+                    tasks = claim(Math.min(free, batchSize));
+                } finally {
+                    slots.release(free - tasks.size());
+                }
+                for (Task task : tasks) {
+                    executorProvider.blockingExecutor().execute(() -> {
+                        try {
+                            execute(task);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+                if (tasks.isEmpty()) {
+                    wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOG.warnf("Analysis scheduler claim failed: %s", e.getMessage());
+                sleep(pollInterval);
+            }
+        }
+    }
+
+    List<Task> claim(int limit) {
+        List<Task> tasks = new ArrayList<>(limit);
+        try (Connection connection = dataSource.getConnection()) {
+            for (Target target : Target.values()) {
+                try (PreparedStatement expire = connection.prepareStatement(target.expireSql)) {
+                    expire.setInt(1, maxAttempts);
+                    int expired = expire.executeUpdate();
+                    if (expired > 0) {
+                        failed.add(expired);
+                        LOG.warnf("Marked %d %s analyses FAILED after their final lease expired", expired, target.kind);
+                    }
+                }
+                if (tasks.size() >= limit) {
+                    continue;
+                }
+                try (PreparedStatement statement = connection.prepareStatement(target.claimSql)) {
+                    statement.setString(1, owner);
+                    statement.setLong(2, lease.toMillis());
+                    statement.setInt(3, maxAttempts);
+                    statement.setInt(4, limit - tasks.size());
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            long reefId = rows.getLong(2);
+                            tasks.add(new Task(target, rows.getLong(1), rows.wasNull() ? null : reefId,
+                                rows.getString(3), rows.getInt(4), "PROCESSING".equals(rows.getString(5))));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to claim analysis work", e);
+        }
+        for (Task task : tasks) {
+            claimed.increment();
+            if (task.recovered()) {
+                recovered.increment();
+                LOG.infof("Recovered %s %d after its lease expired (attempt %d)", task.target().kind, task.id(),
+                    task.attempt());
+            }
+        }
+        return tasks;
+    }
+
+    private void execute(Task task) {
+        long started = System.nanoTime();
+        try {
+            Map<String, Object> result = rayService.analyze(task.target().kind, task.id(), task.reefId(),
+                task.filePath());
+            complete(task, result, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            fail(task, e, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private void complete(Task task, Map<String, Object> result, long elapsedMillis) {
+        Target target = task.target();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(target.completeSql)) {
+            int index = 1;
+            for (String field : target.resultFields) {
+                statement.setObject(index++, result.get(field));
+            }
+            statement.setLong(index++, elapsedMillis);
+            statement.setLong(index++, task.id());
+            statement.setString(index++, owner);
+            statement.setInt(index, task.attempt());
+            if (statement.executeUpdate() == 0) {
+                fenced.increment();
+                LOG.warnf("Dropped result for %s %d: lease was recovered by another worker", target.kind, task.id());
+                return;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to record analysis of " + target.kind + " " + task.id(), e);
+        }
+        completed.increment();
+        LOG.debugf("Analysed %s %d in %d ms", target.kind, task.id(), elapsedMillis);
+    }
+
+    private void fail(Task task, RuntimeException error, long elapsedMillis) {
+        Target target = task.target();
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(target.failSql)) {
+            statement.setInt(1, maxAttempts);
+            statement.setLong(2, retryBackoff.toMillis() * task.attempt());
+            statement.setString(3, message);
+            statement.setLong(4, elapsedMillis);
+            statement.setLong(5, task.id());
+            statement.setString(6, owner);
+            statement.setInt(7, task.attempt());
+            if (statement.executeUpdate() == 0) {
+                fenced.increment();
+                return;
+            }
+        } catch (SQLException e) {
+            LOG.warnf("Failed to record analysis failure of %s %d: %s", target.kind, task.id(), e.getMessage());
+            return;
+        }
+        if (task.attempt() >= maxAttempts) {
+            failed.increment();
+        }
+        LOG.warnf("Analysis of %s %d failed (attempt %d of %d): %s", target.kind, task.id(), task.attempt(),
+            maxAttempts, message);
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String ownerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,67 +1,186 @@
 package com.nautilux.service;
 
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.dto.ImageAnalysis;
+import com.nautilux.dto.ImageDetail;
+import com.nautilux.dto.ReefDetail;
+import com.nautilux.dto.ReefHealth;
+import com.nautilux.dto.ReefSummary;
+import com.nautilux.dto.SensorReading;
+import com.nautilux.dto.ZoneSummary;
 import com.nautilux.model.CoralReef;
-import com.nautilux.model.ReefZone;
-import com.nautilux.model.SensorData;
+import com.nautilux.metrics.Instrumented;
 import com.nautilux.model.ImageData;
-import io.quarkus.panache.common.Sort;
+import com.nautilux.persistence.FetchPlans;
+import com.nautilux.persistence.QueryBudget;
+import com.nautilux.spatial.GeoGridIndex;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
+@Instrumented
 public class CoralReefService {
     
     private static final Logger LOG = Logger.getLogger(CoralReefService.class);
     
     @Inject
-    RayService rayService;
+    AlertService alertService;
     
     @Inject
-    AlertService alertService;
+    SensorRollupService sensorRollupService;
+    
+    @Inject
+    ReefSpatialIndex reefSpatialIndex;
+    
+    @Inject
+    ReefCache reefCache;
+    
+    @Inject
+    ReefAlertIndex reefAlertIndex;
+    
+    @Inject
+    HealthAssessmentJobQueue healthAssessmentJobQueue;
+    
+    @Inject
+    Event<ReefChangedEvent> reefChanged;
     
     @ConfigProperty(name = "ray.service.url", defaultValue = "http://localhost:8000")
     String rayServiceUrl;
 
-    public List<CoralReef> findReefs(CoralReef.HealthStatus healthStatus, 
-                                   CoralReef.ReefType reefType, 
-                                   int page, int size) {
+    @QueryBudget(1)
+    public List<ReefSummary> findReefs(CoralReef.HealthStatus healthStatus, 
+                                     CoralReef.ReefType reefType, 
+                                     int page, int size) {
         
-        StringBuilder query = new StringBuilder();
         Map<String, Object> params = new HashMap<>();
+        StringBuilder query = reefFilter(healthStatus, reefType, params);
+        return findSummaries(query, params, page * size, size);
+    }
+
+    public record ReefPage(List<ReefSummary> reefs, String nextCursor) {}
+
+    // Keyset page ordered by (name, id); the cursor is the last row of the previous page
+    @QueryBudget(1)
+    public ReefPage findReefsAfter(CoralReef.HealthStatus healthStatus,
+                                   CoralReef.ReefType reefType,
+                                   String cursor, int size) {
+        
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder query = reefFilter(healthStatus, reefType, params);
+        
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            if (query.length() > 0) query.append(" AND ");
+            query.append("(r.name > :afterName OR (r.name = :afterName AND r.id > :afterId))");
+            params.put("afterName", position[1]);
+            params.put("afterId", Long.parseLong(position[0]));
+        }
+        
+        // One extra row tells us whether another page follows without a count query
+        List<ReefSummary> reefs = findSummaries(query, params, 0, size + 1);
+        
+        if (reefs.size() <= size) {
+            return new ReefPage(reefs, null);
+        }
+        List<ReefSummary> page = reefs.subList(0, size);
+        ReefSummary last = page.get(size - 1);
+        return new ReefPage(List.copyOf(page), encodeCursor(last.id(), last.name()));
+    }
+
+    private static StringBuilder reefFilter(CoralReef.HealthStatus healthStatus, CoralReef.ReefType reefType,
+                                            Map<String, Object> params) {
+        StringBuilder query = new StringBuilder();
         
         if (healthStatus != null) {
-            query.append("healthStatus = :healthStatus");
+            query.append("r.healthStatus = :healthStatus");
             params.put("healthStatus", healthStatus);
         }
         
         if (reefType != null) {
             if (query.length() > 0) query.append(" AND ");
-            query.append("reefType = :reefType");
+            query.append("r.reefType = :reefType");
             params.put("reefType", reefType);
         }
-        
-        if (query.length() == 0) {
-            return CoralReef.findAll(Sort.by("name")).page(page, size).list();
-        } else {
-            return CoralReef.find(query.toString(), params).page(page, size).list();
+        return query;
+    }
+
+    private static List<ReefSummary> findSummaries(StringBuilder where, Map<String, Object> params,
+                                                   int first, int max) {
+        String hql = ReefSummary.SELECT + (where.length() > 0 ? " WHERE " + where : "") + " ORDER BY r.name, r.id";
+        TypedQuery<ReefSummary> query = CoralReef.getEntityManager().createQuery(hql, ReefSummary.class);
+        params.forEach(query::setParameter);
+        return query.setFirstResult(first).setMaxResults(max).getResultList();
+    }
+
+    // Shared with ReactiveReefRepository so both paths hand out interchangeable cursors
+    static String encodeCursor(Long id, String name) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((id + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String id = decoded.substring(0, separator);
+        try {
+            Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
         }
+        return new String[] { id, decoded.substring(separator + 1) };
     }
 
     public CoralReef findById(Long id) {
         return CoralReef.findById(id);
     }
 
+    @QueryBudget(1)
+    public ReefDetail findDetailWithZones(Long id) {
+        CoralReef reef = FetchPlans.find(CoralReef.getEntityManager(), CoralReef.class, id, CoralReef.WITH_ZONES);
+        if (reef == null) {
+            return null;
+        }
+        List<ZoneSummary> zones = reef.reefZones.stream()
+            .map(ZoneSummary::of)
+            .sorted(Comparator.comparing(ZoneSummary::name))
+            .toList();
+        return new ReefDetail(reef, zones);
+    }
+
+    // Detached, possibly cached copy for read-only paths; use findById before modifying a reef
+    public CoralReef findCachedById(Long id) {
+        return reefCache.reef(id, () -> findById(id));
+    }
+
     @Transactional
     public void persist(CoralReef reef) {
         reef.persist();
+        reefChanged.fire(ReefChangedEvent.created(reef));
         LOG.infof("Created new coral reef: %s", reef.name);
     }
 
@@ -84,56 +203,58 @@ public class CoralReefService {
             reef.phLevel = updatedReef.phLevel;
             reef.turbidityNtu = updatedReef.turbidityNtu;
             reef.updatedAt = LocalDateTime.now();
+            reefChanged.fire(ReefChangedEvent.updated(reef));
             
             LOG.infof("Updated coral reef: %s", reef.name);
         }
     }
 
+    // The schema cascades to zones, readings, images and surveys; reef.delete() would
+    // instead load and delete every child row through the mapped collections
     @Transactional
+    @QueryBudget(1)
     public boolean deleteById(Long id) {
-        CoralReef reef = findById(id);
-        if (reef != null) {
-            reef.delete();
-            LOG.infof("Deleted coral reef: %s", reef.name);
+        if (CoralReef.delete("id", id) > 0) {
+            reefChanged.fire(ReefChangedEvent.deleted(id));
+            LOG.infof("Deleted coral reef %d", id);
             return true;
         }
         return false;
     }
 
-    public Map<String, Object> getHealthStatus(Long reefId) {
-        CoralReef reef = findById(reefId);
+    @QueryBudget(3)
+    public ReefHealth getHealthStatus(Long reefId) {
+        return reefCache.health(reefId, () -> loadHealthStatus(reefId));
+    }
+
+    private ReefHealth loadHealthStatus(Long reefId) {
+        CoralReef reef = findCachedById(reefId);
         if (reef == null) {
             return null;
         }
         
-        Map<String, Object> healthData = new HashMap<>();
-        healthData.put("reefId", reef.id);
-        healthData.put("reefName", reef.name);
-        healthData.put("healthStatus", reef.healthStatus);
-        healthData.put("healthScore", reef.healthScore);
-        healthData.put("bleachingRiskLevel", reef.bleachingRiskLevel);
-        healthData.put("biodiversityIndex", reef.biodiversityIndex);
-        healthData.put("lastUpdated", reef.updatedAt);
+        // Latest readings and image analyses, selecting only the columns the response carries
+        List<SensorReading> latestSensors = CoralReef.getEntityManager()
+            .createQuery(SensorReading.SELECT + " WHERE s.coralReef.id = ?1 ORDER BY s.timestamp DESC",
+                SensorReading.class)
+            .setParameter(1, reefId)
+            .setMaxResults(5)
+            .getResultList();
         
-        // Get latest sensor data
-        List<SensorData> latestSensors = SensorData.find(
-            "coralReef.id = ?1 ORDER BY timestamp DESC", reefId)
-            .page(0, 5).list();
+        List<ImageAnalysis> latestImages = CoralReef.getEntityManager()
+            .createQuery(ImageAnalysis.SELECT + " WHERE i.coralReef.id = ?1 ORDER BY i.timestamp DESC",
+                ImageAnalysis.class)
+            .setParameter(1, reefId)
+            .setMaxResults(3)
+            .getResultList();
         
-        healthData.put("latestSensorData", latestSensors);
-        
-        // Get latest image analysis
-        List<ImageData> latestImages = ImageData.find(
-            "coralReef.id = ?1 ORDER BY timestamp DESC", reefId)
-            .page(0, 3).list();
-        
-        healthData.put("latestImageAnalysis", latestImages);
-        
-        return healthData;
+        return new ReefHealth(reef.id, reef.name, reef.healthStatus, reef.healthScore,
+            reef.bleachingRiskLevel, reef.biodiversityIndex, reef.updatedAt,
+            List.copyOf(latestSensors), List.copyOf(latestImages));
     }
 
     public Map<String, Object> getMetrics(Long reefId, String startDate, String endDate) {
-        CoralReef reef = findById(reefId);
+        CoralReef reef = findCachedById(reefId);
         if (reef == null) {
             return null;
         }
@@ -148,140 +269,199 @@ public class CoralReefService {
         LocalDateTime end = endDate != null ? LocalDateTime.parse(endDate) : 
                           LocalDateTime.now();
         
-        // Sensor data metrics
-        List<SensorData> sensorData = SensorData.find(
-            "coralReef.id = ?1 AND timestamp BETWEEN ?2 AND ?3", 
-            reefId, start, end).list();
+        // Sensor data metrics, served from rollups where the range allows
+        SensorAggregate sensorStats = sensorRollupService.aggregate(reefId, start, end);
         
-        if (!sensorData.isEmpty()) {
-            double avgTemp = sensorData.stream()
-                .filter(s -> s.temperatureCelsius != null)
-                .mapToDouble(s -> s.temperatureCelsius)
-                .average().orElse(0.0);
-            
-            double avgSalinity = sensorData.stream()
-                .filter(s -> s.salinityPpt != null)
-                .mapToDouble(s -> s.salinityPpt)
-                .average().orElse(0.0);
-            
-            metrics.put("averageTemperature", avgTemp);
-            metrics.put("averageSalinity", avgSalinity);
-            metrics.put("sensorReadingsCount", sensorData.size());
+        if (!sensorStats.isEmpty()) {
+            metrics.put("averageTemperature", sensorStats.temperature.average());
+            metrics.put("averageSalinity", sensorStats.salinity.average());
+            metrics.put("sensorReadingsCount", (int) sensorStats.samples);
         }
         
         // Image analysis metrics
-        List<ImageData> imageData = ImageData.find(
-            "coralReef.id = ?1 AND timestamp BETWEEN ?2 AND ?3", 
-            reefId, start, end).list();
+        Object[] imageStats = ImageData.getEntityManager().createQuery(
+            "SELECT count(i), avg(i.coralCoveragePercentage), " +
+            "sum(CASE WHEN i.bleachingDetected = true THEN 1 ELSE 0 END) " +
+            "FROM ImageData i WHERE i.coralReef.id = ?1 AND i.timestamp BETWEEN ?2 AND ?3",
+            Object[].class)
+            .setParameter(1, reefId)
+            .setParameter(2, start)
+            .setParameter(3, end)
+            .getSingleResult();
         
-        if (!imageData.isEmpty()) {
-            double avgCoralCoverage = imageData.stream()
-                .filter(i -> i.coralCoveragePercentage != null)
-                .mapToDouble(i -> i.coralCoveragePercentage)
-                .average().orElse(0.0);
-            
-            long bleachingImages = imageData.stream()
-                .filter(i -> Boolean.TRUE.equals(i.bleachingDetected))
-                .count();
-            
-            metrics.put("averageCoralCoverage", avgCoralCoverage);
-            metrics.put("bleachingImagesCount", bleachingImages);
-            metrics.put("totalImagesAnalyzed", imageData.size());
+        long totalImages = SensorAggregate.toLong(imageStats[0]);
+        if (totalImages > 0) {
+            metrics.put("averageCoralCoverage", SensorAggregate.toDouble(imageStats[1], 0.0));
+            metrics.put("bleachingImagesCount", SensorAggregate.toLong(imageStats[2]));
+            metrics.put("totalImagesAnalyzed", (int) totalImages);
         }
         
         return metrics;
     }
 
-    public List<ReefZone> getZones(Long reefId) {
-        return ReefZone.find("coralReef.id", reefId).list();
+    public List<Map<String, Object>> getMetricsTimeSeries(Long reefId, String startDate, String endDate) {
+        CoralReef reef = findCachedById(reefId);
+        if (reef == null) {
+            return null;
+        }
+        
+        LocalDateTime start = startDate != null ? LocalDateTime.parse(startDate) : 
+                            LocalDateTime.now().minusDays(30);
+        LocalDateTime end = endDate != null ? LocalDateTime.parse(endDate) : 
+                          LocalDateTime.now();
+        
+        return sensorRollupService.timeSeries(reefId, start, end);
     }
 
-    public List<CoralReef> findNearby(Double latitude, Double longitude, Double radiusKm) {
-        // Simple distance calculation (Haversine formula would be better for production)
-        // For now, using a rough approximation
-        double latRange = radiusKm / 111.0; // 1 degree ≈ 111 km
-        double lonRange = radiusKm / (111.0 * Math.cos(Math.toRadians(latitude)));
-        
-        return CoralReef.find(
-            "latitude BETWEEN ?1 AND ?2 AND longitude BETWEEN ?3 AND ?4",
-            latitude - latRange, latitude + latRange,
-            longitude - lonRange, longitude + lonRange
-        ).list();
+    @QueryBudget(1)
+    public List<ZoneSummary> getZones(Long reefId) {
+        return reefCache.zones(reefId, () -> List.copyOf(CoralReef.getEntityManager()
+            .createQuery(ZoneSummary.SELECT + " WHERE z.coralReef.id = ?1 ORDER BY z.name", ZoneSummary.class)
+            .setParameter(1, reefId)
+            .getResultList()));
     }
 
-    public List<Map<String, Object>> getHealthAlerts(String severity, int limit) {
-        List<CoralReef> criticalReefs = CoralReef.find(
-            "healthStatus IN ('POOR', 'CRITICAL') OR bleachingRiskLevel >= 3"
-        ).page(0, limit).list();
+    // Newest images first, with annotations; ids are paged first because limiting a
+    // collection fetch would make Hibernate page in memory
+    @QueryBudget(2)
+    public List<ImageDetail> findImages(Long reefId, LocalDateTime start, LocalDateTime end, int limit) {
+        EntityManager entityManager = ImageData.getEntityManager();
+        List<Long> ids = entityManager.createQuery(
+            "SELECT i.id FROM ImageData i WHERE i.coralReef.id = ?1 AND i.timestamp >= ?2 AND i.timestamp < ?3 " +
+            "ORDER BY i.timestamp DESC, i.id DESC", Long.class)
+            .setParameter(1, reefId)
+            .setParameter(2, start)
+            .setParameter(3, end)
+            .setMaxResults(limit)
+            .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
         
-        return criticalReefs.stream()
-            .map(reef -> {
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("reefId", reef.id);
-                alert.put("reefName", reef.name);
-                alert.put("healthStatus", reef.healthStatus);
-                alert.put("bleachingRiskLevel", reef.bleachingRiskLevel);
-                alert.put("lastUpdated", reef.updatedAt);
-                alert.put("severity", determineSeverity(reef));
-                return alert;
-            })
+        TypedQuery<ImageData> query = entityManager.createQuery(
+            "SELECT i FROM ImageData i WHERE i.id IN ?1 ORDER BY i.timestamp DESC, i.id DESC", ImageData.class);
+        return FetchPlans.apply(entityManager, query, ImageData.WITH_ANNOTATIONS)
+            .setParameter(1, ids)
+            .getResultStream()
+            .map(ImageDetail::of)
             .toList();
     }
 
-    private String determineSeverity(CoralReef reef) {
-        if (reef.healthStatus == CoralReef.HealthStatus.CRITICAL || 
-            (reef.bleachingRiskLevel != null && reef.bleachingRiskLevel >= 4)) {
-            return "CRITICAL";
-        } else if (reef.healthStatus == CoralReef.HealthStatus.POOR || 
-                   (reef.bleachingRiskLevel != null && reef.bleachingRiskLevel >= 3)) {
-            return "HIGH";
-        } else if (reef.healthStatus == CoralReef.HealthStatus.FAIR || 
-                   (reef.bleachingRiskLevel != null && reef.bleachingRiskLevel >= 2)) {
-            return "MEDIUM";
+    /*
+     * Reefs within radiusKm great-circle distance of the point, served from the
+     * in-memory spatial index. With k set, only the k nearest are returned
+     * (radiusKm then becomes an optional bound). Each summary carries distanceKm.
+     */
+    @QueryBudget(1)
+    public List<ReefSummary> findNearby(double latitude, double longitude, Double radiusKm,
+                                        Integer k, boolean sortByDistance) {
+        List<GeoGridIndex.Hit> hits;
+        if (k != null) {
+            hits = reefSpatialIndex.nearest(latitude, longitude, k,
+                radiusKm != null ? radiusKm : Double.POSITIVE_INFINITY);
+        } else {
+            hits = reefSpatialIndex.withinRadius(latitude, longitude, radiusKm != null ? radiusKm : 10.0);
+            if (sortByDistance) {
+                hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+            }
+        }
+        return loadHits(hits);
+    }
+
+    // minLongitude > maxLongitude selects a box that crosses the antimeridian
+    @QueryBudget(1)
+    public List<ReefSummary> findWithin(double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude) {
+        return loadHits(reefSpatialIndex.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude));
+    }
+
+    private List<ReefSummary> loadHits(List<GeoGridIndex.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(GeoGridIndex.Hit::id).toList();
+        Map<Long, ReefSummary> reefs = CoralReef.getEntityManager()
+            .createQuery(ReefSummary.SELECT + " WHERE r.id IN ?1", ReefSummary.class)
+            .setParameter(1, ids)
+            .getResultStream()
+            .collect(Collectors.toMap(ReefSummary::id, Function.identity()));
+        
+        // Keep index order; a reef deleted since the index was read is skipped
+        List<ReefSummary> result = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Hit hit : hits) {
+            ReefSummary reef = reefs.get(hit.id());
+            if (reef != null) {
+                result.add(Double.isNaN(hit.distanceKm()) ? reef : reef.withDistanceKm(hit.distanceKm()));
+            }
+        }
+        return result;
+    }
+
+    // Served from the in-memory alert index, no query
+    @QueryBudget(0)
+    public List<HealthAlert> getHealthAlerts(ReefAlertIndex.Severity severity, int limit) {
+        return reefAlertIndex.top(severity, limit);
+    }
+
+    // Queues an assessment and returns immediately; null if the reef does not exist
+    public HealthAssessmentJob refreshHealthAssessment(Long reefId) {
+        if (findCachedById(reefId) == null) {
+            return null;
+        }
+        return healthAssessmentJobQueue.submit(reefId);
+    }
+
+    public HealthAssessmentJob findHealthAssessmentJob(String jobId) {
+        return healthAssessmentJobQueue.find(jobId);
+    }
+
+    @Transactional
+    public List<Long> findAllIds() {
+        return CoralReef.getEntityManager()
+            .createQuery("SELECT r.id FROM CoralReef r ORDER BY r.id", Long.class)
+            .getResultList();
+    }
+
+    // Applies a slice of a fleet sweep in one transaction; returns how many reefs were updated
+    @Transactional
+    public int applyHealthAssessments(Map<Long, Map<String, Object>> assessments) {
+        List<CoralReef> reefs = CoralReef.list("id IN ?1", assessments.keySet());
+        for (CoralReef reef : reefs) {
+            updateReefHealthFromAssessment(reef, assessments.get(reef.id));
         }
-        return "LOW";
+        return reefs.size();
     }
 
     @Transactional
-    public boolean refreshHealthAssessment(Long reefId) {
+    public boolean applyHealthAssessment(Long reefId, Map<String, Object> assessment) {
         CoralReef reef = findById(reefId);
         if (reef == null) {
             return false;
         }
-        
-        // Trigger health assessment via Ray service
-        try {
-            Map<String, Object> assessment = rayService.assessReefHealth(reefId);
-            if (assessment != null) {
-                updateReefHealthFromAssessment(reef, assessment);
-                return true;
-            }
-        } catch (Exception e) {
-            LOG.errorf(e, "Failed to refresh health assessment for reef %d", reefId);
-        }
-        
-        return false;
+        updateReefHealthFromAssessment(reef, assessment);
+        return true;
     }
 
     private void updateReefHealthFromAssessment(CoralReef reef, Map<String, Object> assessment) {
-        if (assessment.containsKey("healthScore")) {
-            reef.healthScore = (Double) assessment.get("healthScore");
+        if (assessment.get("healthScore") instanceof Number healthScore) {
+            reef.healthScore = healthScore.doubleValue();
         }
         
-        if (assessment.containsKey("healthStatus")) {
-            String status = (String) assessment.get("healthStatus");
+        // Validated by RayService before it is reported as an assessment
+        if (assessment.get("healthStatus") instanceof String status) {
             reef.healthStatus = CoralReef.HealthStatus.valueOf(status);
         }
         
-        if (assessment.containsKey("bleachingRiskLevel")) {
-            reef.bleachingRiskLevel = (Integer) assessment.get("bleachingRiskLevel");
+        if (assessment.get("bleachingRiskLevel") instanceof Number bleachingRiskLevel) {
+            reef.bleachingRiskLevel = bleachingRiskLevel.intValue();
         }
         
-        if (assessment.containsKey("biodiversityIndex")) {
-            reef.biodiversityIndex = (Double) assessment.get("biodiversityIndex");
+        if (assessment.get("biodiversityIndex") instanceof Number biodiversityIndex) {
+            reef.biodiversityIndex = biodiversityIndex.doubleValue();
         }
         
         reef.updatedAt = LocalDateTime.now();
+        reefChanged.fire(ReefChangedEvent.updated(reef));
         
         // Check if alert should be triggered
         if (reef.healthStatus == CoralReef.HealthStatus.CRITICAL || 
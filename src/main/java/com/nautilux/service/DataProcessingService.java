@@ -1,25 +1,77 @@
 package com.nautilux.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class DataProcessingService {
+
+    private static final Logger LOG = Logger.getLogger(DataProcessingService.class);
+
+    @Inject
+    RayService rayService;
+
+    @Inject
+    CoralReefService coralReefService;
+
+    @ConfigProperty(name = "ray.service.apply-chunk-size", defaultValue = "500")
+    int applyChunkSize;
+
+    // Fleet sweep: one pipelined batch assessment, results applied in short chunked transactions
+    public void triggerHealthAssessment() {
+        long started = System.nanoTime();
+        List<Long> reefIds = coralReefService.findAllIds();
+        RayService.BatchResult result = rayService.assessReefHealth(reefIds);
+
+        int updated = 0;
+        Map<Long, Map<String, Object>> chunk = new HashMap<>();
+        for (Map.Entry<Long, Map<String, Object>> assessment : result.assessments().entrySet()) {
+            chunk.put(assessment.getKey(), assessment.getValue());
+            if (chunk.size() >= applyChunkSize) {
+                updated += applyChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            updated += applyChunk(chunk, result);
+        }
+
+        LOG.infof("Health sweep assessed %d of %d reefs (%d failed) in %d ms",
+            updated, reefIds.size(), result.failures().size(), (System.nanoTime() - started) / 1_000_000);
+        if (!result.failures().isEmpty()) {
+            LOG.debugf("Health sweep failures: %s", result.failures());
+        }
+    }
+
+    // A chunk that fails to commit fails only its own reefs; the sweep carries on with the next one
+    private int applyChunk(Map<Long, Map<String, Object>> chunk, RayService.BatchResult result) {
+        try {
+            return coralReefService.applyHealthAssessments(chunk);
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            LOG.warnf(e, "Applying health assessments for %d reefs failed", chunk.size());
+            for (Long reefId : chunk.keySet()) {
+                result.assessments().remove(reefId);
+                result.failures().put(reefId, "Apply failed: " + message);
+            }
+            return 0;
+        }
+    }
+
     // Minimal stub methods for compilation
-    public void triggerHealthAssessment() {}
-    public void processSensorDataCsv() {}
-    public void processSensorDataJson() {}
     public void processSensorDataXml() {}
-    public void processImageData() {}
-    public void processSonarDataCsv() {}
     public void processSonarDataJson() {}
     public void processSonarDataXml() {}
-    public void processSonarDataBinary() {}
     public void fetchNoaaData() {}
     public void fetchCoralNetData() {}
     public void fetchMbariData() {}
     public void validateSensorData() {}
     public void enrichSensorData() {}
     public void storeSensorData() {}
-    public void checkAlertConditions() {}
-    public void sendAlert() {}
 } 
\ No newline at end of file
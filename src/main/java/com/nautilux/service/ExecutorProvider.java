@@ -0,0 +1,148 @@
+package com.nautilux.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Threads for blocking application work (Camel bean calls, Ray client callbacks,
+ * health assessment jobs). Follows quarkus.virtual-threads.enabled so the same
+ * switch that moves @RunOnVirtualThread endpoints back onto worker threads also
+ * moves these onto a bounded platform pool.
+ */
+@ApplicationScoped
+public class ExecutorProvider {
+
+    private static final Logger LOG = Logger.getLogger(ExecutorProvider.class);
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true")
+    boolean virtualThreadsEnabled;
+
+    @ConfigProperty(name = "processing.threads.platform-pool-size", defaultValue = "32")
+    int platformPoolSize;
+
+    ExecutorService blockingExecutor;
+
+    @PostConstruct
+    void init() {
+        blockingExecutor = virtualThreadsEnabled
+            ? Executors.newThreadPerTaskExecutor(threadFactory("blocking"))
+            : Executors.newFixedThreadPool(platformPoolSize, threadFactory("blocking"));
+        LOG.infof("Blocking work runs on %s threads", virtualThreadsEnabled ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        blockingExecutor.shutdownNow();
+    }
+
+    public boolean virtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    // Shared executor for blocking tasks; one virtual thread per task, or a fixed platform pool
+    public ExecutorService blockingExecutor() {
+        return blockingExecutor;
+    }
+
+    /*
+     * The blocking executor with at most maxConcurrent tasks in flight. Submitting
+     * waits for a free slot on the caller's thread, so a Camel consumer handing off
+     * through threads() stops polling while the slots are taken instead of starting
+     * a virtual thread for every file in the directory. Shutting it down leaves the
+     * shared executor running.
+     */
+    public ExecutorService boundedExecutor(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        return new BoundedExecutor(blockingExecutor, maxConcurrent);
+    }
+
+    public ThreadFactory threadFactory(String name) {
+        return virtualThreadsEnabled
+            ? Thread.ofVirtual().name(name + "-", 1).factory()
+            : Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+    }
+
+    private static final class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final int permits;
+        private final Semaphore slots;
+        private volatile boolean shutdown;
+
+        BoundedExecutor(ExecutorService delegate, int permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.slots = new Semaphore(permits, true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for a free slot", e);
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && slots.availablePermits() == permits;
+        }
+
+        // Terminated once every running task has given its slot back
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            if (!slots.tryAcquire(permits, timeout, unit)) {
+                return false;
+            }
+            slots.release(permits);
+            return shutdown;
+        }
+    }
+}
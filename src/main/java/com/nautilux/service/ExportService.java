@@ -0,0 +1,208 @@
+package com.nautilux.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/*
+ * Streams reef history straight from a server-side cursor into the response.
+ * Rows are fetched fetch-size at a time and written as they arrive, so memory
+ * stays flat regardless of row count, and a slow client simply blocks the
+ * writing thread (and with it the cursor) until it catches up.
+ */
+@ApplicationScoped
+public class ExportService {
+
+    private static final Logger LOG = Logger.getLogger(ExportService.class);
+
+    public enum Format {
+        NDJSON("application/x-ndjson"), CSV("text/csv");
+
+        public final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+
+    // Column aliases become NDJSON field names and CSV headers
+    public enum Dataset {
+        SENSORS("sensor_data", "timestamp",
+            "id, timestamp, zone_id AS \"zoneId\", sensor_type AS \"sensorType\", sensor_id AS \"sensorId\", " +
+            "temperature_celsius AS \"temperatureCelsius\", salinity_ppt AS \"salinityPpt\", ph_level AS \"phLevel\", " +
+            "dissolved_oxygen_mg_l AS \"dissolvedOxygenMgL\", turbidity_ntu AS \"turbidityNtu\", " +
+            "conductivity_ms_cm AS \"conductivityMsCm\", pressure_bar AS \"pressureBar\", " +
+            "location_latitude AS \"latitude\", location_longitude AS \"longitude\""),
+        IMAGES("image_data", "capture_timestamp",
+            "id, capture_timestamp AS \"timestamp\", zone_id AS \"zoneId\", file_name AS \"fileName\", " +
+            "file_size_bytes AS \"fileSizeBytes\", depth_meters AS \"depthMeters\", " +
+            "analysis_status AS \"aiAnalysisStatus\", coral_coverage_percentage AS \"coralCoveragePercentage\", " +
+            "bleaching_detected AS \"bleachingDetected\", bleaching_severity AS \"bleachingSeverity\", " +
+            "health_score AS \"healthScore\", biodiversity_score AS \"biodiversityScore\", " +
+            "confidence_score AS \"confidenceScore\""),
+        SONAR("sonar_data", "capture_timestamp",
+            "id, capture_timestamp AS \"timestamp\", zone_id AS \"zoneId\", file_name AS \"fileName\", " +
+            "sonar_type AS \"sonarType\", frequency_hz AS \"frequencyHz\", depth_meters AS \"depthMeters\", " +
+            "range_meters AS \"rangeMeters\", structure_height_meters AS \"structureHeightMeters\", " +
+            "structure_complexity_score AS \"structureComplexityScore\", " +
+            "signal_quality_score AS \"signalQualityScore\", raw_store_path AS \"rawStorePath\"");
+
+        final String sql;
+
+        Dataset(String table, String timeColumn, String columns) {
+            this.sql = "SELECT " + columns + " FROM " + table + " WHERE reef_id = ? AND " + timeColumn +
+                " >= ? AND " + timeColumn + " < ? ORDER BY " + timeColumn + ", id";
+        }
+    }
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "processing.export.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    public StreamingOutput export(Dataset dataset, Long reefId, LocalDateTime from, LocalDateTime to, Format format) {
+        return output -> {
+            long started = System.nanoTime();
+            long rows = 0;
+            // Cursor-based fetching in pgjdbc needs a transaction and a forward-only result set
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                try (PreparedStatement statement = connection.prepareStatement(dataset.sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, reefId);
+                    statement.setTimestamp(2, Timestamp.valueOf(from));
+                    statement.setTimestamp(3, Timestamp.valueOf(to));
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        rows = format == Format.CSV ? writeCsv(resultSet, output) : writeNdjson(resultSet, output);
+                    }
+                } finally {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                // Headers are already sent; the truncated body is all the client can see
+                LOG.errorf(e, "Export of %s for reef %d failed after %d rows", dataset, reefId, rows);
+                throw new IOException("Export failed", e);
+            }
+            LOG.infof("Exported %d %s rows for reef %d in %d ms",
+                rows, dataset, reefId, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    private long writeNdjson(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int column = 1; column <= columns; column++) {
+                    generator.writeFieldName(metaData.getColumnLabel(column));
+                    writeJsonValue(generator, resultSet, column, metaData.getColumnType(column));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++rows % fetchSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        for (int column = 1; column <= columns; column++) {
+            if (column > 1) writer.write(',');
+            writer.write(metaData.getColumnLabel(column));
+        }
+        writer.write('\n');
+        while (resultSet.next()) {
+            for (int column = 1; column <= columns; column++) {
+                if (column > 1) writer.write(',');
+                String value = textValue(resultSet, column, metaData.getColumnType(column));
+                if (value != null) {
+                    writeCsvField(writer, value);
+                }
+            }
+            writer.write('\n');
+            if (++rows % fetchSize == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeJsonValue(JsonGenerator generator, ResultSet resultSet, int column, int type)
+            throws SQLException, IOException {
+        switch (type) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> {
+                long value = resultSet.getLong(column);
+                if (resultSet.wasNull()) generator.writeNull(); else generator.writeNumber(value);
+            }
+            case Types.DOUBLE, Types.REAL, Types.FLOAT, Types.NUMERIC, Types.DECIMAL -> {
+                double value = resultSet.getDouble(column);
+                if (resultSet.wasNull()) generator.writeNull(); else generator.writeNumber(value);
+            }
+            case Types.BOOLEAN, Types.BIT -> {
+                boolean value = resultSet.getBoolean(column);
+                if (resultSet.wasNull()) generator.writeNull(); else generator.writeBoolean(value);
+            }
+            default -> {
+                String value = textValue(resultSet, column, type);
+                if (value == null) generator.writeNull(); else generator.writeString(value);
+            }
+        }
+    }
+
+    private static String textValue(ResultSet resultSet, int column, int type) throws SQLException {
+        if (type == Types.TIMESTAMP) {
+            LocalDateTime value = resultSet.getObject(column, LocalDateTime.class);
+            return value != null ? value.toString() : null;
+        }
+        return resultSet.getString(column);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
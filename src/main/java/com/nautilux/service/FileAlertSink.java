@@ -0,0 +1,52 @@
+package com.nautilux.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.alerting.Alert;
+import com.nautilux.alerting.AlertSink;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends alerts as NDJSON, one line per alert
+@ApplicationScoped
+public class FileAlertSink implements AlertSink {
+
+    @Inject
+    AlertingConfig config;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public boolean enabled() {
+        return config.sinks().file().enabled();
+    }
+
+    @Override
+    public synchronized void deliver(List<Alert> alerts) throws IOException {
+        appendNdjson(objectMapper, Path.of(config.sinks().file().path()), alerts);
+    }
+
+    static void appendNdjson(ObjectMapper objectMapper, Path path, List<?> values) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Object value : values) {
+                writer.write(objectMapper.writeValueAsString(value));
+                writer.newLine();
+            }
+        }
+    }
+}
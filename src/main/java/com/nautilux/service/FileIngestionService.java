@@ -0,0 +1,353 @@
+package com.nautilux.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.ingest.CsvRecord;
+import com.nautilux.ingest.MappedCsvReader;
+import com.nautilux.ingest.SensorBatch;
+import com.nautilux.ingest.SonarBinaryDecoder;
+import com.nautilux.ingest.SonarColumnWriter;
+import com.nautilux.ingest.SonarSummary;
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.SensorData;
+import com.nautilux.model.SonarData;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@ApplicationScoped
+public class FileIngestionService {
+
+    private static final Logger LOG = Logger.getLogger(FileIngestionService.class);
+
+    // Sonar files named like reef-42_survey.csv are linked to reef 42
+    private static final Pattern REEF_FILE_NAME = Pattern.compile("^reef-(\\d+)[_.-].*");
+
+    @Inject
+    SensorBatchWriter sensorBatchWriter;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "processing.ingest.parser-threads", defaultValue = "4")
+    int parserThreads;
+
+    @ConfigProperty(name = "processing.sensor.bulk-load.batch-size", defaultValue = "5000")
+    int batchSize;
+
+    @ConfigProperty(name = "processing.sonar.max-file-size", defaultValue = "16G")
+    MemorySize maxSonarFileSize;
+
+    @ConfigProperty(name = "processing.sonar.raw-store.enabled", defaultValue = "true")
+    boolean rawStoreEnabled;
+
+    @ConfigProperty(name = "storage.local.base-path", defaultValue = "./data/storage")
+    String storageBasePath;
+
+    ExecutorService parserPool;
+
+    MappedCsvReader csvReader;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        parserPool = Executors.newFixedThreadPool(parserThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ingest-parser-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        csvReader = new MappedCsvReader(parserPool, parserThreads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        parserPool.shutdownNow();
+    }
+
+    public long ingestSensorCsv(File file) throws IOException {
+        long started = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        long records = csvReader.read(file.toPath(), () -> new SensorBatchHandler(written));
+        LOG.infof("Loaded %d of %d sensor records from %s in %d ms",
+            written.get(), records, file.getName(), (System.nanoTime() - started) / 1_000_000);
+        return written.get();
+    }
+
+    public long ingestSensorJson(File file) throws IOException {
+        long written;
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            written = readSensorJson(parser);
+        }
+        LOG.infof("Loaded %d sensor records from %s", written, file.getName());
+        return written;
+    }
+
+    // Body of the http-sensor-ingestion route: one reading object or an array of them
+    public long ingestSensorReadings(byte[] json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return readSensorJson(parser);
+        }
+    }
+
+    private long readSensorJson(JsonParser parser) throws IOException {
+        long written = 0;
+        SensorBatch batch = new SensorBatch(batchSize);
+        JsonToken token = parser.nextToken();
+        boolean array = token == JsonToken.START_ARRAY;
+        if (array) {
+            token = parser.nextToken();
+        }
+        while (token == JsonToken.START_OBJECT) {
+            if (readSensorObject(parser, batch) && batch.isFull()) {
+                written += sensorBatchWriter.write(batch);
+                batch.clear();
+            }
+            token = array ? parser.nextToken() : null;
+        }
+        return written + sensorBatchWriter.write(batch);
+    }
+
+    public SonarData ingestSonarCsv(File file) throws IOException {
+        checkSonarFileSize(file);
+        SonarSummary summary = new SonarSummary();
+        csvReader.read(file.toPath(), () -> new SonarSummaryHandler(summary));
+        return saveSonarData(file, "csv", summary::applyTo);
+    }
+
+    public SonarData ingestSonarJson(File file) throws IOException {
+        checkSonarFileSize(file);
+        SonarSummary summary = new SonarSummary();
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                readSonarObject(parser, summary);
+                token = array ? parser.nextToken() : null;
+            }
+        }
+        return saveSonarData(file, "json", summary::applyTo);
+    }
+
+    public SonarData ingestSonarBinary(File file) throws IOException {
+        checkSonarFileSize(file);
+        if (!rawStoreEnabled) {
+            SonarBinaryDecoder.Result result = new SonarBinaryDecoder().decode(file.toPath());
+            LOG.infof("Decoded %d pings (%d samples) from %s at %.1f MB/s",
+                result.pings(), result.samples(), file.getName(), result.megabytesPerSecond());
+            return saveSonarData(file, "bin", result::applyTo);
+        }
+
+        // Raw returns are copied into the column store in the same pass over the file
+        SonarColumnWriter store = new SonarColumnWriter(rawStorePath());
+        SonarBinaryDecoder.Result result;
+        try {
+            result = new SonarBinaryDecoder().decode(file.toPath(), store);
+            store.close();
+        } catch (IOException | RuntimeException e) {
+            store.abort();
+            throw e;
+        }
+        LOG.infof("Decoded %d pings (%d samples) from %s at %.1f MB/s into %s",
+            result.pings(), result.samples(), file.getName(), result.megabytesPerSecond(), store.path());
+        try {
+            return saveSonarData(file, "bin", sonar -> {
+                result.applyTo(sonar);
+                sonar.rawStorePath = store.path().toString();
+            });
+        } catch (RuntimeException e) {
+            store.abort();
+            throw e;
+        }
+    }
+
+    Path rawStorePath() {
+        return Paths.get(storageBasePath, "sonar", UUID.randomUUID() + ".nxc").toAbsolutePath();
+    }
+
+    @Transactional
+    public SonarData saveSonarData(File file, String format, Consumer<SonarData> details) {
+        SonarData sonar = new SonarData();
+        sonar.filePath = file.getAbsolutePath();
+        sonar.fileName = file.getName();
+        sonar.fileSizeBytes = file.length();
+        sonar.dataFormat = format;
+        details.accept(sonar);
+        if (sonar.timestamp == null) {
+            sonar.timestamp = LocalDateTime.now();
+        }
+
+        Matcher matcher = REEF_FILE_NAME.matcher(file.getName());
+        if (matcher.matches()) {
+            sonar.coralReef = CoralReef.findById(Long.parseLong(matcher.group(1)));
+        }
+
+        sonar.persist();
+        LOG.infof("Stored sonar summary for %s (%d data points)", sonar.fileName, sonar.dataPoints);
+        return sonar;
+    }
+
+    void checkSonarFileSize(File file) {
+        if (file.length() > maxSonarFileSize.asLongValue()) {
+            throw new IllegalArgumentException("Sonar file " + file.getName() + " exceeds the " +
+                maxSonarFileSize.asLongValue() + " byte limit");
+        }
+    }
+
+    private boolean readSensorObject(JsonParser parser, SensorBatch batch) throws IOException {
+        int row = batch.nextRow();
+        boolean valid = true;
+        boolean hasTimestamp = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "timestamp" -> {
+                    try {
+                        batch.timestampMicros[row] = SensorBatch.toMicros(LocalDateTime.parse(parser.getText()));
+                        hasTimestamp = true;
+                    } catch (DateTimeParseException e) {
+                        valid = false;
+                    }
+                }
+                case "reefId" -> batch.reefId[row] = parser.getValueAsLong();
+                case "zoneId" -> batch.zoneId[row] = parser.getValueAsLong();
+                case "sensorType" -> {
+                    try {
+                        batch.sensorType[row] = (byte) SensorData.SensorType.valueOf(parser.getText().toUpperCase()).ordinal();
+                    } catch (IllegalArgumentException e) {
+                        valid = false;
+                    }
+                }
+                case "sensorId" -> batch.sensorId[row] = parser.getText();
+                case "temperatureCelsius" -> batch.temperature[row] = parser.getValueAsDouble(Double.NaN);
+                case "salinityPpt" -> batch.salinity[row] = parser.getValueAsDouble(Double.NaN);
+                case "phLevel" -> batch.ph[row] = parser.getValueAsDouble(Double.NaN);
+                case "dissolvedOxygenMgL" -> batch.dissolvedOxygen[row] = parser.getValueAsDouble(Double.NaN);
+                case "turbidityNtu" -> batch.turbidity[row] = parser.getValueAsDouble(Double.NaN);
+                case "conductivityMsCm" -> batch.conductivity[row] = parser.getValueAsDouble(Double.NaN);
+                case "pressureBar" -> batch.pressure[row] = parser.getValueAsDouble(Double.NaN);
+                case "latitude" -> batch.latitude[row] = parser.getValueAsDouble(Double.NaN);
+                case "longitude" -> batch.longitude[row] = parser.getValueAsDouble(Double.NaN);
+                default -> parser.skipChildren();
+            }
+        }
+        if (!valid || !hasTimestamp) {
+            batch.discardLastRow();
+            return false;
+        }
+        return true;
+    }
+
+    private void readSonarObject(JsonParser parser, SonarSummary summary) throws IOException {
+        long micros = Long.MIN_VALUE;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double depth = Double.NaN;
+        double amplitude = Double.NaN;
+        double range = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "timestamp" -> {
+                    try {
+                        micros = SensorBatch.toMicros(LocalDateTime.parse(parser.getText()));
+                    } catch (DateTimeParseException e) {
+                        micros = Long.MIN_VALUE;
+                    }
+                }
+                case "latitude" -> latitude = parser.getValueAsDouble(Double.NaN);
+                case "longitude" -> longitude = parser.getValueAsDouble(Double.NaN);
+                case "depthMeters" -> depth = parser.getValueAsDouble(Double.NaN);
+                case "amplitudeDb" -> amplitude = parser.getValueAsDouble(Double.NaN);
+                case "rangeMeters" -> range = parser.getValueAsDouble(Double.NaN);
+                default -> parser.skipChildren();
+            }
+        }
+        if (micros == Long.MIN_VALUE) {
+            return;
+        }
+        summary.acceptSounding(micros, latitude, longitude, depth);
+        if (!Double.isNaN(amplitude)) {
+            summary.acceptSample(amplitude);
+        }
+        summary.acceptRange(range);
+    }
+
+    private class SensorBatchHandler implements MappedCsvReader.RecordHandler {
+
+        private final SensorBatch batch = new SensorBatch(batchSize);
+        private final AtomicLong written;
+
+        SensorBatchHandler(AtomicLong written) {
+            this.written = written;
+        }
+
+        @Override
+        public void onRecord(CsvRecord record) {
+            if (batch.addCsvRecord(record) && batch.isFull()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onSegmentEnd() {
+            flush();
+        }
+
+        private void flush() {
+            written.addAndGet(sensorBatchWriter.write(batch));
+            batch.clear();
+        }
+    }
+
+    private static class SonarSummaryHandler implements MappedCsvReader.RecordHandler {
+
+        private final SonarSummary local = new SonarSummary();
+        private final SonarSummary total;
+
+        SonarSummaryHandler(SonarSummary total) {
+            this.total = total;
+        }
+
+        @Override
+        public void onRecord(CsvRecord record) {
+            local.addCsvRecord(record);
+        }
+
+        @Override
+        public void onSegmentEnd() {
+            total.merge(local);
+        }
+    }
+}
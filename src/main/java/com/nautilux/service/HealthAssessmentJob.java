@@ -0,0 +1,88 @@
+package com.nautilux.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One queued or executed health assessment; refresh requests for the same reef coalesce onto it while it is queued
+public class HealthAssessmentJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long reefId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicInteger requests = new AtomicInteger(1);
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile Map<String, Object> result;
+
+    HealthAssessmentJob(Long reefId) {
+        this.reefId = reefId;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public Long reefId() {
+        return reefId;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    LocalDateTime finishedAt() {
+        return finishedAt;
+    }
+
+    void coalesce() {
+        requests.incrementAndGet();
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void succeeded(Map<String, Object> result) {
+        this.result = result;
+        finishedAt = LocalDateTime.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> job = new HashMap<>();
+        job.put("jobId", id);
+        job.put("reefId", reefId);
+        job.put("status", status);
+        job.put("requests", requests.get());
+        job.put("createdAt", createdAt);
+        job.put("startedAt", startedAt);
+        job.put("finishedAt", finishedAt);
+        if (error != null) {
+            job.put("error", error);
+        }
+        if (result != null) {
+            job.put("result", result);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,138 @@
+package com.nautilux.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Runs health assessments off the request thread on a pool of
+ * processing.batch.max-concurrent-jobs workers.
+ *
+ * At most one job per reef is queued at a time: a refresh arriving while one is
+ * queued joins it, so a burst of refreshes costs one assessment. Once a job
+ * starts, the next refresh queues a new job so it sees fresh data. The remote
+ * call runs outside any transaction; only applying the result is transactional.
+ */
+@ApplicationScoped
+public class HealthAssessmentJobQueue {
+
+    private static final Logger LOG = Logger.getLogger(HealthAssessmentJobQueue.class);
+
+    @Inject
+    RayService rayService;
+
+    @Inject
+    CoralReefService coralReefService;
+
+    @Inject
+    ExecutorProvider executorProvider;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "processing.batch.max-concurrent-jobs", defaultValue = "2")
+    int maxConcurrentJobs;
+
+    @ConfigProperty(name = "processing.batch.max-queued-jobs", defaultValue = "10000")
+    int maxQueuedJobs;
+
+    @ConfigProperty(name = "processing.batch.job-retention", defaultValue = "PT1H")
+    Duration jobRetention;
+
+    ThreadPoolExecutor workers;
+
+    private final Map<Long, HealthAssessmentJob> queuedByReef = new ConcurrentHashMap<>();
+    private final Map<String, HealthAssessmentJob> jobs = new ConcurrentHashMap<>();
+    private volatile long lastPruneNanos = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        workers = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueuedJobs), executorProvider.threadFactory("health-assessment"));
+        new ExecutorServiceMetrics(workers, "health-assessment", Tags.empty()).bindTo(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Returns the queued job for the reef, creating one if none is waiting; null when the queue is full
+    public HealthAssessmentJob submit(Long reefId) {
+        pruneFinished();
+        HealthAssessmentJob[] created = new HealthAssessmentJob[1];
+        HealthAssessmentJob job = queuedByReef.compute(reefId, (id, queued) -> {
+            if (queued != null) {
+                queued.coalesce();
+                return queued;
+            }
+            created[0] = new HealthAssessmentJob(id);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return job;
+        }
+
+        jobs.put(job.id(), job);
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            queuedByReef.remove(reefId, job);
+            jobs.remove(job.id());
+            LOG.warnf("Health assessment queue full, rejected refresh for reef %d", reefId);
+            return null;
+        }
+        return job;
+    }
+
+    public HealthAssessmentJob find(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public int queued() {
+        return workers.getQueue().size();
+    }
+
+    void run(HealthAssessmentJob job) {
+        queuedByReef.remove(job.reefId(), job);
+        job.started();
+        try {
+            Map<String, Object> assessment = rayService.assessReefHealth(job.reefId());
+            if (assessment == null) {
+                job.failed("No assessment returned");
+            } else if (!coralReefService.applyHealthAssessment(job.reefId(), assessment)) {
+                job.failed("Coral reef no longer exists");
+            } else {
+                job.succeeded(assessment);
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Health assessment job %s for reef %d failed", job.id(), job.reefId());
+            job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void pruneFinished() {
+        long now = System.nanoTime();
+        if (now - lastPruneNanos < 1_000_000_000L) {
+            return;
+        }
+        lastPruneNanos = now;
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,246 @@
+package com.nautilux.service;
+
+import com.nautilux.model.ImageData;
+import com.nautilux.storage.DerivativeCache;
+import com.nautilux.storage.ImagePyramid;
+import com.nautilux.storage.UndecodableImageException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Thumbnails and tile pyramids for stored images, keyed by content hash and rendition
+ * settings so duplicate uploads share one set and a settings change renders afresh. New images are queued after their transaction commits and
+ * rendered on a small platform pool, off the ingestion path; a request for an image
+ * whose set was never built or has been evicted queues it and waits up to
+ * processing.image.derivatives.wait. A source that cannot be decoded is remembered for
+ * processing.image.derivatives.failure-ttl so requests for it fail fast instead of
+ * rendering it again.
+ */
+@ApplicationScoped
+public class ImageDerivativeService {
+
+    private static final Logger LOG = Logger.getLogger(ImageDerivativeService.class);
+
+    record Failure(String reason, long expiresAtNanos) {
+
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "storage.local.base-path", defaultValue = "./data/storage")
+    String storageBasePath;
+
+    @ConfigProperty(name = "processing.image.derivatives.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "processing.image.derivatives.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "processing.image.derivatives.tile-size", defaultValue = "256")
+    int tileSize;
+
+    @ConfigProperty(name = "processing.image.derivatives.thumbnail-size", defaultValue = "256")
+    int thumbnailSize;
+
+    @ConfigProperty(name = "processing.image.derivatives.quality", defaultValue = "0.85")
+    float quality;
+
+    @ConfigProperty(name = "processing.image.derivatives.max-pixels", defaultValue = "40000000")
+    long maxPixels;
+
+    @ConfigProperty(name = "processing.image.derivatives.cache-size", defaultValue = "2G")
+    MemorySize cacheSize;
+
+    @ConfigProperty(name = "processing.image.derivatives.wait", defaultValue = "PT10S")
+    Duration wait;
+
+    @ConfigProperty(name = "processing.image.derivatives.failure-ttl", defaultValue = "PT15M")
+    Duration failureTtl;
+
+    DerivativeCache cache;
+
+    ThreadPoolExecutor renderPool;
+
+    final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    // Undecodable sources by content hash
+    final ConcurrentHashMap<String, Failure> failures = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        try {
+            cache = new DerivativeCache(Paths.get(storageBasePath, "images", "derived"), cacheSize.asLongValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open derivative cache under " + storageBasePath, e);
+        }
+        renderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-derivatives-", 1).daemon(true).factory());
+        new ExecutorServiceMetrics(renderPool, "image-derivatives", Tags.empty()).bindTo(registry);
+        Gauge.builder("nautilux.derivatives.in-flight", inFlight, ConcurrentHashMap::size)
+            .description("Image sets being rendered or waiting to render")
+            .register(registry);
+        Gauge.builder("nautilux.derivatives.failures", failures, ConcurrentHashMap::size)
+            .description("Undecodable images remembered until their failure expires")
+            .register(registry);
+        Gauge.builder("nautilux.derivatives.cache.entries", cache, DerivativeCache::size)
+            .register(registry);
+        Gauge.builder("nautilux.derivatives.cache.size", cache, DerivativeCache::totalBytes)
+            .baseUnit("bytes")
+            .register(registry);
+        LOG.infof("Derivative cache holds %d image sets (%d bytes)", cache.size(), cache.totalBytes());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+
+    void onImageStored(@Observes(during = TransactionPhase.AFTER_SUCCESS) ImageStoredEvent event) {
+        if (event.contentHash() != null) {
+            schedule(event.contentHash(), Paths.get(event.filePath()));
+        }
+    }
+
+    // Settings that change the rendered files; part of cache keys and ETags
+    public String rendition() {
+        return "t" + tileSize + "s" + thumbnailSize + "q" + Math.round(quality * 100);
+    }
+
+    // Only content-addressed images (stored since V7) have derivatives
+    public ImageData findImage(Long id) {
+        ImageData image = ImageData.findById(id);
+        return image != null && image.contentHash != null ? image : null;
+    }
+
+    // Derivative directory for the image, or null if it is not ready within the wait;
+    // throws UndecodableImageException if the source cannot be decoded
+    public Path derivatives(ImageData image) {
+        CompletableFuture<Path> ready = schedule(image.contentHash, Paths.get(image.filePath));
+        try {
+            return ready.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return null;
+            }
+            if (e.getCause() instanceof UndecodableImageException undecodable) {
+                throw new UndecodableImageException("Image " + image.id + " cannot be decoded: "
+                    + undecodable.getMessage(), undecodable);
+            }
+            throw new IllegalStateException("Failed to render derivatives for image " + image.id, e.getCause());
+        }
+    }
+
+    public ImagePyramid.Pyramid pyramid(Path derivatives) {
+        try {
+            return ImagePyramid.read(derivatives);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read pyramid manifest in " + derivatives, e);
+        }
+    }
+
+    CompletableFuture<Path> schedule(String hash, Path source) {
+        Path cached = cache.get(cacheKey(hash));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        Failure failure = failures.get(hash);
+        if (failure != null) {
+            if (!failure.expired(System.nanoTime())) {
+                return CompletableFuture.failedFuture(new UndecodableImageException(failure.reason()));
+            }
+            failures.remove(hash, failure);
+        }
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(hash, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            renderPool.execute(() -> render(hash, source, created));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void render(String hash, Path source, CompletableFuture<Path> result) {
+        long started = System.nanoTime();
+        Path staged = cache.staging(cacheKey(hash));
+        try {
+            ImagePyramid.Pyramid pyramid = ImagePyramid.write(source, staged, tileSize, thumbnailSize, quality,
+                maxPixels);
+            result.complete(cache.commit(cacheKey(hash), staged));
+            LOG.debugf("Rendered %d-level pyramid for %s in %d ms", pyramid.levels(), hash,
+                (System.nanoTime() - started) / 1_000_000);
+            recordDimensions(hash, pyramid.width(), pyramid.height());
+        } catch (Exception e) {
+            if (e instanceof UndecodableImageException) {
+                rememberFailure(hash, e.getMessage());
+                LOG.warnf("Cannot render derivatives for %s: %s", source, e.getMessage());
+            } else {
+                LOG.warnf(e, "Failed to render derivatives for %s", source);
+            }
+            try {
+                DerivativeCache.delete(staged);
+            } catch (IOException ignored) {
+                // best effort
+            }
+            result.completeExceptionally(e);
+        } finally {
+            inFlight.remove(hash, result);
+        }
+    }
+
+    private String cacheKey(String hash) {
+        return hash + "-" + rendition();
+    }
+
+    private void rememberFailure(String hash, String reason) {
+        long now = System.nanoTime();
+        failures.values().removeIf(failure -> failure.expired(now));
+        failures.put(hash, new Failure(reason, now + failureTtl.toNanos()));
+    }
+
+    @Transactional
+    void recordDimensions(String hash, int width, int height) {
+        ImageData.update("widthPixels = ?1, heightPixels = ?2 where contentHash = ?3 and widthPixels is null",
+            width, height, hash);
+    }
+}
@@ -0,0 +1,5 @@
+package com.nautilux.service;
+
+// Fired when a new ImageData row is stored; derivatives are generated after the transaction commits
+public record ImageStoredEvent(Long imageId, String contentHash, String filePath) {
+}
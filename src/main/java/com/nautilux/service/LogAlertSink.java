@@ -0,0 +1,35 @@
+package com.nautilux.service;
+
+import com.nautilux.alerting.Alert;
+import com.nautilux.alerting.AlertSink;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+@ApplicationScoped
+public class LogAlertSink implements AlertSink {
+
+    private static final Logger LOG = Logger.getLogger(LogAlertSink.class);
+
+    @Inject
+    AlertingConfig config;
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public boolean enabled() {
+        return config.sinks().log().enabled();
+    }
+
+    @Override
+    public void deliver(List<Alert> alerts) {
+        for (Alert alert : alerts) {
+            LOG.warnf("[%s] %s reef %d: %s", alert.severity(), alert.source(), alert.reefId(), alert.message());
+        }
+    }
+}
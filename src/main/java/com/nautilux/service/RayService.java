@@ -1,12 +1,327 @@
 package com.nautilux.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.model.CoralReef;
+import com.nautilux.tracing.Tracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/*
+ * Client for the Ray analysis service.
+ *
+ *   POST {ray.service.url}/assess/reef-health/batch
+ *   request:  {"reefIds": [1, 2, 3]}
+ *   response: {"results": [{"reefId": 1, "healthScore": 71.5, ...}],
+ *              "errors":  [{"reefId": 3, "error": "no recent imagery"}]}
+ *
+ * Reef ids are split into batches of ray.service.batch-size, and up to
+ * ray.service.max-in-flight batches are kept outstanding on the non-blocking
+ * HttpClient. A failed batch fails only its own reefs; per-reef errors from
+ * the service, and assessments that cannot be applied (an unknown health
+ * status, a non-numeric score), are reported alongside the successful ones.
+ *
+ *   POST {ray.service.url}/analyze/{image|sonar}
+ *   request:  {"id": 7, "reefId": 1, "filePath": "..."}
+ *   response: {"healthScore": 64.0, "confidenceScore": 0.91, ...}
+ *
+ * Single-item analysis for AnalysisScheduler workers, which call it from their own threads.
+ *
+ * Every request is timed as nautilux.ray.requests, tagged with the endpoint
+ * (batch, image or sonar) and whether it succeeded, and recorded as a span of
+ * the caller's trace.
+ */
 @ApplicationScoped
 public class RayService {
-    // Minimal stub for compilation
+
+    private static final Logger LOG = Logger.getLogger(RayService.class);
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    public record BatchResult(Map<Long, Map<String, Object>> assessments, Map<Long, String> failures) {
+
+        public int requested() {
+            return assessments.size() + failures.size();
+        }
+    }
+
+    private record Timers(Timer success, Timer error) {
+
+        void record(long startedNanos, boolean succeeded) {
+            (succeeded ? success : error).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ExecutorProvider executorProvider;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "ray.service.url", defaultValue = "http://localhost:8000")
+    String serviceUrl;
+
+    @ConfigProperty(name = "ray.service.timeout", defaultValue = "15000")
+    long timeoutMillis;
+
+    @ConfigProperty(name = "ray.service.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "ray.service.max-in-flight", defaultValue = "8")
+    int maxInFlight;
+
+    HttpClient httpClient;
+
+    String baseUrl;
+
+    URI batchUri;
+
+    Timers batchTimers;
+
+    final Map<String, Timers> analyzeTimers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+            .executor(executorProvider.blockingExecutor())
+            .connectTimeout(Duration.ofMillis(timeoutMillis))
+            .build();
+        baseUrl = serviceUrl.replaceAll("/+$", "");
+        batchUri = URI.create(baseUrl + "/assess/reef-health/batch");
+        batchTimers = timers("batch");
+    }
+
+    private Timers timers(String endpoint) {
+        return new Timers(timer(endpoint, "success"), timer(endpoint, "error"));
+    }
+
+    private Timer timer(String endpoint, String outcome) {
+        return Timer.builder("nautilux.ray.requests")
+            .description("Requests to the Ray analysis service")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
     public Map<String, Object> assessReefHealth(Long reefId) {
-        return null;
+        BatchResult result = assessReefHealth(List.of(reefId));
+        Map<String, Object> assessment = result.assessments().get(reefId);
+        if (assessment == null) {
+            throw new IllegalStateException("Health assessment for reef " + reefId + " failed: " +
+                result.failures().get(reefId));
+        }
+        return assessment;
+    }
+
+    public BatchResult assessReefHealth(Collection<Long> reefIds) {
+        try {
+            return assessReefHealthAsync(reefIds).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Batch health assessment failed", e.getCause());
+        }
+    }
+
+    public CompletableFuture<BatchResult> assessReefHealthAsync(Collection<Long> reefIds) {
+        List<List<Long>> batches = partition(reefIds);
+        Map<Long, Map<String, Object>> assessments = new ConcurrentHashMap<>();
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        CompletableFuture<BatchResult> done = new CompletableFuture<>();
+        if (batches.isEmpty()) {
+            done.complete(new BatchResult(assessments, failures));
+            return done;
+        }
+
+        // Sliding window: each completed batch starts the next one until all are sent
+        Iterator<List<Long>> pending = batches.iterator();
+        AtomicInteger remaining = new AtomicInteger(batches.size());
+        Runnable[] sendNext = new Runnable[1];
+        sendNext[0] = () -> {
+            List<Long> batch;
+            synchronized (pending) {
+                if (!pending.hasNext()) {
+                    return;
+                }
+                batch = pending.next();
+            }
+            send(batch, assessments, failures).whenComplete((ignored, error) -> {
+                if (remaining.decrementAndGet() == 0) {
+                    done.complete(new BatchResult(assessments, failures));
+                } else {
+                    sendNext[0].run();
+                }
+            });
+        };
+        for (int i = 0; i < Math.min(maxInFlight, batches.size()); i++) {
+            sendNext[0].run();
+        }
+        return done;
+    }
+
+    private CompletableFuture<Void> send(List<Long> batch, Map<Long, Map<String, Object>> assessments,
+                                         Map<Long, String> failures) {
+        long started = System.nanoTime();
+        Tracing.Scope span = Tracing.detached("ray", "assess/reef-health/batch", batch.size() + " reefs");
+        CompletableFuture<HttpResponse<byte[]>> call;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(batchUri)
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                    objectMapper.writeValueAsBytes(Map.of("reefIds", batch))))
+                .build();
+            call = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException | RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        return call
+            .thenAccept(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("HTTP " + response.statusCode());
+                }
+                collect(batch, response.body(), assessments, failures);
+                batchTimers.record(started, true);
+                span.rows(batch.size()).close();
+            })
+            .exceptionally(error -> {
+                batchTimers.record(started, false);
+                span.close();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+                LOG.warnf("Ray batch of %d reefs failed: %s", batch.size(), message);
+                for (Long reefId : batch) {
+                    if (!assessments.containsKey(reefId)) {
+                        failures.putIfAbsent(reefId, message);
+                    }
+                }
+                return null;
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(List<Long> batch, byte[] body, Map<Long, Map<String, Object>> assessments,
+                         Map<Long, String> failures) {
+        Map<String, Object> response;
+        try {
+            response = objectMapper.readValue(body, JSON_OBJECT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Ray response", e);
+        }
+        for (Object item : (List<Object>) response.getOrDefault("results", List.of())) {
+            Map<String, Object> assessment = (Map<String, Object>) item;
+            if (assessment.get("reefId") instanceof Number reefId) {
+                String invalid = invalidAssessment(assessment);
+                if (invalid == null) {
+                    assessments.put(reefId.longValue(), assessment);
+                } else {
+                    failures.put(reefId.longValue(), invalid);
+                }
+            }
+        }
+        for (Object item : (List<Object>) response.getOrDefault("errors", List.of())) {
+            Map<String, Object> error = (Map<String, Object>) item;
+            if (error.get("reefId") instanceof Number reefId) {
+                failures.put(reefId.longValue(), String.valueOf(error.get("error")));
+            }
+        }
+        for (Long reefId : batch) {
+            if (!assessments.containsKey(reefId)) {
+                failures.putIfAbsent(reefId, "Missing from Ray response");
+            }
+        }
+    }
+
+    // Why the assessment cannot be applied to a reef, or null if it can
+    static String invalidAssessment(Map<String, Object> assessment) {
+        for (String field : List.of("healthScore", "bleachingRiskLevel", "biodiversityIndex")) {
+            Object value = assessment.get(field);
+            if (value != null && !(value instanceof Number)) {
+                return "Invalid " + field + ": " + value;
+            }
+        }
+        Object status = assessment.get("healthStatus");
+        if (status == null) {
+            return null;
+        }
+        if (status instanceof String name) {
+            for (CoralReef.HealthStatus known : CoralReef.HealthStatus.values()) {
+                if (known.name().equals(name)) {
+                    return null;
+                }
+            }
+        }
+        return "Invalid healthStatus: " + status;
+    }
+
+    public Map<String, Object> analyze(String kind, Long id, Long reefId, String filePath) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("id", id);
+        body.put("reefId", reefId);
+        body.put("filePath", filePath);
+        Timers timers = analyzeTimers.computeIfAbsent(kind, this::timers);
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try (Tracing.Scope span = Tracing.span("ray", "analyze/" + kind, filePath)) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/analyze/" + kind))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Ray analysis of " + kind + " " + id + " failed: HTTP " +
+                    response.statusCode());
+            }
+            Map<String, Object> result = objectMapper.readValue(response.body(), JSON_OBJECT);
+            succeeded = true;
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ray analysis of " + kind + " " + id + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ray analysis of " + kind + " " + id + " interrupted", e);
+        } finally {
+            timers.record(started, succeeded);
+        }
+    }
+
+    private List<List<Long>> partition(Collection<Long> reefIds) {
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(reefIds));
+        List<List<Long>> batches = new ArrayList<>();
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < unique.size(); from += size) {
+            batches.add(unique.subList(from, Math.min(unique.size(), from + size)));
+        }
+        return batches;
     }
-} 
\ No newline at end of file
+}
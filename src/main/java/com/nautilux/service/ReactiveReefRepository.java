@@ -0,0 +1,222 @@
+package com.nautilux.service;
+
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.dto.ImageAnalysis;
+import com.nautilux.dto.ReefHealth;
+import com.nautilux.dto.ReefSummary;
+import com.nautilux.dto.SensorReading;
+import com.nautilux.dto.ZoneSummary;
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ImageData;
+import com.nautilux.model.ReefZone;
+import com.nautilux.model.SensorData;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * Non-blocking read path for the read-mostly reef endpoints, on the reactive
+ * Postgres client. Queries run on the event loop and never touch Hibernate.
+ * Rows are mapped into the same DTOs, in the same order, as the blocking
+ * CoralReefService projections, so both paths serialise to identical JSON.
+ */
+@ApplicationScoped
+public class ReactiveReefRepository {
+
+    // Columns of ReefSummary
+    private static final String REEF_SUMMARY_COLUMNS =
+        "id, name, latitude, longitude, depth_meters, reef_type, health_status, health_score, " +
+        "bleaching_risk_level, updated_at";
+
+    @Inject
+    PgPool client;
+
+    // Legacy offset page, as CoralReefService.findReefs
+    public Uni<List<ReefSummary>> findReefs(CoralReef.HealthStatus healthStatus,
+                                            CoralReef.ReefType reefType, int page, int size) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = reefFilter(healthStatus, reefType, params);
+        return findSummaries(sql, params, (long) page * size, size);
+    }
+
+    // Keyset page ordered by (name, id), as CoralReefService.findReefsAfter; cursors are interchangeable
+    public Uni<CoralReefService.ReefPage> findReefsAfter(CoralReef.HealthStatus healthStatus,
+                                                         CoralReef.ReefType reefType,
+                                                         String cursor, int size) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = reefFilter(healthStatus, reefType, params);
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = CoralReefService.decodeCursor(cursor);
+            params.add(position[1]);
+            int name = params.size();
+            params.add(Long.parseLong(position[0]));
+            sql.append(name == 1 ? " WHERE" : " AND")
+                .append(" (name > $").append(name)
+                .append(" OR (name = $").append(name).append(" AND id > $").append(params.size()).append("))");
+        }
+
+        // One extra row tells us whether another page follows without a count query
+        return findSummaries(sql, params, 0, size + 1).map(reefs -> {
+            if (reefs.size() <= size) {
+                return new CoralReefService.ReefPage(reefs, null);
+            }
+            List<ReefSummary> page = reefs.subList(0, size);
+            ReefSummary last = page.get(size - 1);
+            return new CoralReefService.ReefPage(List.copyOf(page),
+                CoralReefService.encodeCursor(last.id(), last.name()));
+        });
+    }
+
+    private static StringBuilder reefFilter(CoralReef.HealthStatus healthStatus, CoralReef.ReefType reefType,
+                                            List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(REEF_SUMMARY_COLUMNS).append(" FROM coral_reefs");
+        if (healthStatus != null) {
+            params.add(healthStatus.name());
+            sql.append(" WHERE health_status = $").append(params.size());
+        }
+        if (reefType != null) {
+            params.add(reefType.name());
+            sql.append(params.size() == 1 ? " WHERE" : " AND").append(" reef_type = $").append(params.size());
+        }
+        return sql;
+    }
+
+    private Uni<List<ReefSummary>> findSummaries(StringBuilder sql, List<Object> params, long offset, int limit) {
+        params.add(limit);
+        sql.append(" ORDER BY name, id LIMIT $").append(params.size());
+        if (offset > 0) {
+            params.add(offset);
+            sql.append(" OFFSET $").append(params.size());
+        }
+        return client.preparedQuery(sql.toString())
+            .execute(Tuple.from(params))
+            .map(rows -> map(rows, row -> new ReefSummary(
+                row.getLong("id"),
+                row.getString("name"),
+                row.getDouble("latitude"),
+                row.getDouble("longitude"),
+                row.getDouble("depth_meters"),
+                enumValue(CoralReef.ReefType.class, row.getString("reef_type")),
+                enumValue(CoralReef.HealthStatus.class, row.getString("health_status")),
+                row.getDouble("health_score"),
+                row.getInteger("bleaching_risk_level"),
+                row.getLocalDateTime("updated_at"))));
+    }
+
+    // Columns of ZoneSummary, ordered by name as CoralReefService.getZones
+    public Uni<List<ZoneSummary>> findZones(Long reefId) {
+        return client.preparedQuery(
+                "SELECT id, name, zone_type, depth_range_min, depth_range_max, area_square_meters, " +
+                "coral_coverage_percentage, health_status, health_score, bleaching_risk_level " +
+                "FROM reef_zones WHERE reef_id = $1 ORDER BY name")
+            .execute(Tuple.of(reefId))
+            .map(rows -> map(rows, row -> new ZoneSummary(
+                row.getLong("id"),
+                row.getString("name"),
+                enumValue(ReefZone.ZoneType.class, row.getString("zone_type")),
+                row.getDouble("depth_range_min"),
+                row.getDouble("depth_range_max"),
+                row.getDouble("area_square_meters"),
+                row.getDouble("coral_coverage_percentage"),
+                enumValue(CoralReef.HealthStatus.class, row.getString("health_status")),
+                row.getDouble("health_score"),
+                row.getInteger("bleaching_risk_level"))));
+    }
+
+    // Same condition and order as ReefAlertIndex.top: by severity, then newest first, then highest id
+    public Uni<List<HealthAlert>> findHealthAlerts(ReefAlertIndex.Severity severity, int limit) {
+        return client.preparedQuery(
+                "SELECT id, name, health_status, bleaching_risk_level, updated_at FROM (" +
+                "SELECT id, name, health_status, bleaching_risk_level, updated_at, " +
+                "CASE WHEN health_status = 'CRITICAL' OR bleaching_risk_level >= 4 THEN 0 " +
+                "WHEN health_status = 'POOR' OR bleaching_risk_level >= 3 THEN 1 " +
+                "WHEN health_status = 'FAIR' OR bleaching_risk_level >= 2 THEN 2 ELSE 3 END AS severity " +
+                "FROM coral_reefs WHERE health_status IN ('POOR', 'CRITICAL') OR bleaching_risk_level >= 3) alerts " +
+                "WHERE $1::int IS NULL OR severity = $1 " +
+                "ORDER BY severity, updated_at DESC NULLS LAST, id DESC LIMIT $2")
+            .execute(Tuple.of(severity != null ? severity.ordinal() : null, limit))
+            .map(rows -> map(rows, row -> new HealthAlert(
+                row.getLong("id"),
+                row.getString("name"),
+                enumValue(CoralReef.HealthStatus.class, row.getString("health_status")),
+                row.getInteger("bleaching_risk_level"),
+                row.getLocalDateTime("updated_at"))));
+    }
+
+    // The reef and its latest readings are fetched concurrently on the pool
+    public Uni<ReefHealth> getHealthStatus(Long reefId) {
+        Uni<Row> reef = client.preparedQuery(
+                "SELECT id, name, health_status, health_score, bleaching_risk_level, biodiversity_index, updated_at " +
+                "FROM coral_reefs WHERE id = $1")
+            .execute(Tuple.of(reefId))
+            .map(rows -> rows.iterator().hasNext() ? rows.iterator().next() : null);
+        Uni<List<SensorReading>> sensors = client.preparedQuery(
+                "SELECT id, timestamp, sensor_type, sensor_id, temperature_celsius, salinity_ppt, ph_level, " +
+                "dissolved_oxygen_mg_l, turbidity_ntu, data_quality_score FROM sensor_data " +
+                "WHERE reef_id = $1 ORDER BY timestamp DESC LIMIT 5")
+            .execute(Tuple.of(reefId))
+            .map(rows -> map(rows, row -> new SensorReading(
+                row.getLong("id"),
+                row.getLocalDateTime("timestamp"),
+                enumValue(SensorData.SensorType.class, row.getString("sensor_type")),
+                row.getString("sensor_id"),
+                row.getDouble("temperature_celsius"),
+                row.getDouble("salinity_ppt"),
+                row.getDouble("ph_level"),
+                row.getDouble("dissolved_oxygen_mg_l"),
+                row.getDouble("turbidity_ntu"),
+                row.getDouble("data_quality_score"))));
+        Uni<List<ImageAnalysis>> images = client.preparedQuery(
+                "SELECT id, capture_timestamp, file_name, analysis_status, coral_coverage_percentage, " +
+                "bleaching_detected, bleaching_severity, health_score, confidence_score FROM image_data " +
+                "WHERE reef_id = $1 ORDER BY capture_timestamp DESC LIMIT 3")
+            .execute(Tuple.of(reefId))
+            .map(rows -> map(rows, row -> new ImageAnalysis(
+                row.getLong("id"),
+                row.getLocalDateTime("capture_timestamp"),
+                row.getString("file_name"),
+                enumValue(ImageData.AnalysisStatus.class, row.getString("analysis_status")),
+                row.getDouble("coral_coverage_percentage"),
+                row.getBoolean("bleaching_detected"),
+                row.getInteger("bleaching_severity"),
+                row.getDouble("health_score"),
+                row.getDouble("confidence_score"))));
+
+        return Uni.combine().all().unis(reef, sensors, images).asTuple().map(result -> {
+            Row found = result.getItem1();
+            if (found == null) {
+                return null;
+            }
+            return new ReefHealth(
+                found.getLong("id"),
+                found.getString("name"),
+                enumValue(CoralReef.HealthStatus.class, found.getString("health_status")),
+                found.getDouble("health_score"),
+                found.getInteger("bleaching_risk_level"),
+                found.getDouble("biodiversity_index"),
+                found.getLocalDateTime("updated_at"),
+                result.getItem2(),
+                result.getItem3());
+        });
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private static <T> List<T> map(RowSet<Row> rows, Function<Row, T> mapper) {
+        List<T> result = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            result.add(mapper.apply(row));
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,122 @@
+package com.nautilux.service;
+
+import com.nautilux.dto.HealthAlert;
+import com.nautilux.model.CoralReef;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/*
+ * Reefs currently in alert (POOR or CRITICAL health, or bleaching risk 3+), kept
+ * per severity in recency order so a top-N read walks at most N entries. Loaded
+ * at startup and maintained from ReefChangedEvent. Reads are lock-free; writers
+ * serialize so an entry never sits in two severity sets for long.
+ */
+@ApplicationScoped
+public class ReefAlertIndex {
+
+    private static final Logger LOG = Logger.getLogger(ReefAlertIndex.class);
+
+    public enum Severity { CRITICAL, HIGH, MEDIUM, LOW }
+
+    static final String ALERT_CONDITION = "r.healthStatus IN ('POOR', 'CRITICAL') OR r.bleachingRiskLevel >= 3";
+
+    private static final Comparator<HealthAlert> NEWEST_FIRST = Comparator
+        .comparing(HealthAlert::lastUpdated, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(HealthAlert::reefId, Comparator.reverseOrder());
+
+    private final Map<Long, HealthAlert> byReef = new ConcurrentHashMap<>();
+    private final Map<Severity, NavigableSet<HealthAlert>> bySeverity = new EnumMap<>(Severity.class);
+
+    public ReefAlertIndex() {
+        for (Severity severity : Severity.values()) {
+            bySeverity.put(severity, new ConcurrentSkipListSet<>(NEWEST_FIRST));
+        }
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        List<HealthAlert> alerts = CoralReef.getEntityManager()
+            .createQuery(HealthAlert.SELECT + " WHERE " + ALERT_CONDITION, HealthAlert.class)
+            .getResultList();
+        synchronized (this) {
+            byReef.clear();
+            bySeverity.values().forEach(NavigableSet::clear);
+            alerts.forEach(this::add);
+        }
+        LOG.infof("Indexed %d reef alerts in %d ms", byReef.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    void onReefChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReefChangedEvent event) {
+        if (event.kind() == ReefChangedEvent.Kind.DELETED) {
+            remove(event.reefId());
+        } else {
+            update(new HealthAlert(event.reefId(), event.name(), event.healthStatus(),
+                event.bleachingRiskLevel(), event.updatedAt()));
+        }
+    }
+
+    synchronized void update(HealthAlert alert) {
+        remove(alert.reefId());
+        if (isAlert(alert)) {
+            add(alert);
+        }
+    }
+
+    synchronized void remove(Long reefId) {
+        HealthAlert previous = byReef.remove(reefId);
+        if (previous != null) {
+            bySeverity.get(Severity.valueOf(previous.severity())).remove(previous);
+        }
+    }
+
+    private void add(HealthAlert alert) {
+        byReef.put(alert.reefId(), alert);
+        bySeverity.get(Severity.valueOf(alert.severity())).add(alert);
+    }
+
+    // Most severe first, newest first within a severity; a null severity selects all
+    public List<HealthAlert> top(Severity severity, int limit) {
+        List<HealthAlert> result = new ArrayList<>(Math.min(limit, 64));
+        for (Severity candidate : Severity.values()) {
+            if (severity != null && candidate != severity) {
+                continue;
+            }
+            for (HealthAlert alert : bySeverity.get(candidate)) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(alert);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return byReef.size();
+    }
+
+    // Mirrors ALERT_CONDITION
+    static boolean isAlert(HealthAlert alert) {
+        return alert.healthStatus() == CoralReef.HealthStatus.POOR
+            || alert.healthStatus() == CoralReef.HealthStatus.CRITICAL
+            || (alert.bleachingRiskLevel() != null && alert.bleachingRiskLevel() >= 3);
+    }
+}
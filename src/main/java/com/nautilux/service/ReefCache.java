@@ -0,0 +1,104 @@
+package com.nautilux.service;
+
+import com.nautilux.cache.TtlCache;
+import com.nautilux.dto.ReefHealth;
+import com.nautilux.dto.ZoneSummary;
+import com.nautilux.metrics.TtlCacheMetrics;
+import com.nautilux.model.CoralReef;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * Read-through caches for reef lookups, zone lists and assembled health snapshots.
+ * Cached reefs are detached: callers must treat them as read-only and use
+ * CoralReefService.findById for anything they intend to modify.
+ */
+@ApplicationScoped
+public class ReefCache {
+
+    @ConfigProperty(name = "cache.reefs.max-size", defaultValue = "10000")
+    int reefsMaxSize;
+
+    @ConfigProperty(name = "cache.reefs.ttl", defaultValue = "PT10M")
+    Duration reefsTtl;
+
+    @ConfigProperty(name = "cache.zones.max-size", defaultValue = "10000")
+    int zonesMaxSize;
+
+    @ConfigProperty(name = "cache.zones.ttl", defaultValue = "PT10M")
+    Duration zonesTtl;
+
+    @ConfigProperty(name = "cache.health.max-size", defaultValue = "5000")
+    int healthMaxSize;
+
+    @ConfigProperty(name = "cache.health.ttl", defaultValue = "PT30S")
+    Duration healthTtl;
+
+    @Inject
+    MeterRegistry registry;
+
+    TtlCache<Long, CoralReef> reefs;
+    TtlCache<Long, List<ZoneSummary>> zones;
+    TtlCache<Long, ReefHealth> health;
+
+    @PostConstruct
+    void init() {
+        reefs = new TtlCache<>("reefs", reefsMaxSize, reefsTtl);
+        zones = new TtlCache<>("zones", zonesMaxSize, zonesTtl);
+        health = new TtlCache<>("health", healthMaxSize, healthTtl);
+        new TtlCacheMetrics(reefs, "reefs").bindTo(registry);
+        new TtlCacheMetrics(zones, "zones").bindTo(registry);
+        new TtlCacheMetrics(health, "health").bindTo(registry);
+    }
+
+    public CoralReef reef(Long reefId, Supplier<CoralReef> loader) {
+        return reefs.get(reefId, loader);
+    }
+
+    public List<ZoneSummary> zones(Long reefId, Supplier<List<ZoneSummary>> loader) {
+        return zones.get(reefId, loader);
+    }
+
+    public ReefHealth health(Long reefId, Supplier<ReefHealth> loader) {
+        return health.get(reefId, loader);
+    }
+
+    public void invalidateReef(Long reefId) {
+        reefs.invalidate(reefId);
+        zones.invalidate(reefId);
+        health.invalidate(reefId);
+    }
+
+    public void invalidateAll() {
+        reefs.invalidateAll();
+        zones.invalidateAll();
+        health.invalidateAll();
+    }
+
+    public List<TtlCache.Stats> stats() {
+        reefs.purgeExpired();
+        zones.purgeExpired();
+        health.purgeExpired();
+        return List.of(reefs.stats(), zones.stats(), health.stats());
+    }
+
+    void onReefChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReefChangedEvent event) {
+        invalidateReef(event.reefId());
+    }
+
+    // New readings change the latest-sensor part of the health snapshot
+    void onSensorBatchWritten(@Observes SensorBatchWrittenEvent event) {
+        for (Long reefId : event.reefIds()) {
+            health.invalidate(reefId);
+        }
+    }
+}
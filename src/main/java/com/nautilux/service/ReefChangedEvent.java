@@ -0,0 +1,32 @@
+package com.nautilux.service;
+
+import com.nautilux.model.CoralReef;
+
+import java.time.LocalDateTime;
+
+// Fired inside the writing transaction; observers that mirror reef state listen AFTER_SUCCESS
+public record ReefChangedEvent(Long reefId, Kind kind, Double latitude, Double longitude,
+                               String name, CoralReef.HealthStatus healthStatus,
+                               Integer bleachingRiskLevel, LocalDateTime updatedAt) {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ReefChangedEvent created(CoralReef reef) {
+        return of(reef, Kind.CREATED);
+    }
+
+    public static ReefChangedEvent updated(CoralReef reef) {
+        return of(reef, Kind.UPDATED);
+    }
+
+    public static ReefChangedEvent deleted(Long reefId) {
+        return new ReefChangedEvent(reefId, Kind.DELETED, null, null, null, null, null, null);
+    }
+
+    private static ReefChangedEvent of(CoralReef reef, Kind kind) {
+        return new ReefChangedEvent(reef.id, kind, reef.latitude, reef.longitude, reef.name,
+            reef.healthStatus, reef.bleachingRiskLevel, reef.updatedAt);
+    }
+}
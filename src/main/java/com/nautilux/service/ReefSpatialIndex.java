@@ -0,0 +1,75 @@
+package com.nautilux.service;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.spatial.GeoGridIndex;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+// In-memory spatial index over reef positions, loaded at startup and kept in sync by ReefChangedEvent
+@ApplicationScoped
+public class ReefSpatialIndex {
+
+    private static final Logger LOG = Logger.getLogger(ReefSpatialIndex.class);
+
+    @ConfigProperty(name = "processing.spatial.cell-degrees", defaultValue = "0.5")
+    double cellDegrees;
+
+    GeoGridIndex index;
+
+    @PostConstruct
+    void init() {
+        index = new GeoGridIndex(cellDegrees);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        List<Object[]> rows = CoralReef.getEntityManager().createQuery(
+            "SELECT r.id, r.latitude, r.longitude FROM CoralReef r", Object[].class)
+            .getResultList();
+        index.clear();
+        for (Object[] row : rows) {
+            if (row[1] != null && row[2] != null) {
+                index.put((Long) row[0], (Double) row[1], (Double) row[2]);
+            }
+        }
+        LOG.infof("Indexed %d reef positions in %d ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    void onReefChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReefChangedEvent event) {
+        if (event.kind() == ReefChangedEvent.Kind.DELETED || event.latitude() == null || event.longitude() == null) {
+            index.remove(event.reefId());
+        } else {
+            index.put(event.reefId(), event.latitude(), event.longitude());
+        }
+    }
+
+    public List<GeoGridIndex.Hit> withinRadius(double latitude, double longitude, double radiusKm) {
+        return index.withinRadius(latitude, longitude, radiusKm);
+    }
+
+    public List<GeoGridIndex.Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        return index.nearest(latitude, longitude, k, maxRadiusKm);
+    }
+
+    public List<GeoGridIndex.Hit> withinBox(double minLatitude, double minLongitude,
+                                           double maxLatitude, double maxLongitude) {
+        return index.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.nautilux.service;
+
+public class SensorAggregate {
+
+    // Select list matching fromRow(), usable against any SensorData alias
+    public static String selectList(String alias) {
+        StringBuilder select = new StringBuilder("count(").append(alias).append(")");
+        for (String field : new String[] {"temperatureCelsius", "salinityPpt", "phLevel",
+                                          "dissolvedOxygenMgL", "turbidityNtu"}) {
+            String path = alias + "." + field;
+            select.append(", count(").append(path).append(")")
+                  .append(", sum(").append(path).append(")")
+                  .append(", min(").append(path).append(")")
+                  .append(", max(").append(path).append(")");
+        }
+        return select.toString();
+    }
+
+    public long samples;
+    public final MetricStats temperature = new MetricStats();
+    public final MetricStats salinity = new MetricStats();
+    public final MetricStats ph = new MetricStats();
+    public final MetricStats dissolvedOxygen = new MetricStats();
+    public final MetricStats turbidity = new MetricStats();
+
+    public static SensorAggregate fromRow(Object[] row) {
+        SensorAggregate aggregate = new SensorAggregate();
+        aggregate.samples = toLong(row[0]);
+        aggregate.temperature.add(row, 1);
+        aggregate.salinity.add(row, 5);
+        aggregate.ph.add(row, 9);
+        aggregate.dissolvedOxygen.add(row, 13);
+        aggregate.turbidity.add(row, 17);
+        return aggregate;
+    }
+
+    public void merge(SensorAggregate other) {
+        samples += other.samples;
+        temperature.merge(other.temperature);
+        salinity.merge(other.salinity);
+        ph.merge(other.ph);
+        dissolvedOxygen.merge(other.dissolvedOxygen);
+        turbidity.merge(other.turbidity);
+    }
+
+    public boolean isEmpty() {
+        return samples == 0;
+    }
+
+    static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    static double toDouble(Object value, double fallback) {
+        return value != null ? ((Number) value).doubleValue() : fallback;
+    }
+
+    public static class MetricStats {
+        public long count;
+        public double sum;
+        public double min = Double.POSITIVE_INFINITY;
+        public double max = Double.NEGATIVE_INFINITY;
+
+        void add(Object[] row, int offset) {
+            long rowCount = toLong(row[offset]);
+            if (rowCount == 0) {
+                return;
+            }
+            count += rowCount;
+            sum += toDouble(row[offset + 1], 0.0);
+            min = Math.min(min, toDouble(row[offset + 2], Double.POSITIVE_INFINITY));
+            max = Math.max(max, toDouble(row[offset + 3], Double.NEGATIVE_INFINITY));
+        }
+
+        public void accept(double value) {
+            count++;
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+
+        public void merge(MetricStats other) {
+            if (other.count == 0) {
+                return;
+            }
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        public double average() {
+            return count > 0 ? sum / count : 0.0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.nautilux.service;
+
+import com.nautilux.alerting.AlertRules;
+import com.nautilux.alerting.SensorAlert;
+import com.nautilux.alerting.SensorRuleEngine;
+import com.nautilux.ingest.SensorBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Runs every committed sensor reading through the alert rules on the ingesting thread
+@ApplicationScoped
+public class SensorAlertEngine {
+
+    private static final Logger LOG = Logger.getLogger(SensorAlertEngine.class);
+
+    @Inject
+    AlertingConfig config;
+
+    @Inject
+    AlertService alertService;
+
+    SensorRuleEngine engine;
+
+    @PostConstruct
+    void init() {
+        engine = new SensorRuleEngine(this::rulesFor, config.window().toNanos() / 1000,
+            config.minRateSpan().toNanos() / 1000, config.windowSamples());
+    }
+
+    void onSensorBatchWritten(@Observes SensorBatchWrittenEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        SensorBatch batch = event.batch();
+        Consumer<SensorAlert> sink = alertService::sendSensorAlert;
+        for (int row = 0; row < batch.size(); row++) {
+            engine.evaluate(batch.reefId[row], batch.sensorId[row], batch.timestampMicros[row],
+                batch.temperature[row], batch.salinity[row], batch.ph[row], batch.dissolvedOxygen[row], batch.turbidity[row], sink);
+        }
+        LOG.debugf("Evaluated alert rules for %d readings in %d us", batch.size(), (System.nanoTime() - started) / 1000);
+    }
+
+    void onReefChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ReefChangedEvent event) {
+        if (event.kind() == ReefChangedEvent.Kind.DELETED) {
+            engine.forget(event.reefId());
+        }
+    }
+
+    public int trackedSensors() {
+        return engine.trackedSensors();
+    }
+
+    private AlertRules rulesFor(long reefId) {
+        AlertingConfig.Thresholds defaults = config.defaults();
+        AlertingConfig.Thresholds reef = config.reefs().get(Long.toString(reefId));
+        return new AlertRules(
+            resolve(reef, defaults, AlertingConfig.Thresholds::temperatureMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::temperatureMin),
+            resolve(reef, defaults, AlertingConfig.Thresholds::windowTemperatureMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::temperatureRateMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::maximumMonthlyMean),
+            resolve(reef, defaults, AlertingConfig.Thresholds::degreeHeatingWeeksMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::salinityMin),
+            resolve(reef, defaults, AlertingConfig.Thresholds::salinityMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::phMin),
+            resolve(reef, defaults, AlertingConfig.Thresholds::phMax),
+            resolve(reef, defaults, AlertingConfig.Thresholds::dissolvedOxygenMin),
+            resolve(reef, defaults, AlertingConfig.Thresholds::turbidityMax));
+    }
+
+    private static double resolve(AlertingConfig.Thresholds reef, AlertingConfig.Thresholds defaults,
+                                  Function<AlertingConfig.Thresholds, Optional<Double>> value) {
+        Optional<Double> resolved = reef != null ? value.apply(reef) : Optional.empty();
+        return resolved.or(() -> value.apply(defaults)).orElse(Double.NaN);
+    }
+}
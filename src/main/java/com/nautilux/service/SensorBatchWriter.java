@@ -0,0 +1,219 @@
+package com.nautilux.service;
+
+import com.nautilux.ingest.SensorBatch;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@ApplicationScoped
+public class SensorBatchWriter {
+
+    private static final Logger LOG = Logger.getLogger(SensorBatchWriter.class);
+
+    private static final String COLUMNS =
+        "reef_id, zone_id, sensor_type, sensor_id, timestamp, temperature_celsius, salinity_ppt, " +
+        "ph_level, dissolved_oxygen_mg_l, turbidity_ntu, conductivity_ms_cm, pressure_bar, " +
+        "location_latitude, location_longitude";
+
+    // Readings already present (uq_sensor_data_reading) are skipped, so reloading a file
+    // whose earlier batches committed before a failure only adds the missing rows
+    private static final String ON_CONFLICT = " ON CONFLICT DO NOTHING";
+
+    // COPY cannot skip conflicts, so it fills a session temp table that is then merged
+    private static final String STAGING_SQL = "CREATE TEMPORARY TABLE IF NOT EXISTS sensor_data_staging " +
+        "ON COMMIT DELETE ROWS AS SELECT " + COLUMNS + " FROM sensor_data WITH NO DATA";
+
+    private static final String COPY_SQL = "COPY sensor_data_staging (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE_SQL = "INSERT INTO sensor_data (" + COLUMNS + ") " +
+        "SELECT " + COLUMNS + " FROM sensor_data_staging" + ON_CONFLICT;
+
+    private static final String INSERT_SQL = "INSERT INTO sensor_data (" + COLUMNS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" + ON_CONFLICT;
+
+    private static final int COPY_CHUNK_CHARS = 64 * 1024;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    Event<SensorBatchWrittenEvent> batchWritten;
+
+    @ConfigProperty(name = "processing.sensor.bulk-load.mode", defaultValue = "copy")
+    String mode;
+
+    // Entry point for the Camel aggregator, which hands over grouped CSV rows
+    public int writeRows(List<List<String>> rows) {
+        SensorBatch batch = new SensorBatch(rows.size());
+        for (List<String> row : rows) {
+            batch.addCsvRow(row);
+        }
+        if (batch.size() < rows.size()) {
+            LOG.debugf("Skipped %d header or malformed sensor rows", rows.size() - batch.size());
+        }
+        return write(batch);
+    }
+
+    // Row-at-a-time fallback for the sensor-csv-rows route; a header or malformed row writes nothing
+    public int writeRow(List<String> row) {
+        return writeRows(List.of(row));
+    }
+
+    // Writes the whole batch in a single transaction and returns the number of new readings
+    public int write(SensorBatch batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        int inserted;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                inserted = "copy".equalsIgnoreCase(mode) ? copy(connection, batch) : insert(connection, batch);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write sensor batch of " + batch.size() + " rows", e);
+        }
+
+        LOG.debugf("Wrote %d sensor readings in %d ms (%s), %d already present",
+            inserted, (System.nanoTime() - started) / 1_000_000, mode, batch.size() - inserted);
+        batchWritten.fire(new SensorBatchWrittenEvent(batch));
+        return inserted;
+    }
+
+    private int copy(Connection connection, SensorBatch batch) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(STAGING_SQL);
+        }
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK_CHARS + 512);
+            for (int row = 0; row < batch.size(); row++) {
+                appendId(chunk, batch.reefId[row]).append(',');
+                appendId(chunk, batch.zoneId[row]).append(',');
+                chunk.append(batch.sensorTypeAt(row).name()).append(',');
+                appendQuoted(chunk, batch.sensorId[row]).append(',');
+                chunk.append(batch.timestampAt(row)).append(',');
+                appendValue(chunk, batch.temperature[row]).append(',');
+                appendValue(chunk, batch.salinity[row]).append(',');
+                appendValue(chunk, batch.ph[row]).append(',');
+                appendValue(chunk, batch.dissolvedOxygen[row]).append(',');
+                appendValue(chunk, batch.turbidity[row]).append(',');
+                appendValue(chunk, batch.conductivity[row]).append(',');
+                appendValue(chunk, batch.pressure[row]).append(',');
+                appendValue(chunk, batch.latitude[row]).append(',');
+                appendValue(chunk, batch.longitude[row]).append('\n');
+
+                if (chunk.length() >= COPY_CHUNK_CHARS) {
+                    writeChunk(copyIn, chunk);
+                }
+            }
+            writeChunk(copyIn, chunk);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(MERGE_SQL);
+        }
+    }
+
+    private int insert(Connection connection, SensorBatch batch) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (int row = 0; row < batch.size(); row++) {
+                bindId(statement, 1, batch.reefId[row]);
+                bindId(statement, 2, batch.zoneId[row]);
+                statement.setString(3, batch.sensorTypeAt(row).name());
+                statement.setString(4, batch.sensorId[row]);
+                statement.setTimestamp(5, Timestamp.valueOf(batch.timestampAt(row)));
+                bindValue(statement, 6, batch.temperature[row]);
+                bindValue(statement, 7, batch.salinity[row]);
+                bindValue(statement, 8, batch.ph[row]);
+                bindValue(statement, 9, batch.dissolvedOxygen[row]);
+                bindValue(statement, 10, batch.turbidity[row]);
+                bindValue(statement, 11, batch.conductivity[row]);
+                bindValue(statement, 12, batch.pressure[row]);
+                bindValue(statement, 13, batch.latitude[row]);
+                bindValue(statement, 14, batch.longitude[row]);
+                statement.addBatch();
+            }
+            int inserted = 0;
+            for (int count : statement.executeBatch()) {
+                inserted += Math.max(count, 0);
+            }
+            return inserted;
+        }
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.length() == 0) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static StringBuilder appendId(StringBuilder out, long id) {
+        return id != 0L ? out.append(id) : out;
+    }
+
+    private static StringBuilder appendValue(StringBuilder out, double value) {
+        return Double.isNaN(value) ? out : out.append(value);
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static void bindId(PreparedStatement statement, int index, long id) throws SQLException {
+        if (id != 0L) {
+            statement.setLong(index, id);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void bindValue(PreparedStatement statement, int index, double value) throws SQLException {
+        if (!Double.isNaN(value)) {
+            statement.setDouble(index, value);
+        } else {
+            statement.setNull(index, Types.DOUBLE);
+        }
+    }
+}
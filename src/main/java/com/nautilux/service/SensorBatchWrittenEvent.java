@@ -0,0 +1,23 @@
+package com.nautilux.service;
+
+import com.nautilux.ingest.SensorBatch;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Fired synchronously after a sensor batch commits; the batch is reused afterwards, so observers must not keep it
+public record SensorBatchWrittenEvent(SensorBatch batch) {
+
+    public Set<Long> reefIds() {
+        Set<Long> reefIds = new HashSet<>();
+        long previous = Long.MIN_VALUE;
+        for (int row = 0; row < batch.size(); row++) {
+            long reefId = batch.reefId[row];
+            if (reefId != previous) {
+                reefIds.add(reefId);
+                previous = reefId;
+            }
+        }
+        return reefIds;
+    }
+}
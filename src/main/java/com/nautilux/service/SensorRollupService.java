@@ -0,0 +1,218 @@
+package com.nautilux.service;
+
+import com.nautilux.model.SensorData;
+import com.nautilux.model.SensorRollup;
+import com.nautilux.model.SensorRollup.Resolution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class SensorRollupService {
+
+    private static final Logger LOG = Logger.getLogger(SensorRollupService.class);
+
+    // Same column order as SensorAggregate.selectList so rows share fromRow()
+    private static final String ROLLUP_SELECT =
+        "sum(r.sampleCount), " +
+        "sum(r.temperatureCount), sum(r.temperatureSum), min(r.temperatureMin), max(r.temperatureMax), " +
+        "sum(r.salinityCount), sum(r.salinitySum), min(r.salinityMin), max(r.salinityMax), " +
+        "sum(r.phCount), sum(r.phSum), min(r.phMin), max(r.phMax), " +
+        "sum(r.dissolvedOxygenCount), sum(r.dissolvedOxygenSum), min(r.dissolvedOxygenMin), max(r.dissolvedOxygenMax), " +
+        "sum(r.turbidityCount), sum(r.turbiditySum), min(r.turbidityMin), max(r.turbidityMax)";
+
+    private static final int MAX_SERIES_POINTS = 500;
+
+    @ConfigProperty(name = "processing.rollup.enabled", defaultValue = "true")
+    boolean rollupsEnabled;
+
+    @ConfigProperty(name = "processing.rollup.backfill-days", defaultValue = "365")
+    int backfillDays;
+
+    public SensorAggregate aggregate(Long reefId, LocalDateTime start, LocalDateTime end) {
+        return aggregate(reefId, null, null, start, end);
+    }
+
+    // Inclusive on both ends, like the BETWEEN queries it replaces
+    public SensorAggregate aggregate(Long reefId, Long zoneId, SensorData.SensorType sensorType,
+                                     LocalDateTime start, LocalDateTime end) {
+        Filter filter = new Filter(reefId, zoneId, sensorType);
+        if (!rollupsEnabled) {
+            return raw(filter, start, end, true);
+        }
+
+        // Sub-minute edges come from the raw table, everything in between from
+        // the coarsest buckets that fit entirely inside the range
+        LocalDateTime minuteStart = Resolution.MINUTE.ceil(start);
+        LocalDateTime minuteEnd = Resolution.MINUTE.floor(end);
+        if (!minuteStart.isBefore(minuteEnd)) {
+            return raw(filter, start, end, true);
+        }
+
+        SensorAggregate total = raw(filter, start, minuteStart, false);
+        total.merge(raw(filter, minuteEnd, end, true));
+        total.merge(bucketed(filter, Resolution.MINUTE, minuteStart, minuteEnd));
+        return total;
+    }
+
+    public List<Map<String, Object>> timeSeries(Long reefId, LocalDateTime start, LocalDateTime end) {
+        Resolution resolution = seriesResolution(start, end);
+        Filter filter = new Filter(reefId, null, null);
+
+        TypedQuery<Object[]> query = SensorRollup.getEntityManager().createQuery(
+            "SELECT " + ROLLUP_SELECT + ", r.bucketStart FROM SensorRollup r WHERE " +
+            filter.rollupClause() + " AND r.resolution = :resolution " +
+            "AND r.bucketStart >= :from AND r.bucketStart <= :to " +
+            "GROUP BY r.bucketStart ORDER BY r.bucketStart", Object[].class);
+        filter.bind(query);
+        List<Object[]> rows = query
+            .setParameter("resolution", resolution)
+            .setParameter("from", resolution.floor(start))
+            .setParameter("to", end)
+            .getResultList();
+
+        List<Map<String, Object>> series = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            SensorAggregate bucket = SensorAggregate.fromRow(row);
+            Map<String, Object> point = new HashMap<>();
+            point.put("bucketStart", row[21]);
+            point.put("resolution", resolution);
+            point.put("sensorReadingsCount", bucket.samples);
+            point.put("averageTemperature", bucket.temperature.average());
+            point.put("averageSalinity", bucket.salinity.average());
+            point.put("averagePh", bucket.ph.average());
+            point.put("averageDissolvedOxygen", bucket.dissolvedOxygen.average());
+            point.put("averageTurbidity", bucket.turbidity.average());
+            series.add(point);
+        }
+        return series;
+    }
+
+    public long backfillRecent() {
+        LocalDateTime to = Resolution.DAY.ceil(LocalDateTime.now());
+        return backfill(to.minusDays(backfillDays), to);
+    }
+
+    // One transaction per day keeps each rebuild short; a failed day is logged and
+    // skipped so the remaining days are still rebuilt, and can be retried alone
+    public long backfill(LocalDateTime from, LocalDateTime to) {
+        long rebuilt = 0;
+        int failedDays = 0;
+        LocalDateTime day = Resolution.DAY.floor(from);
+        while (day.isBefore(to)) {
+            try {
+                rebuilt += rebuild(day, day.plusDays(1));
+            } catch (RuntimeException e) {
+                failedDays++;
+                LOG.warnf(e, "Rebuilding sensor rollups for %s failed", day.toLocalDate());
+            }
+            day = day.plusDays(1);
+        }
+        if (failedDays > 0) {
+            LOG.warnf("Rebuilt %d sensor rollup buckets between %s and %s; %d days failed", rebuilt, from, to,
+                failedDays);
+        } else {
+            LOG.infof("Rebuilt %d sensor rollup buckets between %s and %s", rebuilt, from, to);
+        }
+        return rebuilt;
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public long rebuild(LocalDateTime dayStart, LocalDateTime dayEnd) {
+        Object rebuilt = SensorRollup.getEntityManager()
+            .createNativeQuery("SELECT sensor_rollups_rebuild(?1, ?2)")
+            .setParameter(1, dayStart)
+            .setParameter(2, dayEnd)
+            .getSingleResult();
+        return SensorAggregate.toLong(rebuilt);
+    }
+
+    private SensorAggregate bucketed(Filter filter, Resolution resolution,
+                                     LocalDateTime from, LocalDateTime to) {
+        Resolution coarser = resolution == Resolution.MINUTE ? Resolution.HOUR
+                           : resolution == Resolution.HOUR ? Resolution.DAY : null;
+        if (coarser != null) {
+            LocalDateTime coarseStart = coarser.ceil(from);
+            LocalDateTime coarseEnd = coarser.floor(to);
+            if (coarseStart.isBefore(coarseEnd)) {
+                SensorAggregate total = rollups(filter, resolution, from, coarseStart);
+                total.merge(rollups(filter, resolution, coarseEnd, to));
+                total.merge(bucketed(filter, coarser, coarseStart, coarseEnd));
+                return total;
+            }
+        }
+        return rollups(filter, resolution, from, to);
+    }
+
+    private SensorAggregate rollups(Filter filter, Resolution resolution,
+                                    LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return new SensorAggregate();
+        }
+        TypedQuery<Object[]> query = SensorRollup.getEntityManager().createQuery(
+            "SELECT " + ROLLUP_SELECT + " FROM SensorRollup r WHERE " + filter.rollupClause() +
+            " AND r.resolution = :resolution AND r.bucketStart >= :from AND r.bucketStart < :to",
+            Object[].class);
+        filter.bind(query);
+        return SensorAggregate.fromRow(query
+            .setParameter("resolution", resolution)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getSingleResult());
+    }
+
+    private SensorAggregate raw(Filter filter, LocalDateTime from, LocalDateTime to, boolean inclusiveEnd) {
+        if (inclusiveEnd ? from.isAfter(to) : !from.isBefore(to)) {
+            return new SensorAggregate();
+        }
+        TypedQuery<Object[]> query = SensorData.getEntityManager().createQuery(
+            "SELECT " + SensorAggregate.selectList("s") + " FROM SensorData s WHERE " +
+            filter.rawClause() + " AND s.timestamp >= :from AND s.timestamp " +
+            (inclusiveEnd ? "<=" : "<") + " :to", Object[].class);
+        filter.bind(query);
+        return SensorAggregate.fromRow(query
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getSingleResult());
+    }
+
+    private Resolution seriesResolution(LocalDateTime start, LocalDateTime end) {
+        Duration range = Duration.between(start, end);
+        for (Resolution resolution : Resolution.values()) {
+            if (range.dividedBy(resolution.unit.getDuration()) <= MAX_SERIES_POINTS) {
+                return resolution;
+            }
+        }
+        return Resolution.DAY;
+    }
+
+    private record Filter(Long reefId, Long zoneId, SensorData.SensorType sensorType) {
+
+        String rawClause() {
+            return "s.coralReef.id = :reefId" +
+                (zoneId != null ? " AND s.reefZone.id = :zoneId" : "") +
+                (sensorType != null ? " AND s.sensorType = :sensorType" : "");
+        }
+
+        String rollupClause() {
+            return "r.reefId = :reefId" +
+                (zoneId != null ? " AND r.zoneId = :zoneId" : "") +
+                (sensorType != null ? " AND r.sensorType = :sensorType" : "");
+        }
+
+        void bind(TypedQuery<?> query) {
+            query.setParameter("reefId", reefId);
+            if (zoneId != null) query.setParameter("zoneId", zoneId);
+            if (sensorType != null) query.setParameter("sensorType", sensorType);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.nautilux.service;
+
+import com.nautilux.ingest.SonarColumnReader;
+import com.nautilux.model.SonarData;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads raw ping returns back out of the column store linked from SonarData.rawStorePath
+@ApplicationScoped
+public class SonarStoreService {
+
+    @ConfigProperty(name = "processing.sonar.raw-store.max-pings-per-request", defaultValue = "2000")
+    int maxPingsPerRequest;
+
+    @ConfigProperty(name = "processing.sonar.raw-store.max-samples-per-request", defaultValue = "1000000")
+    long maxSamplesPerRequest;
+
+    /*
+     * Full-resolution pings in [from, to), every beam or only `beam` when it is not null.
+     * The page ends early at max-pings-per-request pings or max-samples-per-request
+     * samples, and its `to` is where the next page starts. A single ping above the
+     * sample limit is rejected rather than truncated.
+     */
+    public Map<String, Object> getPings(Long sonarId, int from, int to, Integer beam) {
+        Path store = storePath(sonarId);
+        if (store == null) {
+            return null;
+        }
+        try (SonarColumnReader reader = new SonarColumnReader(store)) {
+            int start = clamp(from, reader.pingCount());
+            int limit = Math.min(clamp(to, reader.pingCount()), start + maxPingsPerRequest);
+
+            List<Map<String, Object>> pings = new ArrayList<>();
+            long samples = 0;
+            for (int i = start; i < limit; i++) {
+                SonarColumnReader.PingInfo info = reader.ping(i);
+                long count = beam != null ? info.samplesPerBeam() : (long) info.beamCount() * info.samplesPerBeam();
+                if (samples + count > maxSamplesPerRequest) {
+                    if (pings.isEmpty()) {
+                        throw new IllegalArgumentException(String.format(
+                            "Ping %d returns %d samples, above the %d sample limit%s", i, count,
+                            maxSamplesPerRequest, beam == null ? "; request a single beam" : ""));
+                    }
+                    break;
+                }
+                samples += count;
+                Map<String, Object> ping = describe(info);
+                ping.put("index", i);
+                if (beam != null) {
+                    ping.put("beam", beam);
+                    ping.put("beams", new float[][] { reader.readBeam(i, beam) });
+                } else {
+                    ping.put("beams", reader.read(i));
+                }
+                pings.add(ping);
+            }
+            return page(reader, start, start + pings.size(), pings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sonar column store " + store, e);
+        }
+    }
+
+    /*
+     * Echogram for visualisation: every stride-th ping in [from, to) so that at most
+     * maxPings rows come back, each max-pooled down to maxSamples range bins, within
+     * the same sample limit as getPings. Only the selected pings are read and inflated.
+     * A beam past a ping's beam count is rejected.
+     */
+    public Map<String, Object> getEchogram(Long sonarId, int from, int to, int beam, int maxPings, int maxSamples) {
+        Path store = storePath(sonarId);
+        if (store == null) {
+            return null;
+        }
+        try (SonarColumnReader reader = new SonarColumnReader(store)) {
+            int start = clamp(from, reader.pingCount());
+            int end = clamp(to, reader.pingCount());
+            int rows = Math.max(1, Math.min(maxPings, maxPingsPerRequest));
+            int stride = Math.max(1, (end - start + rows - 1) / rows);
+            int bins = (int) Math.max(1, Math.min(maxSamples, maxSamplesPerRequest / rows));
+
+            List<Map<String, Object>> pings = new ArrayList<>();
+            double maxRange = 0.0;
+            for (int i = start; i < end; i += stride) {
+                SonarColumnReader.PingInfo info = reader.ping(i);
+                Map<String, Object> ping = new HashMap<>();
+                ping.put("index", i);
+                ping.put("timestampMicros", info.timestampMicros());
+                ping.put("latitude", info.latitude());
+                ping.put("longitude", info.longitude());
+                ping.put("amplitudesDb", reader.downsample(i, beam, bins));
+                pings.add(ping);
+                maxRange = Math.max(maxRange, info.rangeOfSample(info.samplesPerBeam()));
+            }
+
+            Map<String, Object> echogram = page(reader, start, end, pings);
+            echogram.put("stride", stride);
+            echogram.put("beam", beam < 0 ? "max" : beam);
+            echogram.put("maxRangeMeters", maxRange);
+            return echogram;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sonar column store " + store, e);
+        }
+    }
+
+    private Path storePath(Long sonarId) {
+        SonarData sonar = SonarData.findById(sonarId);
+        if (sonar == null || sonar.rawStorePath == null) {
+            return null;
+        }
+        Path store = Paths.get(sonar.rawStorePath);
+        return Files.isRegularFile(store) ? store : null;
+    }
+
+    private static Map<String, Object> describe(SonarColumnReader.PingInfo info) {
+        Map<String, Object> ping = new HashMap<>();
+        ping.put("pingNumber", info.pingNumber());
+        ping.put("timestampMicros", info.timestampMicros());
+        ping.put("latitude", info.latitude());
+        ping.put("longitude", info.longitude());
+        ping.put("beamCount", info.beamCount());
+        ping.put("samplesPerBeam", info.samplesPerBeam());
+        ping.put("sampleRateHz", info.sampleRateHz());
+        ping.put("soundSpeed", info.soundSpeed());
+        return ping;
+    }
+
+    private static Map<String, Object> page(SonarColumnReader reader, int start, int end,
+                                            List<Map<String, Object>> pings) {
+        Map<String, Object> page = new HashMap<>();
+        page.put("totalPings", reader.pingCount());
+        page.put("from", start);
+        page.put("to", end);
+        page.put("pings", pings);
+        return page;
+    }
+
+    private static int clamp(int index, int pingCount) {
+        return Math.max(0, Math.min(index, pingCount));
+    }
+}
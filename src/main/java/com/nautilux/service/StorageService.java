@@ -1,10 +1,224 @@
 package com.nautilux.service;
 
+import com.nautilux.dto.ImageUpload;
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ImageData;
+import com.nautilux.storage.ContentStore;
+import com.nautilux.storage.ImageFormat;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Images are kept in a content-addressed store under storage.local.base-path/images, one copy per content hash
 @ApplicationScoped
 public class StorageService {
-    // Minimal stub methods for compilation
-    public void storeImage() {}
-    public void storeImageFromHttp() {}
-} 
\ No newline at end of file
+
+    private static final Logger LOG = Logger.getLogger(StorageService.class);
+
+    // Images named like reef-42_frame-0001.jpg are linked to reef 42
+    private static final Pattern REEF_FILE_NAME = Pattern.compile("^reef-(\\d+)[_.-].*");
+
+    // V10: one image row per (content_hash, reef_id)
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    private static final String UNIQUE_CONTENT_INDEX = "uq_image_data_content_hash_reef";
+
+    @ConfigProperty(name = "storage.local.base-path", defaultValue = "./data/storage")
+    String storageBasePath;
+
+    @ConfigProperty(name = "processing.image.max-size", defaultValue = "5M")
+    MemorySize maxImageSize;
+
+    @ConfigProperty(name = "processing.image.supported-formats", defaultValue = "jpg,jpeg,png")
+    List<String> supportedFormats;
+
+    // Stored content younger than this is never swept: its row may not be committed yet
+    @ConfigProperty(name = "storage.images.sweep-grace", defaultValue = "PT24H")
+    Duration sweepGrace;
+
+    @Inject
+    Event<ImageStoredEvent> imageStored;
+
+    ContentStore images;
+
+    @PostConstruct
+    void init() {
+        try {
+            images = new ContentStore(Paths.get(storageBasePath, "images"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open image store under " + storageBasePath, e);
+        }
+    }
+
+    public long maxImageBytes() {
+        return maxImageSize.asLongValue();
+    }
+
+    // File and FTP routes: hashed in place and copied with transferTo only when the content is new
+    public ImageUpload storeImage(File file) throws IOException {
+        ImageFormat format = checkFormat(ImageFormat.detect(file.toPath()), file.getName());
+        ContentStore.StoredObject object = images.put(file.toPath(), maxImageBytes());
+        return saveImage(object, format, file.getName(), reefIdOf(file.getName()));
+    }
+
+    // Multipart uploads arrive already spooled to disk by the HTTP layer
+    public ImageUpload storeUpload(Path upload, String fileName, Long reefId) {
+        checkReef(reefId);
+        try {
+            ImageFormat format = checkFormat(ImageFormat.detect(upload), fileName);
+            ContentStore.StoredObject object = images.put(upload, maxImageBytes());
+            return saveImage(object, format, fileName, reefId != null ? reefId : reefIdOf(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image upload " + fileName, e);
+        }
+    }
+
+    // Raw request bodies are hashed while they stream to disk
+    public ImageUpload storeUpload(InputStream body, String fileName, Long reefId) {
+        checkReef(reefId);
+        try {
+            PushbackInputStream stream = ImageFormat.pushback(body);
+            ImageFormat format = checkFormat(ImageFormat.detect(stream), fileName);
+            ContentStore.StoredObject object = images.put(stream, maxImageBytes());
+            return saveImage(object, format, fileName, reefId != null ? reefId : reefIdOf(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image upload " + fileName, e);
+        }
+    }
+
+    // A re-upload of the same content for the same reef returns the existing row. Concurrent
+    // uploads of new content both miss the lookup; the unique index admits one insert and the
+    // others return its row
+    public ImageUpload saveImage(ContentStore.StoredObject object, ImageFormat format, String fileName, Long reefId) {
+        ImageUpload duplicate = findDuplicate(object.hash(), reefId);
+        if (duplicate != null) {
+            LOG.debugf("Image %s is a duplicate of image %d", fileName, duplicate.imageId());
+            return duplicate;
+        }
+        try {
+            return insertImage(object, format, fileName, reefId);
+        } catch (PersistenceException e) {
+            if (!violatesUniqueContent(e)) {
+                throw e;
+            }
+            duplicate = findDuplicate(object.hash(), reefId);
+            if (duplicate == null) {
+                throw e;
+            }
+            LOG.debugf("Image %s was stored concurrently as image %d", fileName, duplicate.imageId());
+            return duplicate;
+        }
+    }
+
+    @Transactional
+    ImageUpload findDuplicate(String contentHash, Long reefId) {
+        PanacheQuery<ImageData> existing = reefId == null
+            ? ImageData.find("contentHash = ?1 and coralReef is null", contentHash)
+            : ImageData.find("contentHash = ?1 and coralReef.id = ?2", contentHash, reefId);
+        ImageData duplicate = existing.firstResult();
+        return duplicate != null ? ImageUpload.of(duplicate, true) : null;
+    }
+
+    // Flushed here so a lost race surfaces as a constraint violation, and the event only fires on commit
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    ImageUpload insertImage(ContentStore.StoredObject object, ImageFormat format, String fileName, Long reefId) {
+        ImageData image = new ImageData();
+        image.filePath = object.path().toString();
+        image.fileName = fileName != null ? fileName : object.hash() + "." + format.extension;
+        image.fileSizeBytes = object.sizeBytes();
+        image.imageFormat = format.extension;
+        image.contentHash = object.hash();
+        image.timestamp = LocalDateTime.now();
+        image.coralReef = reefId != null ? CoralReef.findById(reefId) : null;
+        image.persistAndFlush();
+        imageStored.fire(new ImageStoredEvent(image.id, image.contentHash, image.filePath));
+        LOG.infof("Stored image %s as %s (%d bytes%s)", image.fileName, object.hash(), object.sizeBytes(),
+            object.deduplicated() ? ", content already stored" : "");
+        return ImageUpload.of(image, false);
+    }
+
+    // Rows go away without their content (reef deletes cascade, V10 merged duplicates), so
+    // objects no row references are deleted here, a batch of hashes per query
+    public long sweepUnreferencedImages() throws IOException {
+        Instant cutoff = Instant.now().minus(sweepGrace);
+        AtomicLong deleted = new AtomicLong();
+        images.forEachOlderThan(cutoff, SWEEP_BATCH_SIZE, hashes -> {
+            Set<String> referenced = referencedHashes(hashes);
+            for (String hash : hashes) {
+                try {
+                    if (!referenced.contains(hash) && images.deleteIfOlderThan(hash, cutoff)) {
+                        deleted.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to delete stored image " + hash, e);
+                }
+            }
+        });
+        LOG.infof("Deleted %d unreferenced stored images", deleted.get());
+        return deleted.get();
+    }
+
+    @Transactional
+    Set<String> referencedHashes(List<String> hashes) {
+        return new HashSet<>(ImageData.getEntityManager()
+            .createQuery("SELECT DISTINCT i.contentHash FROM ImageData i WHERE i.contentHash IN ?1", String.class)
+            .setParameter(1, hashes)
+            .getResultList());
+    }
+
+    // Depending on where it surfaces the violation may arrive wrapped in another PersistenceException
+    private static boolean violatesUniqueContent(PersistenceException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UNIQUE_CONTENT_INDEX.equals(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private ImageFormat checkFormat(ImageFormat format, String fileName) {
+        if (format == null || supportedFormats.stream().noneMatch(format::matches)) {
+            throw new IllegalArgumentException("Unsupported image format" + (fileName != null ? " for " + fileName : ""));
+        }
+        return format;
+    }
+
+    private static void checkReef(Long reefId) {
+        if (reefId != null && CoralReef.count("id", reefId) == 0) {
+            throw new IllegalArgumentException("Unknown reef " + reefId);
+        }
+    }
+
+    private static Long reefIdOf(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        Matcher matcher = REEF_FILE_NAME.matcher(fileName);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nautilux.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautilux.alerting.Alert;
+import com.nautilux.alerting.AlertSink;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+// POSTs each batch as a JSON array; any non-2xx status counts as a failed delivery
+@ApplicationScoped
+public class WebhookAlertSink implements AlertSink {
+
+    @Inject
+    AlertingConfig config;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ExecutorProvider executorProvider;
+
+    HttpClient client;
+
+    @PostConstruct
+    void init() {
+        client = HttpClient.newBuilder()
+            .connectTimeout(config.sinks().webhook().timeout())
+            .executor(executorProvider.blockingExecutor())
+            .build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public boolean enabled() {
+        return config.sinks().webhook().enabled();
+    }
+
+    @Override
+    public void deliver(List<Alert> alerts) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.sinks().webhook().url()))
+            .timeout(config.sinks().webhook().timeout())
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(alerts)))
+            .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Alert webhook returned " + response.statusCode());
+        }
+    }
+}
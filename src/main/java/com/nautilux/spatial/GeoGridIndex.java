@@ -0,0 +1,254 @@
+package com.nautilux.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * In-memory point index on an equal-angle lat/lon grid.
+ *
+ * Each occupied cell holds its points in immutable parallel arrays that are
+ * replaced on write, so queries never lock and never see a half-updated cell.
+ * Radius queries scan only the cells covering the exact great-circle bounding
+ * box (split across the antimeridian, widened to every longitude when the
+ * circle contains a pole) and then filter by Haversine distance.
+ */
+public class GeoGridIndex {
+
+    public record Hit(long id, double latitude, double longitude, double distanceKm) {
+    }
+
+    private record Point(double latitude, double longitude, int cell) {
+    }
+
+    private static final class Cell {
+        static final Cell EMPTY = new Cell(new long[0], new double[0], new double[0]);
+
+        final long[] ids;
+        final double[] latitudes;
+        final double[] longitudes;
+
+        Cell(long[] ids, double[] latitudes, double[] longitudes) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        Cell with(long id, double latitude, double longitude) {
+            int n = ids.length;
+            long[] newIds = Arrays.copyOf(ids, n + 1);
+            double[] newLatitudes = Arrays.copyOf(latitudes, n + 1);
+            double[] newLongitudes = Arrays.copyOf(longitudes, n + 1);
+            newIds[n] = id;
+            newLatitudes[n] = latitude;
+            newLongitudes[n] = longitude;
+            return new Cell(newIds, newLatitudes, newLongitudes);
+        }
+
+        Cell without(long id) {
+            int n = ids.length;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    if (n == 1) {
+                        return null;
+                    }
+                    long[] newIds = new long[n - 1];
+                    double[] newLatitudes = new double[n - 1];
+                    double[] newLongitudes = new double[n - 1];
+                    System.arraycopy(ids, 0, newIds, 0, i);
+                    System.arraycopy(ids, i + 1, newIds, i, n - i - 1);
+                    System.arraycopy(latitudes, 0, newLatitudes, 0, i);
+                    System.arraycopy(latitudes, i + 1, newLatitudes, i, n - i - 1);
+                    System.arraycopy(longitudes, 0, newLongitudes, 0, i);
+                    System.arraycopy(longitudes, i + 1, newLongitudes, i, n - i - 1);
+                    return new Cell(newIds, newLatitudes, newLongitudes);
+                }
+            }
+            return this;
+        }
+    }
+
+    private final double cellDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+    private final Map<Integer, Cell> cells = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        long longitudeCells = Math.round(360.0 / cellDegrees);
+        if (!(cellDegrees > 0.0) || cellDegrees > 90.0 || Math.abs(longitudeCells * cellDegrees - 360.0) > 1e-9) {
+            throw new IllegalArgumentException("Cell size must divide 360 and be at most 90 degrees: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.latitudeCells = (int) longitudeCells / 2;
+        this.longitudeCells = (int) longitudeCells;
+    }
+
+    public synchronized void put(long id, double latitude, double longitude) {
+        if (!GeoMath.isValidLatitude(latitude) || Double.isNaN(longitude) || Double.isInfinite(longitude)) {
+            remove(id);
+            return;
+        }
+        double lon = GeoMath.normalizeLongitude(longitude);
+        Point point = new Point(latitude, lon, cellOf(latitude, lon));
+        Point previous = points.put(id, point);
+        if (previous != null) {
+            cells.computeIfPresent(previous.cell(), (cell, content) -> content.without(id));
+        }
+        cells.compute(point.cell(), (cell, content) ->
+            (content == null ? Cell.EMPTY : content).with(id, latitude, lon));
+    }
+
+    public synchronized void remove(long id) {
+        Point previous = points.remove(id);
+        if (previous != null) {
+            cells.computeIfPresent(previous.cell(), (cell, content) -> content.without(id));
+        }
+    }
+
+    public synchronized void clear() {
+        points.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    // Every point within radiusKm of the origin, unordered
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm) {
+        List<Hit> hits = new ArrayList<>();
+        if (!(radiusKm >= 0.0) || points.isEmpty()) {
+            return hits;
+        }
+        double lon = GeoMath.normalizeLongitude(longitude);
+        double angularDegrees = Math.toDegrees(radiusKm / GeoMath.EARTH_RADIUS_KM);
+        double minLatitude = latitude - angularDegrees;
+        double maxLatitude = latitude + angularDegrees;
+
+        int firstColumn;
+        int columns;
+        if (minLatitude <= -90.0 || maxLatitude >= 90.0 || angularDegrees >= 90.0) {
+            // The circle contains a pole: every meridian crosses it
+            firstColumn = 0;
+            columns = longitudeCells;
+        } else {
+            double halfWidth = Math.toDegrees(Math.asin(
+                Math.sin(Math.toRadians(angularDegrees)) / Math.cos(Math.toRadians(latitude))));
+            firstColumn = column(lon - halfWidth);
+            columns = Math.min(longitudeCells, column(lon + halfWidth) - firstColumn + 1);
+        }
+        int firstRow = row(Math.max(-90.0, minLatitude));
+        int lastRow = row(Math.min(90.0, maxLatitude));
+
+        long candidateCells = (long) (lastRow - firstRow + 1) * columns;
+        if (candidateCells > cells.size()) {
+            for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+                int cell = entry.getKey();
+                int row = cell / longitudeCells;
+                int column = cell % longitudeCells;
+                if (row >= firstRow && row <= lastRow
+                        && Math.floorMod(column - firstColumn, longitudeCells) < columns) {
+                    collect(entry.getValue(), latitude, lon, radiusKm, hits);
+                }
+            }
+        } else {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int c = 0; c < columns; c++) {
+                    Cell content = cells.get(row * longitudeCells + Math.floorMod(firstColumn + c, longitudeCells));
+                    if (content != null) {
+                        collect(content, latitude, lon, radiusKm, hits);
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    /*
+     * The k points closest to the origin, nearest first, optionally bounded by
+     * maxRadiusKm. Widens a radius search until it holds k points: every point
+     * outside the radius is farther than every point inside, so the first k of
+     * the sorted hits are exact.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        if (k <= 0 || points.isEmpty()) {
+            return List.of();
+        }
+        double limit = Math.min(maxRadiusKm, Math.PI * GeoMath.EARTH_RADIUS_KM);
+        double radius = Math.min(limit, cellDegrees * 111.0);
+        List<Hit> hits;
+        while (true) {
+            hits = withinRadius(latitude, longitude, radius);
+            if (hits.size() >= k || radius >= limit) {
+                break;
+            }
+            radius = Math.min(limit, radius * 4.0);
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits;
+    }
+
+    // Points inside the box; minLongitude > maxLongitude means the box crosses the antimeridian
+    public List<Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<Hit> hits = new ArrayList<>();
+        if (minLatitude > maxLatitude || points.isEmpty()) {
+            return hits;
+        }
+        boolean fullCircle = maxLongitude - minLongitude >= 360.0;
+        double west = GeoMath.normalizeLongitude(minLongitude);
+        double east = maxLongitude == 180.0 ? 180.0 : GeoMath.normalizeLongitude(maxLongitude);
+        boolean wraps = !fullCircle && west > east;
+
+        int firstRow = row(Math.max(-90.0, minLatitude));
+        int lastRow = row(Math.min(90.0, maxLatitude));
+        int firstColumn = fullCircle ? 0 : column(west);
+        int columns = fullCircle ? longitudeCells
+            : Math.floorMod(Math.min(longitudeCells - 1, column(east)) - firstColumn, longitudeCells) + 1;
+
+        for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+            int cell = entry.getKey();
+            int row = cell / longitudeCells;
+            if (row < firstRow || row > lastRow
+                    || Math.floorMod(cell % longitudeCells - firstColumn, longitudeCells) >= columns) {
+                continue;
+            }
+            Cell content = entry.getValue();
+            for (int i = 0; i < content.ids.length; i++) {
+                double lat = content.latitudes[i];
+                double lon = content.longitudes[i];
+                boolean inLongitude = fullCircle
+                    || (wraps ? lon >= west || lon <= east : lon >= west && lon <= east);
+                if (lat >= minLatitude && lat <= maxLatitude && inLongitude) {
+                    hits.add(new Hit(content.ids[i], lat, lon, Double.NaN));
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static void collect(Cell content, double latitude, double longitude, double radiusKm, List<Hit> hits) {
+        for (int i = 0; i < content.ids.length; i++) {
+            double distance = GeoMath.haversineKm(latitude, longitude, content.latitudes[i], content.longitudes[i]);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(content.ids[i], content.latitudes[i], content.longitudes[i], distance));
+            }
+        }
+    }
+
+    private int cellOf(double latitude, double longitude) {
+        return row(latitude) * longitudeCells + Math.floorMod(column(longitude), longitudeCells);
+    }
+
+    private int row(double latitude) {
+        return Math.min(latitudeCells - 1, (int) Math.floor((latitude + 90.0) / cellDegrees));
+    }
+
+    // Unwrapped column; callers reduce it modulo longitudeCells
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellDegrees);
+    }
+}
@@ -0,0 +1,33 @@
+package com.nautilux.spatial;
+
+// Spherical-earth helpers; distances are great-circle kilometres on the mean earth radius
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private GeoMath() {
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinDLat = Math.sin((phi2 - phi1) / 2.0);
+        double sinDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2.0);
+        double h = sinDLat * sinDLat + Math.cos(phi1) * Math.cos(phi2) * sinDLon * sinDLon;
+        return 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, h)));
+    }
+
+    // Maps any longitude into [-180, 180)
+    public static double normalizeLongitude(double longitude) {
+        double normalized = ((longitude + 180.0) % 360.0 + 360.0) % 360.0 - 180.0;
+        return normalized == 180.0 ? -180.0 : normalized;
+    }
+
+    public static boolean isValidLatitude(double latitude) {
+        return latitude >= -90.0 && latitude <= 90.0;
+    }
+
+    public static boolean isValidLongitude(double longitude) {
+        return longitude >= -180.0 && longitude <= 180.0;
+    }
+}
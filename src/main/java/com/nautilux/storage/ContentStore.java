@@ -0,0 +1,205 @@
+package com.nautilux.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+ * Content-addressed object store: each object lives at <root>/<h[0..2]>/<h[2..4]>/<sha256>,
+ * so identical content is stored once and no directory grows past 65536 shards.
+ *
+ * Objects are written to <root>/.tmp first, hashed on the way through, then renamed into
+ * place; when the hash is already present the temp file is dropped instead. Streams go
+ * through one fixed direct buffer and files are hashed through a read-only mapping and
+ * copied with FileChannel.transferTo, so memory use does not depend on the object size.
+ *
+ * Objects are never removed when the rows pointing at them go away; sweeps delete the
+ * ones no row references. A put that finds its content already present touches the
+ * object, and a sweep only deletes objects untouched since its cutoff, so content that
+ * is being referenced again survives the sweep.
+ */
+public class ContentStore {
+
+    public record StoredObject(String hash, Path path, long sizeBytes, boolean deduplicated) {}
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long MAP_WINDOW_BYTES = 1L << 26;
+    private static final int HASH_LENGTH = 64;
+
+    private final Path root;
+    private final Path temp;
+
+    public ContentStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.temp = this.root.resolve(".tmp");
+        Files.createDirectories(temp);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    public Path resolve(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    // Streams the source to disk while hashing it; fails as soon as more than maxBytes arrive
+    public StoredObject put(InputStream source, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path staged = Files.createTempFile(temp, "put-", ".part");
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(source);
+             FileChannel out = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new ObjectTooLargeException(maxBytes);
+                }
+                buffer.mark();
+                digest.update(buffer);
+                buffer.reset();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return commit(staged, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    // Files are hashed in place first, so a duplicate is never copied at all
+    public StoredObject put(Path source, long maxBytes) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size > maxBytes) {
+                throw new ObjectTooLargeException(maxBytes);
+            }
+            MessageDigest digest = sha256();
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MAP_WINDOW_BYTES, size - position));
+                digest.update(window);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            if (touch(resolve(hash))) {
+                return new StoredObject(hash, resolve(hash), size, true);
+            }
+
+            Path staged = Files.createTempFile(temp, "put-", ".part");
+            try (FileChannel out = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(staged);
+                throw e;
+            }
+            return commit(staged, hash, size);
+        }
+    }
+
+    private StoredObject commit(Path staged, String hash, long size) throws IOException {
+        Path target = resolve(hash);
+        if (touch(target)) {
+            Files.deleteIfExists(staged);
+            return new StoredObject(hash, target, size, true);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return new StoredObject(hash, target, size, false);
+    }
+
+    // Hashes of objects untouched since the cutoff, handed over in batches of at most batchSize
+    public void forEachOlderThan(Instant cutoff, int batchSize, Consumer<List<String>> batch) throws IOException {
+        List<String> hashes = new ArrayList<>(batchSize);
+        try (Stream<Path> objects = Files.walk(root, 3)) {
+            Iterator<Path> iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                Path object = iterator.next();
+                // Only <h[0..2]>/<h[2..4]>/<sha256>; anything else sharing the root (temp files,
+                // the derivative cache) is not ours to sweep
+                String name = object.getFileName().toString();
+                if (name.length() != HASH_LENGTH || !resolve(name).equals(object) || !Files.isRegularFile(object)
+                    || !Files.getLastModifiedTime(object).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                hashes.add(object.getFileName().toString());
+                if (hashes.size() == batchSize) {
+                    batch.accept(List.copyOf(hashes));
+                    hashes.clear();
+                }
+            }
+        }
+        if (!hashes.isEmpty()) {
+            batch.accept(List.copyOf(hashes));
+        }
+    }
+
+    // Removes the object unless a put touched it after the cutoff
+    public boolean deleteIfOlderThan(String hash, Instant cutoff) throws IOException {
+        Path object = resolve(hash);
+        try {
+            if (!Files.getLastModifiedTime(object).toInstant().isBefore(cutoff)) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return Files.deleteIfExists(object);
+    }
+
+    // False when the object does not exist (or was swept), in which case the caller stores it again
+    private static boolean touch(Path object) throws IOException {
+        try {
+            Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
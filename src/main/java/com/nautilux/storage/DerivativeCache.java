@@ -0,0 +1,145 @@
+package com.nautilux.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/*
+ * Disk cache of derived files, one directory per content hash at <root>/<h[0..2]>/<hash>.
+ * Directories are built under <root>/.tmp and renamed into place whole, so a visible
+ * entry is always complete. Entries are evicted least recently used once their total
+ * size exceeds maxBytes; on startup the recency order is rebuilt from directory mtimes.
+ */
+public class DerivativeCache {
+
+    private final Path root;
+    private final Path temp;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public DerivativeCache(Path root, long maxBytes) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.temp = this.root.resolve(".tmp");
+        this.maxBytes = maxBytes;
+        if (Files.exists(temp)) {
+            delete(temp);
+        }
+        Files.createDirectories(temp);
+        load();
+    }
+
+    public Path resolve(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // Directory of a cached entry, marked as recently used, or null when absent
+    public synchronized Path get(String hash) {
+        return entries.get(hash) != null ? resolve(hash) : null;
+    }
+
+    public Path staging(String hash) {
+        return temp.resolve(hash + "-" + UUID.randomUUID());
+    }
+
+    public synchronized Path commit(String hash, Path staged) throws IOException {
+        Path target = resolve(hash);
+        if (entries.containsKey(hash)) {
+            delete(staged);
+            return target;
+        }
+        long bytes = sizeOf(staged);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(staged, target);
+        }
+        entries.put(hash, bytes);
+        totalBytes += bytes;
+        evict(hash);
+        return target;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> oldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && oldest.hasNext()) {
+            Map.Entry<String, Long> entry = oldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                delete(resolve(entry.getKey()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to evict derivatives " + entry.getKey(), e);
+            }
+            totalBytes -= entry.getValue();
+            oldest.remove();
+        }
+    }
+
+    private void load() throws IOException {
+        record Entry(String hash, long modified, long bytes) {}
+        List<Entry> found = new ArrayList<>();
+        try (Stream<Path> shards = Files.list(root)) {
+            for (Path shard : shards.filter(path -> !path.equals(temp) && Files.isDirectory(path)).toList()) {
+                try (Stream<Path> directories = Files.list(shard)) {
+                    for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                        BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+                        found.add(new Entry(directory.getFileName().toString(),
+                            attributes.lastModifiedTime().toMillis(), sizeOf(directory)));
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(Entry::modified));
+        for (Entry entry : found) {
+            entries.put(entry.hash(), entry.bytes());
+            totalBytes += entry.bytes();
+        }
+        if (!found.isEmpty()) {
+            evict(found.get(found.size() - 1).hash());
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            long bytes = 0;
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                bytes += Files.size(path);
+            }
+            return bytes;
+        }
+    }
+}
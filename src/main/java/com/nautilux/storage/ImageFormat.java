@@ -0,0 +1,89 @@
+package com.nautilux.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Image formats recognised from their leading magic bytes rather than the file name
+public enum ImageFormat {
+
+    JPEG("jpg", "image/jpeg"),
+    PNG("png", "image/png"),
+    TIFF("tiff", "image/tiff");
+
+    static final int HEADER_BYTES = 8;
+
+    public final String extension;
+    public final String mediaType;
+
+    ImageFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    // Supported-format lists use file extensions, so jpeg and tif are accepted as aliases
+    public boolean matches(String name) {
+        String lower = name.trim().toLowerCase();
+        return switch (this) {
+            case JPEG -> lower.equals("jpg") || lower.equals("jpeg");
+            case PNG -> lower.equals("png");
+            case TIFF -> lower.equals("tiff") || lower.equals("tif");
+        };
+    }
+
+    public static ImageFormat fromExtension(String extension) {
+        for (ImageFormat format : values()) {
+            if (format.matches(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    public static ImageFormat detect(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == '\r' && header[5] == '\n' && header[6] == 0x1A && header[7] == '\n') {
+            return PNG;
+        }
+        if (length >= 4 && ((header[0] == 'I' && header[1] == 'I' && header[2] == 42 && header[3] == 0)
+                || (header[0] == 'M' && header[1] == 'M' && header[2] == 0 && header[3] == 42))) {
+            return TIFF;
+        }
+        return null;
+    }
+
+    public static ImageFormat detect(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // fill the header or stop at end of file
+            }
+            return detect(header.array(), header.position());
+        }
+    }
+
+    // Peeks at the header of a stream wrapped with pushback(); the bytes are unread afterwards
+    public static ImageFormat detect(PushbackInputStream stream) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        int length = 0;
+        int read;
+        while (length < header.length && (read = stream.read(header, length, header.length - length)) > 0) {
+            length += read;
+        }
+        if (length > 0) {
+            stream.unread(header, 0, length);
+        }
+        return detect(header, length);
+    }
+
+    public static PushbackInputStream pushback(InputStream stream) {
+        return new PushbackInputStream(stream, HEADER_BYTES);
+    }
+}
@@ -0,0 +1,193 @@
+package com.nautilux.storage;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Properties;
+
+/*
+ * Derivatives of one image, written into a single directory:
+ *
+ *   thumbnail.jpg              longest side at most thumbnailSize
+ *   <level>/<x>_<y>.jpg        tileSize tiles; level 0 fits in one tile, the last level is full resolution
+ *   pyramid.properties         width, height, tileSize, levels
+ *
+ * The source is decoded once; each level is cut from the previous one halved, so the
+ * whole set costs one full-resolution raster plus one level at a time. Dimensions are
+ * read from the header before decoding, and sources above maxPixels are rejected
+ * without allocating a raster.
+ */
+public final class ImagePyramid {
+
+    public static final String THUMBNAIL = "thumbnail.jpg";
+    public static final String MEDIA_TYPE = "image/jpeg";
+    private static final String MANIFEST = "pyramid.properties";
+
+    public record Pyramid(int width, int height, int tileSize, int levels) {
+
+        public int columns(int level) {
+            return Math.max(1, (int) Math.ceil(levelWidth(level) / (double) tileSize));
+        }
+
+        public int rows(int level) {
+            return Math.max(1, (int) Math.ceil(levelHeight(level) / (double) tileSize));
+        }
+
+        public int levelWidth(int level) {
+            return Math.max(1, width >> (levels - 1 - level));
+        }
+
+        public int levelHeight(int level) {
+            return Math.max(1, height >> (levels - 1 - level));
+        }
+
+        public boolean contains(int level, int x, int y) {
+            return level >= 0 && level < levels && x >= 0 && x < columns(level) && y >= 0 && y < rows(level);
+        }
+    }
+
+    private ImagePyramid() {
+    }
+
+    public static Path tile(Path directory, int level, int x, int y) {
+        return directory.resolve(Integer.toString(level)).resolve(x + "_" + y + ".jpg");
+    }
+
+    public static Pyramid write(Path source, Path directory, int tileSize, int thumbnailSize, float quality,
+                                long maxPixels) throws IOException {
+        BufferedImage image = decode(source, maxPixels);
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int levels = 1;
+        while (Math.max(width >> (levels - 1), height >> (levels - 1)) > tileSize) {
+            levels++;
+        }
+        Pyramid pyramid = new Pyramid(width, height, tileSize, levels);
+        Files.createDirectories(directory);
+
+        BufferedImage level = rgb(image);
+        boolean thumbnailWritten = false;
+        for (int z = levels - 1; z >= 0; z--) {
+            if (!thumbnailWritten && Math.max(level.getWidth(), level.getHeight()) <= 2 * thumbnailSize) {
+                writeJpeg(fit(level, thumbnailSize), directory.resolve(THUMBNAIL), quality);
+                thumbnailWritten = true;
+            }
+            Path levelDirectory = Files.createDirectories(directory.resolve(Integer.toString(z)));
+            for (int y = 0; y < pyramid.rows(z); y++) {
+                for (int x = 0; x < pyramid.columns(z); x++) {
+                    int tileX = x * tileSize;
+                    int tileY = y * tileSize;
+                    BufferedImage tile = level.getSubimage(tileX, tileY,
+                        Math.min(tileSize, level.getWidth() - tileX), Math.min(tileSize, level.getHeight() - tileY));
+                    writeJpeg(tile, levelDirectory.resolve(x + "_" + y + ".jpg"), quality);
+                }
+            }
+            if (z > 0) {
+                level = scale(level, pyramid.levelWidth(z - 1), pyramid.levelHeight(z - 1));
+            }
+        }
+        if (!thumbnailWritten) {
+            writeJpeg(fit(level, thumbnailSize), directory.resolve(THUMBNAIL), quality);
+        }
+
+        Properties manifest = new Properties();
+        manifest.setProperty("width", Integer.toString(width));
+        manifest.setProperty("height", Integer.toString(height));
+        manifest.setProperty("tileSize", Integer.toString(tileSize));
+        manifest.setProperty("levels", Integer.toString(levels));
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(MANIFEST))) {
+            manifest.store(writer, null);
+        }
+        return pyramid;
+    }
+
+    private static BufferedImage decode(Path source, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new UndecodableImageException("No image decoder for " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new UndecodableImageException(String.format("%s is %dx%d, above the %d pixel limit",
+                        source.getFileName(), width, height, maxPixels));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (UndecodableImageException e) {
+            throw e;
+        } catch (IIOException | RuntimeException e) {
+            throw new UndecodableImageException("Cannot decode " + source.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static Pyramid read(Path directory) throws IOException {
+        Properties manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(MANIFEST))) {
+            manifest.load(reader);
+        }
+        return new Pyramid(
+            Integer.parseInt(manifest.getProperty("width")),
+            Integer.parseInt(manifest.getProperty("height")),
+            Integer.parseInt(manifest.getProperty("tileSize")),
+            Integer.parseInt(manifest.getProperty("levels")));
+    }
+
+    private static BufferedImage fit(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, size / (double) Math.max(image.getWidth(), image.getHeight()));
+        return scale(image, Math.max(1, (int) Math.round(image.getWidth() * ratio)),
+            Math.max(1, (int) Math.round(image.getHeight() * ratio)));
+    }
+
+    private static BufferedImage rgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        return scale(image, image.getWidth(), image.getHeight());
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nautilux.storage;
+
+public class ObjectTooLargeException extends IllegalArgumentException {
+
+    private final long limitBytes;
+
+    public ObjectTooLargeException(long limitBytes) {
+        super("Object exceeds the " + limitBytes + " byte limit");
+        this.limitBytes = limitBytes;
+    }
+
+    public long limitBytes() {
+        return limitBytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.nautilux.storage;
+
+public class UndecodableImageException extends IllegalArgumentException {
+
+    public UndecodableImageException(String message) {
+        super(message);
+    }
+
+    public UndecodableImageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,117 @@
+package com.nautilux.tracing;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.NamedNode;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.spi.InterceptStrategy;
+import org.apache.camel.spi.RoutePolicy;
+import org.apache.camel.spi.RoutePolicyFactory;
+import org.apache.camel.support.RoutePolicySupport;
+import org.apache.camel.support.processor.DelegateAsyncProcessor;
+import org.apache.camel.util.URISupport;
+
+import java.util.Set;
+
+/*
+ * Carries traces through Camel. An exchange created while a trace is attached to
+ * the sending thread joins that trace; any other exchange entering a route is
+ * sampled as a trace of its own, named after the route. The trace and the
+ * innermost route span travel as exchange properties, so they survive threads()
+ * hand-offs and splits, and every processor re-attaches them to whichever thread
+ * runs it. Each route an exchange passes through is a route span; bean and to
+ * steps are camel spans inside it.
+ */
+@ApplicationScoped
+public class CamelTracing implements RoutePolicyFactory, InterceptStrategy {
+
+    private static final String ROUTE_SPAN = "nautilux.trace.span";
+    private static final String ROOT_ROUTE = "nautilux.trace.root";
+    private static final Set<String> TIMED_STEPS = Set.of("bean", "to", "toD", "enrich", "pollEnrich");
+
+    @Inject
+    TraceRecorder recorder;
+
+    @Override
+    public RoutePolicy createRoutePolicy(CamelContext camelContext, String routeId, NamedNode route) {
+        return new RoutePolicySupport() {
+            @Override
+            public void onExchangeBegin(Route route, Exchange exchange) {
+                begin(routeId, exchange);
+            }
+
+            @Override
+            public void onExchangeDone(Route route, Exchange exchange) {
+                done(routeId, exchange);
+            }
+        };
+    }
+
+    private void begin(String routeId, Exchange exchange) {
+        Trace trace = exchange.getProperty(Trace.PROPERTY, Trace.class);
+        if (trace == null) {
+            trace = Tracing.current();
+            if (trace == null) {
+                if (!recorder.sample(exchange.getMessage().getHeader(TraceRecorder.FORCE_HEADER) != null)) {
+                    return;
+                }
+                trace = recorder.start(routeId, exchange.getFromEndpoint() != null
+                    ? URISupport.sanitizeUri(exchange.getFromEndpoint().getEndpointUri()) : null);
+                exchange.setProperty(ROOT_ROUTE, routeId);
+            }
+            exchange.setProperty(Trace.PROPERTY, trace);
+        }
+        // Nested under the step that sent it here when that ran on this thread
+        Span parent = Tracing.current() == trace ? Tracing.currentSpan() : exchange.getProperty(ROUTE_SPAN, Span.class);
+        Span span = Tracing.detached(trace, parent, "route", routeId, null).span();
+        if (span != null) {
+            exchange.setProperty(ROUTE_SPAN, span);
+        }
+    }
+
+    private void done(String routeId, Exchange exchange) {
+        Trace trace = exchange.getProperty(Trace.PROPERTY, Trace.class);
+        if (trace == null) {
+            return;
+        }
+        Span span = exchange.getProperty(ROUTE_SPAN, Span.class);
+        if (span != null && "route".equals(span.kind) && routeId.equals(span.name)) {
+            span.end();
+            Span parent = span.parent;
+            while (parent != null && !"route".equals(parent.kind)) {
+                parent = parent.parent;
+            }
+            if (parent != null) {
+                exchange.setProperty(ROUTE_SPAN, parent);
+            } else {
+                exchange.removeProperty(ROUTE_SPAN);
+            }
+        }
+        if (routeId.equals(exchange.getProperty(ROOT_ROUTE))) {
+            recorder.finish(trace, exchange.isFailed() ? "failed" : "completed");
+        }
+    }
+
+    @Override
+    public Processor wrapProcessorInInterceptors(CamelContext context, NamedNode definition, Processor target,
+                                                 Processor nextTarget) {
+        String label = TIMED_STEPS.contains(definition.getShortName()) ? definition.getLabel() : null;
+        return new DelegateAsyncProcessor(target) {
+            @Override
+            public boolean process(Exchange exchange, AsyncCallback callback) {
+                Trace trace = exchange.getProperty(Trace.PROPERTY, Trace.class);
+                if (trace == null) {
+                    return processor.process(exchange, callback);
+                }
+                try (Tracing.Scope attached = Tracing.attach(trace, exchange.getProperty(ROUTE_SPAN, Span.class));
+                     Tracing.Scope span = label != null ? Tracing.span("camel", label, null) : Tracing.Scope.NOOP) {
+                    return processor.process(exchange, callback);
+                }
+            }
+        };
+    }
+}
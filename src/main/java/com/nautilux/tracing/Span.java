@@ -0,0 +1,30 @@
+package com.nautilux.tracing;
+
+// One timed step of a trace; parent is null for spans directly under the request
+final class Span {
+
+    final int id;
+    final Span parent;
+    final String kind;
+    final String name;
+    final String detail;
+    final long startNanos;
+    volatile long durationNanos = -1;
+    // Rows returned by a statement, written only by the thread that opened the span; -1 when not applicable
+    volatile long rows = -1;
+
+    Span(int id, Span parent, String kind, String name, String detail, long startNanos) {
+        this.id = id;
+        this.parent = parent;
+        this.kind = kind;
+        this.name = name;
+        this.detail = detail;
+        this.startNanos = startNanos;
+    }
+
+    void end() {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.nautilux.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The spans recorded for one request or Camel exchange. Spans may be opened from
+ * several threads (Ray batches complete on the HTTP client's executor), so the
+ * span list is guarded by the trace. Beyond maxSpans further spans are counted
+ * but not kept, so a request that loops over thousands of statements stays bounded.
+ */
+public final class Trace {
+
+    public static final String PROPERTY = "nautilux.trace";
+
+    public record SpanView(int id, int parentId, String kind, String name, String detail, double offsetMillis,
+                           Double durationMillis, Long rows) {
+    }
+
+    // Self time per span kind: a span's duration minus that of its children, so nothing counts twice
+    public record KindTotal(int count, double selfMillis, long rows) {
+    }
+
+    public record View(String id, String name, String detail, String outcome, Instant startedAt,
+                       double durationMillis, int droppedSpans, Map<String, KindTotal> breakdown,
+                       List<SpanView> spans) {
+    }
+
+    private final String id;
+    private final String name;
+    private final String detail;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private int dropped;
+    private volatile long durationNanos = -1;
+    private volatile String outcome;
+
+    Trace(String id, String name, String detail, int maxSpans) {
+        this.id = id;
+        this.name = name;
+        this.detail = detail;
+        this.maxSpans = maxSpans;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean finished() {
+        return durationNanos >= 0;
+    }
+
+    long durationNanos() {
+        return durationNanos;
+    }
+
+    synchronized Span open(String kind, String spanName, String spanDetail, Span parent) {
+        if (finished() || spans.size() >= maxSpans) {
+            dropped++;
+            return null;
+        }
+        Span span = new Span(spans.size() + 1, parent, kind, spanName, spanDetail, System.nanoTime());
+        spans.add(span);
+        return span;
+    }
+
+    // False if the trace was already finished
+    synchronized boolean finish(String result) {
+        if (finished()) {
+            return false;
+        }
+        outcome = result;
+        durationNanos = System.nanoTime() - startNanos;
+        return true;
+    }
+
+    public synchronized View view() {
+        long total = finished() ? durationNanos : System.nanoTime() - startNanos;
+        long[] childNanos = new long[spans.size() + 1];
+        List<SpanView> views = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            long duration = span.durationNanos;
+            if (duration >= 0) {
+                childNanos[span.parent == null ? 0 : span.parent.id] += duration;
+            }
+            long rows = span.rows;
+            views.add(new SpanView(span.id, span.parent == null ? 0 : span.parent.id, span.kind, span.name,
+                span.detail, millis(span.startNanos - startNanos), duration >= 0 ? millis(duration) : null,
+                rows >= 0 ? rows : null));
+        }
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        totals.put("request", new long[] {1, Math.max(0, total - childNanos[0]), 0});
+        for (Span span : spans) {
+            long duration = span.durationNanos;
+            if (duration < 0) {
+                continue;
+            }
+            long[] kind = totals.computeIfAbsent(span.kind, key -> new long[3]);
+            kind[0]++;
+            kind[1] += Math.max(0, duration - childNanos[span.id]);
+            kind[2] += Math.max(0, span.rows);
+        }
+        Map<String, KindTotal> breakdown = new LinkedHashMap<>();
+        totals.forEach((kind, sums) -> breakdown.put(kind, new KindTotal((int) sums[0], millis(sums[1]), sums[2])));
+
+        return new View(id, name, detail, outcome, startedAt, millis(total), dropped, breakdown, views);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
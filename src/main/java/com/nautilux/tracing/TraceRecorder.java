@@ -0,0 +1,93 @@
+package com.nautilux.tracing;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Starts sampled traces and keeps the last tracing.retained finished ones in
+ * memory for the admin endpoint; nothing is exported. A request carrying the
+ * X-Nautilux-Trace header is always traced while tracing is enabled.
+ */
+@ApplicationScoped
+public class TraceRecorder {
+
+    public static final String FORCE_HEADER = "X-Nautilux-Trace";
+    public static final String ID_HEADER = "X-Trace-Id";
+
+    @ConfigProperty(name = "tracing.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "tracing.sample-rate", defaultValue = "0.1")
+    double sampleRate;
+
+    @ConfigProperty(name = "tracing.retained", defaultValue = "500")
+    int retained;
+
+    @ConfigProperty(name = "tracing.max-spans", defaultValue = "500")
+    int maxSpans;
+
+    @ConfigProperty(name = "tracing.min-duration", defaultValue = "PT0S")
+    Duration minDuration;
+
+    private Trace[] recent;
+    private int next;
+
+    // Decided before a trace is named, so unsampled work builds no strings
+    public boolean sample(boolean forced) {
+        return enabled && (forced || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public Trace start(String name, String detail) {
+        return new Trace(Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE), name, detail,
+            maxSpans);
+    }
+
+    // Traces faster than tracing.min-duration are dropped rather than retained
+    public void finish(Trace trace, String outcome) {
+        if (trace == null || !trace.finish(outcome) || trace.durationNanos() < minDuration.toNanos()) {
+            return;
+        }
+        synchronized (this) {
+            if (recent == null) {
+                recent = new Trace[Math.max(1, retained)];
+            }
+            recent[next] = trace;
+            next = (next + 1) % recent.length;
+        }
+    }
+
+    public List<Trace.View> slowest(int limit, Duration atLeast) {
+        List<Trace> candidates = new ArrayList<>();
+        synchronized (this) {
+            if (recent == null) {
+                return List.of();
+            }
+            for (Trace trace : recent) {
+                if (trace != null && trace.durationNanos() >= atLeast.toNanos()) {
+                    candidates.add(trace);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Trace::durationNanos).reversed());
+        return candidates.stream().limit(Math.max(0, limit)).map(Trace::view).toList();
+    }
+
+    public Trace.View find(String id) {
+        synchronized (this) {
+            if (recent != null) {
+                for (Trace trace : recent) {
+                    if (trace != null && trace.id().equals(id)) {
+                        return trace.view();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nautilux.tracing;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Starts a sampled trace for each call to the annotated REST resource and records
+ * the resource method as its first span. Only for blocking endpoints: the trace
+ * is bound to the thread that runs the method.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Traced {
+}
@@ -0,0 +1,47 @@
+package com.nautilux.tracing;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Outermost, so the resource span covers transactions, budgets and timers of the call
+@Traced
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class TracedInterceptor {
+
+    @Inject
+    TraceRecorder recorder;
+
+    @Inject
+    RoutingContext routing;
+
+    private final ConcurrentHashMap<Method, String> names = new ConcurrentHashMap<>();
+
+    @AroundInvoke
+    Object trace(InvocationContext context) throws Exception {
+        HttpServerRequest request = routing.request();
+        if (!recorder.sample(request.getHeader(TraceRecorder.FORCE_HEADER) != null)) {
+            return context.proceed();
+        }
+        String name = names.computeIfAbsent(context.getMethod(),
+            method -> method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        Trace trace = recorder.start(name, request.method() + " " + request.uri());
+
+        // Serialization happens after the method returns, so the trace ends with the response
+        routing.put(Trace.PROPERTY, trace);
+        routing.response().putHeader(TraceRecorder.ID_HEADER, trace.id());
+        routing.addEndHandler(result -> recorder.finish(trace, String.valueOf(routing.response().getStatusCode())));
+        try (Tracing.Scope attached = Tracing.attach(trace);
+             Tracing.Scope span = Tracing.span("resource", name, null)) {
+            return context.proceed();
+        }
+    }
+}
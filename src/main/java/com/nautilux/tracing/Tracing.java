@@ -0,0 +1,174 @@
+package com.nautilux.tracing;
+
+/*
+ * Thread-bound access to the trace being recorded. A trace is attached to a thread
+ * for the duration of a scope (a resource call, a serialization, a Camel step), and
+ * spans opened while it is attached nest under the innermost open span. With no
+ * trace attached every call returns a shared no-op scope, so instrumented code pays
+ * one ThreadLocal read and allocates nothing.
+ */
+public final class Tracing {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+    private static final ThreadLocal<Attachment> CURRENT = new ThreadLocal<>();
+
+    private static final class Attachment {
+        final Trace trace;
+        final Attachment previous;
+        Span span;
+        // Set by QueryCounter when Hibernate prepares a statement, consumed when it executes
+        String pendingSql;
+        Span lastStatement;
+
+        Attachment(Trace trace, Span span, Attachment previous) {
+            this.trace = trace;
+            this.span = span;
+            this.previous = previous;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        static final Scope NOOP = new Scope(null, false, null, null);
+
+        private final Attachment owner;
+        private final boolean attached;
+        private final Span span;
+        private final Span restore;
+        private boolean closed;
+
+        private Scope(Attachment owner, boolean attached, Span span, Span restore) {
+            this.owner = owner;
+            this.attached = attached;
+            this.span = span;
+            this.restore = restore;
+        }
+
+        Span span() {
+            return span;
+        }
+
+        public Scope rows(long rows) {
+            if (span != null) {
+                span.rows = rows;
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (closed || this == NOOP) {
+                return;
+            }
+            closed = true;
+            if (span != null) {
+                span.end();
+            }
+            if (owner == null) {
+                return;
+            }
+            if (attached) {
+                if (CURRENT.get() == owner) {
+                    if (owner.previous != null) {
+                        CURRENT.set(owner.previous);
+                    } else {
+                        CURRENT.remove();
+                    }
+                }
+            } else if (owner.span == span) {
+                owner.span = restore;
+            }
+        }
+    }
+
+    private Tracing() {
+    }
+
+    public static Trace current() {
+        Attachment attachment = CURRENT.get();
+        return attachment != null ? attachment.trace : null;
+    }
+
+    // The innermost open span on this thread, as a parent for spans that finish elsewhere
+    static Span currentSpan() {
+        Attachment attachment = CURRENT.get();
+        return attachment != null ? attachment.span : null;
+    }
+
+    // Binds the trace to this thread until the scope closes; new spans nest under parent
+    public static Scope attach(Trace trace) {
+        return attach(trace, null);
+    }
+
+    static Scope attach(Trace trace, Span parent) {
+        if (trace == null || trace.finished()) {
+            return Scope.NOOP;
+        }
+        Attachment attachment = new Attachment(trace, parent, CURRENT.get());
+        CURRENT.set(attachment);
+        return new Scope(attachment, true, null, null);
+    }
+
+    // A span that nests everything opened on this thread until it closes
+    public static Scope span(String kind, String name, String detail) {
+        Attachment attachment = CURRENT.get();
+        if (attachment == null) {
+            return Scope.NOOP;
+        }
+        Span span = attachment.trace.open(kind, name, detail, attachment.span);
+        if (span == null) {
+            return Scope.NOOP;
+        }
+        Span restore = attachment.span;
+        attachment.span = span;
+        return new Scope(attachment, false, span, restore);
+    }
+
+    // A span that may be closed from another thread, such as an asynchronous HTTP call
+    public static Scope detached(String kind, String name, String detail) {
+        Attachment attachment = CURRENT.get();
+        if (attachment == null) {
+            return Scope.NOOP;
+        }
+        Span span = attachment.trace.open(kind, name, detail, attachment.span);
+        return span == null ? Scope.NOOP : new Scope(null, false, span, null);
+    }
+
+    static Scope detached(Trace trace, Span parent, String kind, String name, String detail) {
+        Span span = trace.open(kind, name, detail, parent);
+        return span == null ? Scope.NOOP : new Scope(null, false, span, null);
+    }
+
+    public static void statementPrepared(String sql) {
+        Attachment attachment = CURRENT.get();
+        if (attachment != null) {
+            attachment.pendingSql = sql;
+        }
+    }
+
+    public static Scope statementStarted(String kind) {
+        Attachment attachment = CURRENT.get();
+        if (attachment == null) {
+            return Scope.NOOP;
+        }
+        String sql = attachment.pendingSql;
+        attachment.pendingSql = null;
+        if (sql != null && sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        Scope scope = span("sql", kind, sql);
+        attachment.lastStatement = scope.span;
+        if (scope.span != null) {
+            scope.span.rows = 0;
+        }
+        return scope;
+    }
+
+    // Counts an entity Hibernate built from the rows of the last statement
+    public static void rowLoaded() {
+        Attachment attachment = CURRENT.get();
+        if (attachment != null && attachment.lastStatement != null) {
+            attachment.lastStatement.rows++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.nautilux.tracing;
+
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+// Times entity serialization of traced requests, including any lazy loading it triggers
+@Provider
+public class TracingWriterInterceptor implements WriterInterceptor {
+
+    @Inject
+    RoutingContext routing;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Trace trace = routing.get(Trace.PROPERTY);
+        if (trace == null) {
+            context.proceed();
+            return;
+        }
+        try (Tracing.Scope attached = Tracing.attach(trace);
+             Tracing.Scope span = Tracing.span("serialize", context.getType().getSimpleName(),
+                 context.getMediaType() != null ? context.getMediaType().toString() : null)) {
+            context.proceed();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+-- One image row per content hash and reef, so concurrent uploads of the same
+-- content cannot both insert. NULLS NOT DISTINCT (PostgreSQL 15) makes images
+-- without a reef collide with each other too; rows from before content hashing
+-- (content_hash IS NULL) are left out.
+
+-- Duplicates that already slipped through are merged into one surviving row per
+-- (content_hash, reef_id): the oldest row whose analysis completed, else the oldest.
+CREATE TEMPORARY TABLE image_data_merge ON COMMIT DROP AS
+SELECT id AS duplicate_id, survivor_id
+FROM (SELECT id,
+             first_value(id) OVER (PARTITION BY content_hash, reef_id
+                                   ORDER BY COALESCE(analysis_status = 'COMPLETED', FALSE) DESC, id) AS survivor_id
+      FROM image_data
+      WHERE content_hash IS NOT NULL) ranked
+WHERE id <> survivor_id;
+
+-- Annotations of the duplicates move to the survivor
+UPDATE image_annotations a
+SET image_id = m.survivor_id
+FROM image_data_merge m
+WHERE a.image_id = m.duplicate_id;
+
+-- Capture details the survivor lacks are taken from its duplicates
+UPDATE image_data s
+SET zone_id = COALESCE(s.zone_id, d.zone_id),
+    file_name = COALESCE(s.file_name, d.file_name),
+    image_width = COALESCE(s.image_width, d.image_width),
+    image_height = COALESCE(s.image_height, d.image_height),
+    capture_timestamp = COALESCE(s.capture_timestamp, d.capture_timestamp),
+    camera_type = COALESCE(s.camera_type, d.camera_type),
+    depth_meters = COALESCE(s.depth_meters, d.depth_meters),
+    water_conditions = COALESCE(s.water_conditions, d.water_conditions),
+    updated_at = CURRENT_TIMESTAMP
+FROM (SELECT m.survivor_id,
+             min(i.zone_id) AS zone_id,
+             min(i.file_name) AS file_name,
+             max(i.image_width) AS image_width,
+             max(i.image_height) AS image_height,
+             min(i.capture_timestamp) AS capture_timestamp,
+             min(i.camera_type) AS camera_type,
+             min(i.depth_meters) AS depth_meters,
+             min(i.water_conditions) AS water_conditions
+      FROM image_data_merge m
+      JOIN image_data i ON i.id = m.duplicate_id
+      GROUP BY m.survivor_id) d
+WHERE s.id = d.survivor_id;
+
+-- Duplicates share the survivor's content hash and so its stored object; removing
+-- them leaves no content behind (StorageService sweeps unreferenced objects anyway)
+DELETE FROM image_data i
+USING image_data_merge m
+WHERE i.id = m.duplicate_id;
+
+CREATE UNIQUE INDEX uq_image_data_content_hash_reef ON image_data(content_hash, reef_id) NULLS NOT DISTINCT
+    WHERE content_hash IS NOT NULL;
+
+-- Lookups by hash alone are served by the leading column of the unique index
+DROP INDEX idx_image_data_content_hash;
@@ -0,0 +1,46 @@
+-- One reading per sensor and timestamp, so a sensor file that is dropped again
+-- after a partially committed load (bulk load batches commit independently)
+-- adds only the rows that are still missing. SensorBatchWriter inserts with
+-- ON CONFLICT DO NOTHING; the rollup trigger's transition table only holds the
+-- rows actually inserted, so rollups are not counted twice either.
+-- NULLS NOT DISTINCT (PostgreSQL 15) makes readings without a sensor id or zone
+-- collide per reef and sensor type.
+
+-- Readings that were loaded twice already are removed, keeping the oldest row.
+-- Rows sharing a key but carrying different values are not guessed between: the
+-- migration stops and lists them so they can be resolved by hand.
+CREATE TEMPORARY TABLE sensor_data_duplicates ON COMMIT DROP AS
+SELECT id, timestamp, reading, first_value(reading) OVER w AS kept, id <> first_value(id) OVER w AS duplicate
+FROM (SELECT id, reef_id, zone_id, sensor_type, sensor_id, timestamp,
+             ROW(temperature_celsius, salinity_ppt, ph_level, turbidity_ntu, dissolved_oxygen_mg_l,
+                 conductivity_ms_cm, pressure_bar, location_latitude, location_longitude,
+                 data_quality_score)::text AS reading,
+             count(*) OVER (PARTITION BY reef_id, sensor_type, sensor_id, timestamp) AS copies
+      FROM sensor_data) r
+WHERE copies > 1
+WINDOW w AS (PARTITION BY reef_id, sensor_type, sensor_id, timestamp ORDER BY id);
+
+DO $$
+DECLARE
+    conflicting TEXT;
+BEGIN
+    SELECT string_agg(id::text, ', ' ORDER BY id) INTO conflicting
+    FROM (SELECT id FROM sensor_data_duplicates WHERE reading IS DISTINCT FROM kept ORDER BY id LIMIT 50) c;
+    IF conflicting IS NOT NULL THEN
+        RAISE EXCEPTION 'sensor_data has readings with the same reef, type, sensor and timestamp but different values (ids %); resolve them before migrating', conflicting;
+    END IF;
+END;
+$$;
+
+DELETE FROM sensor_data s
+USING sensor_data_duplicates d
+WHERE s.id = d.id AND d.duplicate;
+
+-- The removed copies were counted into the rollups; rebuild the days they fell on
+SELECT sensor_rollups_rebuild(day, day + INTERVAL '1 day')
+FROM (SELECT DISTINCT date_trunc('day', timestamp) AS day
+      FROM sensor_data_duplicates
+      WHERE duplicate AND timestamp IS NOT NULL
+      ORDER BY 1) d;
+
+CREATE UNIQUE INDEX uq_sensor_data_reading ON sensor_data(reef_id, sensor_type, sensor_id, timestamp) NULLS NOT DISTINCT;
@@ -0,0 +1,61 @@
+-- Columns the JPA entities map but the initial schema never created, so that
+-- hibernate-orm.database.generation=validate passes. Fields that only differed
+-- in name were remapped onto the existing columns in the entities instead.
+-- The additions are nullable or have constant defaults and rewrite no table; only
+-- the small image_annotations table is rewritten for the area_pixels type change.
+
+ALTER TABLE reef_zones
+    ADD COLUMN area_square_meters DOUBLE PRECISION,
+    ADD COLUMN algae_coverage_percentage DOUBLE PRECISION,
+    ADD COLUMN sand_coverage_percentage DOUBLE PRECISION,
+    ADD COLUMN health_status VARCHAR(50) DEFAULT 'UNKNOWN',
+    ADD COLUMN biodiversity_index DOUBLE PRECISION DEFAULT 0.0;
+
+ALTER TABLE sensor_data
+    ADD COLUMN depth_meters DOUBLE PRECISION,
+    ADD COLUMN light_intensity_lux DOUBLE PRECISION,
+    ADD COLUMN current_speed_ms DOUBLE PRECISION,
+    ADD COLUMN current_direction_degrees DOUBLE PRECISION,
+    ADD COLUMN wave_height_meters DOUBLE PRECISION,
+    ADD COLUMN wave_period_seconds DOUBLE PRECISION,
+    ADD COLUMN raw_value TEXT,
+    ADD COLUMN unit VARCHAR(50),
+    ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE image_data
+    ADD COLUMN image_url VARCHAR(500),
+    ADD COLUMN image_format VARCHAR(50),
+    ADD COLUMN latitude DOUBLE PRECISION,
+    ADD COLUMN longitude DOUBLE PRECISION,
+    ADD COLUMN exposure_settings VARCHAR(255),
+    ADD COLUMN visibility_meters DOUBLE PRECISION,
+    ADD COLUMN species_detected TEXT,
+    ADD COLUMN ai_model_version VARCHAR(100);
+
+ALTER TABLE sonar_data
+    ADD COLUMN data_format VARCHAR(50),
+    ADD COLUMN latitude DOUBLE PRECISION,
+    ADD COLUMN longitude DOUBLE PRECISION,
+    ADD COLUMN pulse_length_ms DOUBLE PRECISION,
+    ADD COLUMN transmit_power_watts DOUBLE PRECISION,
+    ADD COLUMN beam_width_degrees DOUBLE PRECISION,
+    ADD COLUMN sampling_rate_hz DOUBLE PRECISION,
+    ADD COLUMN data_points INTEGER,
+    ADD COLUMN noise_level_db DOUBLE PRECISION,
+    ADD COLUMN target_strength_db DOUBLE PRECISION,
+    ADD COLUMN ai_model_version VARCHAR(100);
+
+ALTER TABLE image_annotations
+    ADD COLUMN common_name VARCHAR(255),
+    ADD COLUMN taxonomic_family VARCHAR(255),
+    ADD COLUMN taxonomic_genus VARCHAR(255),
+    ADD COLUMN taxonomic_species VARCHAR(255),
+    ADD COLUMN width_pixels DOUBLE PRECISION,
+    ADD COLUMN height_pixels DOUBLE PRECISION,
+    ADD COLUMN bleaching_severity INTEGER,
+    ADD COLUMN size_category VARCHAR(50),
+    ADD COLUMN color_description TEXT,
+    ADD COLUMN morphology_description TEXT,
+    ADD COLUMN ai_model_version VARCHAR(100),
+    -- Sub-pixel areas from the analysis model; integer values convert exactly
+    ALTER COLUMN area_pixels TYPE DOUBLE PRECISION;
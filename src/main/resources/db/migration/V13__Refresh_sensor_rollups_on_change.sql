@@ -0,0 +1,103 @@
+-- Keeps sensor rollups in step with readings that are updated or deleted, not
+-- only inserted: deleting a reef zone cascades into sensor_data, and so does
+-- deleting a reef (whose rollups cascade away with it).
+--
+-- Sums and counts could be subtracted, but minimum and maximum cannot, so the
+-- affected buckets are recomputed from the raw readings instead: every
+-- (reef, zone, sensor type, day) an updated or deleted row belonged to, at all
+-- three resolutions. Like sensor_rollups_rebuild, the refresh holds the day's
+-- advisory lock (class 7301) exclusively, so it waits for inserts into those
+-- days to commit and then reads them. Days of reefs deleted in the same
+-- transaction are skipped; their rollups are already gone.
+--
+-- Updates that leave the rolled-up columns alone refresh nothing. TRUNCATE is
+-- not covered; rebuild the affected range with sensor_rollups_rebuild after one.
+
+CREATE OR REPLACE FUNCTION sensor_rollups_refresh(reef_ids BIGINT[], zone_ids BIGINT[],
+                                                  sensor_types VARCHAR[], days DATE[]) RETURNS VOID AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(7301, d.day)
+    FROM (SELECT DISTINCT k.day - DATE '1970-01-01' AS day
+          FROM unnest(days) AS k(day)
+          ORDER BY 1) d;
+
+    DELETE FROM sensor_rollups r
+    USING unnest(reef_ids, zone_ids, sensor_types, days) AS k(reef_id, zone_id, sensor_type, day)
+    WHERE r.reef_id = k.reef_id AND r.zone_id = k.zone_id AND r.sensor_type = k.sensor_type
+      AND r.bucket_start >= k.day AND r.bucket_start < k.day + 1;
+
+    INSERT INTO sensor_rollups (
+        reef_id, zone_id, sensor_type, resolution, bucket_start, sample_count,
+        temperature_count, temperature_sum, temperature_min, temperature_max,
+        salinity_count, salinity_sum, salinity_min, salinity_max,
+        ph_count, ph_sum, ph_min, ph_max,
+        dissolved_oxygen_count, dissolved_oxygen_sum, dissolved_oxygen_min, dissolved_oxygen_max,
+        turbidity_count, turbidity_sum, turbidity_min, turbidity_max)
+    SELECT s.reef_id, COALESCE(s.zone_id, 0), s.sensor_type, res.resolution,
+           date_trunc(res.unit, s.timestamp), count(*),
+           count(s.temperature_celsius), COALESCE(sum(s.temperature_celsius), 0.0),
+           min(s.temperature_celsius), max(s.temperature_celsius),
+           count(s.salinity_ppt), COALESCE(sum(s.salinity_ppt), 0.0),
+           min(s.salinity_ppt), max(s.salinity_ppt),
+           count(s.ph_level), COALESCE(sum(s.ph_level), 0.0),
+           min(s.ph_level), max(s.ph_level),
+           count(s.dissolved_oxygen_mg_l), COALESCE(sum(s.dissolved_oxygen_mg_l), 0.0),
+           min(s.dissolved_oxygen_mg_l), max(s.dissolved_oxygen_mg_l),
+           count(s.turbidity_ntu), COALESCE(sum(s.turbidity_ntu), 0.0),
+           min(s.turbidity_ntu), max(s.turbidity_ntu)
+    FROM (SELECT DISTINCT * FROM unnest(reef_ids, zone_ids, sensor_types, days)) AS k(reef_id, zone_id, sensor_type, day)
+    JOIN sensor_data s ON s.reef_id = k.reef_id AND COALESCE(s.zone_id, 0) = k.zone_id
+                      AND s.sensor_type = k.sensor_type
+                      AND s.timestamp >= k.day AND s.timestamp < k.day + 1
+    CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS res(resolution, unit)
+    GROUP BY 1, 2, 3, 4, 5;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sensor_rollups_refresh_deleted() RETURNS trigger AS $$
+BEGIN
+    PERFORM sensor_rollups_refresh(array_agg(k.reef_id), array_agg(k.zone_id),
+                                   array_agg(k.sensor_type), array_agg(k.day))
+    FROM (SELECT DISTINCT o.reef_id, COALESCE(o.zone_id, 0) AS zone_id, o.sensor_type, o.timestamp::date AS day
+          FROM old_rows o
+          WHERE o.reef_id IS NOT NULL AND o.timestamp IS NOT NULL) k
+    WHERE EXISTS (SELECT 1 FROM coral_reefs c WHERE c.id = k.reef_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Both the old and the new bucket of a changed row are refreshed
+CREATE OR REPLACE FUNCTION sensor_rollups_refresh_updated() RETURNS trigger AS $$
+BEGIN
+    PERFORM sensor_rollups_refresh(array_agg(k.reef_id), array_agg(k.zone_id),
+                                   array_agg(k.sensor_type), array_agg(k.day))
+    FROM (WITH changed AS (
+              SELECT o.reef_id AS old_reef_id, COALESCE(o.zone_id, 0) AS old_zone_id,
+                     o.sensor_type AS old_sensor_type, o.timestamp::date AS old_day,
+                     n.reef_id AS new_reef_id, COALESCE(n.zone_id, 0) AS new_zone_id,
+                     n.sensor_type AS new_sensor_type, n.timestamp::date AS new_day
+              FROM old_rows o
+              JOIN new_rows n ON n.id = o.id
+              WHERE (o.reef_id, o.zone_id, o.sensor_type, o.timestamp, o.temperature_celsius, o.salinity_ppt,
+                     o.ph_level, o.dissolved_oxygen_mg_l, o.turbidity_ntu)
+                    IS DISTINCT FROM
+                    (n.reef_id, n.zone_id, n.sensor_type, n.timestamp, n.temperature_celsius, n.salinity_ppt,
+                     n.ph_level, n.dissolved_oxygen_mg_l, n.turbidity_ntu))
+          SELECT old_reef_id, old_zone_id, old_sensor_type, old_day FROM changed
+          UNION
+          SELECT new_reef_id, new_zone_id, new_sensor_type, new_day FROM changed) AS k(reef_id, zone_id, sensor_type, day)
+    WHERE k.reef_id IS NOT NULL AND k.day IS NOT NULL
+      AND EXISTS (SELECT 1 FROM coral_reefs c WHERE c.id = k.reef_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER sensor_data_rollup_update
+    AFTER UPDATE ON sensor_data
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION sensor_rollups_refresh_updated();
+
+CREATE TRIGGER sensor_data_rollup_delete
+    AFTER DELETE ON sensor_data
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION sensor_rollups_refresh_deleted();
@@ -0,0 +1,4 @@
+-- Composite indexes for per-reef time range aggregation
+
+CREATE INDEX idx_sensor_data_reef_id_timestamp ON sensor_data(reef_id, timestamp);
+CREATE INDEX idx_image_data_reef_id_capture_timestamp ON image_data(reef_id, capture_timestamp);
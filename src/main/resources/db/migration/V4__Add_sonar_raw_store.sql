@@ -0,0 +1,2 @@
+-- Link sonar surveys to the column store holding their raw ping returns
+ALTER TABLE sonar_data ADD COLUMN raw_store_path VARCHAR(500);
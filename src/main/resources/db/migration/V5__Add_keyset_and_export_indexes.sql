@@ -0,0 +1,4 @@
+-- Keyset pagination of reef listings and time-ordered sonar exports
+
+CREATE INDEX idx_coral_reefs_name_id ON coral_reefs(name, id);
+CREATE INDEX idx_sonar_data_reef_id_capture_timestamp ON sonar_data(reef_id, capture_timestamp);
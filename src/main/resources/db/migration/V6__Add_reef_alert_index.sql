@@ -0,0 +1,4 @@
+-- Partial index over reefs in alert, newest first, for the SQL alert read path
+
+CREATE INDEX idx_coral_reefs_alerts_updated_at ON coral_reefs(updated_at DESC, id DESC)
+    WHERE health_status IN ('POOR', 'CRITICAL') OR bleaching_risk_level >= 3;
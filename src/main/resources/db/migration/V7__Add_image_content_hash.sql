@@ -0,0 +1,5 @@
+-- Content-addressed image storage: SHA-256 of the stored object, used to deduplicate re-uploads
+
+ALTER TABLE image_data ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_image_data_content_hash ON image_data(content_hash);
@@ -0,0 +1,23 @@
+-- Durable analysis queue over image_data and sonar_data: rows are claimed with
+-- FOR UPDATE SKIP LOCKED and held under a lease; attempts bound retries and the
+-- owner/attempt pair fences results from a worker whose lease was recovered
+
+ALTER TABLE image_data
+    ADD COLUMN analysis_owner VARCHAR(100),
+    ADD COLUMN analysis_lease_until TIMESTAMP,
+    ADD COLUMN analysis_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN analysis_error TEXT,
+    ADD COLUMN processing_time_ms BIGINT;
+
+ALTER TABLE sonar_data
+    ADD COLUMN analysis_owner VARCHAR(100),
+    ADD COLUMN analysis_lease_until TIMESTAMP,
+    ADD COLUMN analysis_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN analysis_error TEXT,
+    ADD COLUMN processing_time_ms BIGINT;
+
+CREATE INDEX idx_image_data_analysis_queue ON image_data(created_at DESC, id)
+    WHERE analysis_status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_sonar_data_analysis_queue ON sonar_data(created_at DESC, id)
+    WHERE analysis_status IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,132 @@
+-- Serialises sensor rollup rebuilds against live ingestion.
+--
+-- Both functions take transaction-scoped advisory locks (class 7301, one key per
+-- day since 1970-01-01). The insert trigger takes them shared for the days its
+-- statement touches and the rebuild takes them exclusively for the days it
+-- rebuilds, in ascending order. A rebuild therefore waits for ingest
+-- transactions whose rows were already added to a bucket to commit, so it reads
+-- those rows; ingests arriving during a rebuild wait for it and then add on top.
+-- The rebuild replaces on conflict, so rerunning it is idempotent.
+
+CREATE OR REPLACE FUNCTION sensor_rollups_apply() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock_shared(7301, d.day)
+    FROM (SELECT DISTINCT n.timestamp::date - DATE '1970-01-01' AS day
+          FROM new_rows n
+          WHERE n.reef_id IS NOT NULL AND n.timestamp IS NOT NULL
+          ORDER BY 1) d;
+
+    INSERT INTO sensor_rollups AS r (
+        reef_id, zone_id, sensor_type, resolution, bucket_start, sample_count,
+        temperature_count, temperature_sum, temperature_min, temperature_max,
+        salinity_count, salinity_sum, salinity_min, salinity_max,
+        ph_count, ph_sum, ph_min, ph_max,
+        dissolved_oxygen_count, dissolved_oxygen_sum, dissolved_oxygen_min, dissolved_oxygen_max,
+        turbidity_count, turbidity_sum, turbidity_min, turbidity_max)
+    SELECT n.reef_id, COALESCE(n.zone_id, 0), n.sensor_type, res.resolution,
+           date_trunc(res.unit, n.timestamp), count(*),
+           count(n.temperature_celsius), COALESCE(sum(n.temperature_celsius), 0.0),
+           min(n.temperature_celsius), max(n.temperature_celsius),
+           count(n.salinity_ppt), COALESCE(sum(n.salinity_ppt), 0.0),
+           min(n.salinity_ppt), max(n.salinity_ppt),
+           count(n.ph_level), COALESCE(sum(n.ph_level), 0.0),
+           min(n.ph_level), max(n.ph_level),
+           count(n.dissolved_oxygen_mg_l), COALESCE(sum(n.dissolved_oxygen_mg_l), 0.0),
+           min(n.dissolved_oxygen_mg_l), max(n.dissolved_oxygen_mg_l),
+           count(n.turbidity_ntu), COALESCE(sum(n.turbidity_ntu), 0.0),
+           min(n.turbidity_ntu), max(n.turbidity_ntu)
+    FROM new_rows n
+    CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS res(resolution, unit)
+    WHERE n.reef_id IS NOT NULL AND n.timestamp IS NOT NULL
+    GROUP BY 1, 2, 3, 4, 5
+    ORDER BY 1, 2, 3, 4, 5
+    ON CONFLICT (reef_id, zone_id, sensor_type, resolution, bucket_start) DO UPDATE SET
+        sample_count = r.sample_count + EXCLUDED.sample_count,
+        temperature_count = r.temperature_count + EXCLUDED.temperature_count,
+        temperature_sum = r.temperature_sum + EXCLUDED.temperature_sum,
+        temperature_min = LEAST(r.temperature_min, EXCLUDED.temperature_min),
+        temperature_max = GREATEST(r.temperature_max, EXCLUDED.temperature_max),
+        salinity_count = r.salinity_count + EXCLUDED.salinity_count,
+        salinity_sum = r.salinity_sum + EXCLUDED.salinity_sum,
+        salinity_min = LEAST(r.salinity_min, EXCLUDED.salinity_min),
+        salinity_max = GREATEST(r.salinity_max, EXCLUDED.salinity_max),
+        ph_count = r.ph_count + EXCLUDED.ph_count,
+        ph_sum = r.ph_sum + EXCLUDED.ph_sum,
+        ph_min = LEAST(r.ph_min, EXCLUDED.ph_min),
+        ph_max = GREATEST(r.ph_max, EXCLUDED.ph_max),
+        dissolved_oxygen_count = r.dissolved_oxygen_count + EXCLUDED.dissolved_oxygen_count,
+        dissolved_oxygen_sum = r.dissolved_oxygen_sum + EXCLUDED.dissolved_oxygen_sum,
+        dissolved_oxygen_min = LEAST(r.dissolved_oxygen_min, EXCLUDED.dissolved_oxygen_min),
+        dissolved_oxygen_max = GREATEST(r.dissolved_oxygen_max, EXCLUDED.dissolved_oxygen_max),
+        turbidity_count = r.turbidity_count + EXCLUDED.turbidity_count,
+        turbidity_sum = r.turbidity_sum + EXCLUDED.turbidity_sum,
+        turbidity_min = LEAST(r.turbidity_min, EXCLUDED.turbidity_min),
+        turbidity_max = GREATEST(r.turbidity_max, EXCLUDED.turbidity_max),
+        updated_at = CURRENT_TIMESTAMP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rebuilds every bucket in [from_ts, to_ts) from the raw readings.
+-- Callers pass day-aligned bounds so that no bucket is only partially covered.
+CREATE OR REPLACE FUNCTION sensor_rollups_rebuild(from_ts TIMESTAMP, to_ts TIMESTAMP) RETURNS BIGINT AS $$
+DECLARE
+    rebuilt BIGINT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(7301, day)
+    FROM generate_series(from_ts::date - DATE '1970-01-01',
+                         (to_ts - INTERVAL '1 microsecond')::date - DATE '1970-01-01') AS day;
+
+    DELETE FROM sensor_rollups WHERE bucket_start >= from_ts AND bucket_start < to_ts;
+
+    INSERT INTO sensor_rollups (
+        reef_id, zone_id, sensor_type, resolution, bucket_start, sample_count,
+        temperature_count, temperature_sum, temperature_min, temperature_max,
+        salinity_count, salinity_sum, salinity_min, salinity_max,
+        ph_count, ph_sum, ph_min, ph_max,
+        dissolved_oxygen_count, dissolved_oxygen_sum, dissolved_oxygen_min, dissolved_oxygen_max,
+        turbidity_count, turbidity_sum, turbidity_min, turbidity_max)
+    SELECT s.reef_id, COALESCE(s.zone_id, 0), s.sensor_type, res.resolution,
+           date_trunc(res.unit, s.timestamp), count(*),
+           count(s.temperature_celsius), COALESCE(sum(s.temperature_celsius), 0.0),
+           min(s.temperature_celsius), max(s.temperature_celsius),
+           count(s.salinity_ppt), COALESCE(sum(s.salinity_ppt), 0.0),
+           min(s.salinity_ppt), max(s.salinity_ppt),
+           count(s.ph_level), COALESCE(sum(s.ph_level), 0.0),
+           min(s.ph_level), max(s.ph_level),
+           count(s.dissolved_oxygen_mg_l), COALESCE(sum(s.dissolved_oxygen_mg_l), 0.0),
+           min(s.dissolved_oxygen_mg_l), max(s.dissolved_oxygen_mg_l),
+           count(s.turbidity_ntu), COALESCE(sum(s.turbidity_ntu), 0.0),
+           min(s.turbidity_ntu), max(s.turbidity_ntu)
+    FROM sensor_data s
+    CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS res(resolution, unit)
+    WHERE s.reef_id IS NOT NULL AND s.timestamp >= from_ts AND s.timestamp < to_ts
+    GROUP BY 1, 2, 3, 4, 5
+    ON CONFLICT (reef_id, zone_id, sensor_type, resolution, bucket_start) DO UPDATE SET
+        sample_count = EXCLUDED.sample_count,
+        temperature_count = EXCLUDED.temperature_count,
+        temperature_sum = EXCLUDED.temperature_sum,
+        temperature_min = EXCLUDED.temperature_min,
+        temperature_max = EXCLUDED.temperature_max,
+        salinity_count = EXCLUDED.salinity_count,
+        salinity_sum = EXCLUDED.salinity_sum,
+        salinity_min = EXCLUDED.salinity_min,
+        salinity_max = EXCLUDED.salinity_max,
+        ph_count = EXCLUDED.ph_count,
+        ph_sum = EXCLUDED.ph_sum,
+        ph_min = EXCLUDED.ph_min,
+        ph_max = EXCLUDED.ph_max,
+        dissolved_oxygen_count = EXCLUDED.dissolved_oxygen_count,
+        dissolved_oxygen_sum = EXCLUDED.dissolved_oxygen_sum,
+        dissolved_oxygen_min = EXCLUDED.dissolved_oxygen_min,
+        dissolved_oxygen_max = EXCLUDED.dissolved_oxygen_max,
+        turbidity_count = EXCLUDED.turbidity_count,
+        turbidity_sum = EXCLUDED.turbidity_sum,
+        turbidity_min = EXCLUDED.turbidity_min,
+        turbidity_max = EXCLUDED.turbidity_max,
+        updated_at = CURRENT_TIMESTAMP;
+
+    GET DIAGNOSTICS rebuilt = ROW_COUNT;
+    RETURN rebuilt;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,47 @@
+package com.nautilux.alerting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeatStressAccumulatorTest {
+
+    private static final long DAY = 86_400_000_000L;
+    private static final long START = 20_000 * DAY;
+    private static final double MMM = 28.0;
+
+    // Only days whose mean is at least 1 C above the MMM count, each as (mean - MMM) / 7
+    @Test
+    void sumsHotSpotsOfAtLeastOneDegree() {
+        HeatStressAccumulator accumulator = new HeatStressAccumulator();
+        accumulator.add(START, 29.0);
+        accumulator.add(START + DAY / 2, 31.0);   // day mean 30.0, hotspot 2.0
+        accumulator.add(START + DAY, 28.5);       // hotspot 0.5, below 1 C
+        accumulator.add(START + 2 * DAY, 29.5);   // hotspot 1.5
+        assertEquals(3.5 / 7.0, accumulator.degreeHeatingWeeks(START + 2 * DAY, MMM), 1e-9);
+    }
+
+    @Test
+    void forgetsDaysOlderThanTwelveWeeks() {
+        HeatStressAccumulator accumulator = new HeatStressAccumulator();
+        accumulator.add(START, 35.0);
+        accumulator.add(START + DAY, 30.0);
+        long lastDayOfWindow = START + (HeatStressAccumulator.WINDOW_DAYS - 1) * DAY;
+        assertEquals(9.0 / 7.0, accumulator.degreeHeatingWeeks(lastDayOfWindow, MMM), 1e-9);
+        assertEquals(2.0 / 7.0, accumulator.degreeHeatingWeeks(lastDayOfWindow + DAY, MMM), 1e-9);
+
+        // The new day takes over the first day's slot
+        accumulator.add(START + HeatStressAccumulator.WINDOW_DAYS * DAY, 29.0);
+        assertEquals(3.0 / 7.0,
+            accumulator.degreeHeatingWeeks(START + HeatStressAccumulator.WINDOW_DAYS * DAY, MMM), 1e-9);
+    }
+
+    @Test
+    void ignoresReadingsOlderThanTheWindow() {
+        HeatStressAccumulator accumulator = new HeatStressAccumulator();
+        long today = START + HeatStressAccumulator.WINDOW_DAYS * DAY;
+        accumulator.add(today, 30.0);
+        accumulator.add(START, 40.0);   // same slot, 84 days earlier
+        assertEquals(2.0 / 7.0, accumulator.degreeHeatingWeeks(today, MMM), 1e-9);
+    }
+}
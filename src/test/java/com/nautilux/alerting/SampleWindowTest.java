@@ -0,0 +1,77 @@
+package com.nautilux.alerting;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleWindowTest {
+
+    @Test
+    void averagesWhatIsInsideTheWindow() {
+        SampleWindow window = new SampleWindow(4);
+        assertTrue(Double.isNaN(window.average()));
+        window.add(10, 1.0);
+        window.add(20, 2.0);
+        window.add(30, 6.0);
+        assertEquals(3.0, window.average(), 1e-9);
+
+        window.evictBefore(20);
+        assertEquals(2, window.size());
+        assertEquals(20, window.oldestTime());
+        assertEquals(2.0, window.oldestValue(), 1e-9);
+        assertEquals(30, window.newestTime());
+        assertEquals(4.0, window.average(), 1e-9);
+
+        window.evictBefore(31);
+        assertEquals(0, window.size());
+        assertTrue(Double.isNaN(window.average()));
+    }
+
+    // More samples than the initial capacity must not push older ones out of the mean
+    @Test
+    void growsInsteadOfDroppingSamples() {
+        SampleWindow window = new SampleWindow(2);
+        window.add(0, 100.0);
+        window.evictBefore(0);
+        double sum = 100.0;
+        for (int i = 1; i <= 9; i++) {
+            window.add(i, i);
+            sum += i;
+            // Evict nothing, but keep head off slot 0 so growing has to unwrap the ring
+            window.evictBefore(0);
+        }
+        assertEquals(10, window.size());
+        assertTrue(window.capacity() >= 10);
+        assertEquals(0, window.oldestTime());
+        assertEquals(100.0, window.oldestValue(), 1e-9);
+        assertEquals(9, window.newestTime());
+        assertEquals(sum / 10, window.average(), 1e-9);
+    }
+
+    @Test
+    void keepsOrderWhenGrowingAWrappedRing() {
+        SampleWindow window = new SampleWindow(3);
+        window.add(1, 1.0);
+        window.add(2, 2.0);
+        window.add(3, 3.0);
+        window.evictBefore(3);
+        window.add(4, 4.0);
+        window.add(5, 5.0);
+        window.add(6, 6.0);
+        assertEquals(4, window.size());
+        assertEquals(3, window.oldestTime());
+        assertEquals(6, window.newestTime());
+        assertEquals(4.5, window.average(), 1e-9);
+
+        window.evictBefore(5);
+        assertEquals(5, window.oldestTime());
+        assertEquals(5.5, window.average(), 1e-9);
+    }
+
+    @Test
+    void rejectsAnEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SampleWindow(0));
+    }
+}
@@ -0,0 +1,124 @@
+package com.nautilux.alerting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensorRuleEngineTest {
+
+    private static final long MINUTE = 60_000_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final double NONE = Double.NaN;
+
+    private final List<SensorAlert> alerts = new ArrayList<>();
+
+    private static AlertRules rules(double temperatureMax, double windowTemperatureMax, double temperatureRateMax) {
+        return new AlertRules(temperatureMax, NONE, windowTemperatureMax, temperatureRateMax, NONE, NONE,
+            30.0, 40.0, NONE, NONE, 5.0, NONE);
+    }
+
+    private static SensorRuleEngine engine(AlertRules rules) {
+        return new SensorRuleEngine(reefId -> rules, HOUR, 15 * MINUTE, 4);
+    }
+
+    private void temperature(SensorRuleEngine engine, long reefId, String sensorId, long time, double value) {
+        engine.evaluate(reefId, sensorId, time, value, NONE, NONE, NONE, NONE, alerts::add);
+    }
+
+    @Test
+    void firesOnceWhenAThresholdIsCrossedAndRearms() {
+        SensorRuleEngine engine = engine(rules(31.0, NONE, NONE));
+        temperature(engine, 1, "t1", 0, 30.0);
+        temperature(engine, 1, "t1", MINUTE, 31.5);
+        temperature(engine, 1, "t1", 2 * MINUTE, 32.0);
+        assertEquals(1, alerts.size());
+        SensorAlert alert = alerts.get(0);
+        assertEquals(AlertRule.TEMPERATURE_HIGH, alert.rule());
+        assertEquals(Long.valueOf(1), alert.reefId());
+        assertEquals("t1", alert.sensorId());
+        assertEquals(31.5, alert.value(), 1e-9);
+        assertEquals(31.0, alert.threshold(), 1e-9);
+
+        temperature(engine, 1, "t1", 3 * MINUTE, 31.0);   // at the threshold is within bounds
+        temperature(engine, 1, "t1", 4 * MINUTE, 31.2);
+        assertEquals(2, alerts.size());
+    }
+
+    @Test
+    void appliesLowerBoundsAndSkipsMissingValues() {
+        SensorRuleEngine engine = engine(rules(NONE, NONE, NONE));
+        engine.evaluate(1, "s1", 0, NONE, 29.0, NONE, 4.0, NONE, alerts::add);
+        engine.evaluate(1, "s1", MINUTE, NONE, NONE, NONE, NONE, NONE, alerts::add);
+        assertEquals(List.of(AlertRule.SALINITY_LOW, AlertRule.DISSOLVED_OXYGEN_LOW),
+            alerts.stream().map(SensorAlert::rule).toList());
+    }
+
+    // Two sensors on one reef must not average into one window or read as a rate of change
+    @Test
+    void keepsWindowsPerSensor() {
+        SensorRuleEngine engine = engine(rules(NONE, 30.0, 1.0));
+        for (long t = 0; t <= 30 * MINUTE; t += 5 * MINUTE) {
+            temperature(engine, 1, "shallow", t, 31.0);
+            temperature(engine, 1, "deep", t, 26.0);
+        }
+        assertEquals(2, engine.trackedSensors());
+        assertEquals(1, alerts.size());
+        assertEquals(AlertRule.TEMPERATURE_WINDOW_HIGH, alerts.get(0).rule());
+        assertEquals("shallow", alerts.get(0).sensorId());
+        assertEquals(31.0, alerts.get(0).value(), 1e-9);
+    }
+
+    // A sensor reporting every minute overflows the initial capacity; the mean still spans the hour
+    @Test
+    void averagesTheWholeWindowAtHighRates() {
+        SensorRuleEngine engine = engine(rules(NONE, 29.0, NONE));
+        for (long t = 0; t < 30 * MINUTE; t += MINUTE) {
+            temperature(engine, 1, "t1", t, 27.0);
+        }
+        for (long t = 30 * MINUTE; t < 50 * MINUTE; t += MINUTE) {
+            temperature(engine, 1, "t1", t, 31.0);
+        }
+        // 30 readings of 27 and 20 of 31 average 28.6; only the last few samples would be well above 29
+        assertTrue(alerts.isEmpty());
+        for (long t = 50 * MINUTE; t <= 60 * MINUTE; t += MINUTE) {
+            temperature(engine, 1, "t1", t, 31.0);
+        }
+        // 31 readings of 31 lift the hour's mean past the threshold
+        assertEquals(1, alerts.size());
+        assertEquals(AlertRule.TEMPERATURE_WINDOW_HIGH, alerts.get(0).rule());
+    }
+
+    @Test
+    void measuresTheRateOverTheMinimumSpan() {
+        SensorRuleEngine engine = engine(rules(NONE, NONE, 1.0));
+        temperature(engine, 1, "t1", 0, 27.0);
+        temperature(engine, 1, "t1", 5 * MINUTE, 28.0);   // 12 C/h, but over less than 15 minutes
+        assertTrue(alerts.isEmpty());
+        temperature(engine, 1, "t1", 30 * MINUTE, 28.0);  // 2 C/h over 30 minutes
+        assertEquals(1, alerts.size());
+        assertEquals(AlertRule.TEMPERATURE_RATE, alerts.get(0).rule());
+        assertEquals(2.0, alerts.get(0).value(), 1e-9);
+    }
+
+    @Test
+    void forgetsEverySensorOfADeletedReef() {
+        SensorRuleEngine engine = engine(rules(31.0, NONE, NONE));
+        temperature(engine, 1, "a", 0, 30.0);
+        temperature(engine, 1, "b", 0, 30.0);
+        temperature(engine, 1, null, 0, 30.0);
+        temperature(engine, 2, "a", 0, 30.0);
+        engine.forget(1);
+        assertEquals(1, engine.trackedSensors());
+    }
+
+    @Test
+    void rejectsAnEmptyWindow() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SensorRuleEngine(reefId -> rules(NONE, NONE, NONE), 0, 0, 4));
+    }
+}
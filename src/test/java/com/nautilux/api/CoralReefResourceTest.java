@@ -0,0 +1,120 @@
+package com.nautilux.api;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ReefZone;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/*
+ * The query-budgeted reef endpoints. The test profile runs the budget in fail mode,
+ * so a path that issues more statements than its @QueryBudget answers 500 here.
+ */
+@QuarkusTest
+class CoralReefResourceTest {
+
+    private static final String REEFS = "/api/v1/reefs";
+
+    private long reefId;
+
+    @BeforeEach
+    void createReef() {
+        reefId = create("Budget Reef " + UUID.randomUUID());
+        create("Budget Reef " + UUID.randomUUID());
+        create("Budget Reef " + UUID.randomUUID());
+        QuarkusTransaction.requiringNew().run(() -> {
+            CoralReef reef = CoralReef.findById(reefId);
+            addZone(reef, "Lagoon", ReefZone.ZoneType.LAGOON);
+            addZone(reef, "Crest", ReefZone.ZoneType.REEF_CREST);
+        });
+    }
+
+    @Test
+    void listsAnOffsetPage() {
+        given().queryParam("page", 0).queryParam("size", 2)
+            .when().get(REEFS)
+            .then().statusCode(200)
+            .body("size()", lessThanOrEqualTo(2));
+    }
+
+    @Test
+    void followsTheKeysetCursor() {
+        Response first = given().queryParam("size", 1).when().get(REEFS);
+        first.then().statusCode(200).body("size()", equalTo(1));
+        String cursor = first.header("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        Response second = given().queryParam("size", 1).queryParam("cursor", cursor).when().get(REEFS);
+        second.then().statusCode(200).body("size()", equalTo(1));
+        assertNotEquals(first.jsonPath().getLong("[0].id"), second.jsonPath().getLong("[0].id"));
+    }
+
+    @Test
+    void rejectsAMalformedCursor() {
+        given().queryParam("cursor", "not-a-cursor")
+            .when().get(REEFS)
+            .then().statusCode(400);
+    }
+
+    @Test
+    void includesZonesSortedByName() {
+        given().queryParam("include", "zones")
+            .when().get(REEFS + "/" + reefId)
+            .then().statusCode(200)
+            .body("id", equalTo((int) reefId))
+            .body("zones.name", contains("Crest", "Lagoon"));
+    }
+
+    @Test
+    void listsImagesOfAReef() {
+        given().when().get(REEFS + "/" + reefId + "/images")
+            .then().statusCode(200)
+            .body("$", empty());
+    }
+
+    @Test
+    void reportsHealth() {
+        given().when().get(REEFS + "/" + reefId + "/health")
+            .then().statusCode(200)
+            .body("reefId", equalTo((int) reefId))
+            .body("latestSensorData", hasSize(0));
+    }
+
+    @Test
+    void deletesAReefWithItsZones() {
+        given().when().delete(REEFS + "/" + reefId).then().statusCode(204);
+        given().when().get(REEFS + "/" + reefId).then().statusCode(404);
+        given().when().delete(REEFS + "/" + reefId).then().statusCode(404);
+    }
+
+    private static long create(String name) {
+        return given().contentType(ContentType.JSON)
+            .body(Map.of("name", name, "latitude", -18.29, "longitude", 147.7, "reefType", "BARRIER"))
+            .when().post(REEFS)
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+    }
+
+    private static void addZone(CoralReef reef, String name, ReefZone.ZoneType type) {
+        ReefZone zone = new ReefZone();
+        zone.name = name;
+        zone.zoneType = type;
+        zone.coralReef = reef;
+        zone.persist();
+    }
+}
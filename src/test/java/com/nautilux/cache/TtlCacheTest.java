@@ -0,0 +1,57 @@
+package com.nautilux.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Invalidations that land while a load is in flight; the loader stands in for the concurrent caller
+class TtlCacheTest {
+
+    private final TtlCache<Long, String> cache = new TtlCache<>("test", 16, Duration.ofMinutes(1));
+
+    @Test
+    void keepsALoadWhenAnotherKeyIsInvalidated() {
+        assertEquals("loaded", cache.get(1L, () -> {
+            cache.invalidate(2L);
+            return "loaded";
+        }));
+        assertEquals("loaded", cache.get(1L, () -> "reloaded"));
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void dropsALoadWhenItsKeyIsInvalidated() {
+        assertEquals("stale", cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get(1L, () -> "fresh"));
+        assertEquals("fresh", cache.get(1L, () -> "again"));
+    }
+
+    @Test
+    void dropsLoadsInFlightWhenEverythingIsInvalidated() {
+        cache.get(2L, () -> "other");
+        assertEquals("stale", cache.get(1L, () -> {
+            cache.invalidateAll();
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get(1L, () -> "fresh"));
+        assertEquals("reloaded", cache.get(2L, () -> "reloaded"));
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void leavesNothingBehindForNullOrFailedLoads() {
+        assertNull(cache.get(1L, () -> null));
+        assertThrows(IllegalStateException.class, () -> cache.get(2L, () -> {
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals("loaded", cache.get(2L, () -> "loaded"));
+    }
+}
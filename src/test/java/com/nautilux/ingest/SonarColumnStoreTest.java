@@ -0,0 +1,131 @@
+package com.nautilux.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Binary sonar file -> SonarColumnWriter -> mapped SonarColumnReader, full resolution and downsampled
+class SonarColumnStoreTest {
+
+    private static final int PINGS = 3;
+    private static final int BEAMS = 4;
+    private static final int SAMPLES = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Path store = writeStore();
+        try (SonarColumnReader reader = new SonarColumnReader(store)) {
+            assertEquals(PINGS, reader.pingCount());
+            for (int ping = 0; ping < PINGS; ping++) {
+                SonarColumnReader.PingInfo info = reader.ping(ping);
+                assertEquals(1000 + ping, info.pingNumber());
+                assertEquals(BEAMS, info.beamCount());
+                assertEquals(SAMPLES, info.samplesPerBeam());
+                assertEquals(1_700_000_000_000_000L + ping * 100_000L, info.timestampMicros());
+                assertEquals(-18.25, info.latitude(), 1e-9);
+
+                float[][] beams = reader.read(ping);
+                for (int beam = 0; beam < BEAMS; beam++) {
+                    float[] expected = new float[SAMPLES];
+                    for (int i = 0; i < SAMPLES; i++) {
+                        expected[i] = amplitude(ping, beam, i);
+                    }
+                    assertArrayEquals(expected, beams[beam], 1e-4f);
+                    assertArrayEquals(expected, reader.readBeam(ping, beam), 1e-4f);
+                }
+            }
+        }
+    }
+
+    @Test
+    void downsamplesByMaxPooling() throws IOException {
+        Path store = writeStore();
+        try (SonarColumnReader reader = new SonarColumnReader(store)) {
+            int bins = 7;
+            float[] oneBeam = new float[bins];
+            float[] allBeams = new float[bins];
+            Arrays.fill(oneBeam, Float.NEGATIVE_INFINITY);
+            Arrays.fill(allBeams, Float.NEGATIVE_INFINITY);
+            for (int beam = 0; beam < BEAMS; beam++) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    int bin = i * bins / SAMPLES;
+                    float value = amplitude(1, beam, i);
+                    allBeams[bin] = Math.max(allBeams[bin], value);
+                    if (beam == 2) {
+                        oneBeam[bin] = Math.max(oneBeam[bin], value);
+                    }
+                }
+            }
+            assertArrayEquals(oneBeam, reader.downsample(1, 2, bins), 1e-4f);
+            assertArrayEquals(allBeams, reader.downsample(1, -1, bins), 1e-4f);
+            assertEquals(SAMPLES, reader.downsample(1, 0, 10_000).length);
+        }
+    }
+
+    @Test
+    void rejectsBeamsOutsideThePing() throws IOException {
+        Path store = writeStore();
+        try (SonarColumnReader reader = new SonarColumnReader(store)) {
+            assertThrows(IllegalArgumentException.class, () -> reader.downsample(0, BEAMS, 10));
+            assertThrows(IllegalArgumentException.class, () -> reader.readBeam(0, BEAMS));
+            assertThrows(IllegalArgumentException.class, () -> reader.readBeam(0, -1));
+        }
+    }
+
+    private Path writeStore() throws IOException {
+        Path source = directory.resolve("survey.bin");
+        Files.write(source, sonarFile());
+        Path store = directory.resolve("survey.nxc");
+        SonarColumnWriter writer = new SonarColumnWriter(store);
+        new SonarBinaryDecoder().decode(source, writer);
+        writer.close();
+        return store;
+    }
+
+    // Distinct per ping, beam and sample, with negative values and steps wider than a byte
+    private static float amplitude(int ping, int beam, int sample) {
+        return SonarColumnWriter.quantize(-80.0 + ping * 3.5 + beam * 7.25 + (sample * 37 % 101) * 0.61) / 100.0f;
+    }
+
+    private static byte[] sonarFile() {
+        int record = SonarBinaryDecoder.PING_HEADER_BYTES + BEAMS * SAMPLES * 2;
+        ByteBuffer file = ByteBuffer.allocate(SonarBinaryDecoder.FILE_HEADER_BYTES + PINGS * record)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        file.putInt(SonarBinaryDecoder.FILE_MAGIC).putShort((short) 1).putShort((short) 0).putLong(0L);
+        for (int ping = 0; ping < PINGS; ping++) {
+            file.putInt(SonarBinaryDecoder.PING_MAGIC)
+                .putInt(record)
+                .putInt(1000 + ping)
+                .putShort((short) BEAMS)
+                .putShort((short) SonarBinaryDecoder.FORMAT_INT16_CENTI_DB)
+                .putLong(1_700_000_000_000_000L + ping * 100_000L)
+                .putDouble(-18.25)
+                .putDouble(147.5)
+                .putFloat(200_000f)
+                .putFloat(20_000f)
+                .putFloat(1500f)
+                .putFloat(0.2f)
+                .putFloat(1.5f)
+                .putInt(SAMPLES);
+            for (int beam = 0; beam < BEAMS; beam++) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    file.putShort((short) Math.round(amplitude(ping, beam, i) * 100.0f));
+                }
+            }
+        }
+        return file.array();
+    }
+}
@@ -0,0 +1,53 @@
+package com.nautilux.persistence;
+
+import com.nautilux.model.CoralReef;
+import com.nautilux.model.ReefZone;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The test profile runs the budget in fail mode, so walking a lazy collection must throw
+@QuarkusTest
+class QueryBudgetInterceptorTest {
+
+    @ApplicationScoped
+    static class LazyZones {
+
+        @Transactional
+        @QueryBudget(1)
+        public int count(Long reefId) {
+            CoralReef reef = CoralReef.findById(reefId);
+            return reef.reefZones.size();
+        }
+    }
+
+    @Inject
+    LazyZones lazyZones;
+
+    @Test
+    void lazyCollectionLoadExceedsTheBudget() {
+        Long reefId = QuarkusTransaction.requiringNew().call(() -> {
+            CoralReef reef = new CoralReef();
+            reef.name = "Lazy Reef";
+            reef.latitude = -16.5;
+            reef.longitude = 146.0;
+            reef.persist();
+            ReefZone zone = new ReefZone();
+            zone.name = "Forereef";
+            zone.zoneType = ReefZone.ZoneType.FOREREEF;
+            zone.coralReef = reef;
+            zone.persist();
+            return reef.id;
+        });
+
+        QueryBudgetExceededException e = assertThrows(QueryBudgetExceededException.class,
+            () -> lazyZones.count(reefId));
+        assertTrue(e.getMessage().contains("budget is 1"), e.getMessage());
+    }
+}
@@ -0,0 +1,190 @@
+package com.nautilux.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Batch health assessment against an in-process stub of the Ray service
+class RayServiceTest {
+
+    private record StubResponse(int status, Object body) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorProvider executorProvider;
+    private volatile Function<List<Long>, StubResponse> responder;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/assess/reef-health/batch", this::assessBatch);
+        server.start();
+
+        executorProvider = new ExecutorProvider();
+        executorProvider.virtualThreadsEnabled = true;
+        executorProvider.init();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        executorProvider.shutdown();
+    }
+
+    @Test
+    void splitsReefsIntoBatchesAndBoundsRequestsInFlight() {
+        responder = reefIds -> ok(reefIds.stream().map(RayServiceTest::assessment).toList(), List.of());
+        RayService rayService = rayService(100, 2);
+
+        RayService.BatchResult result = rayService.assessReefHealth(reefIds(1, 450));
+
+        assertEquals(5, batches.size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 100));
+        assertTrue(maxInFlight.get() <= 2, "at most 2 batches in flight, saw " + maxInFlight.get());
+        assertEquals(450, result.assessments().size());
+        assertTrue(result.failures().isEmpty());
+    }
+
+    @Test
+    void failedBatchFailsOnlyItsOwnReefs() {
+        responder = reefIds -> reefIds.contains(150L)
+            ? new StubResponse(500, Map.of("detail", "worker crashed"))
+            : ok(reefIds.stream().map(RayServiceTest::assessment).toList(), List.of());
+        RayService rayService = rayService(100, 4);
+
+        RayService.BatchResult result = rayService.assessReefHealth(reefIds(1, 300));
+
+        assertEquals(200, result.assessments().size());
+        assertEquals(100, result.failures().size());
+        for (long reefId = 101; reefId <= 200; reefId++) {
+            assertEquals("HTTP 500", result.failures().get(reefId));
+        }
+        assertEquals(300, result.requested());
+    }
+
+    @Test
+    void partialResponseReportsMissingErroredAndMalformedReefs() {
+        responder = reefIds -> {
+            List<Object> results = new ArrayList<>();
+            for (Long reefId : reefIds) {
+                if (reefId == 2) {
+                    continue;
+                }
+                Map<String, Object> assessment = assessment(reefId);
+                if (reefId == 3) {
+                    assessment.put("healthStatus", "SPLENDID");
+                } else if (reefId == 4) {
+                    assessment.put("healthScore", "high");
+                }
+                if (reefId != 5) {
+                    results.add(assessment);
+                }
+            }
+            return ok(results, List.of(Map.of("reefId", 5, "error", "no recent imagery")));
+        };
+        RayService rayService = rayService(100, 1);
+
+        RayService.BatchResult result = rayService.assessReefHealth(reefIds(1, 6));
+
+        assertEquals(List.of(1L, 6L), result.assessments().keySet().stream().sorted().toList());
+        assertEquals("Missing from Ray response", result.failures().get(2L));
+        assertEquals("Invalid healthStatus: SPLENDID", result.failures().get(3L));
+        assertEquals("Invalid healthScore: high", result.failures().get(4L));
+        assertEquals("no recent imagery", result.failures().get(5L));
+        assertEquals(6, result.requested());
+    }
+
+    @Test
+    void malformedBodyFailsTheBatch() {
+        responder = reefIds -> new StubResponse(200, "not json");
+        RayService rayService = rayService(10, 1);
+
+        RayService.BatchResult result = rayService.assessReefHealth(reefIds(1, 3));
+
+        assertTrue(result.assessments().isEmpty());
+        assertEquals(3, result.failures().size());
+        assertTrue(result.failures().get(1L).startsWith("Malformed Ray response"));
+    }
+
+    private RayService rayService(int batchSize, int maxInFlight) {
+        RayService rayService = new RayService();
+        rayService.objectMapper = objectMapper;
+        rayService.executorProvider = executorProvider;
+        rayService.registry = new SimpleMeterRegistry();
+        rayService.serviceUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        rayService.timeoutMillis = 5_000;
+        rayService.batchSize = batchSize;
+        rayService.maxInFlight = maxInFlight;
+        rayService.init();
+        return rayService;
+    }
+
+    private void assessBatch(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try (InputStream body = exchange.getRequestBody()) {
+            List<Long> reefIds = new ArrayList<>();
+            objectMapper.readTree(body).path("reefIds").forEach(id -> reefIds.add(id.asLong()));
+            batches.add(reefIds);
+            // Long enough that a window wider than max-in-flight would show up
+            Thread.sleep(20);
+            StubResponse response = responder.apply(reefIds);
+            byte[] bytes = response.body() instanceof String text ? text.getBytes(StandardCharsets.UTF_8)
+                : objectMapper.writeValueAsBytes(response.body());
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static StubResponse ok(List<?> results, List<?> errors) {
+        return new StubResponse(200, Map.of("results", results, "errors", errors));
+    }
+
+    private static Map<String, Object> assessment(long reefId) {
+        Map<String, Object> assessment = new LinkedHashMap<>();
+        assessment.put("reefId", reefId);
+        assessment.put("healthScore", 72.5);
+        assessment.put("healthStatus", "GOOD");
+        assessment.put("bleachingRiskLevel", 1);
+        assessment.put("biodiversityIndex", 3.1);
+        return assessment;
+    }
+
+    private static List<Long> reefIds(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+}